@@ -0,0 +1,123 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the results of a benchmark run with a stored baseline. Both are JMH result files in JSON format, i.e. a
+ * baseline is just the result file of an earlier run.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BaselineComparison {
+
+    private BaselineComparison() {
+        // utility class
+    }
+
+    /**
+     * Reads the scores from a JMH result file.
+     *
+     * @param jmhResult the JSON result file
+     * @return the scores by benchmark name and parameters, e.g.
+     *         <code>...LayeredLayoutBenchmark.minimizeCrossings[m_nodeCount=100]</code>
+     * @throws IOException if the file cannot be read
+     */
+    static Map<String, Double> readScores(final File jmhResult) throws IOException {
+        final Map<String, Double> scores = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(jmhResult)) {
+            final StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            final JsonNode params = result.path("params");
+            if (params.size() > 0) {
+                // sorted, so that the key doesn't depend on the order of the parameters
+                final Map<String, String> sortedParams = new TreeMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext();) {
+                    final Map.Entry<String, JsonNode> param = it.next();
+                    sortedParams.put(param.getKey(), param.getValue().asText());
+                }
+                key.append(sortedParams.toString().replace('{', '[').replace('}', ']'));
+            }
+            scores.put(key.toString(), result.path("primaryMetric").path("score").asDouble());
+        }
+        return scores;
+    }
+
+    /**
+     * Determines the benchmarks that got slower by more than the tolerance. The scores are times per operation, i.e.
+     * larger is slower. Benchmarks that are only contained in one of the two are ignored.
+     *
+     * @param baseline the scores of the baseline
+     * @param current the scores of the current run
+     * @param tolerance the relative slow-down that is tolerated, e.g. 0.25 for 25%
+     * @return a description of each regression, empty if there are none
+     */
+    static List<String> findRegressions(final Map<String, Double> baseline, final Map<String, Double> current,
+        final double tolerance) {
+        final List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> e : current.entrySet()) {
+            final Double before = baseline.get(e.getKey());
+            if (before == null || before <= 0) {
+                continue;
+            }
+            final double change = e.getValue() / before - 1;
+            if (change > tolerance) {
+                regressions.add(String.format("%s: %.3f -> %.3f (%+.0f%%)", e.getKey(), before, e.getValue(),
+                    change * 100));
+            }
+        }
+        return regressions;
+    }
+}
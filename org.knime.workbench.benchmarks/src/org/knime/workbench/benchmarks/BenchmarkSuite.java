@@ -0,0 +1,213 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.benchmarks;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.URIUtil;
+import org.junit.Test;
+import org.knime.core.node.NodeLogger;
+import org.knime.workbench.repository.nodalizer.NodalizerJsonBenchmark;
+import org.knime.workbench.repository.view.RepositoryFilterBenchmark;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs all workbench benchmarks and compares the results with a baseline. Run it with
+ * <code>mvn verify -Pbenchmarks</code>; add <code>-Dknime.benchmark.updateBaseline=true</code> to store the results as
+ * the new baseline instead. No baseline is checked in, since the results depend on the machine; the first run on a
+ * machine (e.g. the benchmark build job) has to store one.
+ *
+ * <p>
+ * Benchmarks of plain Java code run in forked JVMs, as recommended by JMH, on a class path of just the code they need.
+ * Benchmarks that need the running platform (e.g. the workspace, the display or the node repository) can't be forked
+ * and run inside the test runtime; their results are more affected by the benchmarks run before them (e.g. by
+ * profile pollution), hence they should only be compared with baselines recorded the same way. For comparable results
+ * the warm-up and measurement iterations are fixed and all benchmark data is generated from fixed seeds.
+ *
+ * <p>
+ * Recognized system properties:
+ * <ul>
+ * <li><code>knime.benchmark.result</code>: the JMH result file (JSON) to write</li>
+ * <li><code>knime.benchmark.baseline</code>: the result file of an earlier run to compare with</li>
+ * <li><code>knime.benchmark.tolerance</code>: the relative slow-down that is not regarded as a regression
+ * (default 0.25)</li>
+ * <li><code>knime.benchmark.updateBaseline</code>: if <code>true</code>, the baseline is replaced by the results</li>
+ * </ul>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class BenchmarkSuite {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BenchmarkSuite.class);
+
+    /** Benchmarks of plain Java code, run in forked JVMs. */
+    private static final Class<?>[] FORKED_BENCHMARKS = {LayeredLayoutBenchmark.class};
+
+    /**
+     * Resources (i.e. classes) whose class path entries make up the class path of the forked JVMs: the benchmarks
+     * (including the code generated by JMH), the code they measure, JMH and its dependencies.
+     */
+    private static final String[] FORKED_CLASS_PATH = {"org/knime/workbench/benchmarks/LayeredLayoutBenchmark.class",
+        "org/knime/workbench/ui/layout/Graph.class", "org/openjdk/jmh/runner/ForkedMain.class",
+        "joptsimple/OptionParser.class", "org/apache/commons/math3/stat/descriptive/StatisticalSummary.class"};
+
+    /** Benchmarks that need the running platform, run in this JVM. */
+    private static final Class<?>[] IN_PROCESS_BENCHMARKS = {RepositoryFilterBenchmark.class,
+        LocalWorkspaceListingBenchmark.class, NodalizerJsonBenchmark.class, FigurePaintBenchmark.class};
+
+    private static final int FORKS = 2;
+
+    /** The same as for the test runtime, see pom.xml. */
+    private static final String[] FORKED_JVM_ARGS = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"};
+
+    /**
+     * Runs the benchmarks and checks them against the baseline.
+     *
+     * @throws Exception if running the benchmarks fails
+     */
+    @Test
+    public void runBenchmarks() throws Exception {
+        final File result = new File(System.getProperty("knime.benchmark.result", "target/jmh-result.json"));
+        result.getAbsoluteFile().getParentFile().mkdirs();
+
+        final List<RunResult> results = new ArrayList<>();
+        results.addAll(runForked());
+        results.addAll(new Runner(options(IN_PROCESS_BENCHMARKS).forks(0).build()).run());
+        try (PrintStream out = new PrintStream(result, "UTF-8")) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+
+        final String baselineProperty = System.getProperty("knime.benchmark.baseline");
+        if (baselineProperty == null) {
+            return;
+        }
+        final File baseline = new File(baselineProperty);
+        if (Boolean.getBoolean("knime.benchmark.updateBaseline")) {
+            baseline.getAbsoluteFile().getParentFile().mkdirs();
+            Files.copy(result.toPath(), baseline.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Stored benchmark results as new baseline " + baseline);
+        } else if (!baseline.isFile()) {
+            LOGGER.warn("No benchmark baseline at " + baseline + ", results are not compared; store one with "
+                + "-Dknime.benchmark.updateBaseline=true");
+        } else {
+            final double tolerance = Double.parseDouble(System.getProperty("knime.benchmark.tolerance", "0.25"));
+            final List<String> regressions = BaselineComparison.findRegressions(
+                BaselineComparison.readScores(baseline), BaselineComparison.readScores(result), tolerance);
+            assertTrue("Benchmarks slower than the baseline " + baseline + ":\n" + String.join("\n", regressions),
+                regressions.isEmpty());
+        }
+    }
+
+    private static ChainedOptionsBuilder options(final Class<?>... benchmarks) {
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+            .threads(1)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .shouldFailOnError(true);
+        for (Class<?> benchmark : benchmarks) {
+            options.include("^" + Pattern.quote(benchmark.getName()) + "\\.");
+        }
+        return options;
+    }
+
+    private static List<RunResult> runForked() throws Exception {
+        final List<String> classPath = new ArrayList<>();
+        for (String resource : FORKED_CLASS_PATH) {
+            final String entry = getClassPathEntry(resource);
+            if (!classPath.contains(entry)) {
+                classPath.add(entry);
+            }
+        }
+        // JMH starts the forked JVMs with the class path of this JVM, which only contains the OSGi framework
+        final String originalClassPath = System.getProperty("java.class.path");
+        System.setProperty("java.class.path", String.join(File.pathSeparator, classPath));
+        try {
+            return new ArrayList<>(
+                new Runner(options(FORKED_BENCHMARKS).forks(FORKS).jvmArgs(FORKED_JVM_ARGS).build()).run());
+        } finally {
+            System.setProperty("java.class.path", originalClassPath);
+        }
+    }
+
+    /**
+     * @param resource a resource visible to this bundle, e.g. a class file
+     * @return the directory or jar file that contains the resource
+     */
+    private static String getClassPathEntry(final String resource) throws IOException {
+        final URL url = BenchmarkSuite.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IOException("Resource " + resource + " not found");
+        }
+        // either jar:file:/.../x.jar!/resource or file:/.../resource
+        final String location = FileLocator.resolve(url).toString();
+        final String root = location.startsWith("jar:") ? location.substring(4, location.lastIndexOf("!/"))
+            : location.substring(0, location.length() - resource.length());
+        try {
+            return URIUtil.toFile(URIUtil.toURI(new URL(root))).getAbsolutePath();
+        } catch (Exception e) {
+            throw new IOException("Unsupported location of " + resource + ": " + location, e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.draw2d.ChopboxAnchor;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.ScaledGraphics;
+import org.eclipse.draw2d.XYLayout;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.knime.core.node.NodeFactory.NodeType;
+import org.knime.workbench.editor2.figures.CurvedPolylineConnection;
+import org.knime.workbench.editor2.figures.LevelOfDetail;
+import org.knime.workbench.editor2.figures.NodeContainerFigure;
+import org.knime.workbench.ui.preferences.PreferenceConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures painting a synthetic workflow (a grid of nodes connected by curved connections) into an off-screen image
+ * at different zoom levels, once with full detail and once with the simplified rendering of {@link LevelOfDetail}.
+ *
+ * <p>
+ * SWT resources may only be used in the thread that created the display. The state is therefore per benchmark thread
+ * and, if there is no display yet, the trial setup creates one in that thread.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class FigurePaintBenchmark {
+
+    private static final int NODES_PER_ROW = 25;
+
+    private static final int NODE_DISTANCE = 120;
+
+    /** The number of nodes in the workflow. */
+    @Param({"1000"})
+    public int m_nodeCount;
+
+    /** The zoom factor. */
+    @Param({"0.25", "0.5", "1.0"})
+    public double m_zoom;
+
+    /** Whether the simplified rendering is enabled (with the default thresholds). */
+    @Param({"false", "true"})
+    public boolean m_levelOfDetail;
+
+    private Display m_createdDisplay;
+
+    private IFigure m_workflow;
+
+    private Image m_image;
+
+    /**
+     * Creates the workflow figure and the image it is painted into.
+     */
+    @Setup
+    public void setup() {
+        Display display = Display.getCurrent();
+        if (display == null) {
+            m_createdDisplay = new Display();
+            display = m_createdDisplay;
+        }
+        if (m_levelOfDetail) {
+            LevelOfDetail.setThresholds(PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM_DEFAULT / 100.0,
+                PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM_DEFAULT / 100.0);
+        } else {
+            LevelOfDetail.setThresholds(0, 0);
+        }
+        m_workflow = createWorkflow(m_nodeCount);
+        final Dimension size = m_workflow.getBounds().getSize().scale(m_zoom);
+        m_image = new Image(display, Math.max(size.width, 1), Math.max(size.height, 1));
+    }
+
+    /**
+     * Disposes the figures, the image and, if created by the setup, the display.
+     */
+    @TearDown
+    public void tearDown() {
+        for (Object child : m_workflow.getChildren()) {
+            if (child instanceof NodeContainerFigure) {
+                ((NodeContainerFigure)child).figureIsBeingDisposed();
+            }
+        }
+        m_image.dispose();
+        LevelOfDetail.setThresholds(PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM_DEFAULT / 100.0,
+            PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM_DEFAULT / 100.0);
+        if (m_createdDisplay != null) {
+            m_createdDisplay.dispose();
+            m_createdDisplay = null;
+        }
+    }
+
+    /**
+     * Paints one frame.
+     *
+     * @return the image
+     */
+    @Benchmark
+    public Object paintFrame() {
+        final GC gc = new GC(m_image);
+        final SWTGraphics swtGraphics = new SWTGraphics(gc);
+        final ScaledGraphics graphics = new ScaledGraphics(swtGraphics);
+        try {
+            graphics.scale(m_zoom);
+            m_workflow.paint(graphics);
+        } finally {
+            graphics.dispose();
+            swtGraphics.dispose();
+            gc.dispose();
+        }
+        return m_image;
+    }
+
+    private static IFigure createWorkflow(final int nodeCount) {
+        final Figure workflow = new Figure();
+        workflow.setLayoutManager(new XYLayout());
+        final List<NodeContainerFigure> nodes = new ArrayList<>(nodeCount);
+        final NodeType[] types = NodeType.values();
+        for (int i = 0; i < nodeCount; i++) {
+            final NodeContainerFigure node = new NodeContainerFigure(null);
+            node.setType(types[i % types.length]);
+            node.setLabelText("Node " + i);
+            workflow.add(node, new Rectangle((i % NODES_PER_ROW) * NODE_DISTANCE,
+                (i / NODES_PER_ROW) * NODE_DISTANCE, -1, -1));
+            nodes.add(node);
+        }
+        for (int i = 1; i < nodeCount; i++) {
+            final CurvedPolylineConnection connection = new CurvedPolylineConnection(true);
+            connection.setSourceAnchor(new ChopboxAnchor(nodes.get(i - 1).getSymbolFigure()));
+            connection.setTargetAnchor(new ChopboxAnchor(nodes.get(i).getSymbolFigure()));
+            workflow.add(connection);
+        }
+        final int rows = (nodeCount + NODES_PER_ROW - 1) / NODES_PER_ROW;
+        workflow.setBounds(new Rectangle(0, 0, NODES_PER_ROW * NODE_DISTANCE, rows * NODE_DISTANCE));
+        workflow.validate();
+        return workflow;
+    }
+}
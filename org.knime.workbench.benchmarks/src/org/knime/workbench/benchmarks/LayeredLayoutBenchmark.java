@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.workbench.ui.layout.Graph;
+import org.knime.workbench.ui.layout.Graph.Edge;
+import org.knime.workbench.ui.layout.Graph.Node;
+import org.knime.workbench.ui.layout.layeredlayout.CrossingMinimizer;
+import org.knime.workbench.ui.layout.layeredlayout.VerticalCoordinateAssigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the two expensive phases of the layered workflow layout, {@link CrossingMinimizer} and
+ * {@link VerticalCoordinateAssigner}, on generated, already layered graphs (every edge connects two neighboring
+ * layers, so no dummy nodes are needed). The graphs are generated from a fixed seed.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LayeredLayoutBenchmark {
+
+    private static final int LAYER_COUNT = 20;
+
+    /** The number of nodes in the graph. */
+    @Param({"100", "1000"})
+    public int m_nodeCount;
+
+    private Graph m_graph;
+
+    private ArrayList<ArrayList<Node>> m_layers;
+
+    /**
+     * Creates a new graph for each invocation since the crossing minimization reorders the layers.
+     */
+    @Setup(Level.Invocation)
+    public void setup() {
+        final Random random = new Random(42);
+        m_graph = new Graph();
+        m_layers = new ArrayList<>(LAYER_COUNT);
+        final int width = Math.max(1, m_nodeCount / LAYER_COUNT);
+        for (int l = 0; l < LAYER_COUNT; l++) {
+            final ArrayList<Node> layer = new ArrayList<>(width);
+            for (int i = 0; i < width; i++) {
+                layer.add(m_graph.createNode("n" + l + "_" + i, l, i));
+            }
+            m_layers.add(layer);
+        }
+        for (int l = 1; l < LAYER_COUNT; l++) {
+            final ArrayList<Node> previous = m_layers.get(l - 1);
+            for (Node target : m_layers.get(l)) {
+                // one to three inputs, like the typical node
+                final int inputs = 1 + random.nextInt(3);
+                for (int i = 0; i < inputs; i++) {
+                    final Node source = previous.get(random.nextInt(previous.size()));
+                    if (!m_graph.containsEdge(source, target)) {
+                        m_graph.createEdge(source, target);
+                    }
+                }
+            }
+        }
+        // random initial order, as done by the layouter
+        for (int l = 0; l < LAYER_COUNT; l++) {
+            final ArrayList<Node> layer = m_layers.get(l);
+            Collections.shuffle(layer, random);
+            for (int i = 0; i < layer.size(); i++) {
+                m_graph.setCoordinates(layer.get(i), l, i);
+            }
+        }
+    }
+
+    /**
+     * Runs the crossing minimization.
+     *
+     * @return the layers
+     */
+    @Benchmark
+    public Object minimizeCrossings() {
+        new CrossingMinimizer(m_graph, m_layers, null, null).run();
+        return m_layers;
+    }
+
+    /**
+     * Runs the vertical coordinate assignment.
+     *
+     * @return the graph
+     */
+    @Benchmark
+    public Object assignVerticalCoordinates() {
+        final VerticalCoordinateAssigner assigner =
+            new VerticalCoordinateAssigner(m_graph, m_layers, new ArrayList<Node>(), new ArrayList<Edge>());
+        assigner.run();
+        return m_graph;
+    }
+}
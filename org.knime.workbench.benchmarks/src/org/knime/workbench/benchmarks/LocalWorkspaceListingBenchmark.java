@@ -0,0 +1,145 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.knime.core.node.workflow.WorkflowPersistor;
+import org.knime.core.util.FileUtil;
+import org.knime.workbench.explorer.filesystem.AbstractExplorerFileInfo;
+import org.knime.workbench.explorer.filesystem.AbstractExplorerFileStore;
+import org.knime.workbench.explorer.localworkspace.LocalWorkspaceFileStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures listing a workflow group in the local workspace the way the KNIME Explorer does: the (filtered) child
+ * names and, for each child, whether it is a workflow or a workflow group. The workspace content is generated into a
+ * folder of the current workspace and removed afterwards.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LocalWorkspaceListingBenchmark {
+
+    private static final String GROUP_NAME = "knime-benchmark-workspace";
+
+    /** The number of children in the listed workflow group. */
+    @Param({"100", "1000"})
+    public int m_childCount;
+
+    private File m_groupDir;
+
+    private LocalWorkspaceFileStore m_group;
+
+    /**
+     * Creates a workflow group with every fifth child a workflow group and all others workflows.
+     *
+     * @throws IOException if the content cannot be written
+     */
+    @Setup
+    public void setup() throws IOException {
+        final File workspace = ResourcesPlugin.getWorkspace().getRoot().getLocation().toFile();
+        m_groupDir = new File(workspace, GROUP_NAME);
+        FileUtil.deleteRecursively(m_groupDir);
+        for (int i = 0; i < m_childCount; i++) {
+            final File child = new File(m_groupDir, String.format("child %04d", i));
+            if (!child.mkdirs()) {
+                throw new IOException("Could not create " + child);
+            }
+            if (i % 5 == 0) {
+                Files.write(new File(child, WorkflowPersistor.METAINFO_FILE).toPath(), new byte[0]);
+            } else {
+                Files.write(new File(child, WorkflowPersistor.WORKFLOW_FILE).toPath(), new byte[0]);
+            }
+        }
+        m_group = new LocalWorkspaceFileStore("LOCAL", "/" + GROUP_NAME);
+    }
+
+    /**
+     * Removes the generated content.
+     */
+    @TearDown
+    public void tearDown() {
+        FileUtil.deleteRecursively(m_groupDir);
+    }
+
+    /**
+     * Lists the workflow group.
+     *
+     * @return the number of workflows found
+     * @throws CoreException if the listing fails
+     */
+    @Benchmark
+    public int listChildren() throws CoreException {
+        int workflows = 0;
+        for (String name : m_group.childNames(EFS.NONE, null)) {
+            final AbstractExplorerFileStore child = m_group.getChild(name);
+            final AbstractExplorerFileInfo info = child.fetchInfo();
+            if (info.isWorkflow()) {
+                workflows++;
+            } else if (!info.isWorkflowGroup()) {
+                throw new IllegalStateException("Unexpected child " + name);
+            }
+        }
+        return workflows;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.repository.nodalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Measures the JSON serialization of {@link NodeInfo}s as done by the {@link Nodalizer}, once with a new
+ * {@link ObjectMapper} per node (as the Nodalizer writes its files) and once with a shared one. The node infos are
+ * generated from a fixed seed.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class NodalizerJsonBenchmark {
+
+    private static final int NODE_COUNT = 100;
+
+    private List<NodeInfo> m_nodeInfos;
+
+    private ObjectMapper m_mapper;
+
+    /**
+     * Creates the node infos and the shared mapper.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        m_nodeInfos = new ArrayList<>(NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            m_nodeInfos.add(createNodeInfo(i, random));
+        }
+        m_mapper = createMapper();
+    }
+
+    /**
+     * Serializes all node infos with a new mapper each.
+     *
+     * @return the total length of the JSON
+     * @throws JsonProcessingException if the serialization fails
+     */
+    @Benchmark
+    public int serializeWithNewMapper() throws JsonProcessingException {
+        int length = 0;
+        for (NodeInfo info : m_nodeInfos) {
+            length += createMapper().writeValueAsString(info).length();
+        }
+        return length;
+    }
+
+    /**
+     * Serializes all node infos with the same mapper.
+     *
+     * @return the total length of the JSON
+     * @throws JsonProcessingException if the serialization fails
+     */
+    @Benchmark
+    public int serializeWithSharedMapper() throws JsonProcessingException {
+        int length = 0;
+        for (NodeInfo info : m_nodeInfos) {
+            length += m_mapper.writeValueAsString(info).length();
+        }
+        return length;
+    }
+
+    /** Configured the same way as in {@link Nodalizer}. */
+    private static ObjectMapper createMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(Include.NON_ABSENT);
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        return mapper;
+    }
+
+    private static NodeInfo createNodeInfo(final int index, final Random random) {
+        final NodeInfo info = new NodeInfo();
+        info.setTitle("Node " + index);
+        info.setPath(Arrays.asList("/analytics", "/analytics/category" + random.nextInt(20)));
+        info.setFactoryName("org.knime.benchmark.Node" + index + "Factory");
+        info.setDescription(text(random, 80));
+        final List<DialogOptionGroup> dialog = new ArrayList<>();
+        for (int g = 0; g < 3; g++) {
+            final List<NamedField> fields = new ArrayList<>();
+            for (int f = 0; f < 5; f++) {
+                fields.add(new NamedField("Option " + f, text(random, 20)));
+            }
+            dialog.add(new DialogOptionGroup("Section " + g, text(random, 10), fields));
+        }
+        info.setDialog(dialog);
+        info.setViews(Arrays.asList(new NamedField("View", text(random, 15))));
+        info.setIcon("data:image/png;base64," + text(random, 30).replace(' ', '+'));
+        info.setNodeType("Manipulator");
+        info.setStreamable(random.nextBoolean());
+        info.setInPorts(new PortInfo[]{new PortInfo("Input table", text(random, 10), false, "Data", "000000")});
+        info.setOutPorts(new PortInfo[]{new PortInfo("Output table", text(random, 10), false, "Data", "000000"),
+            new PortInfo("Model", text(random, 10), true, "PMML", "2c6cbf")});
+        return info;
+    }
+
+    private static String text(final Random random, final int words) {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            final int length = 2 + random.nextInt(9);
+            for (int c = 0; c < length; c++) {
+                text.append((char)('a' + random.nextInt(26)));
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.repository.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.workbench.repository.model.AbstractRepositoryObject;
+import org.knime.workbench.repository.model.Category;
+import org.knime.workbench.repository.model.IContainerObject;
+import org.knime.workbench.repository.model.IRepositoryObject;
+import org.knime.workbench.repository.model.NodeTemplate;
+import org.knime.workbench.repository.model.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures how long it takes to filter the node repository while the user types into the search box, for the plain
+ * {@link TextualViewFilter} (as {@link RepositoryViewFilter}) and the fuzzy {@link TanimotoTextualViewFilter}. The
+ * repository is a synthetic one of {@value #NODE_COUNT} nodes, generated from a fixed seed.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RepositoryFilterBenchmark {
+
+    /** The number of nodes in the synthetic repository. */
+    public static final int NODE_COUNT = 20000;
+
+    private static final int TOP_LEVEL_CATEGORIES = 40;
+
+    private static final int SUB_CATEGORIES = 10;
+
+    private static final String PLUGIN = "org.knime.workbench.benchmarks";
+
+    private static final String[] WORDS = {"Column", "Row", "Filter", "Table", "Joiner", "Group", "By", "Pivot",
+        "Reader", "Writer", "String", "Math", "Rule", "Engine", "Learner", "Predictor", "Tree", "Random", "Forest",
+        "Cluster", "Image", "Text", "Chart", "Database", "File", "JSON", "XML", "Loop", "Start", "End", "Sorter",
+        "Splitter", "Concatenate", "Partitioning", "Normalizer", "Missing", "Value", "Regression", "Network"};
+
+    /** The filter implementation to measure. */
+    @Param({"textual", "tanimoto"})
+    public String m_filterType;
+
+    /** The query: a frequent match, a rare match with a typo and one without any match. */
+    @Param({"column", "gropu by", "xyzzy"})
+    public String m_query;
+
+    private Root m_root;
+
+    private TextualViewFilter m_filter;
+
+    /**
+     * Creates the repository and the filter.
+     */
+    @Setup
+    public void setup() {
+        m_root = createRepository(new Random(42));
+        m_filter = "tanimoto".equals(m_filterType) ? new TanimotoTextualViewFilter() : new RepositoryViewFilter();
+        m_filter.setQueryString(m_query);
+    }
+
+    /**
+     * Filters the whole repository the way the (fully expanded) repository tree does.
+     *
+     * @return the number of selected elements
+     */
+    @Benchmark
+    public int filterRepository() {
+        return filter(m_root);
+    }
+
+    private int filter(final IContainerObject parent) {
+        int selected = 0;
+        for (IRepositoryObject child : parent.getChildren()) {
+            if (m_filter.select(null, parent, child)) {
+                selected++;
+                if (child instanceof IContainerObject) {
+                    selected += filter((IContainerObject)child);
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Creates a repository of {@value #NODE_COUNT} nodes in two levels of categories.
+     *
+     * @param random the source of the names
+     * @return the repository's root
+     */
+    static Root createRepository(final Random random) {
+        final Root root = new Root();
+        final int nodesPerCategory = NODE_COUNT / (TOP_LEVEL_CATEGORIES * SUB_CATEGORIES);
+        int nodeIndex = 0;
+        for (int i = 0; i < TOP_LEVEL_CATEGORIES; i++) {
+            final Category category = new Category("cat" + i, randomName(random, 1), PLUGIN);
+            root.addChild(category);
+            for (int j = 0; j < SUB_CATEGORIES; j++) {
+                final Category subCategory = new Category("cat" + i + "_" + j, randomName(random, 2), PLUGIN);
+                final List<AbstractRepositoryObject> nodes = new ArrayList<>(nodesPerCategory);
+                for (int k = 0; k < nodesPerCategory; k++) {
+                    nodes.add(new SyntheticNodeTemplate("node" + nodeIndex++, randomName(random, 2 + k % 2)));
+                }
+                subCategory.addAllChildren(nodes);
+                category.addChild(subCategory);
+            }
+        }
+        return root;
+    }
+
+    private static String randomName(final Random random, final int words) {
+        final StringBuilder name = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * A node template without a node factory.
+     */
+    private static final class SyntheticNodeTemplate extends NodeTemplate {
+
+        SyntheticNodeTemplate(final String id, final String name) {
+            super(id, name, PLUGIN);
+        }
+
+        @Override
+        public int hashCode() {
+            return getID().hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof SyntheticNodeTemplate && getID().equals(((SyntheticNodeTemplate)obj).getID());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test cases for the hit and miss counts of {@link BrowserPool}. The pool is shared, therefore the tests check how
+ * the counts change rather than their absolute values.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class BrowserPoolTest {
+    private Shell m_shell;
+
+    /**
+     * Disposes the shell with the acquired browsers and the pool's idle browsers.
+     *
+     * @throws Throwable if an error occurs
+     */
+    @After
+    public void cleanUp() throws Throwable {
+        runInUIThread(() -> {
+            if (m_shell != null) {
+                m_shell.dispose();
+            }
+            BrowserPool.getInstance().clear();
+        });
+    }
+
+    /**
+     * Checks that a released browser is handed out again and counted as a hit.
+     *
+     * @throws Throwable if an error occurs
+     */
+    @Test
+    public void testReacquireReleasedBrowser() throws Throwable {
+        runInUIThread(() -> {
+            final BrowserPool pool = BrowserPool.getInstance();
+            pool.clear();
+            m_shell = new Shell(Display.getCurrent());
+            final long hits = pool.getHits();
+            final long misses = pool.getMisses();
+
+            final Browser browser = pool.acquire(m_shell);
+            assertThat("Number of misses after first acquire", pool.getMisses(), is(misses + 1));
+            assertThat("Number of hits after first acquire", pool.getHits(), is(hits));
+            assumeTrue("Browsers cannot be reparented on this platform", browser.isReparentable());
+
+            pool.release(browser);
+            assertThat("Number of idle browsers after release", pool.getIdleCount(), is(1));
+
+            assertThat("Released browser not handed out again", pool.acquire(m_shell), is(sameInstance(browser)));
+            assertThat("Number of hits after second acquire", pool.getHits(), is(hits + 1));
+            assertThat("Number of misses after second acquire", pool.getMisses(), is(misses + 1));
+        });
+    }
+
+    /**
+     * Checks that acquiring a browser before the pool has been refilled creates a new browser and is counted as a
+     * miss, and that a browser prewarmed afterwards is counted as a hit.
+     *
+     * @throws Throwable if an error occurs
+     */
+    @Test
+    public void testPrewarmedBrowserNotAvailable() throws Throwable {
+        final AtomicReference<Browser> first = new AtomicReference<>();
+        runInUIThread(() -> {
+            final BrowserPool pool = BrowserPool.getInstance();
+            pool.clear();
+            m_shell = new Shell(Display.getCurrent());
+            final long hits = pool.getHits();
+            final long misses = pool.getMisses();
+
+            first.set(pool.acquire(m_shell));
+            // the pool is refilled asynchronously, i.e. not before the events have been processed
+            final Browser second = pool.acquire(m_shell);
+            assertThat("New browser expected", second, is(not(sameInstance(first.get()))));
+            assertThat("Number of misses without prewarmed browser", pool.getMisses(), is(misses + 2));
+            assertThat("Number of hits without prewarmed browser", pool.getHits(), is(hits));
+        });
+        assumeTrue("Browsers cannot be reparented on this platform", first.get().isReparentable());
+
+        runInUIThread(() -> {
+            final Display display = Display.getCurrent();
+            final BrowserPool pool = BrowserPool.getInstance();
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while ((pool.getIdleCount() == 0) && (System.currentTimeMillis() < deadline)) {
+                if (!display.readAndDispatch()) {
+                    Thread.sleep(10);
+                }
+            }
+            assertThat("Number of prewarmed browsers", pool.getIdleCount(), is(1));
+
+            final long hits = pool.getHits();
+            final long misses = pool.getMisses();
+            pool.acquire(m_shell);
+            assertThat("Number of hits with prewarmed browser", pool.getHits(), is(hits + 1));
+            assertThat("Number of misses with prewarmed browser", pool.getMisses(), is(misses));
+        });
+    }
+
+    @FunctionalInterface
+    private interface UITask {
+        void run() throws Exception;
+    }
+
+    /** Runs the task in the UI thread, which the pool requires, and rethrows any exception or failed assertion. */
+    private static void runInUIThread(final UITask task) throws Throwable {
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Display.getDefault().syncExec(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        if (error.get() != null) {
+            throw error.get();
+        }
+    }
+}
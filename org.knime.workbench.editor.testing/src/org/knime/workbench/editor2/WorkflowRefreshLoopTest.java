@@ -0,0 +1,310 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.knime.workbench.editor2.WorkflowRefreshLoop.Result;
+
+/**
+ * Test cases for {@link WorkflowRefreshLoop}, run against a simulated remote workflow.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class WorkflowRefreshLoopTest {
+    private static final long BASE_INTERVAL = 10;
+
+    private static final long MAX_INTERVAL = 80;
+
+    private final RecordingScheduler m_scheduler = new RecordingScheduler();
+
+    private WorkflowRefreshLoop m_loop;
+
+    /**
+     * Stops the loop and its scheduler.
+     */
+    @After
+    public void stopLoop() {
+        if (m_loop != null) {
+            m_loop.stop();
+        }
+        m_scheduler.shutdownNow();
+    }
+
+    /**
+     * Checks that the delay doubles with each refresh that doesn't change the workflow.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testIdleWorkflowBacksOff() throws Exception {
+        start(BASE_INTERVAL, MAX_INTERVAL);
+        assertDelays(0, 20, 40, 80, 80);
+    }
+
+    /**
+     * Checks that a change resets the delay to the configured interval.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testChangeResetsInterval() throws Exception {
+        start(BASE_INTERVAL, MAX_INTERVAL, Step.IDLE, Step.IDLE, Step.CHANGED, Step.IDLE);
+        assertDelays(0, 20, 40, 10, 20);
+    }
+
+    /**
+     * Checks that failed refreshes are retried at the configured rate.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testFailureRetriedAtConfiguredRate() throws Exception {
+        start(BASE_INTERVAL, MAX_INTERVAL, Step.IDLE, Step.IDLE, Step.FAILED);
+        assertDelays(0, 20, 40, 10);
+    }
+
+    /**
+     * Checks that an executing workflow is refreshed twice as often as configured.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testExecutingWorkflowRefreshedMoreOften() throws Exception {
+        start(400, 1600, Step.EXECUTING, Step.IDLE);
+        assertDelays(0, 200, 400);
+    }
+
+    /**
+     * Checks that the loop stops if a refresh fails permanently.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testPermanentFailureStopsLoop() throws Exception {
+        start(BASE_INTERVAL, MAX_INTERVAL, Step.STOP);
+        assertDelays(0);
+        assertThat("Unexpected refresh after permanent failure", m_scheduler.m_delays.poll(200, TimeUnit.MILLISECONDS),
+            is(nullValue()));
+        assertThat("Loop still running", m_loop.isRunning(), is(false));
+    }
+
+    /**
+     * Checks that a requested refresh happens immediately and resets the delay.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRequestRefresh() throws Exception {
+        final SimulatedWorkflow workflow = start(60_000, 60_000);
+        assertDelays(0, 60_000);
+        m_loop.requestRefresh();
+        assertDelays(0);
+        waitForRefreshes(workflow, 2);
+    }
+
+    /**
+     * Checks that a refresh requested while a refresh is running follows right after it, not concurrently.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRequestRefreshWhileRefreshing() throws Exception {
+        final SimulatedWorkflow workflow = start(60_000, 60_000, Step.BLOCKED);
+        assertDelays(0);
+        assertThat("Refresh not started", workflow.m_blocked.await(5, TimeUnit.SECONDS), is(true));
+        m_loop.requestRefresh();
+        assertThat("Refresh scheduled while refreshing", m_scheduler.m_delays.poll(200, TimeUnit.MILLISECONDS),
+            is(nullValue()));
+        workflow.m_unblock.countDown();
+        assertDelays(0, 60_000);
+        waitForRefreshes(workflow, 2);
+        assertThat("Concurrent refreshes", workflow.m_maxConcurrentRefreshes.get(), is(1));
+    }
+
+    /**
+     * Checks that no refresh happens after the loop has been stopped.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testStop() throws Exception {
+        final SimulatedWorkflow workflow = start(BASE_INTERVAL, BASE_INTERVAL);
+        waitForRefreshes(workflow, 3);
+        assertThat("Loop not running", m_loop.stop(), is(true));
+        final int refreshes = workflow.m_refreshes.get();
+        Thread.sleep(10 * BASE_INTERVAL);
+        // a refresh that was running while stopping completes
+        assertThat("Refreshed after stop", workflow.m_refreshes.get() <= refreshes + 1, is(true));
+        assertThat("Loop still running", m_loop.isRunning(), is(false));
+        assertThat("Stopped twice", m_loop.stop(), is(false));
+    }
+
+    private SimulatedWorkflow start(final long baseInterval, final long maxInterval, final Step... steps) {
+        final SimulatedWorkflow workflow = new SimulatedWorkflow(steps);
+        m_loop = new WorkflowRefreshLoop(m_scheduler, workflow, new AdaptiveRefreshInterval(baseInterval, maxInterval));
+        workflow.m_loop = m_loop;
+        m_loop.start(0);
+        return workflow;
+    }
+
+    private void assertDelays(final long... expected) throws InterruptedException {
+        for (int i = 0; i < expected.length; i++) {
+            final Long delay = m_scheduler.m_delays.poll(5, TimeUnit.SECONDS);
+            assertThat("Unexpected delay of refresh " + i + " of " + Arrays.toString(expected), delay,
+                is(expected[i]));
+        }
+    }
+
+    private static void waitForRefreshes(final SimulatedWorkflow workflow, final int count)
+        throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while ((workflow.m_refreshes.get() < count) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(5);
+        }
+        assertThat("Number of refreshes", workflow.m_refreshes.get() >= count, is(true));
+    }
+
+    /** What a refresh of the simulated workflow does. */
+    private enum Step {
+        IDLE, CHANGED, EXECUTING, FAILED, STOP, BLOCKED;
+    }
+
+    /** A remote workflow whose refreshes follow a script; once it's done the workflow is idle. */
+    private static final class SimulatedWorkflow implements WorkflowRefreshLoop.Refreshable {
+        private final Queue<Step> m_steps;
+
+        private final AtomicInteger m_refreshes = new AtomicInteger();
+
+        private final AtomicInteger m_concurrentRefreshes = new AtomicInteger();
+
+        private final AtomicInteger m_maxConcurrentRefreshes = new AtomicInteger();
+
+        /** Counted down when a {@link Step#BLOCKED} refresh has started. */
+        private final CountDownLatch m_blocked = new CountDownLatch(1);
+
+        /** Lets a {@link Step#BLOCKED} refresh complete. */
+        private final CountDownLatch m_unblock = new CountDownLatch(1);
+
+        private volatile WorkflowRefreshLoop m_loop;
+
+        private volatile boolean m_executing;
+
+        SimulatedWorkflow(final Step... steps) {
+            m_steps = new ConcurrentLinkedQueue<>(Arrays.asList(steps));
+        }
+
+        @Override
+        public Result refresh() {
+            m_refreshes.incrementAndGet();
+            m_maxConcurrentRefreshes.accumulateAndGet(m_concurrentRefreshes.incrementAndGet(), Math::max);
+            try {
+                return refresh(m_steps.isEmpty() ? Step.IDLE : m_steps.poll());
+            } finally {
+                m_concurrentRefreshes.decrementAndGet();
+            }
+        }
+
+        private Result refresh(final Step step) {
+            m_executing = (step == Step.EXECUTING);
+            switch (step) {
+                case CHANGED:
+                    // the editor's listeners on the workflow report the changes the refresh brought
+                    m_loop.markChanged();
+                    return Result.SUCCESSFUL;
+                case FAILED:
+                    return Result.FAILED;
+                case STOP:
+                    return Result.STOP;
+                case BLOCKED:
+                    m_blocked.countDown();
+                    try {
+                        m_unblock.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Result.SUCCESSFUL;
+                default:
+                    return Result.SUCCESSFUL;
+            }
+        }
+
+        @Override
+        public boolean isExecuting() {
+            return m_executing;
+        }
+    }
+
+    /** Records the delays of all scheduled refreshes, in order. */
+    private static final class RecordingScheduler extends ScheduledThreadPoolExecutor {
+        private final BlockingQueue<Long> m_delays = new LinkedBlockingQueue<>();
+
+        RecordingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+            m_delays.add(unit.toMillis(delay));
+            return super.schedule(command, delay, unit);
+        }
+    }
+}
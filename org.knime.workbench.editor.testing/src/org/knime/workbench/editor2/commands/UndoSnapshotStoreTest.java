@@ -0,0 +1,179 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.commands;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.AnnotationData;
+import org.knime.core.node.workflow.ConnectionContainer;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.node.workflow.NodeUIInformation;
+import org.knime.core.node.workflow.WorkflowAnnotation;
+import org.knime.core.node.workflow.WorkflowAnnotationID;
+import org.knime.core.node.workflow.WorkflowCopyContent;
+import org.knime.core.node.workflow.WorkflowCreationHelper;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.ui.node.workflow.WorkflowCopyUI;
+import org.knime.core.ui.wrapper.WorkflowManagerWrapper;
+import org.knime.workbench.editor2.commands.UndoSnapshotStore.Snapshot;
+
+/**
+ * Test cases for {@link UndoSnapshotStore}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class UndoSnapshotStoreTest {
+    private final List<WorkflowManager> m_workflows = new ArrayList<>();
+
+    /** Removes the workflows created by the test. */
+    @After
+    public void removeWorkflows() {
+        for (WorkflowManager wfm : m_workflows) {
+            WorkflowManager.ROOT.removeNode(wfm.getID());
+        }
+    }
+
+    private WorkflowManager createWorkflow() {
+        WorkflowManager wfm = WorkflowManager.ROOT.createAndAddProject("Undo test", new WorkflowCreationHelper());
+        m_workflows.add(wfm);
+        WorkflowManager source =
+            wfm.createAndAddSubWorkflow(new PortType[0], new PortType[]{BufferedDataTable.TYPE}, "Source");
+        source.setUIInformation(NodeUIInformation.builder().setNodeLocation(10, 20, 60, 50).build());
+        WorkflowManager sink =
+            wfm.createAndAddSubWorkflow(new PortType[]{BufferedDataTable.TYPE}, new PortType[0], "Sink");
+        sink.setUIInformation(NodeUIInformation.builder().setNodeLocation(200, 20, 60, 50).build());
+        wfm.addConnection(source.getID(), 0, sink.getID(), 0);
+
+        AnnotationData data = new AnnotationData();
+        data.setText("Undo me");
+        data.setDimension(5, 5, 300, 100);
+        WorkflowAnnotation anno = new WorkflowAnnotation();
+        anno.copyFrom(data, true);
+        wfm.addWorkflowAnnotation(anno);
+        return wfm;
+    }
+
+    /** Cuts all nodes and annotations, as a {@link DeleteCommand} would. */
+    private static WorkflowCopyUI cutAll(final WorkflowManager wfm) {
+        List<WorkflowAnnotationID> annoIDs = new ArrayList<>();
+        for (WorkflowAnnotation anno : wfm.getWorkflowAnnotations()) {
+            annoIDs.add(anno.getID());
+        }
+        WorkflowCopyContent.Builder content = WorkflowCopyContent.builder();
+        content.setNodeIDs(wfm.getNodeContainers().stream().map(NodeContainer::getID).toArray(NodeID[]::new));
+        content.setAnnotationIDs(annoIDs.toArray(new WorkflowAnnotationID[annoIDs.size()]));
+        return WorkflowManagerWrapper.wrap(wfm).cut(content.build());
+    }
+
+    /** Describes nodes, connections and annotations independently of the workflow's id. */
+    private static List<String> describe(final WorkflowManager wfm) {
+        List<String> elements = new ArrayList<>();
+        for (NodeContainer nc : wfm.getNodeContainers()) {
+            elements.add("Node " + nc.getID().getIndex() + " " + nc.getName() + " "
+                + Arrays.toString(nc.getUIInformation().getBounds()));
+        }
+        for (ConnectionContainer cc : wfm.getConnectionContainers()) {
+            elements.add("Connection " + cc.getSource().getIndex() + ":" + cc.getSourcePort() + " -> "
+                + cc.getDest().getIndex() + ":" + cc.getDestPort());
+        }
+        for (WorkflowAnnotation anno : wfm.getWorkflowAnnotations()) {
+            elements.add("Annotation " + anno.getText() + " " + anno.getX() + "," + anno.getY() + " "
+                + anno.getWidth() + "x" + anno.getHeight());
+        }
+        Collections.sort(elements);
+        return elements;
+    }
+
+    /**
+     * Checks that undoing from a snapshot that has been written to disk restores the same workflow as undoing from
+     * one kept in memory.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testUndoFromDiskEqualsUndoFromMemory() throws Exception {
+        WorkflowManager inMemory = createWorkflow();
+        WorkflowManager spilled = createWorkflow();
+        List<String> original = describe(inMemory);
+
+        UndoSnapshotStore memoryStore = new UndoSnapshotStore();
+        memoryStore.setMemoryBudget(Long.MAX_VALUE);
+        UndoSnapshotStore diskStore = new UndoSnapshotStore();
+        diskStore.setMemoryBudget(0);
+
+        Snapshot memorySnapshot = memoryStore.add(cutAll(inMemory), 2);
+        Snapshot diskSnapshot = diskStore.add(cutAll(spilled), 2);
+        assertThat("Nodes not removed", spilled.getNodeContainers().isEmpty(), is(true));
+
+        long end = System.currentTimeMillis() + 30000;
+        while (!diskSnapshot.isOnDiskOnly() && (System.currentTimeMillis() < end)) {
+            Thread.sleep(50);
+        }
+        assertThat("Snapshot not written to disk", diskSnapshot.isOnDiskOnly(), is(true));
+        assertThat("Snapshot within budget written to disk", memorySnapshot.isOnDiskOnly(), is(false));
+        assertThat("Unexpected disk footprint", diskStore.getDiskFootprint() > 0, is(true));
+
+        WorkflowManagerWrapper.wrap(inMemory).paste(memorySnapshot.get());
+        WorkflowManagerWrapper.wrap(spilled).paste(diskSnapshot.get());
+        assertThat("Undo from memory differs from the original", describe(inMemory), is(original));
+        assertThat("Undo from disk differs from undo from memory", describe(spilled), is(describe(inMemory)));
+
+        memorySnapshot.dispose();
+        diskSnapshot.dispose();
+        assertThat("Snapshot on disk not deleted", diskStore.getDiskFootprint(), is(0L));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2;
+
+/**
+ * Computes the delay until the next refresh of a remote workflow from how much the workflow is changing. While the
+ * workflow is executing it is refreshed twice as often as configured; each refresh that didn't bring any changes
+ * doubles the delay (up to a maximum), and the first change resets it to the configured interval.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class AdaptiveRefreshInterval {
+
+    /** Lower bound of the delay while the workflow is executing, in ms. */
+    static final long MIN_INTERVAL = 100;
+
+    private final long m_baseInterval;
+
+    private final long m_maxInterval;
+
+    private long m_current;
+
+    /**
+     * @param baseInterval the configured refresh interval in ms
+     * @param maxInterval the maximum delay in ms when the workflow is idle; not smaller than the base interval
+     */
+    AdaptiveRefreshInterval(final long baseInterval, final long maxInterval) {
+        m_baseInterval = Math.max(1, baseInterval);
+        m_maxInterval = Math.max(m_baseInterval, maxInterval);
+        m_current = m_baseInterval;
+    }
+
+    /**
+     * Computes the delay until the next refresh.
+     *
+     * @param changed whether the last refresh (or anything else since then) changed the workflow
+     * @param executing whether the workflow is executing
+     * @return the delay in ms
+     */
+    synchronized long next(final boolean changed, final boolean executing) {
+        if (executing) {
+            m_current = Math.min(m_baseInterval, Math.max(MIN_INTERVAL, m_baseInterval / 2));
+        } else if (changed) {
+            m_current = m_baseInterval;
+        } else {
+            m_current = Math.min(m_maxInterval, m_current * 2);
+        }
+        return m_current;
+    }
+
+    /**
+     * Resets the delay to the configured interval, e.g. after the user edited the workflow.
+     */
+    synchronized void reset() {
+        m_current = m_baseInterval;
+    }
+
+    /**
+     * @return the current delay in ms
+     */
+    synchronized long current() {
+        return m_current;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTError;
+import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * A small pool of embedded browsers for the JavaScript based views ({@link WizardNodeView}) and the visual layout
+ * editor of components. Creating a browser starts the underlying engine, which is by far the most expensive part of
+ * opening such a view; pooled browsers are created ahead of time on a hidden shell and moved into the view's
+ * composite when needed.
+ *
+ * <p>
+ * Browsers are handed out with {@link #acquire(Composite)} and given back with {@link #release(Browser)}. Before
+ * releasing a browser the caller must remove the listeners it has added and dispose its {@link
+ * org.eclipse.swt.browser.BrowserFunction BrowserFunctions}; the pool clears the page. On platforms on which browsers
+ * cannot be reparented the pool simply creates and disposes browsers. All methods must be called in the UI thread.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class BrowserPool {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BrowserPool.class);
+
+    /** Maximum number of idle browsers. */
+    private static final int MAX_IDLE = 2;
+
+    /** Number of idle browsers that are kept ready after a browser has been handed out. */
+    private static final int MIN_IDLE = 1;
+
+    private static final String BLANK_PAGE = "about:blank";
+
+    private static BrowserPool instance;
+
+    private final Display m_display;
+
+    private final Shell m_hiddenShell;
+
+    private final Deque<Browser> m_idle = new ArrayDeque<>();
+
+    private boolean m_reparentable = true;
+
+    private boolean m_refillScheduled;
+
+    private long m_hits;
+
+    private long m_misses;
+
+    private BrowserPool(final Display display) {
+        m_display = display;
+        m_hiddenShell = new Shell(display);
+        display.disposeExec(this::dispose);
+    }
+
+    /**
+     * @return the pool of the current display
+     * @throws IllegalStateException if not called in the UI thread
+     */
+    public static synchronized BrowserPool getInstance() {
+        final Display display = Display.getCurrent();
+        if (display == null) {
+            throw new IllegalStateException("The browser pool can only be accessed in the UI thread");
+        }
+        if ((instance == null) || (instance.m_display != display)) {
+            instance = new BrowserPool(display);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a browser that has been moved into the given parent composite, either a pooled one or a new one. The
+     * caller has to set its layout data.
+     *
+     * @param parent the composite to place the browser in
+     * @return a browser showing an empty page
+     */
+    public Browser acquire(final Composite parent) {
+        while (!m_idle.isEmpty()) {
+            final Browser browser = m_idle.poll();
+            if (!browser.isDisposed() && browser.setParent(parent)) {
+                m_hits++;
+                scheduleRefill();
+                return browser;
+            }
+            browser.dispose();
+        }
+        m_misses++;
+        final Browser browser = new Browser(parent, SWT.NONE);
+        m_reparentable = browser.isReparentable();
+        scheduleRefill();
+        return browser;
+    }
+
+    /**
+     * Gives a browser back to the pool. The browser is disposed if the pool is full or the browser cannot be reused.
+     *
+     * @param browser the browser, may be <code>null</code> or already disposed
+     */
+    public void release(final Browser browser) {
+        if ((browser == null) || browser.isDisposed()) {
+            return;
+        }
+        if (m_hiddenShell.isDisposed() || (m_idle.size() >= MAX_IDLE) || !browser.isReparentable()) {
+            browser.dispose();
+            return;
+        }
+        browser.stop();
+        browser.setUrl(BLANK_PAGE);
+        browser.setLayoutData(null);
+        if (browser.setParent(m_hiddenShell)) {
+            m_idle.push(browser);
+        } else {
+            browser.dispose();
+        }
+    }
+
+    /**
+     * @return the number of {@link #acquire(Composite)} calls that have been served by a pooled browser
+     */
+    public long getHits() {
+        return m_hits;
+    }
+
+    /**
+     * @return the number of {@link #acquire(Composite)} calls that had to create a new browser
+     */
+    public long getMisses() {
+        return m_misses;
+    }
+
+    /**
+     * @return the number of idle browsers
+     */
+    public int getIdleCount() {
+        return m_idle.size();
+    }
+
+    /**
+     * Disposes all idle browsers.
+     */
+    public void clear() {
+        while (!m_idle.isEmpty()) {
+            m_idle.poll().dispose();
+        }
+    }
+
+    private void scheduleRefill() {
+        if (!m_reparentable || m_refillScheduled) {
+            return;
+        }
+        m_refillScheduled = true;
+        // create the browser after the view has been shown
+        m_display.asyncExec(() -> {
+            m_refillScheduled = false;
+            if (m_hiddenShell.isDisposed()) {
+                return;
+            }
+            try {
+                while (m_idle.size() < MIN_IDLE) {
+                    final Browser browser = new Browser(m_hiddenShell, SWT.NONE);
+                    browser.setUrl(BLANK_PAGE);
+                    m_idle.push(browser);
+                }
+            } catch (SWTError e) {
+                LOGGER.debug("Could not create browser for pool: " + e.getMessage(), e);
+                m_reparentable = false;
+            }
+        });
+    }
+
+    private void dispose() {
+        clear();
+        if (!m_hiddenShell.isDisposed()) {
+            m_hiddenShell.dispose();
+        }
+    }
+}
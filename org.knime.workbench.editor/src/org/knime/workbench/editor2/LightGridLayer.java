@@ -47,15 +47,34 @@
  */
 package org.knime.workbench.editor2;
 
+import java.util.Arrays;
+
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.gef.editparts.GridLayer;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.knime.workbench.editor2.figures.FigureImageCache;
 
 /**
  * Allows modification of grid lines.
+ *
+ * <p>
+ * The grid is painted by tiling a cached, transparent image of a block of grid cells (rather than drawing each line)
+ * whenever the zoomed grid distance is a whole number of pixels.
+ *
  * @author Peter Ohl, KNIME AG, Zurich, Switzerland
  */
 public class LightGridLayer extends GridLayer {
     private static final Color veryLightGray = new Color(null, 240, 240, 240);
+
+    /** Approximate edge length of a grid tile in pixels. */
+    private static final int TILE_SIZE = 256;
+
     /**
      * uses the default gray color of the super constructor.
      */
@@ -63,4 +82,74 @@ public class LightGridLayer extends GridLayer {
         super();
         setForegroundColor(veryLightGray);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void paintGrid(final Graphics g) {
+        final double scale = g.getAbsoluteScale();
+        final double cellWidth = gridX * scale;
+        final double cellHeight = gridY * scale;
+        if ((gridX <= 0) || (gridY <= 0) || (cellWidth < 2) || (cellHeight < 2) || (cellWidth != Math.rint(cellWidth))
+            || (cellHeight != Math.rint(cellHeight))) {
+            super.paintGrid(g);
+            return;
+        }
+        final int cellsX = Math.max(1, TILE_SIZE / (int)cellWidth);
+        final int cellsY = Math.max(1, TILE_SIZE / (int)cellHeight);
+        final int lineWidth = Math.max(1, (int)Math.round(scale));
+        final RGB rgb = getForegroundColor().getRGB();
+        final Object key = Arrays.asList(gridX, gridY, scale, rgb);
+        final FigureImageCache cache = FigureImageCache.getInstance();
+        Image tile = cache.get(this, key);
+        if (tile == null) {
+            tile = createTile((int)cellWidth, (int)cellHeight, cellsX, cellsY, lineWidth, rgb);
+            if (!cache.put(this, key, tile)) {
+                super.paintGrid(g);
+                return;
+            }
+        }
+
+        final int tileWidth = cellsX * gridX;
+        final int tileHeight = cellsY * gridY;
+        final int imageWidth = cellsX * (int)cellWidth;
+        final int imageHeight = cellsY * (int)cellHeight;
+        final Rectangle clip = g.getClip(new Rectangle());
+        final int startX = origin.x + Math.floorDiv(clip.x - origin.x, tileWidth) * tileWidth;
+        final int startY = origin.y + Math.floorDiv(clip.y - origin.y, tileHeight) * tileHeight;
+        for (int y = startY; y < clip.bottom(); y += tileHeight) {
+            for (int x = startX; x < clip.right(); x += tileWidth) {
+                g.drawImage(tile, 0, 0, imageWidth, imageHeight, x, y, tileWidth, tileHeight);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify() {
+        FigureImageCache.getInstance().invalidate(this);
+        super.removeNotify();
+    }
+
+    /**
+     * Creates a transparent image with the vertical and horizontal grid lines at the left and top of each cell.
+     */
+    private static Image createTile(final int cellWidth, final int cellHeight, final int cellsX, final int cellsY,
+        final int lineWidth, final RGB color) {
+        final ImageData data = new ImageData(cellsX * cellWidth, cellsY * cellHeight, 1,
+            new PaletteData(new RGB[]{new RGB(255, 255, 255), color}));
+        data.transparentPixel = 0;
+        for (int y = 0; y < data.height; y++) {
+            final boolean horizontalLine = (y % cellHeight) < lineWidth;
+            for (int x = 0; x < data.width; x++) {
+                if (horizontalLine || ((x % cellWidth) < lineWidth)) {
+                    data.setPixel(x, y, 1);
+                }
+            }
+        }
+        return new Image(Display.getCurrent(), data);
+    }
 }
@@ -104,6 +104,7 @@
     private Shell m_shell;
 
     private Browser m_browser;
+    private ProgressListener m_progressListener;
     private BrowserFunction m_viewRequestCallback;
     private BrowserFunction m_updateRequestStatusCallback;
     private BrowserFunction m_cancelRequestCallback;
@@ -177,7 +178,7 @@ public final void callOpenView(final String title, final Rectangle knimeWindowBo
         layout.numColumns = 1;
         m_shell.setLayout(layout);
 
-        m_browser = new Browser(m_shell, SWT.NONE);
+        m_browser = BrowserPool.getInstance().acquire(m_shell);
         m_browser.setLayoutData(new GridData(GridData.FILL, GridData.FILL, true, true));
         m_browser.setText(getViewCreator().createMessageHTML("Loading view..."), true);
 
@@ -312,7 +313,7 @@ public void widgetDisposed(final DisposeEvent e) {
 
             @Override
             public void run() {
-                m_browser.addProgressListener(new ProgressListener() {
+                m_progressListener = new ProgressListener() {
 
                     @Override
                     public void completed(final ProgressEvent event) {
@@ -332,7 +333,8 @@ public void completed(final ProgressEvent event) {
                     public void changed(final ProgressEvent event) {
                         // do nothing
                     }
-                });
+                };
+                m_browser.addProgressListener(m_progressListener);
                 setBrowserURL();
                 m_viewRequestCallback = new ViewRequestFunction(m_browser, "knimeViewRequest");
                 m_updateRequestStatusCallback = new UpdateRequestStatusFunction(m_browser, "knimeUpdateRequestStatus");
@@ -406,11 +408,19 @@ public final void closeView() {
         if (m_isPushSupportedCallback != null && !m_isPushSupportedCallback.isDisposed()) {
             m_isPushSupportedCallback.dispose();
         }
+        if (m_browser != null && !m_browser.isDisposed()) {
+            if (m_progressListener != null) {
+                m_browser.removeProgressListener(m_progressListener);
+            }
+            // hand the browser back before the shell disposes it
+            BrowserPool.getInstance().release(m_browser);
+        }
         if (m_shell != null && !m_shell.isDisposed()) {
             m_shell.dispose();
         }
         m_shell = null;
         m_browser = null;
+        m_progressListener = null;
         m_viewRequestCallback = null;
         m_updateRequestStatusCallback = null;
         m_cancelRequestCallback = null;
@@ -0,0 +1,154 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2;
+
+import static org.knime.core.ui.wrapper.Wrapper.wrap;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.workflow.NodeStateChangeListener;
+import org.knime.core.node.workflow.NodeStateEvent;
+import org.knime.core.node.workflow.WorkflowEvent;
+import org.knime.core.node.workflow.WorkflowListener;
+import org.knime.core.ui.UI;
+import org.knime.core.ui.node.workflow.NodeContainerUI;
+import org.knime.core.ui.node.workflow.WorkflowManagerUI;
+import org.knime.workbench.editor2.actions.SelectionSnapshot;
+
+/**
+ * Counts the state changes of all nodes of a workflow and the changes of the workflow's structure. The count (the
+ * generation) tells the editor whether its {@link SelectionSnapshot} is still valid. The counter registers one state
+ * listener per node when it is created and keeps them up to date as nodes are added and removed, so that the snapshots
+ * themselves don't need to listen to anything.
+ *
+ * <p>
+ * The listeners may be called in any thread.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class WorkflowChangeCounter implements NodeStateChangeListener, WorkflowListener {
+    private final WorkflowManagerUI m_manager;
+
+    private final Set<NodeContainerUI> m_observedNodes = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong m_generation = new AtomicLong();
+
+    private volatile boolean m_disposed;
+
+    /**
+     * Registers the counter on the workflow and all its nodes.
+     *
+     * @param manager the workflow
+     */
+    WorkflowChangeCounter(final WorkflowManagerUI manager) {
+        m_manager = manager;
+        manager.addListener(this);
+        manager.addNodeStateChangeListener(this);
+        for (NodeContainerUI nc : manager.getNodeContainers()) {
+            observe(nc);
+        }
+    }
+
+    /**
+     * @return the number of changes so far
+     */
+    long getGeneration() {
+        return m_generation.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stateChanged(final NodeStateEvent state) {
+        m_generation.incrementAndGet();
+    }
+
+    /**
+     * Starts or stops listening to added or removed nodes. {@inheritDoc}
+     */
+    @Override
+    public void workflowChanged(final WorkflowEvent event) {
+        //NOTE: workflow event can contain either UI objects or non-UI objects!!
+        switch (event.getType()) {
+            case NODE_ADDED:
+                final UI added = wrap(event.getNewValue());
+                if (added instanceof NodeContainerUI) {
+                    observe((NodeContainerUI)added);
+                }
+                break;
+            case NODE_REMOVED:
+                final UI removed = wrap(event.getOldValue());
+                if ((removed instanceof NodeContainerUI) && m_observedNodes.remove(removed)) {
+                    ((NodeContainerUI)removed).removeNodeStateChangeListener(this);
+                }
+                break;
+            default:
+        }
+        m_generation.incrementAndGet();
+    }
+
+    private void observe(final NodeContainerUI nc) {
+        if (!m_disposed && m_observedNodes.add(nc)) {
+            nc.addNodeStateChangeListener(this);
+        }
+    }
+
+    /**
+     * Unregisters the counter from the workflow and its nodes.
+     */
+    void dispose() {
+        m_disposed = true;
+        m_manager.removeListener(this);
+        m_manager.removeNodeStateChangeListener(this);
+        for (NodeContainerUI nc : m_observedNodes) {
+            nc.removeNodeStateChangeListener(this);
+        }
+        m_observedNodes.clear();
+    }
+}
@@ -55,6 +55,7 @@
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EventObject;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -102,12 +103,14 @@
 import org.eclipse.gef.SnapToGrid;
 import org.eclipse.gef.commands.Command;
 import org.eclipse.gef.commands.CommandStack;
+import org.eclipse.gef.commands.CommandStackEventListener;
 import org.eclipse.gef.editparts.ScalableFreeformRootEditPart;
 import org.eclipse.gef.editparts.ZoomManager;
 import org.eclipse.gef.ui.actions.ActionRegistry;
 import org.eclipse.gef.ui.actions.PrintAction;
 import org.eclipse.gef.ui.actions.RedoAction;
 import org.eclipse.gef.ui.actions.SaveAction;
+import org.eclipse.gef.ui.actions.SelectAllAction;
 import org.eclipse.gef.ui.actions.StackAction;
 import org.eclipse.gef.ui.actions.UndoAction;
 import org.eclipse.gef.ui.actions.WorkbenchPartAction;
@@ -237,6 +240,7 @@
 import org.knime.workbench.editor2.actions.SaveAsMetaNodeTemplateAction;
 import org.knime.workbench.editor2.actions.SaveAsSubNodeTemplateAction;
 import org.knime.workbench.editor2.actions.SelectLoopAction;
+import org.knime.workbench.editor2.actions.SelectionSnapshot;
 import org.knime.workbench.editor2.actions.SendAnnotationBackwardAction;
 import org.knime.workbench.editor2.actions.SendAnnotationToBackAction;
 import org.knime.workbench.editor2.actions.SetNodeDescriptionAction;
@@ -269,8 +273,10 @@
 import org.knime.workbench.explorer.view.ContentObject;
 import org.knime.workbench.explorer.view.dialogs.OverwriteAndMergeInfo;
 import org.knime.workbench.explorer.view.dialogs.SnapshotPanel;
+import org.knime.workbench.explorer.view.preview.WorkflowThumbnailCache;
 import org.knime.workbench.ui.KNIMEUIPlugin;
 import org.knime.workbench.ui.SyncExecQueueDispatcher;
+import org.knime.workbench.ui.async.AsyncUtil;
 import org.knime.workbench.ui.navigator.ProjectWorkflowMap;
 import org.knime.workbench.ui.navigator.WorkflowEditorAdapter;
 import org.knime.workbench.ui.preferences.PreferenceConstants;
@@ -379,6 +385,30 @@ public class WorkflowEditor extends GraphicalEditor implements
      */
     private WorkflowEditorRefresher m_refresher = null;
 
+    /** The selection shared by the actions to compute their enablement, see {@link #getSelectionSnapshot()}. */
+    private SelectionSnapshot m_selectionSnapshot;
+
+    /** Counts the changes of the workflow that invalidate the selection snapshot. */
+    private WorkflowChangeCounter m_changeCounter;
+
+    /** The number of waits the user canceled before the current command was executed, undone or redone. */
+    private long m_canceledCountBeforeCommand;
+
+    /**
+     * Discards the undo history if the user canceled waiting for the server while a command was executed, undone or
+     * redone: the server might still apply the change, hence neither the command nor the ones before it can be
+     * undone reliably.
+     */
+    private final CommandStackEventListener m_canceledCommandListener = e -> {
+        if (e.isPreChangeEvent()) {
+            m_canceledCountBeforeCommand = AsyncUtil.getCanceledCount();
+        } else if (e.isPostChangeEvent() && (AsyncUtil.getCanceledCount() != m_canceledCountBeforeCommand)) {
+            LOGGER.warn("Waiting for the workflow to be changed has been canceled, the change might still be applied;"
+                + " the undo history is discarded");
+            getCommandStack().flush();
+        }
+    };
+
     /**
      * No arg constructor, creates the edit domain for this editor.
      */
@@ -410,6 +440,43 @@ public GraphicalViewer getViewer() {
         return getGraphicalViewer();
     }
 
+    /**
+     * Creates the edit parts of nodes that were not visible when a large workflow was opened and have not been
+     * created in the background yet. Call this before operating on all edit parts of the workflow.
+     *
+     * @see WorkflowRootEditPart#createDeferredChildren()
+     * @since 3.8
+     */
+    public void createDeferredEditParts() {
+        final GraphicalViewer viewer = getViewer();
+        if ((viewer != null) && (viewer.getContents() instanceof WorkflowRootEditPart)) {
+            ((WorkflowRootEditPart)viewer.getContents()).createDeferredChildren();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the current selection that is shared by all actions of this editor to compute their
+     * enablement. A new snapshot is created if the selection changed or the state of a node of the workflow changed.
+     *
+     * @return the snapshot of the current selection, never <code>null</code>
+     * @since 3.8
+     */
+    public SelectionSnapshot getSelectionSnapshot() {
+        final ISelectionProvider provider = getEditorSite().getSelectionProvider();
+        final ISelection sel = (provider == null) ? null : provider.getSelection();
+        final List<?> selected =
+            (sel instanceof IStructuredSelection) ? ((IStructuredSelection)sel).toList() : Collections.emptyList();
+        final WorkflowManagerUI wfm = getWorkflowManagerUI();
+        final long generation = (m_changeCounter == null) ? 0 : m_changeCounter.getGeneration();
+        if ((m_selectionSnapshot == null) || !m_selectionSnapshot.isValidFor(selected, wfm, generation)) {
+            if (m_selectionSnapshot != null) {
+                m_selectionSnapshot.dispose();
+            }
+            m_selectionSnapshot = new SelectionSnapshot(selected, wfm, generation);
+        }
+        return m_selectionSnapshot;
+    }
+
     /**
      * Returns the clipboard content for this editor.
      *
@@ -463,6 +530,7 @@ public void init(final IEditorSite site, final IEditorInput input)
 
         // add this as a CommandStackListener
         getCommandStack().addCommandStackListener(this);
+        getCommandStack().addCommandStackEventListener(m_canceledCommandListener);
 
         // add this as a selection change listener
         getSite().getWorkbenchWindow().getSelectionService()
@@ -572,6 +640,10 @@ public List<IEditorPart> getSubEditors(final NodeID id) {
     @Override
     public void dispose() {
         NodeLogger.getLogger(WorkflowEditor.class).debug("Disposing editor...");
+        if (m_selectionSnapshot != null) {
+            m_selectionSnapshot.dispose();
+            m_selectionSnapshot = null;
+        }
         if (m_zoomWheelListener != null) {
             m_zoomWheelListener.dispose();
         }
@@ -651,6 +723,7 @@ public void run() {
             });
         }
         getCommandStack().removeCommandStackListener(this);
+        getCommandStack().removeCommandStackEventListener(m_canceledCommandListener);
         IPreferenceStore prefStore =
             KNIMEUIPlugin.getDefault().getPreferenceStore();
 
@@ -678,6 +751,14 @@ protected void createActions() {
         // Stack actions
         final StackAction undo = new UndoAction(this);
         final StackAction redo = new RedoAction(this);
+        // replaces the default one, edit parts of large workflows may not all be created yet
+        final SelectAllAction selectAll = new SelectAllAction(this) {
+            @Override
+            public void run() {
+                createDeferredEditParts();
+                super.run();
+            }
+        };
 
         // Editor Actions
         final WorkbenchPartAction delete = new NodeConnectionContainerDeleteAction(this);
@@ -747,6 +828,7 @@ protected void createActions() {
         // register the actions
         m_actionRegistry.registerAction(undo);
         m_actionRegistry.registerAction(redo);
+        m_actionRegistry.registerAction(selectAll);
         m_actionRegistry.registerAction(delete);
         m_actionRegistry.registerAction(save);
         m_actionRegistry.registerAction(saveAs);
@@ -1716,6 +1798,7 @@ public void run() {
             // (SVG export always in UI thread)
             final File svgFile = new File(workflowDir, WorkflowPersistor.SVG_WORKFLOW_FILE);
             svgFile.delete();
+            WorkflowThumbnailCache.getInstance().invalidate(workflowDir);
             Display.getDefault().syncExec(new Runnable() {
                 @Override
                 public void run() {
@@ -2481,6 +2564,11 @@ public void commandStackChanged(final EventObject event) {
         } else {
             unmarkDirty();
         }
+
+        if (m_refresher != null) {
+            // show the effect of the edit promptly, even if the refresh has backed off
+            m_refresher.requestRefresh();
+        }
     }
 
     /*
@@ -3308,6 +3396,8 @@ void setWorkflowManagerUI(final WorkflowManagerUI manager) {
             m_manager.removeNodePropertyChangedListener(this);
             m_manager.removeNodeStateChangeListener(this);
             m_manager.removeUIInformationListener(this);
+            m_changeCounter.dispose();
+            m_changeCounter = null;
         }
         m_manager = manager;
         if (m_manager != null) {
@@ -3318,6 +3408,7 @@ void setWorkflowManagerUI(final WorkflowManagerUI manager) {
             m_manager.addNodePropertyChangedListener(this);
             m_manager.addNodeStateChangeListener(this);
             m_manager.addUIInformationListener(this);
+            m_changeCounter = new WorkflowChangeCounter(m_manager);
         }
     }
 
@@ -3459,6 +3550,14 @@ public void propertyChange(final PropertyChangeEvent event) {
                 updateWorkflowMessages();
                 updateEditorBackgroundColor();
                 break;
+            case PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM:
+            case PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM:
+                // the level of detail is only evaluated while painting
+                final FigureCanvas canvas = getFigureCanvas();
+                if ((canvas != null) && !canvas.isDisposed()) {
+                    canvas.redraw();
+                }
+                break;
             default:
         }
     }
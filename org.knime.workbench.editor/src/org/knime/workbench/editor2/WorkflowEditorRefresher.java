@@ -47,9 +47,12 @@
 
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.preference.IPreferenceStore;
@@ -60,6 +63,8 @@
 import org.eclipse.ui.PlatformUI;
 import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.NodeStateChangeListener;
+import org.knime.core.node.workflow.WorkflowListener;
 import org.knime.core.ui.node.workflow.async.AsyncWorkflowManagerUI;
 import org.knime.core.ui.node.workflow.async.SnapshotNotFoundException;
 import org.knime.core.util.SWTUtilities;
@@ -75,20 +80,27 @@ class WorkflowEditorRefresher {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowEditorRefresher.class);
 
-    /** A timer thread the workflow refresh timer tasks are submitted to. */
-    private static Timer REFRESH_TIMER = null;
+    /**
+     * Upper bound for the refresh delay of an idle workflow, as multiple of the configured interval (the connection
+     * test limits it further if edits are enabled).
+     */
+    private static final int MAX_BACKOFF_FACTOR = 16;
+
+    /** The scheduler all editors submit their refresh and connection-test tasks to. */
+    private static ScheduledExecutorService SCHEDULER = null;
 
-    /** A timer thread the connected timer tasks are submitted to. */
-    private static Timer CONNECTED_TIMER = null;
+    /** If non-null, periodically refreshes the WorkflowManagerUI. */
+    private volatile WorkflowRefreshLoop m_refreshLoop = null;
 
-    /** If non-null, a currently scheduled task that periodically refreshes the WorkflowManagerUI **/
-    private TimerTask m_refreshTimerTask = null;
+    private final WorkflowListener m_workflowListener = e -> markChanged();
+
+    private final NodeStateChangeListener m_stateListener = e -> markChanged();
 
     /**
      * If non-null, it periodically checks whether the workflow has been refreshed within a specified time interval.
      * Otherwise the workflow (and workflow editor) is considered as disconnected.
      */
-    private TimerTask m_connectedTimerTask = null;
+    private ScheduledFuture<?> m_connectedFuture = null;
 
     /** Flag whether the auto-workflow-refresh (for refreshable workflows only) is enabled */
     private boolean m_isAutoRefreshEnabled;
@@ -99,6 +111,9 @@ class WorkflowEditorRefresher {
     /** Flag whether edit operations are disabled */
     private boolean m_isEditDisabled;
 
+    /** Whether the last refresh succeeded; a failure is logged only once. */
+    private volatile boolean m_lastRefreshSuccessful = true;
+
     /** Whether the workflow has been refreshed recently. */
     private AtomicBoolean m_hasBeenRefreshed = new AtomicBoolean(true);
 
@@ -200,7 +215,7 @@ public void partActivated(final IWorkbenchPartReference partRef) {
     void setup() {
         IPreferenceStore prefStore = KNIMEUIPlugin.getDefault().getPreferenceStore();
         m_isAutoRefreshEnabled = prefStore.getBoolean(PreferenceConstants.P_REMOTE_WORKFLOW_EDITOR_AUTO_REFRESH);
-        if (!m_isAutoRefreshEnabled && m_refreshTimerTask != null) {
+        if (!m_isAutoRefreshEnabled && m_refreshLoop != null) {
             cancelTimers();
         }
 
@@ -222,86 +237,61 @@ void setup() {
         }
     }
 
+    private static synchronized ScheduledExecutorService getScheduler() {
+        if (SCHEDULER == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(2, r -> {
+                final Thread t = new Thread(r, "Workflow Refresh Timer-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            SCHEDULER = scheduler;
+        }
+        return SCHEDULER;
+    }
+
     /**
      * Tries to start the refresh timer if enabled, not already running etc.
      */
-    void tryStartingRefreshTimer() {
+    synchronized void tryStartingRefreshTimer() {
         if (m_editor.getWorkflowManagerUI() != null && m_editor.getWorkflowManagerUI() instanceof AsyncWorkflowManagerUI
-            && m_refreshTimerTask == null && m_isAutoRefreshEnabled) {
-            synchronized (WorkflowEditor.class) {
-                if (REFRESH_TIMER == null) {
-                    REFRESH_TIMER = new Timer("Workflow Refresh Timer", true);
-                }
+            && m_refreshLoop == null && m_isAutoRefreshEnabled) {
+            long maxInterval = m_autoRefreshInterval * MAX_BACKOFF_FACTOR;
+            if (!isWorkflowEditDisabled()) {
+                // the connection test expects at least one refresh per timeout
+                maxInterval = Math.min(maxInterval, KNIMEConstants.WORKFLOW_EDITOR_CONNECTION_TIMEOUT / 2);
             }
-            m_refreshTimerTask = new TimerTask() {
-                private boolean m_lastRefreshSuccessful = true;
-                @Override
-                public void run() {
-                    try {
-                        getAsyncWFM().refreshOrFail(false);
-                        m_hasBeenRefreshed.set(true);
-                        m_lastRefreshSuccessful = true;
-                    } catch (SnapshotNotFoundException e) {
-                        //refresh not possible because, e.g., underlying job has been swapped to disk
-                        String message = "The job has been swapped to disk or wasn't accessed for a while."
-                            + "Try re-opening the job-workflow.";
-                        cancelTimers();
-                        disconnect(true, message);
-                        Display.getDefault().syncExec(() -> MessageDialog.openWarning(SWTUtilities.getActiveShell(),
-                            "Auto-refresh failed", message));
-                    } catch (NoSuchElementException e) {
-                        //job-workflow is not available anymore
-                        //job has mostly likely been deleted on the server
-                        String message = "The job has been discarded.";
-                        cancelTimers();
-                        disconnect(true, message);
-                        Display.getDefault().syncExec(() -> MessageDialog.openWarning(SWTUtilities.getActiveShell(),
-                            "Auto-refresh failed", message));
-                    } catch (Exception e) {
-                        //if something went wrong refreshing the workflow (e.g. timeout)
-                        //-> just log it, continue refreshing and hope for the best
-                        if (m_lastRefreshSuccessful) {
-                            //issue a log-warning once if the workflow has been refreshed in the last cycle
-                            LOGGER.warn("Refreshing workflow failed: " + e.getMessage(), e);
-                        }
-                        m_lastRefreshSuccessful = false;
-                   }
-                }
-            };
+            m_refreshLoop = new WorkflowRefreshLoop(getScheduler(), new RemoteWorkflow(),
+                new AdaptiveRefreshInterval(m_autoRefreshInterval, maxInterval));
+            // changes (e.g. state changes or nodes added by the last refresh) keep the refresh rate up
+            getAsyncWFM().addListener(m_workflowListener);
+            getAsyncWFM().addNodeStateChangeListener(m_stateListener);
+
             //delay timer start by 500 ms in order to give the editor time to load the workflow visuals before
             //the change-events (e.g. progress or state) arrive
             //(which otherwise leads, e.g., to a strange position of the node annotations, sometimes)
-            REFRESH_TIMER.schedule(m_refreshTimerTask, 500, m_autoRefreshInterval);
+            m_refreshLoop.start(500);
             LOGGER.debug("Workflow refresh timer scheduled for workflow '" + m_editor.getTitle() + "' every "
-                + m_autoRefreshInterval + " ms");
+                + m_autoRefreshInterval + " ms (up to " + maxInterval + " ms if idle)");
 
             //start timer that checks whether the workflow has been refreshed within a certain time interval
             //otherwise the workflow and workflow editor is regarded as disconnected
             if (!isWorkflowEditDisabled()) {
-                synchronized (WorkflowEditor.class) {
-                    if (CONNECTED_TIMER == null) {
-                        CONNECTED_TIMER = new Timer("Workflow Connection-Test Timer", true);
-                    }
-                }
-                m_connectedTimerTask = new TimerTask() {
-                    @Override
-                    public void run() {
-                        if (m_hasBeenRefreshed.getAndSet(false)) {
-                            //everything fine
-                            if (!isConnected()) {
-                                connect(true);
-                            }
-                        } else {
-                            if (isConnected()) {
-                                disconnect(true,
-                                    "Server not responding, either the server is overloaded or the connection is lost.");
-                            }
+                m_connectedFuture = getScheduler().scheduleWithFixedDelay(() -> {
+                    if (m_hasBeenRefreshed.getAndSet(false)) {
+                        //everything fine
+                        if (!isConnected()) {
+                            connect(true);
+                        }
+                    } else {
+                        if (isConnected()) {
+                            disconnect(true,
+                                "Server not responding, either the server is overloaded or the connection is lost.");
                         }
                     }
-                };
                 //delay timer start by 500 ms (see above)
-                CONNECTED_TIMER.schedule(m_connectedTimerTask, 500,
-                    KNIMEConstants.WORKFLOW_EDITOR_CONNECTION_TIMEOUT);
+                }, 500, KNIMEConstants.WORKFLOW_EDITOR_CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS);
             } else {
                 disconnect(false, "Edit operations are disabled.");
             }
@@ -310,6 +300,16 @@ public void run() {
         }
     }
 
+    /**
+     * Refreshes the workflow as soon as possible and resets the refresh interval to the configured one, e.g. because
+     * the user just edited the workflow. Has no effect if the auto-refresh is not running.
+     */
+    synchronized void requestRefresh() {
+        if (m_refreshLoop != null) {
+            m_refreshLoop.requestRefresh();
+        }
+    }
+
     /**
      * Whether the auto-refresh is enabled.
      *
@@ -390,13 +390,17 @@ private void setConnected(final boolean isConnected, final boolean callback) {
         }
     }
 
-    private boolean cancelTimers() {
-        if (m_refreshTimerTask != null) {
-            m_refreshTimerTask.cancel();
-            m_refreshTimerTask = null;
-            if (m_connectedTimerTask != null) {
-                m_connectedTimerTask.cancel();
-                m_connectedTimerTask = null;
+    private synchronized boolean cancelTimers() {
+        if (m_refreshLoop != null) {
+            m_refreshLoop.stop();
+            if (m_editor.getWorkflowManagerUI() instanceof AsyncWorkflowManagerUI) {
+                getAsyncWFM().removeListener(m_workflowListener);
+                getAsyncWFM().removeNodeStateChangeListener(m_stateListener);
+            }
+            m_refreshLoop = null;
+            if (m_connectedFuture != null) {
+                m_connectedFuture.cancel(false);
+                m_connectedFuture = null;
                 m_hasBeenRefreshed.set(true);
             }
             return true;
@@ -404,6 +408,14 @@ private boolean cancelTimers() {
         return false;
     }
 
+    /** Changes (e.g. state changes or nodes added by the last refresh) keep the refresh rate up. */
+    private void markChanged() {
+        final WorkflowRefreshLoop loop = m_refreshLoop;
+        if (loop != null) {
+            loop.markChanged();
+        }
+    }
+
     private AsyncWorkflowManagerUI getAsyncWFM() {
         if (m_editor.getWorkflowManagerUI() instanceof AsyncWorkflowManagerUI) {
             return (AsyncWorkflowManagerUI)m_editor.getWorkflowManagerUI();
@@ -413,4 +425,54 @@ private AsyncWorkflowManagerUI getAsyncWFM() {
         }
     }
 
+    /** Refreshes the remote workflow of the editor, see {@link WorkflowRefreshLoop}. */
+    private final class RemoteWorkflow implements WorkflowRefreshLoop.Refreshable {
+
+        @Override
+        public WorkflowRefreshLoop.Result refresh() {
+            try {
+                // only the changes since the last refresh are transferred and applied
+                getAsyncWFM().refreshOrFail(false);
+                m_hasBeenRefreshed.set(true);
+                m_lastRefreshSuccessful = true;
+                return WorkflowRefreshLoop.Result.SUCCESSFUL;
+            } catch (SnapshotNotFoundException e) {
+                //refresh not possible because, e.g., underlying job has been swapped to disk
+                String message = "The job has been swapped to disk or wasn't accessed for a while."
+                    + "Try re-opening the job-workflow.";
+                cancelTimers();
+                disconnect(true, message);
+                Display.getDefault().syncExec(() -> MessageDialog.openWarning(SWTUtilities.getActiveShell(),
+                    "Auto-refresh failed", message));
+                return WorkflowRefreshLoop.Result.STOP;
+            } catch (NoSuchElementException e) {
+                //job-workflow is not available anymore
+                //job has mostly likely been deleted on the server
+                String message = "The job has been discarded.";
+                cancelTimers();
+                disconnect(true, message);
+                Display.getDefault().syncExec(() -> MessageDialog.openWarning(SWTUtilities.getActiveShell(),
+                    "Auto-refresh failed", message));
+                return WorkflowRefreshLoop.Result.STOP;
+            } catch (Exception e) {
+                //if something went wrong refreshing the workflow (e.g. timeout)
+                //-> just log it, continue refreshing and hope for the best
+                if (m_lastRefreshSuccessful) {
+                    //issue a log-warning once if the workflow has been refreshed in the last cycle
+                    LOGGER.warn("Refreshing workflow failed: " + e.getMessage(), e);
+                }
+                m_lastRefreshSuccessful = false;
+                return WorkflowRefreshLoop.Result.FAILED;
+            }
+        }
+
+        @Override
+        public boolean isExecuting() {
+            try {
+                return getAsyncWFM().getNodeContainerState().isExecutionInProgress();
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically refreshes a workflow. The delay between two refreshes adapts to how much the workflow is changing, see
+ * {@link AdaptiveRefreshInterval}; the refresh itself is delegated to a {@link Refreshable}, e.g. a remote workflow.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class WorkflowRefreshLoop {
+
+    /** The outcome of a single refresh. */
+    enum Result {
+        /** The workflow has been refreshed. */
+        SUCCESSFUL,
+        /** The refresh failed; it's retried at the configured rate. */
+        FAILED,
+        /** The refresh failed permanently; the loop stops. */
+        STOP;
+    }
+
+    /** The workflow refreshed by the loop. */
+    interface Refreshable {
+        /**
+         * Refreshes the workflow. Called in a thread of the loop's scheduler, never concurrently.
+         *
+         * @return the outcome of the refresh
+         */
+        Result refresh();
+
+        /**
+         * @return whether the workflow is executing (and hence refreshed more often)
+         */
+        boolean isExecuting();
+    }
+
+    private final ScheduledExecutorService m_scheduler;
+
+    private final Refreshable m_workflow;
+
+    private final AdaptiveRefreshInterval m_interval;
+
+    /** Whether the workflow changed since the last refresh, see {@link #markChanged()}. */
+    private final AtomicBoolean m_changed = new AtomicBoolean();
+
+    /** Incremented whenever the loop is (re-)started or stopped, so that outdated refreshes don't reschedule. */
+    private int m_generation;
+
+    /** If non-null, the next scheduled refresh. */
+    private ScheduledFuture<?> m_future;
+
+    /** Whether a refresh is currently running. */
+    private boolean m_refreshing;
+
+    /** Whether another refresh has been requested while a refresh was running, see {@link #requestRefresh()}. */
+    private boolean m_refreshRequested;
+
+    /**
+     * @param scheduler the scheduler to submit the refreshes to
+     * @param workflow the workflow to refresh
+     * @param interval computes the delays between the refreshes
+     */
+    WorkflowRefreshLoop(final ScheduledExecutorService scheduler, final Refreshable workflow,
+        final AdaptiveRefreshInterval interval) {
+        m_scheduler = scheduler;
+        m_workflow = workflow;
+        m_interval = interval;
+    }
+
+    /**
+     * Starts refreshing, unless already running.
+     *
+     * @param initialDelay the delay of the first refresh in ms
+     */
+    synchronized void start(final long initialDelay) {
+        if (m_future == null) {
+            schedule(++m_generation, initialDelay);
+        }
+    }
+
+    /**
+     * Stops refreshing. A refresh that is currently running completes but isn't followed by another one.
+     *
+     * @return <code>true</code> if the loop was running
+     */
+    synchronized boolean stop() {
+        if (m_future == null) {
+            return false;
+        }
+        m_generation++;
+        m_future.cancel(false);
+        m_future = null;
+        m_refreshRequested = false;
+        return true;
+    }
+
+    /**
+     * @return whether the loop is running
+     */
+    synchronized boolean isRunning() {
+        return m_future != null;
+    }
+
+    /**
+     * Notes that the workflow changed (e.g. a node's state), which keeps the refresh rate up.
+     */
+    void markChanged() {
+        m_changed.set(true);
+    }
+
+    /**
+     * Refreshes the workflow as soon as possible and resets the delay to the configured interval, e.g. because the
+     * user just edited the workflow. If a refresh is currently running, the requested one follows right after it.
+     * Has no effect if the loop is not running.
+     */
+    synchronized void requestRefresh() {
+        if (m_future == null) {
+            return;
+        }
+        if (m_refreshing) {
+            // a running refresh can't be canceled (even though its future claims so), it schedules the requested one
+            m_refreshRequested = true;
+        } else if (m_future.cancel(false)) {
+            m_interval.reset();
+            schedule(++m_generation, 0);
+        }
+    }
+
+    private synchronized void schedule(final int generation, final long delay) {
+        if (generation != m_generation) {
+            // stopped or restarted in the meantime
+            return;
+        }
+        m_future = m_scheduler.schedule(() -> refresh(generation), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(final int generation) {
+        synchronized (this) {
+            if (generation != m_generation) {
+                // canceled by a requested refresh or by stopping the loop just after it started
+                return;
+            }
+            if (m_refreshing) {
+                // the loop has been restarted while a refresh of the previous run is still going on
+                m_refreshRequested = true;
+                return;
+            }
+            m_refreshing = true;
+        }
+        Result result = Result.STOP;
+        long delay = 0;
+        try {
+            result = m_workflow.refresh();
+            if (result != Result.STOP) {
+                // failed refreshes are retried at the configured rate
+                final boolean changed = m_changed.getAndSet(false) || (result == Result.FAILED);
+                delay = m_interval.next(changed, m_workflow.isExecuting());
+            }
+        } finally {
+            refreshed(generation, result, delay);
+        }
+    }
+
+    private synchronized void refreshed(final int generation, final Result result, final long delay) {
+        m_refreshing = false;
+        if ((result == Result.STOP) && (generation == m_generation)) {
+            stop();
+        } else if (m_refreshRequested && (m_future != null)) {
+            m_refreshRequested = false;
+            m_future.cancel(false);
+            m_interval.reset();
+            schedule(++m_generation, 0);
+        } else {
+            schedule(generation, delay);
+        }
+    }
+}
@@ -66,6 +66,7 @@
 import org.knime.workbench.editor2.WorkflowEditor;
 import org.knime.workbench.editor2.editparts.ConnectableEditPart;
 import org.knime.workbench.editor2.editparts.NodeContainerEditPart;
+import org.knime.workbench.editor2.editparts.WorkflowRootEditPart;
 
 /**
  * Abstract base class for actions that do something with a
@@ -184,7 +185,18 @@ public void runInSWT() {
      * @return The selected <code>EditParts</code> of the given part.
      */
     protected <T extends EditPart> T[] getSelectedParts(final Class<T> editPartClass) {
-        return filterObjects(editPartClass, getSelectedObjects());
+        return getSelectionSnapshot().getParts(editPartClass);
+    }
+
+    /**
+     * Returns the snapshot of the current selection that is shared by all actions of the editor. Use it to compute
+     * the enablement instead of filtering the selection and querying the workflow for each node again.
+     *
+     * @return the snapshot of the current selection
+     * @since 3.8
+     */
+    protected SelectionSnapshot getSelectionSnapshot() {
+        return m_editor.getSelectionSnapshot();
     }
 
     /**
@@ -307,6 +319,9 @@ protected List<?> getAllObjects() {
 
         // get parent of the node parts
         final EditPart editorPart = (EditPart)provider.getRootEditPart().getChildren().get(0);
+        if (editorPart instanceof WorkflowRootEditPart) {
+            ((WorkflowRootEditPart)editorPart).createDeferredChildren();
+        }
 
         return editorPart.getChildren();
     }
@@ -50,7 +50,6 @@
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.workflow.NodeID;
-import org.knime.core.ui.node.workflow.NodeContainerUI;
 import org.knime.core.ui.node.workflow.WorkflowManagerUI;
 import org.knime.workbench.KNIMEEditorPlugin;
 import org.knime.workbench.core.util.ImageRepository;
@@ -127,18 +126,8 @@ public String getToolTipText() {
      */
     @Override
     protected boolean internalCalculateEnabled() {
-        NodeContainerEditPart[] parts =
-            getSelectedParts(NodeContainerEditPart.class);
         // enable if we have at least one executable node in our selection
-        WorkflowManagerUI wm = getEditor().getWorkflowManagerUI();
-        for (int i = 0; i < parts.length; i++) {
-            NodeContainerUI nc = parts[i].getNodeContainer();
-            if (wm.canExecuteNode(nc.getID())) {
-                return true;
-            }
-        }
-        return false;
-
+        return getSelectionSnapshot().canAny(SelectionSnapshot.Capability.EXECUTE);
     }
 
     /**
@@ -54,7 +54,6 @@
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.MessageBox;
 import org.knime.core.node.NodeLogger;
-import org.knime.core.ui.node.workflow.NodeContainerUI;
 import org.knime.core.util.SWTUtilities;
 import org.knime.workbench.KNIMEEditorPlugin;
 import org.knime.workbench.core.util.ImageRepository;
@@ -179,16 +178,7 @@ public void runOnNodes(final NodeContainerEditPart[] nodeParts) {
      */
     @Override
     protected boolean internalCalculateEnabled() {
-        NodeContainerEditPart[] parts =
-            getSelectedParts(NodeContainerEditPart.class);
-        for (int i = 0; i < parts.length; i++) {
-            NodeContainerEditPart part = parts[i];
-            NodeContainerUI nc = part.getNodeContainer();
-            if (getManagerUI().canResetNode(nc.getID())) {
-                return true;
-            }
-        }
-        return false;
+        return getSelectionSnapshot().canAny(SelectionSnapshot.Capability.RESET);
     }
 
     /**
@@ -139,6 +139,8 @@ protected boolean internalCalculateEnabled() {
     @Override
     public void runOnNodes(final NodeContainerEditPart[] nodeParts) {
         WorkflowManager wfm = getManager();
+        // nodes of the loop may not have edit parts yet
+        getEditor().createDeferredEditParts();
         for (NodeContainerEditPart selNode : nodeParts) {
             NodeContainerUI selNC = selNode.getNodeContainer();
             if (selNC instanceof SingleNodeContainerUI) {
@@ -0,0 +1,203 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.actions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gef.EditPart;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.ui.node.workflow.WorkflowManagerUI;
+import org.knime.workbench.editor2.editparts.NodeContainerEditPart;
+
+/**
+ * A snapshot of the selection in a workflow editor that is shared by all {@link AbstractNodeAction}s to compute their
+ * enablement. The selected edit parts are classified only once per edit part class and the capabilities of the
+ * selected nodes (e.g. whether they can be executed) are queried only once per node, instead of once per action and
+ * enablement check. Since the capabilities also depend on the predecessors and successors of the selected nodes, a
+ * snapshot becomes stale when the state of any node of the workflow (or the workflow's structure) changes. The editor
+ * counts these changes with a single listener and stamps each snapshot with the current count (its generation); it
+ * creates a new snapshot if the selection or the generation changed, see
+ * {@link org.knime.workbench.editor2.WorkflowEditor#getSelectionSnapshot()}.
+ *
+ * <p>
+ * Snapshots are meant to be used in the UI thread only.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class SelectionSnapshot {
+
+    /** Capabilities of a node that are relevant for the enablement of actions. */
+    public enum Capability {
+        /** see {@link WorkflowManagerUI#canExecuteNode(NodeID)} */
+        EXECUTE,
+        /** see {@link WorkflowManagerUI#canResetNode(NodeID)} */
+        RESET,
+        /** see {@link WorkflowManagerUI#canCancelNode(NodeID)} */
+        CANCEL;
+    }
+
+    private final WorkflowManagerUI m_manager;
+
+    private final List<?> m_objects;
+
+    private final long m_generation;
+
+    /** Selected parts by (edit part) class. */
+    private final Map<Class<?>, Object[]> m_parts = new HashMap<>();
+
+    /** Capabilities by node; only the capabilities that were asked for are contained. */
+    private final Map<NodeID, Map<Capability, Boolean>> m_capabilities = new HashMap<>();
+
+    /** Whether any of the selected nodes has a capability. */
+    private final Map<Capability, Boolean> m_anyCapability = new EnumMap<>(Capability.class);
+
+    private boolean m_disposed;
+
+    /**
+     * @param selectedObjects the selected objects
+     * @param manager the workflow of the editor
+     * @param generation the number of state and structure changes of the workflow so far
+     */
+    public SelectionSnapshot(final List<?> selectedObjects, final WorkflowManagerUI manager, final long generation) {
+        m_objects = Collections.unmodifiableList(new ArrayList<>(selectedObjects));
+        m_manager = manager;
+        m_generation = generation;
+    }
+
+    /**
+     * @param selectedObjects the currently selected objects
+     * @param manager the current workflow of the editor
+     * @param generation the current number of state and structure changes of the workflow
+     * @return whether this snapshot describes the given selection and the workflow hasn't changed since this snapshot
+     *         was created
+     */
+    public boolean isValidFor(final List<?> selectedObjects, final WorkflowManagerUI manager, final long generation) {
+        // the viewer creates a new selection object each time it is asked, hence compare the content
+        return !m_disposed && (generation == m_generation) && (manager == m_manager)
+            && m_objects.equals(selectedObjects);
+    }
+
+    /**
+     * @return the selected objects
+     */
+    public List<?> getSelectedObjects() {
+        return m_objects;
+    }
+
+    /**
+     * @param editPartClass the class of interest
+     * @param <T> the class of interest
+     * @return the selected edit parts of the given class (a new array that can be modified by the caller)
+     */
+    public <T extends EditPart> T[] getParts(final Class<T> editPartClass) {
+        @SuppressWarnings("unchecked")
+        T[] parts = (T[])m_parts.computeIfAbsent(editPartClass,
+            c -> AbstractNodeAction.filterObjects(editPartClass, m_objects));
+        return parts.clone();
+    }
+
+    /**
+     * @param id a selected node
+     * @param capability the capability
+     * @return whether the node has the capability
+     */
+    public boolean can(final NodeID id, final Capability capability) {
+        Map<Capability, Boolean> capabilities =
+            m_capabilities.computeIfAbsent(id, i -> new EnumMap<>(Capability.class));
+        return capabilities.computeIfAbsent(capability, c -> query(id, c));
+    }
+
+    /**
+     * @param capability the capability
+     * @return whether at least one of the selected nodes has the capability
+     */
+    public boolean canAny(final Capability capability) {
+        return m_anyCapability.computeIfAbsent(capability, c -> {
+            for (NodeContainerEditPart part : getNodeParts()) {
+                if (can(part.getNodeContainer().getID(), c)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private NodeContainerEditPart[] getNodeParts() {
+        @SuppressWarnings("unchecked")
+        NodeContainerEditPart[] parts = (NodeContainerEditPart[])m_parts.computeIfAbsent(NodeContainerEditPart.class,
+            c -> AbstractNodeAction.filterObjects(NodeContainerEditPart.class, m_objects));
+        return parts;
+    }
+
+    private boolean query(final NodeID id, final Capability capability) {
+        switch (capability) {
+            case EXECUTE:
+                return m_manager.canExecuteNode(id);
+            case RESET:
+                return m_manager.canResetNode(id);
+            case CANCEL:
+                return m_manager.canCancelNode(id);
+            default:
+                throw new AssertionError("Unhandled capability: " + capability);
+        }
+    }
+
+    /**
+     * Releases the cached edit parts and capabilities; the snapshot must not be used afterwards.
+     */
+    public void dispose() {
+        m_disposed = true;
+        m_parts.clear();
+        m_capabilities.clear();
+        m_anyCapability.clear();
+    }
+}
@@ -48,6 +48,7 @@
  */
 package org.knime.workbench.editor2.commands;
 
+import static org.knime.workbench.ui.async.AsyncUtil.refreshInBackground;
 import static org.knime.workbench.ui.async.AsyncUtil.waitForTerminationAndOpenDialogWhenFailed;
 
 import java.util.List;
@@ -114,10 +115,10 @@ public static AbstractKNIMECommand combineWithRefresh(final List<AsyncCommand> a
              */
             @Override
             public void execute() {
-                waitForTerminationAndOpenDialogWhenFailed(CompletableFuture
-                    .allOf(
-                        asyncCommands.stream().map(c -> c.executeAsync()).toArray(size -> new CompletableFuture[size]))
-                    .thenCompose(f -> asyncWFM.refreshAsync(false)), waitingMessage);
+                waitForTerminationAndOpenDialogWhenFailed(CompletableFuture.allOf(
+                    asyncCommands.stream().map(c -> c.executeAsync()).toArray(size -> new CompletableFuture[size])),
+                    waitingMessage);
+                refreshInBackground(asyncWFM);
             }
 
             /**
@@ -125,9 +126,10 @@ public void execute() {
              */
             @Override
             public void undo() {
-                waitForTerminationAndOpenDialogWhenFailed(CompletableFuture
-                    .allOf(asyncCommands.stream().map(c -> c.undoAsync()).toArray(size -> new CompletableFuture[size]))
-                    .thenCompose(f -> asyncWFM.refreshAsync(false)), waitingMessage);
+                waitForTerminationAndOpenDialogWhenFailed(CompletableFuture.allOf(
+                    asyncCommands.stream().map(c -> c.undoAsync()).toArray(size -> new CompletableFuture[size])),
+                    waitingMessage);
+                refreshInBackground(asyncWFM);
             }
         };
     }
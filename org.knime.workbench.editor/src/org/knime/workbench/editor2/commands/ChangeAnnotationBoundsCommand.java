@@ -47,6 +47,7 @@
  */
 package org.knime.workbench.editor2.commands;
 
+import static org.knime.workbench.ui.async.AsyncUtil.refreshInBackground;
 import static org.knime.workbench.ui.async.AsyncUtil.waitForTerminationAndOpenDialogWhenFailed;
 
 import java.util.concurrent.CompletableFuture;
@@ -116,9 +117,9 @@ public AsyncWorkflowManagerUI getAsyncHostWFM() {
     @Override
     public void execute() {
         if (shallExecuteAsync()) {
-            waitForTerminationAndOpenDialogWhenFailed(
-                executeAsync().thenCompose(f -> getAsyncHostWFM().refreshAsync(false)),
-                "Changing annotation bounds ...");
+            waitForTerminationAndOpenDialogWhenFailed(executeAsync(), "Changing annotation bounds ...");
+            // the editor doesn't need to wait for the refresh, concurrent refreshes (e.g. of other moves) are shared
+            refreshInBackground(getAsyncHostWFM());
         } else {
             Annotation annotation = m_annotationEditPart.getModel();
             annotation.setDimension(m_newBounds.x, m_newBounds.y, m_newBounds.width, m_newBounds.height);
@@ -146,9 +147,8 @@ public CompletableFuture<Void> executeAsync() {
     @Override
     public void undo() {
         if (shallExecuteAsync()) {
-            waitForTerminationAndOpenDialogWhenFailed(
-                undoAsync().thenCompose(f -> getAsyncHostWFM().refreshAsync(false)),
-                "Undo change of annotations bounds ...");
+            waitForTerminationAndOpenDialogWhenFailed(undoAsync(), "Undo change of annotations bounds ...");
+            refreshInBackground(getAsyncHostWFM());
         } else {
             Annotation annotation = m_annotationEditPart.getModel();
             annotation.setDimension(m_oldBounds.x, m_oldBounds.y, m_oldBounds.width, m_oldBounds.height);
@@ -47,6 +47,7 @@
  */
 package org.knime.workbench.editor2.commands;
 
+import static org.knime.workbench.ui.async.AsyncUtil.refreshInBackground;
 import static org.knime.workbench.ui.async.AsyncUtil.waitForTerminationAndOpenDialogWhenFailed;
 
 import java.util.Arrays;
@@ -126,8 +127,9 @@ public AsyncWorkflowManagerUI getAsyncHostWFM() {
     @Override
     public void execute() {
         if (shallExecuteAsync()) {
-            waitForTerminationAndOpenDialogWhenFailed(
-                executeAsync().thenCompose(f -> getAsyncHostWFM().refreshAsync(false)),               "Moving node ...");
+            waitForTerminationAndOpenDialogWhenFailed(executeAsync(), "Moving node ...");
+            // the editor doesn't need to wait for the refresh, concurrent refreshes (e.g. of other moves) are shared
+            refreshInBackground(getAsyncHostWFM());
         } else {
             if (!Arrays.equals(m_oldBounds, m_newBounds)) {
                 WorkflowManagerUI wm = getHostWFMUI();
@@ -165,8 +167,8 @@ public CompletableFuture<Void> executeAsync() {
     @Override
     public void undo() {
         if (shallExecuteAsync()) {
-            waitForTerminationAndOpenDialogWhenFailed(
-                undoAsync().thenCompose(f -> getAsyncHostWFM().refreshAsync(false)), "Undo moving node ...");
+            waitForTerminationAndOpenDialogWhenFailed(undoAsync(), "Undo moving node ...");
+            refreshInBackground(getAsyncHostWFM());
         } else {
             if (!Arrays.equals(m_oldBounds, m_newBounds)) {
                 NodeUIInformation information = NodeUIInformation.builder()
@@ -50,6 +50,7 @@
 import static org.knime.workbench.ui.async.AsyncUtil.wfmAsyncSwitch;
 import static org.knime.workbench.ui.async.AsyncUtil.wfmAsyncSwitchRethrow;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -59,7 +60,6 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Supplier;
 
 import org.eclipse.gef.EditPartViewer;
 import org.knime.core.node.workflow.Annotation;
@@ -108,8 +108,8 @@ public class DeleteCommand extends AbstractKNIMECommand {
      */
     private final int m_connectionCount;
 
-    /** Copy of deleted sub flow for undo. */
-    private WorkflowCopyUI m_undoCopy;
+    /** Copy of deleted sub flow for undo, possibly written to disk. */
+    private UndoSnapshotStore.Snapshot m_undoCopy;
 
     /** A viewer in which to update the selection upon undo or null if none
      * could be determined. */
@@ -238,9 +238,13 @@ public void execute() {
             WorkflowCopyContent.Builder content = WorkflowCopyContent.builder();
             content.setNodeIDs(m_nodeIDs);
             content.setAnnotationIDs(m_annotationIDs);
+            disposeUndoCopy();
             try {
-                m_undoCopy = wfmAsyncSwitchRethrow(wfm -> wfm.cut(content.build()), wfm -> wfm.cutAsync(content.build()),
-                    hostWFM, "Deleting content ...");
+                WorkflowCopyUI copy = wfmAsyncSwitchRethrow(wfm -> wfm.cut(content.build()),
+                    wfm -> wfm.cutAsync(content.build()), hostWFM, "Deleting content ...");
+                if (copy != null) {
+                    m_undoCopy = UndoSnapshotStore.getInstance().add(copy, m_nodeIDs.length);
+                }
             } catch (OperationNotAllowedException e) {
                 openDialog("Problem while deleting parts", e.getMessage());
                 return;
@@ -272,56 +276,65 @@ public void undo() {
             m_viewer.deselectAll();
         }
 
+        final WorkflowCopyUI undoCopy;
+        try {
+            undoCopy = (m_undoCopy != null) ? m_undoCopy.get() : null;
+        } catch (IOException e) {
+            openDialog("Problem while restoring deleted parts", e.getMessage());
+            return;
+        }
+        // not needed anymore, redo creates a new copy
+        disposeUndoCopy();
+
         WorkflowManagerUI hostWFM = getHostWFMUI();
         wfmAsyncSwitch(wfm -> {
             //paste copied content
-            if (m_undoCopy != null) {
-                wfm.paste(m_undoCopy);
+            if (undoCopy != null) {
+                wfm.paste(undoCopy);
             }
 
             //add dangling connections
-            for (ConnectionContainerUI cc : m_connections) {
-                wfm.addConnection(cc.getSource(), cc.getSourcePort(), cc.getDest(), cc.getDestPort(),
-                    cc.getUIInfo() != null ? cc.getUIInfo().getAllBendpoints() : null);
-            }
+            restoreConnections(wfm).apply();
             return null;
         }, wfm -> {
             //paste copied content
             CompletableFuture<WorkflowCopyContent> pasteFuture = null;
-            if (m_undoCopy != null) {
-                assert m_undoCopy instanceof WorkflowCopyWithOffsetUI;
-                pasteFuture = wfm.pasteAsync((WorkflowCopyWithOffsetUI)m_undoCopy);
+            if (undoCopy != null) {
+                assert undoCopy instanceof WorkflowCopyWithOffsetUI;
+                pasteFuture = wfm.pasteAsync((WorkflowCopyWithOffsetUI)undoCopy);
             }
 
-            //add dangling connections
-            Supplier<CompletableFuture<Void>> addConnections = () -> {
-                CompletableFuture<?>[] futures = new CompletableFuture[m_connections.length];
-                for (int i = 0; i < m_connections.length; i++) {
-                    //TODO reduce the number of async requests and or parallize!!
-                    ConnectionContainerUI cc = m_connections[i];
-                    CompletableFuture<ConnectionContainerUI> future =
-                        wfm.addConnectionAsync(cc.getSource(), cc.getSourcePort(), cc.getDest(), cc.getDestPort(),
-                            cc.getUIInfo() != null ? cc.getUIInfo().getAllBendpoints() : null).getUnderlyingFuture();
-                    futures[i] = future;
-                }
-                //combine futures and refresh workflow when all are completed
-                return CompletableFuture.allOf(futures).thenCompose(f -> wfm.refreshAsync(false));
-            };
+            //add dangling connections (all requests at once) and refresh the workflow once they are completed
             if (pasteFuture != null) {
-                return pasteFuture.thenCompose(c -> addConnections.get());
+                return pasteFuture.thenCompose(c -> restoreConnections(wfm).applyAsync());
             } else {
-                return addConnections.get();
+                return restoreConnections(wfm).applyAsync();
             }
         }, hostWFM, "Pasting workflow content ...");
     }
 
+    private WorkflowChangeBatch restoreConnections(final WorkflowManagerUI wfm) {
+        WorkflowChangeBatch batch = new WorkflowChangeBatch(wfm);
+        for (ConnectionContainerUI cc : m_connections) {
+            batch.addConnection(cc);
+        }
+        return batch;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void dispose() {
-        m_undoCopy = null;
+        disposeUndoCopy();
         super.dispose();
     }
 
+    private void disposeUndoCopy() {
+        if (m_undoCopy != null) {
+            m_undoCopy.dispose();
+            m_undoCopy = null;
+        }
+    }
+
     /** @return the number of nodes to be deleted. */
     public int getNodeCount() {
         return m_nodeIDs.length;
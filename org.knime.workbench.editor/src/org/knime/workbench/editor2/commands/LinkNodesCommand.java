@@ -54,10 +54,10 @@
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.MessageDialogWithToggle;
 import org.knime.core.node.NodeLogger;
-import org.knime.core.node.workflow.ConnectionContainer;
 import org.knime.core.node.workflow.NodeID;
 import org.knime.core.node.workflow.NodeTimer;
 import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.ui.node.workflow.ConnectionContainerUI;
 import org.knime.core.ui.node.workflow.NodeContainerUI;
 import org.knime.core.ui.wrapper.Wrapper;
 import org.knime.workbench.editor2.actions.LinkNodesAction;
@@ -74,7 +74,7 @@ public class LinkNodesCommand extends AbstractKNIMECommand {
 
 
     private final Collection<LinkNodesAction.PlannedConnection> m_connectionPlans;
-    private Collection<ConnectionContainer> m_removedConnections;
+    private Collection<ConnectionContainerUI> m_removedConnections;
 
     private boolean m_confirmConnectionReplacement;
 
@@ -110,8 +110,6 @@ public boolean canExecute() {
      */
     @Override
     public void execute() {
-        final WorkflowManager wm = getHostWFM();
-
         if (m_confirmConnectionReplacement) {
             boolean willReplaceAtLeastOneAlreadyExecutedIncoming = false;
 
@@ -134,41 +132,46 @@ public void execute() {
         }
 
         m_removedConnections = new ArrayList<>();
+        // replace all connections in one batch, the editor coalesces the resulting refreshes
+        final WorkflowChangeBatch batch = new WorkflowChangeBatch(getHostWFMUI());
         for (final LinkNodesAction.PlannedConnection planAction : m_connectionPlans) {
-            final NodeContainerUI sourceUI = planAction.getSourceNode().getNodeContainer();
-            final NodeID sourceNodeID = sourceUI.getID();
-            final NodeContainerUI destinationUI = planAction.getDestinationNode().getNodeContainer();
-            final NodeID destinationNodeID = destinationUI.getID();
-
-            if (planAction.shouldDetachDestinationFirst()) {
-                final ConnectionContainer cc =
-                    wm.getIncomingConnectionFor(destinationNodeID, planAction.getDestinationInportIndex());
+            batch.add(w -> {
+                final NodeContainerUI sourceUI = planAction.getSourceNode().getNodeContainer();
+                final NodeID sourceNodeID = sourceUI.getID();
+                final NodeContainerUI destinationUI = planAction.getDestinationNode().getNodeContainer();
+                final NodeID destinationNodeID = destinationUI.getID();
+
+                if (planAction.shouldDetachDestinationFirst()) {
+                    final ConnectionContainerUI cc =
+                        w.getIncomingConnectionFor(destinationNodeID, planAction.getDestinationInportIndex());
+
+                    try {
+                        w.removeConnection(cc);
+
+                        m_removedConnections.add(cc);
+                    } catch (Exception e) {
+                        LOGGER.error("Could not delete existing inport connection for " + destinationNodeID + ":"
+                            + planAction.getDestinationInportIndex() + "; skipping new connection task from "
+                            + sourceNodeID + ":" + planAction.getSourceOutportIndex() + " to " + destinationNodeID
+                            + ":" + planAction.getDestinationInportIndex() + " due to: " + e.getMessage(), e);
+                        return;
+                    }
+                }
 
                 try {
-                    wm.removeConnection(cc);
+                    w.addConnection(sourceNodeID, planAction.getSourceOutportIndex(), destinationNodeID,
+                        planAction.getDestinationInportIndex());
 
-                    m_removedConnections.add(cc);
+                    NodeTimer.GLOBAL_TIMER.addConnectionCreation(Wrapper.unwrapNC(sourceUI),
+                        Wrapper.unwrapNC(destinationUI));
                 } catch (Exception e) {
-                    LOGGER.error("Could not delete existing inport connection for " + destinationNodeID + ":"
-                        + planAction.getDestinationInportIndex() + "; skipping new connection task from " + sourceNodeID
-                        + ":" + planAction.getSourceOutportIndex() + " to " + destinationNodeID + ":"
-                        + planAction.getDestinationInportIndex() + " due to: " + e.getMessage(), e);
-                    continue;
+                    LOGGER.error("Failed to connect " + sourceNodeID + ":" + planAction.getSourceOutportIndex()
+                        + " to " + destinationNodeID + ":" + planAction.getDestinationInportIndex() + " due to: "
+                        + e.getMessage(), e);
                 }
-            }
-
-            try {
-                wm.addConnection(sourceNodeID, planAction.getSourceOutportIndex(), destinationNodeID,
-                    planAction.getDestinationInportIndex());
-
-                NodeTimer.GLOBAL_TIMER.addConnectionCreation(Wrapper.unwrapNC(sourceUI),
-                    Wrapper.unwrapNC(destinationUI));
-            } catch (Exception e) {
-                LOGGER.error("Failed to connect " + sourceNodeID + ":" + planAction.getSourceOutportIndex() + " to "
-                    + destinationNodeID + ":" + planAction.getDestinationInportIndex() + " due to: " + e.getMessage(),
-                    e);
-            }
+            });
         }
+        batch.apply();
     }
 
     /**
@@ -176,31 +179,35 @@ public void execute() {
      */
     @Override
     public void undo() {
-        final WorkflowManager wm = getHostWFM();
-
+        final WorkflowChangeBatch batch = new WorkflowChangeBatch(getHostWFMUI());
         for (final LinkNodesAction.PlannedConnection planAction : m_connectionPlans) {
-            final NodeID destinationNodeID = planAction.getDestinationNode().getNodeContainer().getID();
-            final ConnectionContainer cc =
-                    wm.getIncomingConnectionFor(destinationNodeID, planAction.getDestinationInportIndex());
-
-            try {
-                wm.removeConnection(cc);
-            } catch (Exception e) {
-                LOGGER.error("Could not remove connection from " + cc.getSource() + ":" + cc.getSourcePort()
-                    + " to " + cc.getDest() + ":" + cc.getDestPort() + " due to: " + e.getMessage(), e);
-            }
+            batch.add(w -> {
+                final NodeID destinationNodeID = planAction.getDestinationNode().getNodeContainer().getID();
+                final ConnectionContainerUI cc =
+                        w.getIncomingConnectionFor(destinationNodeID, planAction.getDestinationInportIndex());
+
+                try {
+                    w.removeConnection(cc);
+                } catch (Exception e) {
+                    LOGGER.error("Could not remove connection from " + cc.getSource() + ":" + cc.getSourcePort()
+                        + " to " + cc.getDest() + ":" + cc.getDestPort() + " due to: " + e.getMessage(), e);
+                }
+            });
         }
 
-        for (final ConnectionContainer cc : m_removedConnections) {
-            try {
-                final ConnectionContainer restoredCC =
-                    wm.addConnection(cc.getSource(), cc.getSourcePort(), cc.getDest(), cc.getDestPort());
+        for (final ConnectionContainerUI cc : m_removedConnections) {
+            batch.add(w -> {
+                try {
+                    final ConnectionContainerUI restoredCC =
+                        w.addConnection(cc.getSource(), cc.getSourcePort(), cc.getDest(), cc.getDestPort());
 
-                restoredCC.setUIInfo(cc.getUIInfo());
-            } catch (Exception e) {
-                LOGGER.error("Could not restore connection from " + cc.getSource() + ":" + cc.getSourcePort()
-                    + " to " + cc.getDest() + ":" + cc.getDestPort() + " due to: " + e.getMessage(), e);
-            }
+                    restoredCC.setUIInfo(cc.getUIInfo());
+                } catch (Exception e) {
+                    LOGGER.error("Could not restore connection from " + cc.getSource() + ":" + cc.getSourcePort()
+                        + " to " + cc.getDest() + ":" + cc.getDestPort() + " due to: " + e.getMessage(), e);
+                }
+            });
         }
+        batch.apply();
     }
 }
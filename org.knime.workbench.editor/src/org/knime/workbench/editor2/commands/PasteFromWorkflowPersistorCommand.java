@@ -185,27 +185,28 @@ public void execute() {
             final int[] moveDist = m_shiftCalculator.calculateShift(insertedElementBounds, manager, m_clipboardObject);
             // for redo-operations we need the exact same shift.
             m_shiftCalculator = new FixedShiftCalculator(moveDist);
+            // move all pasted objects in one batch, the editor coalesces the resulting refreshes
+            final WorkflowChangeBatch batch = new WorkflowChangeBatch(manager);
             for (final NodeID id : pastedNodes) {
                 newIDs.add(id);
-                final NodeContainerUI nc = manager.getNodeContainer(id);
-                final NodeUIInformation oldUI = nc.getUIInformation();
-                final NodeUIInformation newUI = NodeUIInformation.builder(oldUI).translate(moveDist).build();
-                nc.setUIInformation(newUI);
+                final NodeUIInformation oldUI = manager.getNodeContainer(id).getUIInformation();
+                batch.setNodeUIInformation(id, NodeUIInformation.builder(oldUI).translate(moveDist).build());
             }
-            for (final ConnectionContainerUI conn : manager.getConnectionContainers()) {
-                if (newIDs.contains(conn.getDest()) && newIDs.contains(conn.getSource())) {
-                    // get bend points and move them
+            for (final NodeID id : pastedNodes) {
+                // only the connections between pasted nodes (the outgoing ones suffice)
+                for (final ConnectionContainerUI conn : manager.getOutgoingConnectionsFor(id)) {
                     final ConnectionUIInformation oldUI = conn.getUIInfo();
-                    if (oldUI != null) {
-                        final ConnectionUIInformation newUI =
-                            ConnectionUIInformation.builder(oldUI).translate(moveDist).build();
-                        conn.setUIInfo(newUI);
+                    if (newIDs.contains(conn.getDest()) && (oldUI != null)) {
+                        // move the bend points
+                        batch.setConnectionUIInformation(conn,
+                            ConnectionUIInformation.builder(oldUI).translate(moveDist).build());
                     }
                 }
             }
             for (final WorkflowAnnotation a : pastedAnnos) {
-                a.shiftPosition(moveDist[0], moveDist[1]);
+                batch.shiftAnnotation(a, moveDist[0], moveDist[1]);
             }
+            batch.apply();
             setFutureSelection(pastedContent.getNodeIDs(),
                 Arrays.asList(manager.getWorkflowAnnotations(pastedContent.getAnnotationIDs())));
             return pastedContent;
@@ -65,6 +65,7 @@
 import org.knime.core.node.workflow.NodeUIInformation;
 import org.knime.core.node.workflow.WorkflowManager;
 import org.knime.core.ui.node.workflow.ConnectionContainerUI;
+import org.knime.core.ui.wrapper.WorkflowManagerWrapper;
 import org.knime.core.util.SWTUtilities;
 import org.knime.workbench.ui.KNIMEUIPlugin;
 import org.knime.workbench.ui.preferences.PreferenceConstants;
@@ -246,41 +247,36 @@ public void reconnect(final NodeContainer container) {
             outShift = 0;
         }
 
-        // set incoming connections
+        // set incoming and outgoing connections in one batch, the editor coalesces the resulting refreshes
         final NodeID newId = container.getID();
+        final WorkflowChangeBatch batch = new WorkflowChangeBatch(WorkflowManagerWrapper.wrap(m_wfm));
         for (final ConnectionContainer c : m_incomingConnections) {
             if (m_wfm.canAddConnection(c.getSource(), c.getSourcePort(), newId, c.getDestPort() + inShift)) {
-                final ConnectionContainer cc =
-                    m_wfm.addConnection(c.getSource(), c.getSourcePort(), newId, c.getDestPort() + inShift);
-
-                if (m_connectionUIInfoMap != null) {
-                    final ConnectionUIInformation uiInfo = m_connectionUIInfoMap.get(c);
-
-                    if (uiInfo != null) {
-                        cc.setUIInfo(uiInfo);
-                    }
-                }
+                final int destPort = c.getDestPort() + inShift;
+                batch.add(w -> setUIInfo(c, w.addConnection(c.getSource(), c.getSourcePort(), newId, destPort)));
             } else {
                 break;
             }
         }
 
-        // set outgoing connections
         for (final ConnectionContainer c : m_outgoingConnections) {
             if (m_wfm.canAddConnection(newId, c.getSourcePort() + outShift, c.getDest(), c.getDestPort())) {
-                final ConnectionContainer cc =
-                    m_wfm.addConnection(newId, c.getSourcePort() + outShift, c.getDest(), c.getDestPort());
-
-                if (m_connectionUIInfoMap != null) {
-                    final ConnectionUIInformation uiInfo = m_connectionUIInfoMap.get(c);
-
-                    if (uiInfo != null) {
-                        cc.setUIInfo(uiInfo);
-                    }
-                }
+                final int sourcePort = c.getSourcePort() + outShift;
+                batch.add(w -> setUIInfo(c, w.addConnection(newId, sourcePort, c.getDest(), c.getDestPort())));
             } else {
                 break;
             }
         }
+        batch.apply();
+    }
+
+    private void setUIInfo(final ConnectionContainer oldConnection, final ConnectionContainerUI newConnection) {
+        if (m_connectionUIInfoMap != null) {
+            final ConnectionUIInformation uiInfo = m_connectionUIInfoMap.get(oldConnection);
+
+            if (uiInfo != null) {
+                newConnection.setUIInfo(uiInfo);
+            }
+        }
     }
  }
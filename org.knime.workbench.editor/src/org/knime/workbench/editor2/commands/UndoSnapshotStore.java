@@ -0,0 +1,452 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.commands;
+
+import static org.knime.core.ui.wrapper.Wrapper.wraps;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.FileWorkflowPersistor;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.node.workflow.WorkflowAnnotation;
+import org.knime.core.node.workflow.WorkflowAnnotationID;
+import org.knime.core.node.workflow.WorkflowCopyContent;
+import org.knime.core.node.workflow.WorkflowCreationHelper;
+import org.knime.core.node.workflow.WorkflowLoadHelper;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.node.workflow.WorkflowPersistor;
+import org.knime.core.ui.node.workflow.WorkflowCopyUI;
+import org.knime.core.ui.node.workflow.WorkflowManagerUI;
+import org.knime.core.ui.wrapper.WorkflowManagerWrapper;
+import org.knime.core.util.FileUtil;
+import org.knime.workbench.ui.KNIMEUIPlugin;
+import org.knime.workbench.ui.preferences.PreferenceConstants;
+
+/**
+ * Keeps the workflow copies that commands need for undo (e.g. the nodes removed by a {@link DeleteCommand}) within a
+ * memory budget shared by all workflow editors (see {@link PreferenceConstants#P_UNDO_MEMORY_BUDGET}). When the budget
+ * is exceeded, the least recently stored copies are written to a temporary directory in the background and only read
+ * back when an undo reaches them. A copy read from disk is pasted exactly like the original one, i.e. with the same
+ * node ids, connections and annotations.
+ *
+ * <p>
+ * Only copies of local workflows can be written to disk; copies of remote workflows are small and always kept in
+ * memory. The size of a copy in memory is estimated from its number of nodes, calibrated with the sizes of the copies
+ * written to disk so far.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class UndoSnapshotStore {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(UndoSnapshotStore.class);
+
+    private static final UndoSnapshotStore INSTANCE = new UndoSnapshotStore();
+
+    /** Estimated size of a node in a workflow copy until copies have been measured. */
+    private static final long INITIAL_BYTES_PER_NODE = 32 * 1024;
+
+    private static final AtomicInteger SNAPSHOT_COUNTER = new AtomicInteger();
+
+    private final ExecutorService m_spillExecutor = Executors.newSingleThreadExecutor(r -> {
+        final Thread t = new Thread(r, "KNIME-Undo-Spill");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Snapshots whose copy is in memory, least recently used first. Guarded by this. */
+    private final Set<Snapshot> m_inMemory = new LinkedHashSet<>();
+
+    private long m_budget = -1;
+
+    private long m_memoryFootprint;
+
+    private long m_diskFootprint;
+
+    private long m_measuredBytes;
+
+    private long m_measuredNodes;
+
+    private File m_spillDir;
+
+    /** Only for tests, use {@link #getInstance()}. */
+    UndoSnapshotStore() {
+    }
+
+    /**
+     * @return the singleton instance
+     */
+    public static UndoSnapshotStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Stores a copy for undo. Older copies may be written to disk as a consequence.
+     *
+     * @param copy the workflow copy
+     * @param nodeCount the number of nodes in the copy, used to estimate its size
+     * @return the handle to retrieve the copy with; must be disposed when it is no longer needed
+     */
+    public synchronized Snapshot add(final WorkflowCopyUI copy, final int nodeCount) {
+        final Snapshot snapshot = new Snapshot(copy, nodeCount, wraps(copy, WorkflowPersistor.class));
+        m_inMemory.add(snapshot);
+        m_memoryFootprint += snapshot.m_estimatedBytes;
+        evict();
+        return snapshot;
+    }
+
+    /**
+     * @return the estimated number of bytes the undo copies in memory occupy
+     */
+    public synchronized long getMemoryFootprint() {
+        return m_memoryFootprint;
+    }
+
+    /**
+     * @return the number of bytes the undo copies written to disk occupy
+     */
+    public synchronized long getDiskFootprint() {
+        return m_diskFootprint;
+    }
+
+    /**
+     * Sets the memory budget, copies that exceed it are written to disk.
+     *
+     * @param bytes the budget in bytes, 0 keeps only the copies in memory that are being used
+     */
+    public synchronized void setMemoryBudget(final long bytes) {
+        m_budget = bytes;
+        evict();
+    }
+
+    /** Must be called while holding the monitor of this store. */
+    private void evict() {
+        if (m_budget < 0) {
+            initBudget();
+        }
+        long remaining = m_memoryFootprint;
+        final Iterator<Snapshot> it = m_inMemory.iterator();
+        while ((remaining > m_budget) && it.hasNext()) {
+            final Snapshot snapshot = it.next();
+            remaining -= snapshot.m_estimatedBytes;
+            if (!snapshot.m_spillable) {
+                continue;
+            }
+            if (snapshot.m_dir != null) {
+                // already on disk, just let go of the copy
+                it.remove();
+                snapshot.m_copy = null;
+                m_memoryFootprint -= snapshot.m_estimatedBytes;
+            } else if (snapshot.m_spillFuture == null) {
+                snapshot.m_spillFuture = m_spillExecutor.submit(() -> spill(snapshot));
+            }
+        }
+    }
+
+    private void initBudget() {
+        final KNIMEUIPlugin plugin = KNIMEUIPlugin.getDefault();
+        if (plugin == null) {
+            // not running inside the workbench
+            m_budget = PreferenceConstants.P_UNDO_MEMORY_BUDGET_DEFAULT * 1024L * 1024L;
+            return;
+        }
+        final IPreferenceStore store = plugin.getPreferenceStore();
+        m_budget = store.getInt(PreferenceConstants.P_UNDO_MEMORY_BUDGET) * 1024L * 1024L;
+        store.addPropertyChangeListener(event -> {
+            if (PreferenceConstants.P_UNDO_MEMORY_BUDGET.equals(event.getProperty())) {
+                setMemoryBudget(store.getInt(PreferenceConstants.P_UNDO_MEMORY_BUDGET) * 1024L * 1024L);
+            }
+        });
+    }
+
+    /** Runs in the spill thread. */
+    private void spill(final Snapshot snapshot) {
+        final WorkflowCopyUI copy;
+        synchronized (this) {
+            copy = snapshot.m_copy;
+            if (snapshot.m_disposed || (copy == null)) {
+                snapshot.m_spillFuture = null;
+                return;
+            }
+        }
+        File dir = null;
+        long bytes = -1;
+        try {
+            dir = new File(getSpillDir(), "snapshot_" + SNAPSHOT_COUNTER.incrementAndGet());
+            final WorkflowManager temp = WorkflowManager.META_NODE_ROOT.createAndAddProject("Undo snapshot",
+                new WorkflowCreationHelper());
+            try {
+                WorkflowManagerWrapper.wrap(temp).paste(copy);
+                temp.save(dir, new ExecutionMonitor(), true);
+            } finally {
+                WorkflowManager.META_NODE_ROOT.removeNode(temp.getID());
+            }
+            bytes = sizeOf(dir.toPath());
+        } catch (Exception e) {
+            LOGGER.warn("Could not write undo information to disk, keeping it in memory: " + e.getMessage(), e);
+            if (dir != null) {
+                FileUtil.deleteRecursively(dir);
+                dir = null;
+            }
+        }
+
+        synchronized (this) {
+            snapshot.m_spillFuture = null;
+            if (dir == null) {
+                // keep it in memory and don't try again
+                snapshot.m_spillable = false;
+                return;
+            }
+            if (snapshot.m_disposed) {
+                FileUtil.deleteRecursively(dir);
+                return;
+            }
+            snapshot.m_dir = dir;
+            snapshot.m_diskBytes = bytes;
+            m_diskFootprint += bytes;
+            m_measuredBytes += bytes;
+            m_measuredNodes += Math.max(1, snapshot.m_nodeCount);
+            // the snapshot may have been used meanwhile, only drop the copy if it is still over budget
+            evict();
+        }
+    }
+
+    /** Must not be called while holding the monitor of this store, reading large copies takes a while. */
+    private static WorkflowCopyUI load(final File dir) throws IOException {
+        try {
+            final FileWorkflowPersistor persistor = WorkflowManager.createLoadPersistor(dir, new WorkflowLoadHelper());
+            final WorkflowManager temp =
+                WorkflowManager.META_NODE_ROOT.load(persistor, new ExecutionMonitor(), false).getWorkflowManager();
+            try {
+                final WorkflowCopyContent.Builder content = WorkflowCopyContent.builder();
+                content.setNodeIDs(temp.getNodeContainers().stream().map(NodeContainer::getID)
+                    .toArray(NodeID[]::new));
+                final List<WorkflowAnnotationID> annoIDs = new ArrayList<>();
+                for (WorkflowAnnotation anno : temp.getWorkflowAnnotations()) {
+                    annoIDs.add(anno.getID());
+                }
+                content.setAnnotationIDs(annoIDs.toArray(new WorkflowAnnotationID[annoIDs.size()]));
+                // same call as in DeleteCommand, hence the copy is pasted the same way as the original one
+                final WorkflowManagerUI tempUI = WorkflowManagerWrapper.wrap(temp);
+                return tempUI.cut(content.build());
+            } finally {
+                WorkflowManager.META_NODE_ROOT.removeNode(temp.getID());
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not read undo information from " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized File getSpillDir() throws IOException {
+        if ((m_spillDir == null) || !m_spillDir.isDirectory()) {
+            m_spillDir = FileUtil.createTempDir("knime_undo");
+        }
+        return m_spillDir;
+    }
+
+    private long estimateBytes(final int nodeCount) {
+        final long perNode = (m_measuredNodes > 0) ? (m_measuredBytes / m_measuredNodes) : INITIAL_BYTES_PER_NODE;
+        return Math.max(1, nodeCount) * perNode;
+    }
+
+    private static long sizeOf(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    /**
+     * Handle to a workflow copy held by the {@link UndoSnapshotStore}, either in memory or on disk.
+     */
+    public final class Snapshot {
+        private final int m_nodeCount;
+
+        private final long m_estimatedBytes;
+
+        private boolean m_spillable;
+
+        /** The copy if it is in memory. Guarded by the store. */
+        private WorkflowCopyUI m_copy;
+
+        /** The directory the copy has been written to. Guarded by the store. */
+        private File m_dir;
+
+        private long m_diskBytes;
+
+        private Future<?> m_spillFuture;
+
+        /** Number of threads reading the copy from disk; the directory is only deleted when this drops to 0. */
+        private int m_loading;
+
+        private boolean m_disposed;
+
+        private Snapshot(final WorkflowCopyUI copy, final int nodeCount, final boolean spillable) {
+            m_copy = copy;
+            m_nodeCount = nodeCount;
+            m_spillable = spillable;
+            m_estimatedBytes = spillable ? estimateBytes(nodeCount) : 0;
+        }
+
+        /**
+         * Returns the copy, reading it from disk if it is not in memory (which may take a while for large copies).
+         *
+         * @return the copy
+         * @throws IOException if the copy cannot be read from disk
+         * @throws IllegalStateException if the snapshot has been disposed
+         */
+        public WorkflowCopyUI get() throws IOException {
+            final Future<?> pendingSpill;
+            synchronized (UndoSnapshotStore.this) {
+                if (m_disposed) {
+                    throw new IllegalStateException("Undo snapshot has been disposed");
+                }
+                pendingSpill = m_spillFuture;
+            }
+            if (pendingSpill != null) {
+                // the copy must not be pasted while it is being written
+                try {
+                    pendingSpill.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // handled (and logged) in spill
+                }
+            }
+            final File dir;
+            synchronized (UndoSnapshotStore.this) {
+                if (m_copy != null) {
+                    if (m_inMemory.remove(this)) {
+                        // most recently used
+                        m_inMemory.add(this);
+                    }
+                    return m_copy;
+                }
+                dir = m_dir;
+                m_loading++;
+            }
+            WorkflowCopyUI copy = null;
+            try {
+                copy = load(dir);
+            } finally {
+                synchronized (UndoSnapshotStore.this) {
+                    m_loading--;
+                    if (m_disposed) {
+                        deleteDir();
+                        copy = null;
+                    } else if (copy != null) {
+                        if (m_copy == null) {
+                            m_copy = copy;
+                            m_inMemory.add(this);
+                            m_memoryFootprint += m_estimatedBytes;
+                            evict();
+                        } else {
+                            // read concurrently by another thread
+                            copy = m_copy;
+                        }
+                    }
+                }
+            }
+            if (copy == null) {
+                throw new IllegalStateException("Undo snapshot has been disposed");
+            }
+            return copy;
+        }
+
+        /**
+         * @return whether the copy is currently held on disk only
+         */
+        public boolean isOnDiskOnly() {
+            synchronized (UndoSnapshotStore.this) {
+                return m_copy == null;
+            }
+        }
+
+        /**
+         * Releases the copy and deletes its file, if any.
+         */
+        public void dispose() {
+            synchronized (UndoSnapshotStore.this) {
+                if (m_disposed) {
+                    return;
+                }
+                m_disposed = true;
+                if (m_inMemory.remove(this)) {
+                    m_memoryFootprint -= m_estimatedBytes;
+                }
+                m_copy = null;
+                deleteDir();
+            }
+        }
+
+        /** Must be called while holding the monitor of the store. */
+        private void deleteDir() {
+            if ((m_dir != null) && (m_loading == 0)) {
+                FileUtil.deleteRecursively(m_dir);
+                m_diskFootprint -= m_diskBytes;
+                m_dir = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.knime.core.node.workflow.ConnectionUIInformation;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.node.workflow.NodeUIInformation;
+import org.knime.core.node.workflow.WorkflowAnnotation;
+import org.knime.core.ui.node.workflow.ConnectionContainerUI;
+import org.knime.core.ui.node.workflow.WorkflowManagerUI;
+import org.knime.core.ui.node.workflow.async.AsyncWorkflowManagerUI;
+
+/**
+ * Collects many changes to nodes, connections and annotations of one workflow and applies them as one unit. For a
+ * local workflow the changes are applied one after the other in the UI thread; the workflow editor refreshes in the UI
+ * thread, too, so the events of the whole batch are coalesced into the refresh following it (events the workflow
+ * delivers late may cause another one). For an asynchronous workflow all requests are sent concurrently while the
+ * workflow editor holds back its refreshes, and the workflow is refreshed once after all of them have completed.
+ *
+ * <p>
+ * The changes of one batch must not depend on each other (e.g. a connection must not be added to a node that is
+ * created by the same batch), since asynchronous workflows apply them in no particular order. Batches are applied in
+ * the UI thread, like commands.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class WorkflowChangeBatch {
+    /** Number of asynchronous batches currently being applied, per workflow. */
+    private static final Map<NodeID, AtomicInteger> APPLYING = new ConcurrentHashMap<>();
+
+    private static final List<Consumer<NodeID>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final WorkflowManagerUI m_wfm;
+
+    private final List<Change> m_changes = new ArrayList<>();
+
+    /**
+     * @param wfm the workflow all changes of the batch apply to
+     */
+    public WorkflowChangeBatch(final WorkflowManagerUI wfm) {
+        m_wfm = wfm;
+    }
+
+    /**
+     * Adds a connection.
+     *
+     * @param source the source node
+     * @param sourcePort the port of the source node
+     * @param dest the destination node
+     * @param destPort the port of the destination node
+     * @param bendpoints the bendpoints of the connection, may be <code>null</code>
+     * @return this batch
+     */
+    public WorkflowChangeBatch addConnection(final NodeID source, final int sourcePort, final NodeID dest,
+        final int destPort, final int[]... bendpoints) {
+        m_changes.add(new Change() {
+            @Override
+            void apply(final WorkflowManagerUI wfm) {
+                wfm.addConnection(source, sourcePort, dest, destPort, bendpoints);
+            }
+
+            @Override
+            CompletableFuture<?> applyAsync(final AsyncWorkflowManagerUI wfm) {
+                return wfm.addConnectionAsync(source, sourcePort, dest, destPort, bendpoints).getUnderlyingFuture();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Adds a connection with the same termini and bendpoints as the given (removed) one.
+     *
+     * @param cc the connection to restore
+     * @return this batch
+     */
+    public WorkflowChangeBatch addConnection(final ConnectionContainerUI cc) {
+        final ConnectionUIInformation uiInfo = cc.getUIInfo();
+        return addConnection(cc.getSource(), cc.getSourcePort(), cc.getDest(), cc.getDestPort(),
+            (uiInfo != null) ? uiInfo.getAllBendpoints() : null);
+    }
+
+    /**
+     * Sets the UI information (e.g. the bounds) of a node.
+     *
+     * @param id the node's id
+     * @param info the new UI information
+     * @return this batch
+     */
+    public WorkflowChangeBatch setNodeUIInformation(final NodeID id, final NodeUIInformation info) {
+        m_changes.add(new Change() {
+            @Override
+            void apply(final WorkflowManagerUI wfm) {
+                wfm.getNodeContainer(id).setUIInformation(info);
+            }
+
+            @Override
+            CompletableFuture<?> applyAsync(final AsyncWorkflowManagerUI wfm) {
+                return wfm.getNodeContainer(id).setUIInformationAsync(info);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Sets the UI information (i.e. the bendpoints) of a connection.
+     *
+     * @param cc the connection
+     * @param info the new UI information
+     * @return this batch
+     */
+    public WorkflowChangeBatch setConnectionUIInformation(final ConnectionContainerUI cc,
+        final ConnectionUIInformation info) {
+        m_changes.add(new Change() {
+            @Override
+            void apply(final WorkflowManagerUI wfm) {
+                cc.setUIInfo(info);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Moves a workflow annotation.
+     *
+     * @param annotation the annotation
+     * @param xOffset the horizontal offset
+     * @param yOffset the vertical offset
+     * @return this batch
+     */
+    public WorkflowChangeBatch shiftAnnotation(final WorkflowAnnotation annotation, final int xOffset,
+        final int yOffset) {
+        m_changes.add(new Change() {
+            @Override
+            void apply(final WorkflowManagerUI wfm) {
+                annotation.shiftPosition(xOffset, yOffset);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Adds an arbitrary change, e.g. one whose result is needed by the caller. It is applied in order with the other
+     * changes of a local workflow; for asynchronous workflows it must not block.
+     *
+     * @param change the change
+     * @return this batch
+     */
+    public WorkflowChangeBatch add(final Consumer<WorkflowManagerUI> change) {
+        m_changes.add(new Change() {
+            @Override
+            void apply(final WorkflowManagerUI wfm) {
+                change.accept(wfm);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * @return the number of changes in this batch
+     */
+    public int size() {
+        return m_changes.size();
+    }
+
+    /**
+     * Applies the changes to a local workflow, in the order they have been added. A change that fails aborts the
+     * batch and its exception is passed on, just as if the changes had been applied one by one; the changes applied
+     * before it are kept.
+     *
+     * @throws IllegalStateException if the workflow is asynchronous, use {@link #applyAsync()} instead
+     */
+    public void apply() {
+        if (m_wfm instanceof AsyncWorkflowManagerUI) {
+            throw new IllegalStateException("Asynchronous workflows must be changed via applyAsync()");
+        }
+        for (Change change : m_changes) {
+            change.apply(m_wfm);
+        }
+    }
+
+    /**
+     * Sends all changes to an asynchronous workflow at once and refreshes it when they have been applied.
+     *
+     * @return a future that completes after the refresh, or exceptionally if a change failed
+     * @throws IllegalStateException if the workflow is not asynchronous, use {@link #apply()} instead
+     */
+    public CompletableFuture<Void> applyAsync() {
+        if (!(m_wfm instanceof AsyncWorkflowManagerUI)) {
+            throw new IllegalStateException("Local workflows must be changed via apply()");
+        }
+        final AsyncWorkflowManagerUI wfm = (AsyncWorkflowManagerUI)m_wfm;
+        final NodeID id = wfm.getID();
+        begin(id);
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[m_changes.size()];
+        try {
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = m_changes.get(i).applyAsync(wfm);
+            }
+        } catch (RuntimeException e) {
+            end(id);
+            throw e;
+        }
+        final CompletableFuture<Void> result =
+            CompletableFuture.allOf(futures).thenCompose(f -> wfm.refreshAsync(false));
+        result.whenComplete((v, e) -> end(id));
+        return result;
+    }
+
+    /**
+     * Returns whether a batch is being applied to the given asynchronous workflow. Listeners on the workflow should
+     * hold back expensive updates until the batch has been applied (see {@link #addListener(Consumer)}). Batches
+     * applied to local workflows are not reported, they complete within one UI event loop iteration.
+     *
+     * @param wfmID the id of the workflow
+     * @return <code>true</code> if a batch is being applied
+     */
+    public static boolean isApplying(final NodeID wfmID) {
+        final AtomicInteger count = APPLYING.get(wfmID);
+        return (count != null) && (count.get() > 0);
+    }
+
+    /**
+     * Registers a listener that is called with the workflow's id after a batch has been applied to an asynchronous
+     * workflow.
+     *
+     * @param listener the listener, called in the thread that finished the batch
+     */
+    public static void addListener(final Consumer<NodeID> listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * @param listener a listener previously registered with {@link #addListener(Consumer)}
+     */
+    public static void removeListener(final Consumer<NodeID> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void begin(final NodeID id) {
+        APPLYING.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static void end(final NodeID id) {
+        APPLYING.computeIfPresent(id, (k, count) -> (count.decrementAndGet() > 0) ? count : null);
+        for (Consumer<NodeID> listener : LISTENERS) {
+            listener.accept(id);
+        }
+    }
+
+    private abstract static class Change {
+        abstract void apply(WorkflowManagerUI wfm);
+
+        /** Asynchronous workflows apply changes without a dedicated async method via their UI object. */
+        CompletableFuture<?> applyAsync(final AsyncWorkflowManagerUI wfm) {
+            apply(wfm);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -47,8 +47,8 @@
  */
 package org.knime.workbench.editor2.editparts;
 
-import static org.knime.core.ui.wrapper.Wrapper.wrap;
-
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -65,13 +65,9 @@
 import org.eclipse.gef.editparts.ZoomManager;
 import org.eclipse.gef.requests.SelectionRequest;
 import org.eclipse.gef.tools.ConnectionDragCreationTool;
-import org.eclipse.swt.widgets.Display;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.workflow.NodeID;
-import org.knime.core.node.workflow.WorkflowEvent;
-import org.knime.core.node.workflow.WorkflowListener;
 import org.knime.core.node.workflow.WorkflowManager;
-import org.knime.core.ui.UI;
 import org.knime.core.ui.node.workflow.ConnectionContainerUI;
 import org.knime.core.ui.node.workflow.NodeContainerUI;
 import org.knime.core.ui.node.workflow.NodeInPortUI;
@@ -91,15 +87,14 @@
 /**
  * Abstract base class for the edit parts that control the ports. This editpart
  * returns a <code>DragTracker</code> for starting connections between in- and
- * out ports. Note that all(!) ports are registered as listener for workflow
- * events on the underlying {@link WorkflowManager}. This is necessary because
- * we need de be able to react on connection changes.
+ * out ports. Connection changes of the underlying {@link WorkflowManager} are
+ * forwarded to the affected ports by the {@link WorkflowRootEditPart}.
  *
  * @author Florian Georg, University of Konstanz
  * @author Fabian Dill, University of Konstanz
  */
 public abstract class AbstractPortEditPart extends AbstractGraphicalEditPart
-        implements EditorModeParticipant, NodeEditPart, WorkflowListener, ZoomListener {
+        implements EditorModeParticipant, NodeEditPart, ZoomListener {
 
     /**
      * Instead of using the Collections.EMPTY_LIST we have our own typed empty list if no connections are available.
@@ -234,17 +229,55 @@ protected WorkflowManagerUI getManager() {
     }
 
     /**
-     * We must register *every* node as a listener on the workflow, as we have
-     * not real objects for it.
+     * Returns the given connections except those with an end whose edit part has not been created yet (see
+     * {@link WorkflowRootEditPart#isDeferred(NodeID)}). Such connections are added once both ends exist.
+     *
+     * @param connections the model connections of this port, may be <code>null</code>
+     * @return the connections to create edit parts for, never <code>null</code>
+     * @since 3.8
+     */
+    protected List<ConnectionContainerUI> withoutDeferredConnections(
+        final Collection<ConnectionContainerUI> connections) {
+        if ((connections == null) || connections.isEmpty()) {
+            return EMPTY_LIST;
+        }
+        final WorkflowRootEditPart root =
+            (getParent() != null) && (getParent().getParent() instanceof WorkflowRootEditPart)
+                ? (WorkflowRootEditPart)getParent().getParent() : null;
+        final List<ConnectionContainerUI> conns = new ArrayList<ConnectionContainerUI>(connections.size());
+        for (ConnectionContainerUI cc : connections) {
+            if ((root == null) || !(root.isDeferred(cc.getSource()) || root.isDeferred(cc.getDest()))) {
+                conns.add(cc);
+            }
+        }
+        return conns;
+    }
+
+    /**
+     * Synchronizes the connection edit parts and the connected state of this port with the model. Called by the
+     * {@link WorkflowRootEditPart} after connections of the port's node have been added or removed.
+     */
+    void connectionsChanged() {
+        if (!isActive()) {
+            return;
+        }
+        AbstractPortFigure fig = (AbstractPortFigure)getFigure();
+        fig.setIsConnected(isConnected());
+        fig.repaint();
+        refreshChildren();
+        refreshSourceConnections();
+        refreshTargetConnections();
+    }
+
+    /**
+     * Registers as zoom listener. Connection changes of the workflow are forwarded by the
+     * {@link WorkflowRootEditPart}, which coalesces them (see {@link #connectionsChanged()}).
      *
      * @see org.eclipse.gef.EditPart#activate()
      */
     @Override
     public void activate() {
         super.activate();
-        if (getManager() != null) {
-            getManager().addListener(this);
-        }
         // // register as zoom listener to adapt the line width
         ZoomManager zoomManager =
                 (ZoomManager)getRoot().getViewer().getProperty(
@@ -254,15 +287,12 @@ public void activate() {
     }
 
     /**
-     * Remove the port as a listener from the workflow.
+     * Remove the port as a zoom listener.
      *
      * @see org.eclipse.gef.EditPart#deactivate()
      */
     @Override
     public void deactivate() {
-        if (getManager() != null) {
-            getManager().removeListener(this);
-        }
         // // register as zoom listener to adapt the line width
         ZoomManager zoomManager =
                 (ZoomManager)getRoot().getViewer().getProperty(
@@ -300,55 +330,6 @@ protected void refreshVisuals() {
         parent.setLayoutConstraint(this, f, f.getLocator());
     }
 
-    /**
-     * We're just interested in events that have something to do with our port.
-     * In this case we need to update the connections and visuals.
-     *
-     * @param event the workflow event
-     */
-    @Override
-    public void workflowChanged(final WorkflowEvent event) {
-        if (event.getType().equals(WorkflowEvent.Type.CONNECTION_ADDED)
-                || event.getType()
-                        .equals(WorkflowEvent.Type.CONNECTION_REMOVED)) {
-            // only enqueue runnable if we are interested in this event
-            Display.getDefault().asyncExec(new Runnable() {
-                @Override
-                public void run() {
-                    if (!isActive()) {
-                        return;
-                    }
-                    ConnectionContainerUI c = null;
-
-                    if (event.getType().equals(
-                            WorkflowEvent.Type.CONNECTION_ADDED)) {
-                        UI uiVal = wrap(event.getNewValue());
-                        c = (ConnectionContainerUI)uiVal;
-                    } else if (event.getType().equals(
-                            WorkflowEvent.Type.CONNECTION_REMOVED)) {
-                        UI uiVal = wrap(event.getOldValue());
-                        c = (ConnectionContainerUI)uiVal;
-                    }
-
-                    // if we have a connection to refresh...
-                    if ((c != null) && (getNodeContainer() != null)
-                            && (c.getSource().equals(getNodeContainer().getID())
-                                    || c.getDest().equals(getNodeContainer().getID()))) {
-                        // only refresh if we are actually involved in the
-                        // connection change
-                        AbstractPortFigure fig =
-                                (AbstractPortFigure)getFigure();
-                        fig.setIsConnected(isConnected());
-                        fig.repaint();
-                        refreshChildren();
-                        refreshSourceConnections();
-                        refreshTargetConnections();
-                    }
-                }
-            });
-        }
-    }
-
     /**
      * Adapts the line width according to the zoom level.
      *
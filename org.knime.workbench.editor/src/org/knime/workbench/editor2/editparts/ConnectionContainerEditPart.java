@@ -163,6 +163,8 @@ public WorkflowManagerUI getWorkflowManager() {
     @Override
     public void activate() {
         super.activate();
+        // lets the animation pause while the editor is hidden
+        ((ProgressPolylineConnection)getFigure()).setCanvas(getViewer().getControl());
         getModel().addUIInformationListener(this);
         getModel().addProgressListener(this);
     }
@@ -86,6 +86,11 @@ public class FontStore {
 
     private final int m_defFontStyle;
 
+    // memo for the font data of the most recently used default annotation font
+    private Font m_lastFontDataFont;
+
+    private FontData m_lastFontData;
+
     /**
      * The singleton instance of this class.
      */
@@ -214,12 +219,22 @@ public Font getAnnotationFont(final AnnotationData.StyleRange knimeSR,
         int knFontSize = knimeSR.getFontSize();
         final int knFontStyle = knimeSR.getFontStyle();
         if (knFontName == null || knFontSize <= 0) {
-            knFontName = defaultFont.getFontData()[0].getName();
-            knFontSize = defaultFont.getFontData()[0].getHeight();
+            final FontData defaultFontData = getFontData(defaultFont);
+            knFontName = defaultFontData.getName();
+            knFontSize = defaultFontData.getHeight();
         }
         return getFont(knFontName, knFontSize, knFontStyle);
     }
 
+    /* Font#getFontData() creates new objects on each call; annotations almost always query the same default font. */
+    private FontData getFontData(final Font font) {
+        if ((font != m_lastFontDataFont) || (m_lastFontData == null)) {
+            m_lastFontData = font.getFontData()[0];
+            m_lastFontDataFont = font;
+        }
+        return m_lastFontData;
+    }
+
     /** Persists the font data in the argument style range. It only saves
      * font name and size if it's different from the default (pref page) font
      * as otherwise the font should change with changing the pref page values.
@@ -52,6 +52,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
@@ -73,6 +74,8 @@
 import org.eclipse.draw2d.ConnectionAnchor;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.LayoutManager;
+import org.eclipse.draw2d.MouseEvent;
+import org.eclipse.draw2d.MouseMotionListener;
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
@@ -152,6 +155,7 @@
 import org.knime.workbench.ui.KNIMEUIPlugin;
 import org.knime.workbench.ui.async.AsyncUtil;
 import org.knime.workbench.ui.preferences.PreferenceConstants;
+import org.knime.workbench.ui.wrapper.NodeDialogPaneCache;
 import org.knime.workbench.ui.wrapper.WrappedNodeDialog;
 
 /**
@@ -278,6 +282,7 @@ public void activate() {
         cont.addUIInformationListener(this);
         cont.addNodePropertyChangedListener(this);
         addEditPartListener(this);
+        getFigure().addMouseMotionListener(m_dialogPreparationListener);
 
         updateJobManagerIcon();
         checkMetaNodeTemplateIcon();
@@ -304,6 +309,8 @@ public void deactivate() {
         nc.removeNodeProgressListener(this);
         nc.removeUIInformationListener(this);
         nc.removeNodePropertyChangedListener(this);
+        getFigure().removeMouseMotionListener(m_dialogPreparationListener);
+        NodeDialogPaneCache.getInstance().invalidate(nc);
 
         removeEditPartListener(this);
 
@@ -400,6 +407,14 @@ protected List<NodePortUI> getModelChildren() {
         return ports;
     }
 
+    /** Prepares the dialog pane while the mouse rests on the node, the user is likely to open the dialog next. */
+    private final MouseMotionListener m_dialogPreparationListener = new MouseMotionListener.Stub() {
+        @Override
+        public void mouseHover(final MouseEvent me) {
+            NodeDialogPaneCache.getInstance().prepare(getNodeContainer());
+        }
+    };
+
     private final AtomicBoolean m_updateInProgress = new AtomicBoolean(false);
 
     /** {@inheritDoc} */
@@ -933,6 +948,10 @@ private static boolean checkAndLoadIfLazyWorkflowManager(final WorkflowManagerUI
                 return true;
             } catch (CompletionException e) {
                 Throwable cause = e.getCause();
+                if (cause instanceof CancellationException) {
+                    // canceled by the user
+                    return false;
+                }
                 String message = "A problem occurred while opening metanode: "
                     + (cause != null ? cause.getMessage() : e.getMessage());
                 final Display display = Display.getDefault();
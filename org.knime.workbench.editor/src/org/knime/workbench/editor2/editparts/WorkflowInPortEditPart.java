@@ -47,7 +47,6 @@
  */
 package org.knime.workbench.editor2.editparts;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -237,11 +236,7 @@ public List<ConnectionContainerUI> getModelSourceConnections() {
                 getManager().getOutgoingConnectionsFor(
                         getNodeContainer().getID(),
                         getIndex());
-        List<ConnectionContainerUI>conns = new ArrayList<ConnectionContainerUI>();
-        if (containers != null) {
-            conns.addAll(containers);
-        }
-        return conns;
+        return withoutDeferredConnections(containers);
     }
 
     /**
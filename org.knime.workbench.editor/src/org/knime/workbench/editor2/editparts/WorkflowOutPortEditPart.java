@@ -157,7 +157,7 @@ public List<ConnectionContainerUI> getModelTargetConnections() {
                 getNodeContainer().getID(), getIndex());
 
         if (container != null) {
-            return Collections.singletonList(container);
+            return withoutDeferredConnections(Collections.singletonList(container));
         }
 
         return EMPTY_LIST;
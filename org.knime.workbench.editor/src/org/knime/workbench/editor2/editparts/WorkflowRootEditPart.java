@@ -47,16 +47,26 @@
  */
 package org.knime.workbench.editor2.editparts;
 
+import static org.knime.core.ui.wrapper.Wrapper.wrap;
+
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.EventObject;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.eclipse.draw2d.ConnectionLayer;
+import org.eclipse.draw2d.FigureCanvas;
 import org.eclipse.draw2d.LayoutManager;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.gef.CompoundSnapToHelper;
 import org.eclipse.gef.EditPart;
 import org.eclipse.gef.EditPartViewer;
@@ -84,12 +94,15 @@
 import org.knime.core.node.workflow.WorkflowEvent;
 import org.knime.core.node.workflow.WorkflowListener;
 import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.ui.UI;
+import org.knime.core.ui.node.workflow.ConnectionContainerUI;
 import org.knime.core.ui.node.workflow.NodeContainerUI;
 import org.knime.core.ui.node.workflow.WorkflowManagerUI;
 import org.knime.core.ui.node.workflow.async.AsyncWorkflowManagerUI;
 import org.knime.workbench.KNIMEEditorPlugin;
 import org.knime.workbench.core.util.ImageRepository;
 import org.knime.workbench.editor2.WorkflowEditorMode;
+import org.knime.workbench.editor2.commands.WorkflowChangeBatch;
 import org.knime.workbench.editor2.editparts.policy.NewWorkflowContainerEditPolicy;
 import org.knime.workbench.editor2.editparts.policy.NewWorkflowXYLayoutPolicy;
 import org.knime.workbench.editor2.editparts.snap.SnapIconToGrid;
@@ -127,6 +140,27 @@ public class WorkflowRootEditPart extends AbstractWorkflowEditPart implements
     private static final NodeLogger LOGGER = NodeLogger
             .getLogger(WorkflowRootEditPart.class);
 
+    /** Workflows with more nodes get the edit parts of invisible nodes created after the editor has been shown. */
+    private static final int DEFERRED_CREATION_THRESHOLD = 200;
+
+    /** Time in ms spent creating deferred edit parts before the UI thread handles other events. */
+    private static final long DEFERRED_CREATION_SLICE = 20;
+
+    /** Distance in model coordinates around the visible area in which nodes are created immediately. */
+    private static final int VISIBLE_AREA_MARGIN = 100;
+
+    /*
+     * Nodes whose edit parts (and those of their annotations and connections) are not created yet, sorted by their
+     * distance to the initially visible area. Empty except while a large workflow is being opened.
+     */
+    private final Set<NodeID> m_deferredNodes = new LinkedHashSet<NodeID>();
+
+    private boolean m_deferredNodesInitialized = false;
+
+    private boolean m_creatingDeferredParts = false;
+
+    private int m_deferredBatchSize = 20;
+
     private ProgressToolTipHelper m_toolTipHelper;
 
     private WorkflowPortBar m_inBar;
@@ -220,6 +254,10 @@ public NodeContainerUI getNodeContainer() {
     protected List getModelChildren() {
         List modelChildren = new ArrayList();
         WorkflowManagerUI wfm = getWorkflowManager();
+        if (!m_deferredNodesInitialized) {
+            m_deferredNodesInitialized = true;
+            deferInvisibleNodes(wfm);
+        }
         // sequence here determines z-order of edit parts
 
         // Add workflow annotations as children of the workflow manager.
@@ -230,10 +268,20 @@ protected List getModelChildren() {
         // Add the annotations associated with nodes (add them after the
         // workflow annotations so they appear above them)
         for (NodeAnnotation nodeAnno : wfm.getNodeAnnotations()) {
-            modelChildren.add(nodeAnno);
+            if (m_deferredNodes.isEmpty() || !m_deferredNodes.contains(nodeAnno.getNodeID())) {
+                modelChildren.add(nodeAnno);
+            }
         }
 
-        modelChildren.addAll(wfm.getNodeContainers());
+        if (m_deferredNodes.isEmpty()) {
+            modelChildren.addAll(wfm.getNodeContainers());
+        } else {
+            for (NodeContainerUI nc : wfm.getNodeContainers()) {
+                if (!m_deferredNodes.contains(nc.getID())) {
+                    modelChildren.add(nc);
+                }
+            }
+        }
         if (wfm.getNrWorkflowIncomingPorts() > 0) {
             if (m_inBar == null) {
                 m_inBar = new WorkflowPortBar(wfm, true);
@@ -260,6 +308,156 @@ protected List getModelChildren() {
         return modelChildren;
     }
 
+    /**
+     * Returns whether the edit part of the given node has not been created yet because it was outside the visible
+     * area when the workflow was opened. Such nodes are created in the background shortly after opening.
+     *
+     * @param id a node id
+     * @return true if the node has no edit part yet
+     * @since 3.8
+     */
+    public boolean isDeferred(final NodeID id) {
+        return !m_deferredNodes.isEmpty() && m_deferredNodes.contains(id);
+    }
+
+    /**
+     * Creates the edit parts of all nodes that are still deferred. Must be called (in the UI thread) before any
+     * operation that needs the edit parts of the complete workflow, e.g. selecting all nodes.
+     *
+     * @since 3.8
+     */
+    public void createDeferredChildren() {
+        if (!m_deferredNodes.isEmpty()) {
+            createDeferredChildren(new ArrayList<NodeID>(m_deferredNodes));
+        }
+    }
+
+    /*
+     * Opening a workflow with thousands of nodes would otherwise create all edit parts and figures before anything is
+     * painted. Only the nodes in (or near) the visible area are created right away, the rest is deferred.
+     */
+    private void deferInvisibleNodes(final WorkflowManagerUI wfm) {
+        Collection<NodeContainerUI> nodes = wfm.getNodeContainers();
+        if (nodes.size() <= DEFERRED_CREATION_THRESHOLD) {
+            return;
+        }
+        final Rectangle visible = getVisibleModelArea();
+        List<NodeContainerUI> invisible = new ArrayList<NodeContainerUI>();
+        for (NodeContainerUI nc : nodes) {
+            Rectangle bounds = getNodeBounds(nc);
+            if ((bounds != null) && !visible.intersects(bounds)) {
+                invisible.add(nc);
+            }
+        }
+        invisible.sort(Comparator.comparingLong(nc -> squaredDistance(visible, getNodeBounds(nc))));
+        for (NodeContainerUI nc : invisible) {
+            m_deferredNodes.add(nc.getID());
+        }
+        if (!m_deferredNodes.isEmpty()) {
+            LOGGER.debug("Deferring creation of " + m_deferredNodes.size() + " of " + nodes.size()
+                + " node edit parts");
+            scheduleDeferredCreation();
+        }
+    }
+
+    private Rectangle getVisibleModelArea() {
+        EditPartViewer viewer = getViewer();
+        Rectangle area = null;
+        if (viewer.getControl() instanceof FigureCanvas) {
+            FigureCanvas canvas = (FigureCanvas)viewer.getControl();
+            org.eclipse.swt.graphics.Rectangle clientArea = canvas.getClientArea();
+            if ((clientArea.width > 0) && (clientArea.height > 0)) {
+                area = new Rectangle(canvas.getViewport().getViewLocation(),
+                    new Dimension(clientArea.width, clientArea.height));
+            }
+        }
+        if (area == null) {
+            // editor not laid out yet, assume it covers the whole screen
+            org.eclipse.swt.graphics.Rectangle screen = Display.getDefault().getClientArea();
+            area = new Rectangle(0, 0, screen.width, screen.height);
+        }
+        ZoomManager zoomManager = (ZoomManager)viewer.getProperty(ZoomManager.class.toString());
+        if ((zoomManager != null) && (zoomManager.getZoom() > 0)) {
+            area.scale(1.0 / zoomManager.getZoom());
+        }
+        return area.expand(VISIBLE_AREA_MARGIN, VISIBLE_AREA_MARGIN);
+    }
+
+    private static Rectangle getNodeBounds(final NodeContainerUI nc) {
+        NodeUIInformation uiInfo = nc.getUIInformation();
+        int[] bounds = (uiInfo == null) ? null : uiInfo.getBounds();
+        if ((bounds == null) || (bounds.length < 4)) {
+            return null;
+        }
+        return new Rectangle(bounds[0], bounds[1], Math.max(bounds[2], 1), Math.max(bounds[3], 1));
+    }
+
+    private static long squaredDistance(final Rectangle area, final Rectangle bounds) {
+        long dx = Math.max(0, Math.max(area.x - bounds.right(), bounds.x - area.right()));
+        long dy = Math.max(0, Math.max(area.y - bounds.bottom(), bounds.y - area.bottom()));
+        return dx * dx + dy * dy;
+    }
+
+    private void scheduleDeferredCreation() {
+        Display.getDefault().asyncExec(new Runnable() {
+            @Override
+            public void run() {
+                if (!isActive() || m_deferredNodes.isEmpty()) {
+                    return;
+                }
+                final long end = System.currentTimeMillis() + DEFERRED_CREATION_SLICE;
+                long now;
+                do {
+                    List<NodeID> batch = new ArrayList<NodeID>(m_deferredBatchSize);
+                    Iterator<NodeID> it = m_deferredNodes.iterator();
+                    while (it.hasNext() && (batch.size() < m_deferredBatchSize)) {
+                        batch.add(it.next());
+                    }
+                    long start = System.currentTimeMillis();
+                    createDeferredChildren(batch);
+                    now = System.currentTimeMillis();
+                    // adapt the batch size such that a batch takes about a quarter of a slice
+                    long perNode = Math.max(1, (now - start) * 1000 / batch.size());
+                    m_deferredBatchSize = (int)Math.max(1, Math.min(500, DEFERRED_CREATION_SLICE * 250 / perNode));
+                } while (!m_deferredNodes.isEmpty() && (now < end));
+                if (!m_deferredNodes.isEmpty()) {
+                    // let paint and input events in before continuing
+                    scheduleDeferredCreation();
+                } else {
+                    getFigure().revalidate();
+                }
+            }
+        });
+    }
+
+    private void createDeferredChildren(final Collection<NodeID> ids) {
+        m_deferredNodes.removeAll(ids);
+        m_creatingDeferredParts = true;
+        try {
+            refreshChildren();
+        } finally {
+            m_creatingDeferredParts = false;
+        }
+
+        // the edit parts of connections to already existing nodes only know the new end so far
+        WorkflowManagerUI wfm = getWorkflowManager();
+        Set<NodeID> neighbors = new HashSet<NodeID>();
+        for (NodeID id : ids) {
+            if (!wfm.containsNodeContainer(id)) {
+                continue;
+            }
+            for (ConnectionContainerUI cc : wfm.getIncomingConnectionsFor(id)) {
+                neighbors.add(cc.getSource());
+            }
+            for (ConnectionContainerUI cc : wfm.getOutgoingConnectionsFor(id)) {
+                neighbors.add(cc.getDest());
+            }
+        }
+        neighbors.removeAll(ids);
+        m_connectionsChangedNodes.addAll(neighbors);
+        refreshChangedPorts();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -307,6 +505,7 @@ public void activate() {
         super.activate();
         // register as listener on model object
         getWorkflowManager().addListener(this);
+        WorkflowChangeBatch.addListener(m_batchListener);
 
         // add as listener on the command stack
         getViewer().getEditDomain().getCommandStack()
@@ -325,6 +524,8 @@ public void deactivate() {
             EditPart editPart = (EditPart)o;
             editPart.deactivate();
         }
+        m_deferredNodes.clear();
+        WorkflowChangeBatch.removeListener(m_batchListener);
         getWorkflowManager().removeListener(this);
         getViewer().getEditDomain().getCommandStack()
                 .removeCommandStackListener(this);
@@ -397,6 +598,16 @@ protected void createEditPolicies() {
 
     private final AtomicBoolean m_workflowChangedOngoingBoolean = new AtomicBoolean();
 
+    /** Nodes (or this workflow, for its port bars) whose connections changed since the last refresh. */
+    private final Set<NodeID> m_connectionsChangedNodes = ConcurrentHashMap.newKeySet();
+
+    /** Refreshes once a batch of changes (that held back the refreshes) has been applied to this async workflow. */
+    private final Consumer<NodeID> m_batchListener = id -> {
+        if (id.equals(getWorkflowManager().getID())) {
+            scheduleRefresh();
+        }
+    };
+
     /**
      * Controller is getting notified about model changes. This invokes
      * <code>refreshChildren</code> keep in sync with the model.
@@ -405,12 +616,34 @@ protected void createEditPolicies() {
      */
     @Override
     public void workflowChanged(final WorkflowEvent event) {
+        if (WorkflowEvent.Type.CONNECTION_ADDED.equals(event.getType())
+                || WorkflowEvent.Type.CONNECTION_REMOVED.equals(event.getType())) {
+            Object value = WorkflowEvent.Type.CONNECTION_ADDED.equals(event.getType()) ? event.getNewValue()
+                : event.getOldValue();
+            UI uiVal = wrap(value);
+            if (uiVal instanceof ConnectionContainerUI) {
+                m_connectionsChangedNodes.add(((ConnectionContainerUI)uiVal).getSource());
+                m_connectionsChangedNodes.add(((ConnectionContainerUI)uiVal).getDest());
+            }
+        }
+        scheduleRefresh();
+    }
 
+    /*
+     * All workflow events (including those for the ports of the nodes) are coalesced into one refresh per UI event
+     * loop iteration, none happens while a WorkflowChangeBatch is being applied to an asynchronous workflow. (Local
+     * batches are applied in the UI thread and hence already end before the scheduled refresh runs.)
+     */
+    private void scheduleRefresh() {
         if (m_workflowChangedOngoingBoolean.compareAndSet(false, true)) {
             Display.getDefault().asyncExec(new Runnable() {
                 @Override
                 public void run() {
                     m_workflowChangedOngoingBoolean.set(false);
+                    if (!isActive() || WorkflowChangeBatch.isApplying(getWorkflowManager().getID())) {
+                        // the batch listener triggers the refresh
+                        return;
+                    }
 
                     // refreshing the children
                     refreshChildren();
@@ -418,6 +651,7 @@ public void run() {
                     // refresing connections
                     refreshSourceConnections();
                     refreshTargetConnections();
+                    refreshChangedPorts();
 
                     // update out port (workflow in port) tooltips
 
@@ -439,6 +673,30 @@ public void run() {
         }
     }
 
+    private void refreshChangedPorts() {
+        if (m_connectionsChangedNodes.isEmpty()) {
+            return;
+        }
+        Set<NodeID> changed = new HashSet<NodeID>(m_connectionsChangedNodes);
+        m_connectionsChangedNodes.removeAll(changed);
+        NodeID wfmID = getWorkflowManager().getID();
+        for (Object child : getChildren()) {
+            NodeID id = null;
+            if (child instanceof NodeContainerEditPart) {
+                id = ((NodeContainerEditPart)child).getNodeContainer().getID();
+            } else if (child instanceof AbstractWorkflowPortBarEditPart) {
+                id = wfmID;
+            }
+            if ((id != null) && changed.contains(id)) {
+                for (Object port : ((EditPart)child).getChildren()) {
+                    if (port instanceof AbstractPortEditPart) {
+                        ((AbstractPortEditPart)port).connectionsChanged();
+                    }
+                }
+            }
+        }
+    }
+
     private final AtomicBoolean m_nodeUIChangedOngoingBoolean = new AtomicBoolean();
 
     /**
@@ -515,6 +773,10 @@ protected void refreshVisuals() {
     @Override
     protected EditPart createChild(final Object model) {
         final EditPart part = super.createChild(model);
+        if (m_creatingDeferredParts) {
+            // parts of an already loaded workflow, neither new nor to be selected
+            return part;
+        }
         LOGGER.debug("part: " + part);
         if (part instanceof NodeContainerEditPart) {
             getViewer().deselect(this);
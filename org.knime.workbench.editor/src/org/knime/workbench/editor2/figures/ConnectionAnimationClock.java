@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.figures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Drives the flow animation of all {@link ProgressPolylineConnection}s. Progress events only mark a connection as
+ * changed; at most once per {@link #FRAME_INTERVAL_MS} a single frame is run on the UI thread that applies the latest
+ * progress of all changed connections. Only connections that are visible on screen advance their animation, i.e.
+ * connections scrolled out of the viewport or in an editor that is hidden or minimized are not repainted. Nothing is
+ * scheduled while no progress events arrive.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ConnectionAnimationClock {
+
+    /** Minimum time between two animation frames. */
+    static final long FRAME_INTERVAL_MS = 250;
+
+    static final ConnectionAnimationClock INSTANCE = new ConnectionAnimationClock();
+
+    private final ScheduledExecutorService m_scheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactory() {
+            private final AtomicInteger m_threadCreateCounter = new AtomicInteger();
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread t = new Thread(r, "Connection Animation Clock-" + m_threadCreateCounter.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+    private final Set<ProgressPolylineConnection> m_changed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean m_frameScheduled = new AtomicBoolean();
+
+    private ConnectionAnimationClock() {
+    }
+
+    /**
+     * Marks the connection as changed, it will be updated with the next frame. Can be called from any thread.
+     *
+     * @param connection the connection whose progress changed
+     */
+    void changed(final ProgressPolylineConnection connection) {
+        m_changed.add(connection);
+        if (m_frameScheduled.compareAndSet(false, true)) {
+            m_scheduler.schedule(this::postFrame, FRAME_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Drops a pending update of the connection, e.g. because it is removed from the canvas.
+     *
+     * @param connection the connection
+     */
+    void remove(final ProgressPolylineConnection connection) {
+        m_changed.remove(connection);
+    }
+
+    private void postFrame() {
+        final Display display = Display.getDefault();
+        if (display.isDisposed()) {
+            return;
+        }
+        display.asyncExec(this::frame);
+    }
+
+    /** Runs in the UI thread. */
+    private void frame() {
+        // progress arriving from now on schedules the next frame
+        m_frameScheduled.set(false);
+        final List<ProgressPolylineConnection> changed = new ArrayList<>(m_changed);
+        m_changed.removeAll(changed);
+        for (ProgressPolylineConnection connection : changed) {
+            connection.applyProgress(isOnScreen(connection));
+        }
+    }
+
+    private static boolean isOnScreen(final ProgressPolylineConnection connection) {
+        final Control control = connection.getCanvas();
+        if ((control != null)
+            && (control.isDisposed() || !control.isVisible() || control.getShell().getMinimized())) {
+            return false;
+        }
+        if (!connection.isShowing()) {
+            return false;
+        }
+        IFigure root = connection;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        final Rectangle absoluteBounds = connection.getBounds().getCopy();
+        connection.translateToAbsolute(absoluteBounds);
+        return absoluteBounds.intersects(root.getBounds());
+    }
+}
@@ -116,14 +116,39 @@ public void setCurved(final boolean curved) {
             }
         } else {
             m_approxCurve = null;
+            disposePath();
+        }
+    }
+
+    private void disposePath() {
+        if (m_path != null) {
+            m_path.dispose();
             m_path = null;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        // re-created lazily in case the connection is added again (e.g. undo)
+        disposePath();
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void outlineShape(final Graphics g) {
-        if (m_approxCurve != null) {
+        if ((m_approxCurve != null) && LevelOfDetail.isSimplified(g)) {
+            // when zoomed out draw the line approximation instead of the bezier path (also used for hit-testing)
+            g.setLineStyle(SWT.LINE_SOLID);
+            g.setForegroundColor(getForegroundColor());
+            g.drawPolyline(m_approxCurve);
+        } else if (m_approxCurve != null) {
+            if (m_path == null) {
+                calculateCurve();
+            }
             if (m_state < 0) {
                 setLineStyle(SWT.LINE_SOLID);
             } else {
@@ -225,6 +250,7 @@ private void calculateCurve() {
         }
 
         final PointList points = getPoints();
+        disposePath();
         m_path = new Path(Display.getDefault());
         m_path.moveTo(points.getFirstPoint().x, points.getFirstPoint().y);
         m_approxCurve.addPoint(points.getFirstPoint().x, points.getFirstPoint().y);
@@ -0,0 +1,313 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.figures;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.ScaledGraphics;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.knime.workbench.ui.KNIMEUIPlugin;
+import org.knime.workbench.ui.preferences.PreferenceConstants;
+
+/**
+ * Off-screen images of figures (or parts of figures) of the workflow canvas whose appearance rarely changes, e.g.
+ * workflow annotations or the grid. A figure paints the cached image instead of re-rendering itself as long as the
+ * state it was rendered for (size, zoom and a figure specific key) is unchanged; figures drop their image via
+ * {@link #invalidate(IFigure)} when their appearance changes.
+ *
+ * <p>
+ * All images together are kept within a memory budget (see {@link PreferenceConstants#P_CANVAS_IMAGE_CACHE_SIZE}),
+ * the least recently painted images are disposed first. The cache must only be used from the UI thread.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class FigureImageCache {
+
+    private static final FigureImageCache INSTANCE = new FigureImageCache();
+
+    /** A single image must not take more than this fraction of the budget. */
+    private static final int MAX_IMAGE_FRACTION = 8;
+
+    private final Map<IFigure, Entry> m_entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long m_budget = -1;
+
+    private long m_size;
+
+    private FigureImageCache() {
+    }
+
+    /**
+     * @return the singleton instance
+     */
+    public static FigureImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the image cached for the given figure if it was created for the given key.
+     *
+     * @param owner the figure the image belongs to
+     * @param key the state the image must have been rendered for
+     * @return the cached image or <code>null</code>
+     */
+    public Image get(final IFigure owner, final Object key) {
+        final Entry entry = m_entries.get(owner);
+        if ((entry == null) || !entry.m_key.equals(key) || entry.m_image.isDisposed()) {
+            return null;
+        }
+        return entry.m_image;
+    }
+
+    /**
+     * Caches an image for the given figure, replacing (and disposing) a previously cached one. If the image does not
+     * fit into the budget it is disposed immediately.
+     *
+     * @param owner the figure the image belongs to
+     * @param key the state the image has been rendered for
+     * @param image the image, ownership is transferred to the cache
+     * @return <code>true</code> if the image was cached, <code>false</code> if it has been disposed
+     */
+    public boolean put(final IFigure owner, final Object key, final Image image) {
+        invalidate(owner);
+        final org.eclipse.swt.graphics.Rectangle imageBounds = image.getBounds();
+        final long bytes = 4L * imageBounds.width * imageBounds.height;
+        if (!fits(bytes)) {
+            image.dispose();
+            return false;
+        }
+        m_entries.put(owner, new Entry(key, image, bytes));
+        m_size += bytes;
+        evict();
+        return true;
+    }
+
+    /**
+     * Disposes the image cached for the given figure (if any).
+     *
+     * @param owner the figure whose appearance changed or which is removed from the canvas
+     */
+    public void invalidate(final IFigure owner) {
+        final Entry entry = m_entries.remove(owner);
+        if (entry != null) {
+            entry.dispose();
+        }
+    }
+
+    /**
+     * Paints the given (opaque) figure from its cached image, rendering the image first if there is none for the
+     * figure's current size, the zoom of the graphics and the given key.
+     *
+     * @param figure the figure to paint
+     * @param graphics the graphics to paint on
+     * @param key figure specific state the image depends on besides size and zoom
+     * @param painter paints the figure (as if it were painted directly), used to render the image
+     * @return <code>false</code> if the figure has not been painted because its image would exceed the budget, the
+     *         caller then has to paint the figure itself
+     */
+    public boolean paint(final IFigure figure, final Graphics graphics, final Object key,
+        final Consumer<Graphics> painter) {
+        final Rectangle bounds = figure.getBounds();
+        final double scale = graphics.getAbsoluteScale();
+        final int width = (int)Math.ceil(bounds.width * scale);
+        final int height = (int)Math.ceil(bounds.height * scale);
+        if ((width <= 0) || (height <= 0) || !fits(4L * width * height)) {
+            return false;
+        }
+        final ImageKey imageKey = new ImageKey(key, bounds.width, bounds.height, scale);
+        Image image = get(figure, imageKey);
+        if (image == null) {
+            image = render(bounds, scale, width, height, graphics, painter);
+            if (!put(figure, imageKey, image)) {
+                return false;
+            }
+        }
+        graphics.drawImage(image, 0, 0, width, height, bounds.x, bounds.y, bounds.width, bounds.height);
+        return true;
+    }
+
+    private static Image render(final Rectangle bounds, final double scale, final int width, final int height,
+        final Graphics original, final Consumer<Graphics> painter) {
+        final Image image = new Image(Display.getCurrent(), width, height);
+        final GC gc = new GC(image);
+        final SWTGraphics swtGraphics = new SWTGraphics(gc);
+        final Graphics graphics = (scale == 1.0) ? swtGraphics : new ScaledGraphics(swtGraphics);
+        try {
+            graphics.setAntialias(original.getAntialias());
+            graphics.setTextAntialias(original.getTextAntialias());
+            graphics.scale(scale);
+            graphics.translate(-bounds.x, -bounds.y);
+            graphics.pushState();
+            painter.accept(graphics);
+            graphics.popState();
+        } finally {
+            if (graphics != swtGraphics) {
+                graphics.dispose();
+            }
+            swtGraphics.dispose();
+            gc.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Changes the memory budget, evicting images if necessary.
+     *
+     * @param bytes the maximum number of bytes all cached images may take, 0 disables caching
+     */
+    public void setBudget(final long bytes) {
+        m_budget = Math.max(0, bytes);
+        evict();
+    }
+
+    /**
+     * @return the number of bytes currently taken by the cached images
+     */
+    public long getSize() {
+        return m_size;
+    }
+
+    private void evict() {
+        final Iterator<Entry> it = m_entries.values().iterator();
+        while ((m_size > m_budget) && it.hasNext()) {
+            final Entry eldest = it.next();
+            it.remove();
+            eldest.dispose();
+        }
+    }
+
+    private boolean fits(final long bytes) {
+        if (m_budget < 0) {
+            initBudget();
+        }
+        return bytes <= m_budget / MAX_IMAGE_FRACTION;
+    }
+
+    private void initBudget() {
+        final KNIMEUIPlugin plugin = KNIMEUIPlugin.getDefault();
+        if (plugin == null) {
+            // not running inside the workbench (e.g. benchmarks)
+            m_budget = PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE_DEFAULT * 1024L * 1024L;
+            return;
+        }
+        final IPreferenceStore store = plugin.getPreferenceStore();
+        m_budget = store.getInt(PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE) * 1024L * 1024L;
+        store.addPropertyChangeListener(new IPropertyChangeListener() {
+            @Override
+            public void propertyChange(final PropertyChangeEvent event) {
+                if (PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE.equals(event.getProperty())) {
+                    Display.getDefault().asyncExec(() -> setBudget(
+                        store.getInt(PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE) * 1024L * 1024L));
+                }
+            }
+        });
+    }
+
+    private final class Entry {
+        private final Object m_key;
+
+        private final Image m_image;
+
+        private final long m_bytes;
+
+        Entry(final Object key, final Image image, final long bytes) {
+            m_key = key;
+            m_image = image;
+            m_bytes = bytes;
+        }
+
+        void dispose() {
+            m_size -= m_bytes;
+            m_image.dispose();
+        }
+    }
+
+    private static final class ImageKey {
+        private final Object m_key;
+
+        private final int m_width;
+
+        private final int m_height;
+
+        private final double m_scale;
+
+        ImageKey(final Object key, final int width, final int height, final double scale) {
+            m_key = key;
+            m_width = width;
+            m_height = height;
+            m_scale = scale;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof ImageKey)) {
+                return false;
+            }
+            final ImageKey other = (ImageKey)obj;
+            return (m_width == other.m_width) && (m_height == other.m_height) && (m_scale == other.m_scale)
+                && Objects.equals(m_key, other.m_key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m_key, m_width, m_height, m_scale);
+        }
+    }
+}
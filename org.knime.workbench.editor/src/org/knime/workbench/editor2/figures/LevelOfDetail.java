@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.editor2.figures;
+
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.knime.workbench.ui.KNIMEUIPlugin;
+import org.knime.workbench.ui.preferences.PreferenceConstants;
+
+/**
+ * Decides how much detail the workflow figures paint for the current zoom level. Below the configured thresholds
+ * nodes are painted as plain coloured boxes, connections as simple polylines and node names, node labels and
+ * connection labels are left out. Only painting is affected, the figures keep their bounds and hit-testing.
+ *
+ * <p>
+ * The thresholds are read from the preference store of the KNIME UI plugin (see
+ * {@link PreferenceConstants#P_LOD_SIMPLIFIED_FIGURES_ZOOM} and {@link PreferenceConstants#P_LOD_HIDE_LABELS_ZOOM})
+ * or can be set explicitly via {@link #setThresholds(double, double)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class LevelOfDetail {
+
+    private static volatile double simplifiedFiguresZoom = Double.NaN;
+
+    private static volatile double hideLabelsZoom = Double.NaN;
+
+    private static boolean listenerRegistered;
+
+    private LevelOfDetail() {
+        // utility class
+    }
+
+    /**
+     * @param graphics the graphics that is about to be painted on
+     * @return <code>true</code> if figures should be painted in their simplified form
+     */
+    public static boolean isSimplified(final Graphics graphics) {
+        ensureInitialized();
+        return graphics.getAbsoluteScale() < simplifiedFiguresZoom;
+    }
+
+    /**
+     * @param graphics the graphics that is about to be painted on
+     * @return <code>true</code> if text labels should be painted
+     */
+    public static boolean showsLabels(final Graphics graphics) {
+        ensureInitialized();
+        return graphics.getAbsoluteScale() >= hideLabelsZoom;
+    }
+
+    /**
+     * Overrides the thresholds read from the preferences (until they are changed in the preferences again).
+     *
+     * @param simplifiedFigures zoom factor (1.0 = 100%) below which figures are painted in their simplified form, 0
+     *            to never simplify
+     * @param hideLabels zoom factor (1.0 = 100%) below which labels are not painted, 0 to always paint them
+     */
+    public static void setThresholds(final double simplifiedFigures, final double hideLabels) {
+        simplifiedFiguresZoom = simplifiedFigures;
+        hideLabelsZoom = hideLabels;
+    }
+
+    private static void ensureInitialized() {
+        if (Double.isNaN(simplifiedFiguresZoom) || Double.isNaN(hideLabelsZoom)) {
+            initFromPreferences();
+        }
+    }
+
+    private static synchronized void initFromPreferences() {
+        final KNIMEUIPlugin plugin = KNIMEUIPlugin.getDefault();
+        if (plugin == null) {
+            // not running inside the workbench (e.g. benchmarks)
+            setThresholds(PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM_DEFAULT / 100.0,
+                PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM_DEFAULT / 100.0);
+            return;
+        }
+        final IPreferenceStore store = plugin.getPreferenceStore();
+        setThresholds(store.getInt(PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM) / 100.0,
+            store.getInt(PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM) / 100.0);
+        if (!listenerRegistered) {
+            store.addPropertyChangeListener(new IPropertyChangeListener() {
+                @Override
+                public void propertyChange(final PropertyChangeEvent event) {
+                    final String property = event.getProperty();
+                    if (PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM.equals(property)
+                        || PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM.equals(property)) {
+                        simplifiedFiguresZoom = Double.NaN;
+                    }
+                }
+            });
+            listenerRegistered = true;
+        }
+    }
+}
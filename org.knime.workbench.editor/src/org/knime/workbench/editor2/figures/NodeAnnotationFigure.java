@@ -54,6 +54,8 @@
 import org.eclipse.draw2d.BorderLayout;
 import org.eclipse.draw2d.ColorConstants;
 import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.draw2d.text.BlockFlow;
@@ -100,6 +102,9 @@ public class NodeAnnotationFigure extends Figure implements EditorModeParticipan
     private int m_lastRevisionDisplayed;
     private boolean m_lastRenderEnableDisplay;
 
+    /** The width the text flow was last laid out for; the flow's line breaks only depend on its content and width. */
+    private int m_lastLayoutWidth = -1;
+
     /**
      * @param annotation the annotation to display
      */
@@ -324,7 +329,91 @@ protected TextFlow getDefaultStyledAnnotation(final String text, final Font f, f
     @Override
     public void setBounds(final Rectangle rect) {
         super.setBounds(rect);
-        m_page.invalidate();
+        // the layout of the text fragments (line breaks, fragment metrics) is kept unless the width changes; content
+        // changes replace the flow figures in computeDisplay and thereby invalidate the page anyway
+        if (rect.width != m_lastLayoutWidth) {
+            m_lastLayoutWidth = rect.width;
+            m_page.invalidate();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The text flow layout is skipped while the annotation is outside the visible area of the canvas. The figure then
+     * stays invalid and is laid out when it is painted for the first time, i.e. once it is scrolled into view.
+     */
+    @Override
+    public void validate() {
+        if (isValid() || isOutsideVisibleArea()) {
+            return;
+        }
+        super.validate();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Node labels are not painted at all when zoomed out below the label threshold of {@link LevelOfDetail}, unless
+     * {@link #isPaintedWithoutLabels()}.
+     */
+    @Override
+    public void paint(final Graphics graphics) {
+        if (!isPaintedWithoutLabels() && !LevelOfDetail.showsLabels(graphics)) {
+            return;
+        }
+        if (!isValid()) {
+            // deferred layout, see #validate()
+            super.validate();
+        }
+        // opaque annotations are painted from an off-screen image which is dropped when the figure is invalidated
+        if (!isOpaque() || !FigureImageCache.getInstance().paint(this, graphics, m_annotation.getRevision(),
+            g -> super.paint(g))) {
+            super.paint(graphics);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the annotation is also painted when labels are hidden, <code>false</code> (the
+     *         default) if it is a label that is left out then
+     * @see LevelOfDetail#showsLabels(Graphics)
+     */
+    protected boolean isPaintedWithoutLabels() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Any change of the text, the style or the layout of the annotation invalidates the figure, which also drops its
+     * cached image.
+     */
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        FigureImageCache.getInstance().invalidate(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify() {
+        FigureImageCache.getInstance().invalidate(this);
+        super.removeNotify();
+    }
+
+    private boolean isOutsideVisibleArea() {
+        IFigure root = getParent();
+        if ((root == null) || !isVisible()) {
+            return root != null;
+        }
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        final Rectangle absoluteBounds = getBounds().getCopy();
+        translateToAbsolute(absoluteBounds);
+        return !absoluteBounds.intersects(root.getBounds());
     }
 
     /**
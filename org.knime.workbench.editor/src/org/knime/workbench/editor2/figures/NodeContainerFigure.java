@@ -45,7 +45,9 @@
  */
 package org.knime.workbench.editor2.figures;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.eclipse.draw2d.ColorConstants;
@@ -68,6 +70,7 @@
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Display;
 import org.knime.core.node.NodeFactory.NodeType;
 import org.knime.core.node.NodeLogger;
@@ -182,6 +185,12 @@ public class NodeContainerFigure extends RectangleFigure implements EditorModePa
 
     private static final Color HEADING_CONTAINER_FOREGROUND = ColorConstants.black;
 
+    /**
+     * Average colors of the (shared) node background images, used for the simplified rendering. Disposed together
+     * with the display.
+     */
+    private static final Map<Image, Color> TYPE_COLORS = new HashMap<>();
+
 
     /** content pane, contains the port visuals and the icon. */
     private final SymbolFigure m_symbolFigure;
@@ -247,7 +256,14 @@ public NodeContainerFigure(final ProgressFigure progressFigure) {
 
 
         // Heading (Label)
-        m_headingContainer = new Figure();
+        m_headingContainer = new Figure() {
+            @Override
+            public void paint(final Graphics graphics) {
+                if (LevelOfDetail.showsLabels(graphics)) {
+                    super.paint(graphics);
+                }
+            }
+        };
 
         // icon
         m_symbolFigure = new SymbolFigure();
@@ -809,6 +825,10 @@ protected void fillShape(final Graphics graphics) {
      */
     @Override
     public void paint(final Graphics graphics) {
+        if (LevelOfDetail.isSimplified(graphics)) {
+            paintSimplified(graphics);
+            return;
+        }
         // paints the figure and its children
         super.paint(graphics);
 
@@ -821,6 +841,71 @@ public void paint(final Graphics graphics) {
         }
     }
 
+    /**
+     * Paints the node as a plain box in the color of its node type, used when zoomed out far enough that icons, ports
+     * and labels are not recognizable anymore (see {@link LevelOfDetail}). The children are not painted.
+     */
+    private void paintSimplified(final Graphics graphics) {
+        final Rectangle r = m_symbolFigure.getBackgroundIconBounds();
+        graphics.pushState();
+        try {
+            if (WorkflowEditorMode.NODE_EDIT.equals(m_currentEditorMode)) {
+                graphics.setBackgroundColor(m_symbolFigure.getTypeColor());
+            } else {
+                graphics.setBackgroundColor(ColorConstants.lightGray);
+            }
+            graphics.fillRectangle(r);
+        } finally {
+            graphics.popState();
+        }
+    }
+
+    /**
+     * @param backgroundImage a (shared) node background image
+     * @return the average color of the non-transparent pixels of the image
+     */
+    private static Color computeTypeColor(final Image backgroundImage) {
+        Color color = TYPE_COLORS.get(backgroundImage);
+        if (color == null) {
+            if (backgroundImage.isDisposed()) {
+                return ColorConstants.gray;
+            }
+            final ImageData data = backgroundImage.getImageData();
+            long red = 0, green = 0, blue = 0, count = 0;
+            for (int y = 0; y < data.height; y++) {
+                for (int x = 0; x < data.width; x++) {
+                    if (data.getAlpha(x, y) < 128) {
+                        continue;
+                    }
+                    final int pixel = data.getPixel(x, y);
+                    if ((data.transparentPixel >= 0) && (pixel == data.transparentPixel)) {
+                        continue;
+                    }
+                    final RGB rgb = data.palette.getRGB(pixel);
+                    red += rgb.red;
+                    green += rgb.green;
+                    blue += rgb.blue;
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return ColorConstants.gray;
+            }
+            final Display display = Display.getCurrent();
+            if (TYPE_COLORS.isEmpty()) {
+                display.disposeExec(NodeContainerFigure::disposeTypeColors);
+            }
+            color = new Color(display, (int)(red / count), (int)(green / count), (int)(blue / count));
+            TYPE_COLORS.put(backgroundImage, color);
+        }
+        return color;
+    }
+
+    private static void disposeTypeColors() {
+        TYPE_COLORS.values().forEach(Color::dispose);
+        TYPE_COLORS.clear();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -941,6 +1026,8 @@ protected class SymbolFigure extends GhostlySupportingFigure {
 
         private NodeType m_nodeType;
 
+        private Color m_typeColor = ColorConstants.gray;
+
         /**
          * Creates a new figure containing the symbol. That is the background
          * icon (depending on the type of the node) and the node's icon. Also
@@ -1135,10 +1222,25 @@ void setType(final NodeType type) {
 
             m_originalBackgroundIcon = getBackgroundImage();
             m_ghostlyBackgroundIcon = makeImageGhostly(m_originalBackgroundIcon);
+            m_typeColor = computeTypeColor(m_originalBackgroundIcon);
 
             updateFigure();
         }
 
+        /**
+         * @return the color representing the node type, i.e. the average color of the background image
+         */
+        Color getTypeColor() {
+            return m_typeColor;
+        }
+
+        /**
+         * @return the bounds of the node type background
+         */
+        Rectangle getBackgroundIconBounds() {
+            return m_backgroundIcon.getBounds();
+        }
+
         @Override
         void disposeGhostlyImage() {
             super.disposeGhostlyImage();
@@ -45,11 +45,6 @@
  */
 package org.knime.workbench.editor2.figures;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.draw2d.ConnectionLocator;
@@ -59,25 +54,17 @@
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.knime.core.node.workflow.ConnectionProgress;
 
 /**
  * PolylineConnection that can optionally show a label and provides animation to
- * produce a flowing effect.
+ * produce a flowing effect. The animation of all connections is driven by one shared clock which only advances
+ * connections that are visible on screen.
  */
 public class ProgressPolylineConnection extends PolylineConnection {
 
-    /** Service to make the marching ants go slow ... not updating with each event. */
-    private static ScheduledExecutorService UI_PROGESS_UPDATE_SERVICE = Executors.newSingleThreadScheduledExecutor(
-        new ThreadFactory() {
-            private final AtomicInteger m_threadCreateCounter = new AtomicInteger();
-            @Override
-            public Thread newThread(final Runnable r) {
-                return new Thread(r, "Delayed Progress Updater-" + m_threadCreateCounter.getAndIncrement());
-            }
-        });
-
     /** display label for showing connection statistics. */
     private final Label m_label;
 
@@ -96,6 +83,9 @@ public Thread newThread(final Runnable r) {
 
     private static final Color DEFAULT_COLOR = new Color(Display.getCurrent(), 150, 150, 150);
 
+    /** The canvas this connection is displayed in, used to pause the animation while it isn't visible. */
+    private Control m_canvas;
+
     /**
      * Creates a new connection.
      */
@@ -103,7 +93,14 @@ public ProgressPolylineConnection() {
         ConnectionLocator locator = new ConnectionLocator(this);
         locator.setRelativePosition(PositionConstants.NORTH);
         locator.setGap(5);
-        this.m_label = new Label("");
+        this.m_label = new Label("") {
+            @Override
+            public void paint(final Graphics graphics) {
+                if (LevelOfDetail.showsLabels(graphics)) {
+                    super.paint(graphics);
+                }
+            }
+        };
         add(m_label, locator);
         setForegroundColor(DEFAULT_COLOR);
         setLineWidth(1);
@@ -112,7 +109,10 @@ public ProgressPolylineConnection() {
     /** {@inheritDoc} */
     @Override
     protected void outlineShape(final Graphics g) {
-        if (m_state < 0) {
+        if (LevelOfDetail.isSimplified(g)) {
+            // no flow animation when zoomed out that far
+            g.setLineStyle(SWT.LINE_SOLID);
+        } else if (m_state < 0) {
             setLineStyle(SWT.LINE_SOLID);
         } else {
             g.setLineDash(DASHES[m_state]);
@@ -129,32 +129,31 @@ protected void outlineShape(final Graphics g) {
 
     /**
      * Update the progress. Calling this method serves two purposes. First, it
-     * updates the label. Second it updates the animation.
+     * updates the label. Second it updates the animation. The update is deferred to the next frame of the shared
+     * animation clock, intermediate progress events are dropped.
      *
      * @param e the connection progress
      */
     public void progressChanged(final ConnectionProgress e) {
-        if (m_atomicConnectionProgressReference.getAndSet(e) == null) {
-            UI_PROGESS_UPDATE_SERVICE.schedule(new Runnable() {
-                @Override
-                public void run() {
-                    Display.getDefault().asyncExec(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (!Display.getDefault().isDisposed()) {
-                                progressChangedInternal(m_atomicConnectionProgressReference.getAndSet(null));
-                            }
-                        }
-                    });
-                }
-            }, 250, TimeUnit.MILLISECONDS);
-        }
+        m_atomicConnectionProgressReference.set(e);
+        ConnectionAnimationClock.INSTANCE.changed(this);
     }
 
-    private void progressChangedInternal(final ConnectionProgress e) {
+    /**
+     * Called by the animation clock in the UI thread.
+     *
+     * @param onScreen whether the connection is currently visible, if not the animation is not advanced
+     */
+    void applyProgress(final boolean onScreen) {
+        final ConnectionProgress e = m_atomicConnectionProgressReference.getAndSet(null);
+        if (e == null) {
+            return;
+        }
         if (e.inProgress()) {
             // currently in-progress--advance to the next position in the animation
-            step();
+            if (onScreen) {
+                step();
+            }
         } else {
             // not in-progress--set to solid
             setSolid();
@@ -162,6 +161,31 @@ private void progressChangedInternal(final ConnectionProgress e) {
         setLabel(e.hasMessage() ? e.getMessage() : "");
     }
 
+    /**
+     * @param canvas the control this connection is displayed in; while it is hidden (or its shell minimized) the
+     *            animation is paused
+     * @since 3.8
+     */
+    public void setCanvas(final Control canvas) {
+        m_canvas = canvas;
+    }
+
+    /**
+     * @return the control this connection is displayed in or <code>null</code> if not set
+     */
+    Control getCanvas() {
+        return m_canvas;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify() {
+        ConnectionAnimationClock.INSTANCE.remove(this);
+        super.removeNotify();
+    }
+
     private void step() {
         setLineStyle(SWT.LINE_CUSTOM);
         m_state++;
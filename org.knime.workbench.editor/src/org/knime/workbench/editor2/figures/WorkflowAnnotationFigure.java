@@ -153,7 +153,10 @@ public boolean getAndClearTriggeredToggleState() {
      * @param flag if true, set the edit mode icon visible, else hidden if false
      */
     public void showEditIcon(final boolean flag) {
-        m_modeIcon.setVisible(flag);
+        if (m_modeIcon.isVisible() != flag) {
+            m_modeIcon.setVisible(flag);
+            FigureImageCache.getInstance().invalidate(this);
+        }
     }
 
     /**
@@ -163,6 +166,16 @@ public Rectangle getEditIconBounds() {
         return m_modeIcon.getBounds();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Workflow annotations are no labels, they are painted at all zoom levels.
+     */
+    @Override
+    protected boolean isPaintedWithoutLabels() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -145,6 +145,7 @@
 import org.knime.js.core.layout.bs.JSONNestedLayout;
 import org.knime.workbench.KNIMEEditorPlugin;
 import org.knime.workbench.core.util.ImageRepository;
+import org.knime.workbench.editor2.BrowserPool;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonLocation;
@@ -178,6 +179,7 @@ public class SubnodeLayoutJSONEditorPage extends WizardPage {
     private Label m_basicStatusLine;
     private NodeUsageComposite m_nodeUsageComposite;
     private Browser m_browser;
+    private ProgressListener m_progressListener;
     private BrowserFunction m_visualLayoutUpdate;
 
     /**
@@ -307,7 +309,7 @@ private Composite createVisualLayoutComposite(final Composite parent) {
         }
 
         // Create browser
-        m_browser = new Browser(composite, SWT.NONE);
+        m_browser = BrowserPool.getInstance().acquire(composite);
 
         try {
             m_browser.setUrl(new File(html).toURI().toURL().toString());
@@ -329,7 +331,7 @@ private Composite createVisualLayoutComposite(final Composite parent) {
         // variables in progress listener must be final
         final String JSONLayout = getJsonDocument();
         final String jsonNodes = JSONNodes;
-        m_browser.addProgressListener(new ProgressListener() {
+        m_progressListener = new ProgressListener() {
 
             @Override
             public void changed(final ProgressEvent event) {
@@ -341,7 +343,8 @@ public void completed(final ProgressEvent event) {
                 m_browser.evaluate("setNodes(\'" + jsonNodes + "\');");
                 m_browser.evaluate("setLayout(\'" + JSONLayout + "\');");
             }
-        });
+        };
+        m_browser.addProgressListener(m_progressListener);
         m_visualLayoutUpdate = new UpdateLayoutFunction(m_browser, "pushLayout");
         return composite;
     }
@@ -1223,13 +1226,15 @@ private void updateJsonTextArea() {
 
     @Override
     public void dispose() {
-        if (m_browser != null && !m_browser.isDisposed()) {
-            m_browser.dispose();
-        }
         if (m_visualLayoutUpdate != null && !m_visualLayoutUpdate.isDisposed()) {
             m_visualLayoutUpdate.dispose();
         }
+        if (m_browser != null && !m_browser.isDisposed()) {
+            m_browser.removeProgressListener(m_progressListener);
+            BrowserPool.getInstance().release(m_browser);
+        }
         m_browser = null;
+        m_progressListener = null;
         m_visualLayoutUpdate = null;
         super.dispose();
     }
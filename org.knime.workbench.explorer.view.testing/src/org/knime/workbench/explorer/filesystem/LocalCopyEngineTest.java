@@ -0,0 +1,117 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.filesystem;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.node.workflow.WorkflowPersistor;
+import org.knime.workbench.explorer.filesystem.LocalCopyEngine.CopyResult;
+
+/**
+ * Test cases for {@link LocalCopyEngine}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class LocalCopyEngineTest {
+    /** Temporary folder for source and target trees. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    /**
+     * Checks that a directory tree is copied completely.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testCopyTree() throws Exception {
+        Path source = m_tempFolder.newFolder("source").toPath();
+        Files.createDirectories(source.resolve("a/b"));
+        Files.createDirectories(source.resolve("empty"));
+        Files.write(source.resolve("a/b/file.bin"), new byte[100000]);
+        Files.write(source.resolve("top.txt"), new byte[]{1, 2, 3});
+        Path target = m_tempFolder.getRoot().toPath().resolve("target");
+
+        CopyResult result = new LocalCopyEngine().setParallelism(2).copy(source, target, null);
+
+        assertThat("Unexpected number of files", result.getFilesCopied(), is(2));
+        assertThat("Unexpected number of bytes", result.getBytesCopied(), is(100003L));
+        assertThat(Files.size(target.resolve("a/b/file.bin")), is(100000L));
+        assertThat(Files.readAllBytes(target.resolve("top.txt")), is(new byte[]{1, 2, 3}));
+        assertThat("Empty directory not copied", Files.isDirectory(target.resolve("empty")), is(true));
+    }
+
+    /**
+     * Checks that the data filter is only applied inside workflows.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testExcludeDataOnlyInsideWorkflows() throws Exception {
+        Path source = m_tempFolder.newFolder("source").toPath();
+        Files.createDirectories(source.resolve("wf/Node (#1)/port_1"));
+        Files.write(source.resolve("wf/" + WorkflowPersistor.WORKFLOW_FILE), new byte[1]);
+        Files.write(source.resolve("wf/Node (#1)/settings.xml"), new byte[1]);
+        Files.write(source.resolve("wf/Node (#1)/port_1/data.zip"), new byte[1000]);
+        Files.write(source.resolve("port_data.csv"), new byte[10]);
+        Path target = m_tempFolder.getRoot().toPath().resolve("target");
+
+        new LocalCopyEngine().setWorkflowDataFilter(f -> f.getName().startsWith("port_")).copy(source, target,
+            null);
+
+        assertThat("Workflow file missing", Files.exists(target.resolve("wf/" + WorkflowPersistor.WORKFLOW_FILE)),
+            is(true));
+        assertThat("Node settings missing", Files.exists(target.resolve("wf/Node (#1)/settings.xml")), is(true));
+        assertThat("Node data copied", Files.exists(target.resolve("wf/Node (#1)/port_1")), is(false));
+        assertThat("Data file outside of workflow not copied", Files.exists(target.resolve("port_data.csv")),
+            is(true));
+    }
+}
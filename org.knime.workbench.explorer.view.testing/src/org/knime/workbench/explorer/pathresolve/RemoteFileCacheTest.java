@@ -0,0 +1,253 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.pathresolve;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test cases for {@link RemoteFileCache}, run against an in-process HTTP server.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class RemoteFileCacheTest {
+    /** Temporary folder for the cache directories. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    private HttpServer m_server;
+
+    private volatile String m_content = "Hello world";
+
+    private volatile int m_version = 1;
+
+    private volatile long m_delay;
+
+    private final AtomicInteger m_downloads = new AtomicInteger();
+
+    private final AtomicInteger m_notModified = new AtomicInteger();
+
+    private final List<RemoteFileCache> m_caches = new ArrayList<>();
+
+    /**
+     * Starts the HTTP server, which serves the same content (with an ETag) under every path.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    @Before
+    public void startServer() throws IOException {
+        m_server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        m_server.createContext("/", this::handle);
+        m_server.setExecutor(Executors.newCachedThreadPool());
+        m_server.start();
+    }
+
+    /**
+     * Stops the server and disposes the caches.
+     */
+    @After
+    public void stopServer() {
+        m_server.stop(0);
+        m_caches.forEach(RemoteFileCache::dispose);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            if (m_delay > 0) {
+                Thread.sleep(m_delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String etag = "\"" + m_version + "\"";
+        exchange.getResponseHeaders().add("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            m_notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            m_downloads.incrementAndGet();
+            byte[] bytes = m_content.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    private URL url(final String path) throws IOException {
+        return new URL("http://localhost:" + m_server.getAddress().getPort() + "/" + path);
+    }
+
+    private RemoteFileCache createCache(final long maxSize) throws IOException {
+        RemoteFileCache cache = new RemoteFileCache(m_tempFolder.getRoot(), maxSize);
+        m_caches.add(cache);
+        return cache;
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks that an unchanged resource is revalidated instead of downloaded again and that callers may delete the
+     * returned files.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRevalidate() throws Exception {
+        RemoteFileCache cache = createCache(1 << 20);
+
+        File first = cache.fetch(url("data.csv"));
+        assertThat("Wrong content", read(first), is("Hello world"));
+        Files.delete(first.toPath());
+
+        File second = cache.fetch(url("data.csv"));
+        assertThat("Wrong content of cached file", read(second), is("Hello world"));
+        assertThat("Unexpected number of downloads", m_downloads.get(), is(1));
+        assertThat("Unexpected number of revalidations", m_notModified.get(), is(1));
+
+        m_content = "Changed";
+        m_version++;
+        File third = cache.fetch(url("data.csv"));
+        assertThat("Changed content not downloaded", read(third), is("Changed"));
+        assertThat("Unexpected number of downloads", m_downloads.get(), is(2));
+        assertThat("Previously returned file changed", read(second), is("Hello world"));
+        assertThat("Unexpected number of cached files", cache.getEntryCount(), is(1));
+    }
+
+    /**
+     * Checks that concurrent requests for the same URL share one download.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        RemoteFileCache cache = createCache(1 << 20);
+        m_delay = 300;
+        URL url = url("slow.csv");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<File>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> cache.fetch(url)));
+            }
+            for (Future<File> f : futures) {
+                assertThat("Wrong content", read(f.get()), is("Hello world"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat("Unexpected number of downloads", m_downloads.get(), is(1));
+        assertThat("Unexpected number of revalidations", m_notModified.get(), is(0));
+    }
+
+    /**
+     * Checks that the cache does not grow beyond its maximum size.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testSizeBound() throws Exception {
+        RemoteFileCache cache = createCache(4 * 11);
+
+        for (int i = 0; i < 10; i++) {
+            cache.fetch(url("file" + i));
+        }
+        assertThat("Cache too large", cache.getSize() <= 4 * 11, is(true));
+        assertThat("Unexpected number of cached files", cache.getEntryCount(), is(4));
+
+        // the most recently used one is still cached
+        cache.fetch(url("file9"));
+        assertThat("Unexpected number of downloads", m_downloads.get(), is(10));
+    }
+
+    /**
+     * Checks that cache directories of ended processes are removed, but not those of running ones.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRemoveOrphanedDirectories() throws Exception {
+        File orphaned = m_tempFolder.newFolder("cache-orphaned");
+        Files.createFile(new File(orphaned, ".lock").toPath());
+        Files.createFile(new File(orphaned, "entry.bin").toPath());
+
+        RemoteFileCache first = createCache(1 << 20);
+        assertThat("Orphaned cache directory not removed", orphaned.exists(), is(false));
+
+        RemoteFileCache second = createCache(1 << 20);
+        assertThat("Cache directory of a running cache removed", first.getDirectory().exists(), is(true));
+
+        second.dispose();
+        assertThat("Cache directory not removed on dispose", second.getDirectory().exists(), is(false));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link PrefetchingChildrenLoader}, using an in-memory tree whose listings are artificially slow.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PrefetchingChildrenLoaderTest {
+    private static final long LATENCY_MS = 100;
+
+    private final Map<String, List<String>> m_tree = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> m_listings = new ConcurrentHashMap<>();
+
+    private final AtomicInteger m_running = new AtomicInteger();
+
+    private final AtomicInteger m_maxRunning = new AtomicInteger();
+
+    private final BlockingQueue<String> m_notifications = new LinkedBlockingQueue<>();
+
+    /** Elements whose listing fails. */
+    private final Set<String> m_broken = ConcurrentHashMap.newKeySet();
+
+    private PrefetchingChildrenLoader<String> m_loader;
+
+    private void createLoader(final int parallelism, final int prefetchDepth) {
+        m_tree.put("/", Arrays.asList("/a", "/b"));
+        m_tree.put("/a", Arrays.asList("/a/1", "/a/2"));
+        m_tree.put("/b", Collections.<String> emptyList());
+        m_tree.put("/a/1", Arrays.asList("/a/1/x"));
+        m_tree.put("/a/2", Collections.<String> emptyList());
+        m_loader = new PrefetchingChildrenLoader<>(parent -> {
+            m_listings.computeIfAbsent(parent, p -> new AtomicInteger()).incrementAndGet();
+            m_maxRunning.accumulateAndGet(m_running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LATENCY_MS);
+                if (m_broken.contains(parent)) {
+                    throw new IOException("Listing " + parent + " failed");
+                }
+                return m_tree.getOrDefault(parent, Collections.<String> emptyList());
+            } finally {
+                m_running.decrementAndGet();
+            }
+        }, m_tree::containsKey, (parent, children) -> m_notifications.add(parent), parallelism, prefetchDepth);
+    }
+
+    private int listings(final String parent) {
+        AtomicInteger count = m_listings.get(parent);
+        return (count == null) ? 0 : count.get();
+    }
+
+    /** Stops the loader. */
+    @After
+    public void disposeLoader() {
+        if (m_loader != null) {
+            m_loader.dispose();
+        }
+    }
+
+    /**
+     * Checks that children are loaded in the background and the listener is notified.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testLoadInBackground() throws Exception {
+        createLoader(2, 0);
+        long start = System.nanoTime();
+        assertThat("Children known before loading", m_loader.getChildren("/"), is(nullValue()));
+        assertThat("Caller was blocked", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < LATENCY_MS,
+            is(true));
+
+        assertThat("Listener not notified", m_notifications.poll(5, TimeUnit.SECONDS), is("/"));
+        assertThat("Unexpected children", m_loader.getChildren("/"), is(Arrays.asList("/a", "/b")));
+        m_loader.getChildren("/");
+        assertThat("Children listed again", listings("/"), is(1));
+    }
+
+    /**
+     * Checks that the next level is prefetched with bounded parallelism and without notifications.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testPrefetch() throws Exception {
+        createLoader(1, 1);
+        m_loader.getChildren("/");
+        assertThat("Listener not notified", m_notifications.poll(5, TimeUnit.SECONDS), is("/"));
+
+        long end = System.currentTimeMillis() + 5000;
+        while ((m_loader.getCachedChildren("/a") == null || m_loader.getCachedChildren("/b") == null)
+            && (System.currentTimeMillis() < end)) {
+            Thread.sleep(10);
+        }
+        assertThat("Children of /a not prefetched", m_loader.getCachedChildren("/a"),
+            is(Arrays.asList("/a/1", "/a/2")));
+        assertThat("Prefetched too deep", listings("/a/1"), is(0));
+        assertThat("Listener notified about prefetched children", m_notifications.isEmpty(), is(true));
+        assertThat("Too many concurrent listings", m_maxRunning.get(), is(1));
+    }
+
+    /**
+     * Checks that invalidated children are still returned until they have been reloaded.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testInvalidate() throws Exception {
+        createLoader(2, 0);
+        m_loader.getChildren("/");
+        m_notifications.poll(5, TimeUnit.SECONDS);
+
+        m_tree.put("/", Arrays.asList("/a", "/b", "/c"));
+        m_loader.invalidate("/");
+        assertThat("Outdated children not returned while reloading", m_loader.getChildren("/"),
+            is(Arrays.asList("/a", "/b")));
+        assertThat("Listener not notified", m_notifications.poll(5, TimeUnit.SECONDS), is("/"));
+        assertThat("Unexpected reloaded children", m_loader.getChildren("/"), is(Arrays.asList("/a", "/b", "/c")));
+        assertThat("Unexpected number of listings", listings("/"), is(2));
+
+        m_loader.clear(p -> true);
+        assertThat("Children still cached", m_loader.getCachedChildren("/"), is(nullValue()));
+    }
+
+    /**
+     * Checks that concurrent requests for the same element result in a single listing.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testDeduplication() throws Exception {
+        createLoader(4, 0);
+        for (int i = 0; i < 10; i++) {
+            m_loader.getChildren("/a");
+        }
+        assertThat("Listener not notified", m_notifications.poll(5, TimeUnit.SECONDS), is("/a"));
+        assertThat("Unexpected number of listings", listings("/a"), is(1));
+    }
+
+    /**
+     * Checks that an element invalidated while its children are being loaded is loaded again.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testInvalidateWhileLoading() throws Exception {
+        createLoader(2, 0);
+        m_loader.getChildren("/");
+        long end = System.currentTimeMillis() + 5000;
+        while ((m_running.get() == 0) && (System.currentTimeMillis() < end)) {
+            Thread.sleep(5);
+        }
+        m_tree.put("/", Arrays.asList("/a", "/b", "/c"));
+        m_loader.invalidate("/");
+
+        end = System.currentTimeMillis() + 5000;
+        while ((listings("/") < 2 || m_running.get() > 0) && (System.currentTimeMillis() < end)) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(LATENCY_MS);
+        assertThat("Children not reloaded", listings("/"), is(2));
+        assertThat("Unexpected reloaded children", m_loader.getCachedChildren("/"),
+            is(Arrays.asList("/a", "/b", "/c")));
+    }
+
+    /**
+     * Checks that a failed listing is reported and only retried after invalidation.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testFailure() throws Exception {
+        createLoader(2, 0);
+        m_broken.add("/");
+        m_loader.getChildren("/");
+        assertThat("Listener not notified", m_notifications.poll(5, TimeUnit.SECONDS), is("/"));
+        assertThat("Children cached for failed listing", m_loader.getChildren("/"), is(nullValue()));
+        assertThat("Error not reported", m_loader.getError("/") instanceof IOException, is(true));
+        assertThat("Failed listing retried without invalidation", listings("/"), is(1));
+
+        m_broken.clear();
+        m_loader.invalidate("/");
+        assertThat("Error still reported after invalidation", m_loader.getError("/"), is(nullValue()));
+        m_loader.getChildren("/");
+        assertThat("Listener not notified", m_notifications.poll(5, TimeUnit.SECONDS), is("/"));
+        assertThat("Unexpected children", m_loader.getChildren("/"), is(Arrays.asList("/a", "/b")));
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.actions;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.workbench.explorer.filesystem.RemoteDownloadStream;
+import org.knime.workbench.explorer.view.actions.imports.ZipStreamExtractor;
+
+/**
+ * Test cases for {@link DownloadTransfer} and {@link ZipStreamExtractor}, using a synthetic
+ * {@link RemoteDownloadStream}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class DownloadTransferTest {
+    /** Temporary folder for the extracted files. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    /**
+     * Provides data from a byte array, becomes ready after a number of polls and breaks once after a number of bytes.
+     */
+    private static final class SyntheticDownloadStream extends RemoteDownloadStream {
+        private final byte[] m_data;
+
+        private final boolean m_resumable;
+
+        private int m_pos;
+
+        private int m_pollsUntilReady;
+
+        private int m_breakAt;
+
+        private int m_polls;
+
+        SyntheticDownloadStream(final byte[] data, final int start, final int pollsUntilReady, final int breakAt,
+            final boolean resumable) {
+            m_data = data;
+            m_pos = start;
+            m_pollsUntilReady = pollsUntilReady;
+            m_breakAt = breakAt;
+            m_resumable = resumable;
+        }
+
+        @Override
+        public boolean readyForDownload() {
+            m_polls++;
+            return m_polls > m_pollsUntilReady;
+        }
+
+        @Override
+        public long length() {
+            return m_data.length;
+        }
+
+        @Override
+        public List<String> getMessages() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (m_pos >= m_data.length) {
+                return -1;
+            }
+            if (m_pos >= m_breakAt) {
+                throw new IOException("Connection reset");
+            }
+            int n = Math.min(Math.min(len, m_data.length - m_pos), m_breakAt - m_pos);
+            System.arraycopy(m_data, m_pos, b, off, n);
+            m_pos += n;
+            return n;
+        }
+
+        @Override
+        public RemoteDownloadStream resume(final long position) throws IOException {
+            return m_resumable ? new SyntheticDownloadStream(m_data, (int)position, 1, Integer.MAX_VALUE, true) : null;
+        }
+    }
+
+    private static byte[] createArchive() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry("workflow/"));
+            out.putNextEntry(new ZipEntry("workflow/workflow.knime"));
+            out.write("<config/>".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("workflow/data/table.bin"));
+            // random data, so that the archive doesn't get too small by compression
+            byte[] data = new byte[100000];
+            new Random(0).nextBytes(data);
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Checks that waiting for the server starts with short intervals.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testAdaptivePolling() throws Exception {
+        SyntheticDownloadStream stream = new SyntheticDownloadStream(new byte[0], 0, 4, Integer.MAX_VALUE, false);
+        DownloadTransfer transfer = new DownloadTransfer(stream, () -> false);
+
+        long start = System.currentTimeMillis();
+        assertThat("Not ready", transfer.awaitReady(), is(true));
+        long duration = System.currentTimeMillis() - start;
+        // 50 + 100 + 200 + 400 ms instead of 4 seconds
+        assertThat("Waited too long: " + duration + " ms", duration < 2000, is(true));
+        assertThat("Unexpected number of polls", stream.m_polls, is(5));
+    }
+
+    /**
+     * Checks that an archive is extracted while it is read and that a broken download is resumed.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testExtractWithResume() throws Exception {
+        byte[] archive = createArchive();
+        SyntheticDownloadStream stream = new SyntheticDownloadStream(archive, 0, 0, archive.length / 2, true);
+        DownloadTransfer transfer = new DownloadTransfer(stream, () -> false);
+        long[] progress = new long[1];
+        transfer.setProgressListener(b -> progress[0] = b);
+
+        File staging = m_tempFolder.newFolder("staging");
+        String root = ZipStreamExtractor.extract(transfer.getInputStream(), staging);
+        assertThat("Wrong common root", root, is("workflow/"));
+        assertThat("Wrong number of bytes", transfer.getBytesTransferred(), is((long)archive.length));
+        assertThat("Wrong progress", progress[0], is((long)archive.length));
+        assertThat("Stream not replaced", transfer.getStream() != stream, is(true));
+
+        File target = new File(m_tempFolder.getRoot(), "target");
+        ZipStreamExtractor.moveInto(new File(staging, root), target);
+        assertThat("Wrong content",
+            new String(Files.readAllBytes(new File(target, "workflow.knime").toPath()), StandardCharsets.UTF_8),
+            is("<config/>"));
+        assertThat("Wrong size", new File(target, "data/table.bin").length(), is(100000L));
+    }
+
+    /**
+     * Checks that a broken download fails if the stream cannot be resumed.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testBrokenWithoutResume() throws Exception {
+        byte[] archive = createArchive();
+        SyntheticDownloadStream stream = new SyntheticDownloadStream(archive, 0, 0, archive.length / 2, false);
+        DownloadTransfer transfer = new DownloadTransfer(stream, () -> false);
+        try {
+            ZipStreamExtractor.extract(transfer.getInputStream(), m_tempFolder.newFolder("staging"));
+            fail("Broken download not reported");
+        } catch (IOException e) {
+            assertThat("Unexpected exception", e.getMessage(), is("Connection reset"));
+        }
+    }
+
+    /**
+     * Checks that canceling stops the transfer.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testCancel() throws Exception {
+        byte[] archive = createArchive();
+        AtomicBoolean canceled = new AtomicBoolean();
+        SyntheticDownloadStream stream = new SyntheticDownloadStream(archive, 0, 0, Integer.MAX_VALUE, false);
+        DownloadTransfer transfer = new DownloadTransfer(stream, canceled::get);
+        transfer.setProgressListener(b -> canceled.set(b > 1000));
+        try {
+            ZipStreamExtractor.extract(transfer.getInputStream(), m_tempFolder.newFolder("staging"));
+            fail("Transfer not canceled");
+        } catch (InterruptedIOException e) {
+            assertThat("Read after cancellation", transfer.getBytesTransferred() < archive.length, is(true));
+        }
+    }
+
+    /**
+     * Checks that moving into an existing directory merges the content.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testMoveIntoExisting() throws Exception {
+        File source = m_tempFolder.newFolder("source");
+        Files.createDirectories(new File(source, "sub").toPath());
+        Files.write(new File(source, "sub/new.txt").toPath(), new byte[]{1});
+        Files.write(new File(source, "replaced.txt").toPath(), new byte[]{1, 2});
+        File target = m_tempFolder.newFolder("target");
+        Files.createDirectories(new File(target, "sub").toPath());
+        Files.write(new File(target, "sub/old.txt").toPath(), new byte[]{1});
+        Files.write(new File(target, "replaced.txt").toPath(), new byte[]{1});
+
+        ZipStreamExtractor.moveInto(source, target);
+        assertThat("Source not removed", source.exists(), is(false));
+        assertThat("Existing file removed", new File(target, "sub/old.txt").exists(), is(true));
+        assertThat("File not moved", new File(target, "sub/new.txt").exists(), is(true));
+        assertThat("File not replaced", new File(target, "replaced.txt").length(), is(2L));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.preview;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.workflow.WorkflowPersistor;
+
+/**
+ * Test cases for {@link WorkflowThumbnailRenderer} and {@link WorkflowThumbnailCache}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class WorkflowThumbnailCacheTest {
+    /** Temporary folder for the workflows. */
+    @Rule
+    public TemporaryFolder m_tempFolder = new TemporaryFolder();
+
+    private File createWorkflow() throws Exception {
+        File dir = m_tempFolder.newFolder("workflow");
+        NodeSettings settings = new NodeSettings("workflow.knime");
+        NodeSettings nodes = settings.addNodeSettings("nodes");
+        for (int i = 1; i <= 2; i++) {
+            NodeSettings node = nodes.addNodeSettings("node_" + i);
+            node.addInt("id", i);
+            node.addNodeSettings("ui_settings").addIntArray("extrainfo.node.bounds", 200 * i, 100, 90, 70);
+        }
+        NodeSettings conn = settings.addNodeSettings("connections").addNodeSettings("connection_0");
+        conn.addInt("sourceID", 1);
+        conn.addInt("destID", 2);
+        NodeSettings anno = settings.addNodeSettings("annotations").addNodeSettings("annotation_0");
+        anno.addInt("x-coordinate", 150);
+        anno.addInt("y-coordinate", 50);
+        anno.addInt("width", 300);
+        anno.addInt("height", 150);
+        anno.addInt("bgcolor", 0xFFD800);
+        try (OutputStream out = new FileOutputStream(new File(dir, WorkflowPersistor.WORKFLOW_FILE))) {
+            settings.saveToXML(out);
+        }
+        return dir;
+    }
+
+    /**
+     * Checks that the renderer fits the workflow into the requested size and draws all elements.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRender() throws Exception {
+        File dir = createWorkflow();
+
+        BufferedImage image = WorkflowThumbnailRenderer.renderImage(dir, 200, 200);
+        assertThat("Image wider than requested", image.getWidth() <= 200, is(true));
+        assertThat("Image higher than requested", image.getHeight() <= 200, is(true));
+
+        StringWriter svg = new StringWriter();
+        WorkflowThumbnailRenderer.renderSVG(dir, svg);
+        assertThat("Connection missing", svg.toString().contains("<polyline"), is(true));
+        assertThat("Annotation missing", svg.toString().contains("#FFD800"), is(true));
+    }
+
+    /**
+     * Checks that thumbnails are cached outside of the workflow and re-rendered once the workflow has been saved.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testCache() throws Exception {
+        File dir = createWorkflow();
+        File cacheDir = m_tempFolder.newFolder("thumbnails");
+        WorkflowThumbnailCache cache = new WorkflowThumbnailCache(cacheDir);
+
+        File thumbnail = cache.getThumbnail(dir);
+        assertThat("Thumbnail not written", thumbnail.isFile(), is(true));
+        assertThat("Thumbnail not readable", ImageIO.read(thumbnail) != null, is(true));
+        assertThat("Thumbnail not in cache directory", thumbnail.getParentFile(), is(cacheDir));
+        assertThat("Files written into the workflow", dir.list().length, is(1));
+        thumbnail.setLastModified(thumbnail.lastModified() - 10000);
+        long cachedTime = thumbnail.lastModified();
+        assertThat("Thumbnail rendered again", cache.getThumbnail(dir).lastModified(), is(cachedTime));
+        assertThat("Asynchronous thumbnail differs", cache.getThumbnailAsync(dir).get(), is(thumbnail));
+
+        File workflowFile = new File(dir, WorkflowPersistor.WORKFLOW_FILE);
+        workflowFile.setLastModified(workflowFile.lastModified() + 10000);
+        File newThumbnail = cache.getThumbnail(dir);
+        assertThat("Outdated thumbnail not rendered again", newThumbnail.equals(thumbnail), is(false));
+        assertThat("Outdated thumbnail not deleted", thumbnail.exists(), is(false));
+        assertThat("Unexpected number of cached thumbnails", cacheDir.list().length, is(1));
+
+        cache.invalidate(dir);
+        assertThat("Thumbnail not deleted", newThumbnail.exists(), is(false));
+        assertThat("Unexpected number of rendered thumbnails", cache.renderAll(Arrays.asList(dir), null), is(1));
+        assertThat("Files written into the workflow", dir.list().length, is(1));
+    }
+}
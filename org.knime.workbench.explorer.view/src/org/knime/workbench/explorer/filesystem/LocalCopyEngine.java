@@ -0,0 +1,333 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.knime.core.node.workflow.WorkflowPersistor;
+
+/**
+ * Copies files and directory trees on the local file system. The source tree is walked once (sequentially) to create
+ * the target directories and to collect the files; the files are then copied concurrently using
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel) channel transfers}, which let the
+ * operating system copy the data without passing it through the Java heap. The data is always copied; there are no
+ * copy-on-write clones (reflinks), as Java offers no API for them. Optionally, data files inside workflows are skipped
+ * during the walk.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class LocalCopyEngine {
+    private static final int DEFAULT_PARALLELISM =
+        Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /** Chunk size for a single transfer call; progress and cancellation are checked in between. */
+    private static final long TRANSFER_CHUNK = 8 << 20;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory THREAD_FACTORY = r -> {
+        Thread t = new Thread(r, "KNIME-Local-Copy-" + THREAD_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    };
+
+    private Predicate<File> m_workflowDataFilter;
+
+    private int m_parallelism = DEFAULT_PARALLELISM;
+
+    /**
+     * Sets a filter for resources inside workflows (or metanode templates) that should not be copied, e.g. node data
+     * when copying a workflow without data. Resources outside of workflows are always copied.
+     *
+     * @param filter a filter that returns <code>true</code> for resources to exclude, <code>null</code> to copy
+     *            everything
+     * @return this
+     */
+    public LocalCopyEngine setWorkflowDataFilter(final Predicate<File> filter) {
+        m_workflowDataFilter = filter;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of files copied concurrently.
+     *
+     * @param parallelism the number of threads, at least 1
+     * @return this
+     */
+    public LocalCopyEngine setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        m_parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Copies the source file or directory tree to the target. Existing target files are overwritten.
+     *
+     * @param source the source file or directory
+     * @param target the target file or directory
+     * @param monitor a progress monitor, may be <code>null</code>; it is converted into a {@link SubMonitor}, i.e. it
+     *            may already be in use by the caller and is not marked as done
+     * @return statistics about the copy operation
+     * @throws IOException if an I/O error occurs or the operation was canceled
+     */
+    public CopyResult copy(final Path source, final Path target, final IProgressMonitor monitor) throws IOException {
+        final long start = System.nanoTime();
+
+        final List<Path[]> files = new ArrayList<>();
+        final AtomicLong totalBytes = new AtomicLong();
+        if (Files.isDirectory(source)) {
+            collect(source, target, files, totalBytes);
+        } else {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            files.add(new Path[]{source, target});
+            totalBytes.addAndGet(Files.size(source));
+        }
+
+        final SubMonitor mon =
+            SubMonitor.convert(monitor, "Copying " + source.getFileName(), (int)Math.max(1, totalBytes.get() >> 10));
+        final AtomicLong copiedBytes = new AtomicLong();
+        final AtomicBoolean canceled = new AtomicBoolean();
+        ExecutorService executor =
+            Executors.newFixedThreadPool(Math.min(m_parallelism, Math.max(1, files.size())), THREAD_FACTORY);
+        ExecutorCompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>(files.size());
+        try {
+            for (final Path[] f : files) {
+                futures.add(completionService.submit(() -> {
+                    copyFile(f[0], f[1], copiedBytes, canceled);
+                    return null;
+                }));
+            }
+            int remaining = futures.size();
+            long reportedKB = 0;
+            while (remaining > 0) {
+                Future<Void> f = completionService.poll(100, TimeUnit.MILLISECONDS);
+                if (f != null) {
+                    remaining--;
+                    f.get();
+                }
+                long kb = copiedBytes.get() >> 10;
+                if (kb > reportedKB) {
+                    mon.worked((int)(kb - reportedKB));
+                    reportedKB = kb;
+                    mon.subTask((copiedBytes.get() >> 20) + " MB of " + (totalBytes.get() >> 20) + " MB ("
+                        + Math.round(throughput(copiedBytes.get(), System.nanoTime() - start) / (1 << 20))
+                        + " MB/s)");
+                }
+                if (mon.isCanceled()) {
+                    canceled.set(true);
+                    throw new IOException("Canceled.");
+                }
+            }
+        } catch (InterruptedException ex) {
+            canceled.set(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while copying '" + source + "'", ex);
+        } catch (ExecutionException ex) {
+            canceled.set(true);
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException)ex.getCause();
+            }
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            for (Future<Void> f : futures) {
+                f.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+        return new CopyResult(files.size(), copiedBytes.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Walks the source tree, creates the target directories and collects the files to copy. Excluded data is
+     * skipped during the walk, i.e. excluded directories are never entered.
+     */
+    private void collect(final Path source, final Path target, final List<Path[]> files, final AtomicLong totalBytes)
+        throws IOException {
+        // for each directory on the current path: whether it is (inside) a workflow
+        final Deque<Boolean> insideWorkflow = new ArrayDeque<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                throws IOException {
+                boolean parentInWorkflow = !insideWorkflow.isEmpty() && insideWorkflow.peek();
+                if (parentInWorkflow && isExcluded(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                boolean isWorkflow = parentInWorkflow || Files.exists(dir.resolve(WorkflowPersistor.WORKFLOW_FILE))
+                    || Files.exists(dir.resolve(WorkflowPersistor.TEMPLATE_FILE));
+                insideWorkflow.push(isWorkflow);
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                if (insideWorkflow.peek() && isExcluded(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                files.add(new Path[]{file, target.resolve(source.relativize(file))});
+                totalBytes.addAndGet(attrs.size());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                insideWorkflow.pop();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private boolean isExcluded(final Path p) {
+        return (m_workflowDataFilter != null) && m_workflowDataFilter.test(p.toFile());
+    }
+
+    private static void copyFile(final Path source, final Path target, final AtomicLong copiedBytes,
+        final AtomicBoolean canceled) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long pos = 0;
+            while (pos < size) {
+                if (canceled.get()) {
+                    throw new IOException("Canceled.");
+                }
+                long transferred = in.transferTo(pos, Math.min(TRANSFER_CHUNK, size - pos), out);
+                if (transferred <= 0) {
+                    // file was truncated while copying
+                    break;
+                }
+                pos += transferred;
+                copiedBytes.addAndGet(transferred);
+            }
+        }
+        Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+    }
+
+    private static double throughput(final long bytes, final long nanos) {
+        return (nanos <= 0) ? 0 : bytes / (nanos / 1e9);
+    }
+
+    /**
+     * Statistics about a finished copy operation.
+     */
+    public static final class CopyResult {
+        private final int m_files;
+
+        private final long m_bytes;
+
+        private final long m_nanos;
+
+        CopyResult(final int files, final long bytes, final long nanos) {
+            m_files = files;
+            m_bytes = bytes;
+            m_nanos = nanos;
+        }
+
+        /** @return the number of copied files */
+        public int getFilesCopied() {
+            return m_files;
+        }
+
+        /** @return the number of copied bytes */
+        public long getBytesCopied() {
+            return m_bytes;
+        }
+
+        /** @return the duration of the copy operation in milliseconds */
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(m_nanos);
+        }
+
+        /** @return the average throughput in bytes per second */
+        public double getThroughput() {
+            return throughput(m_bytes, m_nanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return m_files + " files, " + (m_bytes >> 10) + " KB in " + getDurationMillis() + " ms ("
+                + Math.round(getThroughput() / (1 << 20)) + " MB/s)";
+        }
+    }
+}
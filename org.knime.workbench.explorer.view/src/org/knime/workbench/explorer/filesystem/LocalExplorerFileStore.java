@@ -49,21 +49,24 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.Predicate;
 
-import org.apache.commons.io.FileUtils;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.knime.core.node.NodeLogger;
 import org.knime.workbench.explorer.ExplorerActivator;
+import org.knime.workbench.explorer.filesystem.LocalCopyEngine.CopyResult;
 
 /**
  *
  * @author ohl, University of Konstanz
  */
 public abstract class LocalExplorerFileStore extends AbstractExplorerFileStore {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(LocalExplorerFileStore.class);
 
     /**
      * @param mountID the id of the mount point
@@ -125,43 +128,61 @@ public File resolveToLocalFile(final IProgressMonitor pm) throws CoreException {
     @Override
     public void copy(final IFileStore destination, final int options, final IProgressMonitor monitor)
             throws CoreException {
-                if (this.equals(destination)) {
-                    throw new CoreException(new Status(IStatus.ERROR,
-                            ExplorerActivator.PLUGIN_ID,
-                            "Filestore cannot be copied to itself"));
-                }
-                File srcFile = toLocalFile(options, monitor);
-                File dstFile = destination.toLocalFile(options, monitor);
+        copy(destination, options, null, monitor);
+    }
+
+    /**
+     * Copies this file store to the given destination, skipping resources inside workflows that are matched by the
+     * given filter (e.g. node data when copying workflows without data).
+     *
+     * @param destination the destination, must be local
+     * @param options options as in {@link #copy(IFileStore, int, IProgressMonitor)}
+     * @param workflowDataFilter returns <code>true</code> for resources inside workflows that should not be copied,
+     *            may be <code>null</code>
+     * @param monitor a progress monitor, may be <code>null</code>
+     * @throws CoreException if the copy fails
+     * @since 8.4
+     */
+    public void copy(final IFileStore destination, final int options, final Predicate<File> workflowDataFilter,
+        final IProgressMonitor monitor) throws CoreException {
+        if (this.equals(destination)) {
+            throw new CoreException(new Status(IStatus.ERROR,
+                    ExplorerActivator.PLUGIN_ID,
+                    "Filestore cannot be copied to itself"));
+        }
+        File srcFile = toLocalFile(options, monitor);
+        File dstFile = destination.toLocalFile(options, monitor);
 
-                if (dstFile == null) {
-                    throw new UnsupportedOperationException("The local workspace "
-                            + "filestore only allows copying to local destinations but"
-                            + " \"" + destination.getName() + "\" is not local.");
-                }
-                if (dstFile.exists() && ((options & EFS.OVERWRITE) == 0)) {
-                    throw new CoreException(new Status(IStatus.ERROR,
-                            ExplorerActivator.PLUGIN_ID,
-                            "A file of the same name already exists at the copy "
-                            + "destination"));
-                }
+        if (dstFile == null) {
+            throw new UnsupportedOperationException("The local workspace "
+                    + "filestore only allows copying to local destinations but"
+                    + " \"" + destination.getName() + "\" is not local.");
+        }
+        if (dstFile.exists() && ((options & EFS.OVERWRITE) == 0)) {
+            throw new CoreException(new Status(IStatus.ERROR,
+                    ExplorerActivator.PLUGIN_ID,
+                    "A file of the same name already exists at the copy "
+                    + "destination"));
+        }
 
-                super.cleanupDestination(destination, options, monitor);
-                try {
-                    if (srcFile.isDirectory()) {
-                        FileUtils.copyDirectory(srcFile, dstFile);
-                    } else if (srcFile.isFile()) {
-                        FileUtils.copyFile(srcFile, dstFile);
-                    }
-                } catch (IOException e) {
-                    String message =
-                            "Could not copy \"" + srcFile.getAbsolutePath()
-                                    + "\" to \"" + dstFile.getAbsolutePath() + "\".";
-                    throw new CoreException(new Status(IStatus.ERROR,
-                            ExplorerActivator.PLUGIN_ID, message, e));
-                }
-                IFileStore destParent = destination.getParent();
-                if (destParent instanceof AbstractExplorerFileStore) {
-                    ((AbstractExplorerFileStore)destParent).refresh();
-                }
+        super.cleanupDestination(destination, options, monitor);
+        try {
+            if (srcFile.isDirectory() || srcFile.isFile()) {
+                CopyResult result = new LocalCopyEngine().setWorkflowDataFilter(workflowDataFilter)
+                    .copy(srcFile.toPath(), dstFile.toPath(), monitor);
+                LOGGER.debug("Copied \"" + srcFile.getAbsolutePath() + "\" to \""
+                    + dstFile.getAbsolutePath() + "\": " + result);
             }
+        } catch (IOException e) {
+            String message =
+                    "Could not copy \"" + srcFile.getAbsolutePath()
+                            + "\" to \"" + dstFile.getAbsolutePath() + "\".";
+            throw new CoreException(new Status(IStatus.ERROR,
+                    ExplorerActivator.PLUGIN_ID, message, e));
+        }
+        IFileStore destParent = destination.getParent();
+        if (destParent instanceof AbstractExplorerFileStore) {
+            ((AbstractExplorerFileStore)destParent).refresh();
+        }
+    }
 }
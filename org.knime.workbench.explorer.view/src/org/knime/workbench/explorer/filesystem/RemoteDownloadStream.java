@@ -44,6 +44,7 @@
  */
 package org.knime.workbench.explorer.filesystem;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 
@@ -76,4 +77,18 @@ public abstract class RemoteDownloadStream extends InputStream {
      */
     public abstract List<String> getMessages();
 
+    /**
+     * Opens a new stream that continues the download at the given position, e.g. after the connection broke. The
+     * default implementation doesn't support resuming downloads and returns <code>null</code>.
+     *
+     * @param position the number of bytes that have already been received
+     * @return a new stream providing the data from the given position on, or <code>null</code> if resuming is not
+     *         supported
+     * @throws IOException if the download cannot be resumed
+     * @since 8.4
+     */
+    public RemoteDownloadStream resume(final long position) throws IOException {
+        return null;
+    }
+
 }
@@ -0,0 +1,448 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.pathresolve;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+
+/**
+ * A size-bounded cache for files downloaded from URLs (http(s) and URLs handled by custom stream handlers). Cached
+ * entries are revalidated with the server instead of being downloaded again: HTTP entries by a conditional request
+ * (<tt>If-None-Match</tt>/<tt>If-Modified-Since</tt>), other URLs by comparing last modification date and length.
+ * Resources without any validator (no ETag and no last modification date) are not cached. Concurrent requests for the
+ * same URL share one download.
+ *
+ * <p>
+ * Each process uses its own cache directory (below a common base directory) that is guarded by a file lock; the
+ * directories of processes that no longer hold their lock are removed when a new cache is created.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class RemoteFileCache {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(RemoteFileCache.class);
+
+    /** System property for the maximum size of the cache in MB, 0 disables it. */
+    static final String MAX_SIZE_PROPERTY = "knime.url.cache.maxsize";
+
+    private static final long DEFAULT_MAX_SIZE = 256L << 20;
+
+    private static final String LOCK_FILE = ".lock";
+
+    /** Directories without a lock file are only removed if they are older than this (they may just be created). */
+    private static final long ORPHAN_AGE = TimeUnit.HOURS.toMillis(1);
+
+    private static RemoteFileCache instance;
+
+    private final File m_dir;
+
+    private final long m_maxSize;
+
+    /** Cached entries by URL, in access order. Guarded by this. */
+    private final LinkedHashMap<String, Entry> m_entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Guarded by this. */
+    private long m_size;
+
+    private final Map<String, CompletableFuture<Entry>> m_inFlight = new ConcurrentHashMap<>();
+
+    private final FileChannel m_lockChannel;
+
+    /**
+     * Returns the cache of this process, which is created on first access.
+     *
+     * @return the cache, <code>null</code> if caching is disabled or the cache directory could not be created
+     */
+    static synchronized RemoteFileCache getInstance() {
+        if (instance == null) {
+            long maxSize = DEFAULT_MAX_SIZE;
+            String prop = System.getProperty(MAX_SIZE_PROPERTY);
+            if (prop != null) {
+                try {
+                    maxSize = Long.parseLong(prop.trim()) << 20;
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("Invalid value for " + MAX_SIZE_PROPERTY + ": " + prop);
+                }
+            }
+            if (maxSize <= 0) {
+                return null;
+            }
+            try {
+                instance = new RemoteFileCache(new File(System.getProperty("java.io.tmpdir"), "knime_url_cache"),
+                    maxSize);
+                final RemoteFileCache cache = instance;
+                Runtime.getRuntime().addShutdownHook(new Thread(cache::dispose, "KNIME-URL-Cache-Cleanup"));
+            } catch (IOException e) {
+                LOGGER.warn("Could not create cache for downloaded files, files will not be cached: "
+                    + e.getMessage(), e);
+                return null;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a new cache in a new directory below the given base directory and removes the directories of caches
+     * whose processes ended.
+     *
+     * @param baseDir the directory shared by the caches of all processes
+     * @param maxSize the maximum size of all cached files in bytes
+     * @throws IOException if the cache directory cannot be created
+     */
+    RemoteFileCache(final File baseDir, final long maxSize) throws IOException {
+        Files.createDirectories(baseDir.toPath());
+        removeOrphanedDirectories(baseDir);
+        m_dir = Files.createTempDirectory(baseDir.toPath(), "cache").toFile();
+        m_maxSize = maxSize;
+        m_lockChannel = FileChannel.open(new File(m_dir, LOCK_FILE).toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE);
+        // held until the process ends
+        m_lockChannel.lock();
+    }
+
+    private static void removeOrphanedDirectories(final File baseDir) {
+        File[] dirs = baseDir.listFiles(File::isDirectory);
+        if (dirs == null) {
+            return;
+        }
+        for (File dir : dirs) {
+            File lockFile = new File(dir, LOCK_FILE);
+            if (!lockFile.exists()) {
+                if (System.currentTimeMillis() - dir.lastModified() > ORPHAN_AGE) {
+                    FileUtil.deleteRecursively(dir);
+                }
+                continue;
+            }
+            boolean orphaned = false;
+            try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.WRITE)) {
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    lock.release();
+                    orphaned = true;
+                }
+            } catch (IOException | OverlappingFileLockException e) {
+                // in use (or not accessible), leave it alone
+                LOGGER.debug("Not removing cache directory " + dir + ": " + e.getMessage(), e);
+            }
+            if (orphaned) {
+                LOGGER.debug("Removing cache directory " + dir + " of an ended process");
+                FileUtil.deleteRecursively(dir);
+            }
+        }
+    }
+
+    /**
+     * Returns a new file with the content of the given URL. The caller owns the returned file and may delete it,
+     * cached content is only downloaded again if it changed on the server.
+     *
+     * @param url the URL
+     * @return a new temporary file with the content
+     * @throws IOException if the content cannot be downloaded
+     */
+    File fetch(final URL url) throws IOException {
+        String key = url.toExternalForm();
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> running = m_inFlight.putIfAbsent(key, future);
+        Entry entry;
+        if (running == null) {
+            try {
+                entry = validateOrDownload(key, url);
+                future.complete(entry);
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                m_inFlight.remove(key, future);
+            }
+        } else {
+            entry = await(running);
+        }
+        if (entry.m_cached) {
+            synchronized (this) {
+                if (entry.isValid() && (m_entries.get(key) == entry)) {
+                    return linkOrCopy(entry.m_file, FileUtil.createTempFile("download", ".bin"));
+                }
+            }
+            // evicted in the meantime
+            return fetch(url);
+        } else if (running == null) {
+            // not cacheable, hand over the downloaded file
+            File result = FileUtil.createTempFile("download", ".bin");
+            Files.move(entry.m_file.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return result;
+        } else {
+            // not cacheable, the file belongs to the caller that downloaded it
+            return downloadUncached(url, FileUtil.createTempFile("download", ".bin"));
+        }
+    }
+
+    private static Entry await(final CompletableFuture<Entry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for download", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private Entry validateOrDownload(final String key, final URL url) throws IOException {
+        Entry cached;
+        synchronized (this) {
+            cached = m_entries.get(key);
+            if ((cached != null) && !cached.isValid()) {
+                // modified (or deleted) by someone else
+                remove(key);
+                cached = null;
+            }
+        }
+        URLConnection conn = openConnection(url);
+        if (conn instanceof HttpURLConnection) {
+            HttpURLConnection http = (HttpURLConnection)conn;
+            if (cached != null) {
+                if (cached.m_etag != null) {
+                    http.setRequestProperty("If-None-Match", cached.m_etag);
+                }
+                if (cached.m_lastModified > 0) {
+                    http.setIfModifiedSince(cached.m_lastModified);
+                }
+            }
+            if ((cached != null) && (http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED)) {
+                http.disconnect();
+                return cached;
+            }
+            return store(key, conn, conn.getHeaderField("ETag"), conn.getLastModified());
+        } else {
+            long lastModified = conn.getLastModified();
+            if ((cached != null) && (lastModified > 0) && (lastModified == cached.m_lastModified)
+                && (conn.getContentLengthLong() == cached.m_length)) {
+                IOUtils.closeQuietly(conn.getInputStream());
+                return cached;
+            }
+            return store(key, conn, null, lastModified);
+        }
+    }
+
+    private Entry store(final String key, final URLConnection conn, final String etag, final long lastModified)
+        throws IOException {
+        File file = Files.createTempFile(m_dir.toPath(), "entry", ".bin").toFile();
+        try (InputStream in = conn.getInputStream(); OutputStream out = Files.newOutputStream(file.toPath())) {
+            IOUtils.copyLarge(in, out);
+        } catch (IOException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+        Entry entry = new Entry(file, etag, lastModified);
+        entry.m_cached = ((etag != null) || (lastModified > 0)) && (entry.m_length <= m_maxSize / 4);
+        if (entry.m_cached) {
+            synchronized (this) {
+                remove(key);
+                m_entries.put(key, entry);
+                m_size += entry.m_length;
+                evict();
+            }
+        }
+        return entry;
+    }
+
+    /** Called with the lock held. */
+    private void remove(final String key) {
+        Entry old = m_entries.remove(key);
+        if (old != null) {
+            m_size -= old.m_length;
+            delete(old.m_file);
+        }
+    }
+
+    /** Called with the lock held. */
+    private void evict() {
+        Iterator<Entry> it = m_entries.values().iterator();
+        while ((m_size > m_maxSize) && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            m_size -= eldest.m_length;
+            delete(eldest.m_file);
+        }
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete() && file.exists()) {
+            LOGGER.debug("Could not delete cached file " + file);
+        }
+    }
+
+    private static File linkOrCopy(final File source, final File target) throws IOException {
+        Files.deleteIfExists(target.toPath());
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            // e.g. different file systems
+            Files.copy(source.toPath(), target.toPath());
+        }
+        return target;
+    }
+
+    private static File downloadUncached(final URL url, final File target) throws IOException {
+        try (InputStream is = openConnection(url).getInputStream();
+                OutputStream os = Files.newOutputStream(target.toPath())) {
+            IOUtils.copyLarge(is, os);
+        }
+        return target;
+    }
+
+    /**
+     * Opens a connection to the URL, adding a basic authentication header if the URL contains user information.
+     *
+     * @param url the URL
+     * @return an (unconnected) connection
+     * @throws IOException if the connection cannot be opened
+     */
+    static URLConnection openConnection(final URL url) throws IOException {
+        URLConnection uc = url.openConnection();
+        String userInfo = url.getUserInfo();
+        if (userInfo != null) {
+            String basicAuth = "Basic " + new String(Base64.getEncoder().encode(decode(userInfo).getBytes()));
+            uc.setRequestProperty("Authorization", basicAuth);
+        }
+        return uc;
+    }
+
+    private static String decode(final String userInfo) throws UnsupportedEncodingException {
+        return URLDecoder.decode(userInfo, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * @return the total size of the cached files in bytes
+     */
+    synchronized long getSize() {
+        return m_size;
+    }
+
+    /**
+     * @return the number of cached files
+     */
+    synchronized int getEntryCount() {
+        return m_entries.size();
+    }
+
+    /**
+     * @return the cache directory of this process
+     */
+    File getDirectory() {
+        return m_dir;
+    }
+
+    /**
+     * Removes all cached files and the directory of this cache and releases its lock.
+     */
+    synchronized void dispose() {
+        m_entries.clear();
+        m_size = 0;
+        try {
+            m_lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Could not release cache lock: " + e.getMessage(), e);
+        }
+        FileUtil.deleteRecursively(m_dir);
+    }
+
+    private static final class Entry {
+        private final File m_file;
+
+        private final String m_etag;
+
+        private final long m_lastModified;
+
+        private final long m_length;
+
+        /** The modification date of the cached file, used to detect changes of the (hard-linked) file. */
+        private final long m_fileModified;
+
+        /** Whether the entry was added to the cache (otherwise its file is handed over to the caller). */
+        private boolean m_cached;
+
+        Entry(final File file, final String etag, final long lastModified) {
+            m_file = file;
+            m_etag = etag;
+            m_lastModified = lastModified;
+            m_length = file.length();
+            m_fileModified = file.lastModified();
+        }
+
+        boolean isValid() {
+            return (m_file.length() == m_length) && (m_file.lastModified() == m_fileModified);
+        }
+    }
+}
@@ -52,10 +52,6 @@
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
-import java.net.URLConnection;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.core.filesystem.EFS;
@@ -181,26 +177,18 @@ private File fetchRemoteFileStore(final RemoteExplorerFileStore source, final IP
     }
 
     private static File fetchRemoteFile(final URL url) throws IOException {
+        RemoteFileCache cache = RemoteFileCache.getInstance();
+        if (cache != null) {
+            return cache.fetch(url);
+        }
         File f = FileUtil.createTempFile("download", ".bin");
-        try (InputStream is = addAuthHeaderAndOpenStream(url); OutputStream os = new FileOutputStream(f)) {
+        try (InputStream is = RemoteFileCache.openConnection(url).getInputStream();
+                OutputStream os = new FileOutputStream(f)) {
             IOUtils.copy(is, os);
         }
         return f;
     }
 
-    private static InputStream addAuthHeaderAndOpenStream(final URL url) throws IOException {
-        String userInfo = url.getUserInfo();
-        if (userInfo != null) {
-            URLConnection uc = url.openConnection();
-            String urlDecodedUserInfo = URLDecoder.decode(userInfo, StandardCharsets.UTF_8.name());
-            String basicAuth = "Basic " + new String(Base64.getEncoder().encode(urlDecodedUserInfo.getBytes()));
-            uc.setRequestProperty("Authorization", basicAuth);
-            return uc.getInputStream();
-        } else {
-            return url.openStream();
-        }
-    }
-
     /**
      * {@inheritDoc}
      *
@@ -50,6 +50,7 @@
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -123,6 +124,9 @@ public class ContentDelegator extends LabelProvider
      */
     private final HashSet<MountPoint> m_provider;
 
+    /** Lists the children of remote mount points in the background. */
+    private final PrefetchingChildrenLoader<AbstractExplorerFileStore> m_remoteLoader;
+
     /**
      * Creates a new content delegator and registers it for property changes of
      * the explorer mount table. None of the mounted content is visible through
@@ -131,9 +135,25 @@ public class ContentDelegator extends LabelProvider
     public ContentDelegator() {
         m_provider = new LinkedHashSet<MountPoint>();
         m_changeListener = new CopyOnWriteArrayList<IPropertyChangeListener>();
+        m_remoteLoader = new PrefetchingChildrenLoader<>(ContentDelegator::listChildren,
+            AbstractExplorerFileStore::isWorkflowGroup, (parent, children) -> notifyListeners(
+                new PropertyChangeEvent(parent.getContentProvider(), CONTENT_CHANGED, null, parent)),
+            REMOTE_PARALLELISM, 1);
         ExplorerMountTable.addPropertyChangeListener(this);
     }
 
+    /** Maximum number of concurrent listings of remote mount points. */
+    private static final int REMOTE_PARALLELISM = 4;
+
+    private static List<AbstractExplorerFileStore> listChildren(final AbstractExplorerFileStore parent) {
+        final AbstractContentProvider provider = parent.getContentProvider();
+        if (provider == null) {
+            // unmounted meanwhile
+            return new ArrayList<>();
+        }
+        return Arrays.asList(provider.getChildren(parent));
+    }
+
     /**
      * Adds the specified content provider to the explorer.
      *
@@ -180,6 +200,7 @@ public void dispose() {
         ExplorerMountTable.updateProviderSettings();
         removeAllMountPoints();
         ExplorerMountTable.removePropertyChangeListener(this);
+        m_remoteLoader.dispose();
         super.dispose();
     }
 
@@ -228,7 +249,7 @@ public Object[] getChildren(final Object parentElement) {
             AbstractContentProvider prov =
                     (AbstractContentProvider)parentElement;
             // get the children of the provider's root.
-            return wrapObjects(prov, prov.getChildren(prov.getFileStore("/")));
+            return getChildren(prov, prov.getFileStore("/"));
 
         }
         if (!(parentElement instanceof ContentObject)) {
@@ -238,8 +259,24 @@ public Object[] getChildren(final Object parentElement) {
             return NO_CHILDREN;
         }
         ContentObject c = ((ContentObject)parentElement);
-        AbstractContentProvider prov = c.getProvider();
-        return wrapObjects(prov, prov.getChildren(c.getObject()));
+        return getChildren(c.getProvider(), c.getObject());
+    }
+
+    /**
+     * Local content is listed directly. The children of remote content are listed in the background, until they are
+     * available a placeholder is shown.
+     */
+    private ContentObject[] getChildren(final AbstractContentProvider prov, final AbstractExplorerFileStore parent) {
+        if (!prov.isRemote()) {
+            return wrapObjects(prov, prov.getChildren(parent));
+        }
+        final List<AbstractExplorerFileStore> children = m_remoteLoader.getChildren(parent);
+        if (children == null) {
+            final Exception error = m_remoteLoader.getError(parent);
+            final String msg = (error == null) ? "Loading..." : ("Could not load content: " + error.getMessage());
+            return new ContentObject[]{new ContentObject(prov, parent.getMessageFileStore(msg))};
+        }
+        return wrapObjects(prov, children.toArray(new AbstractExplorerFileStore[children.size()]));
     }
 
     /**
@@ -311,7 +348,7 @@ public boolean hasChildren(final Object element) {
         if (element instanceof AbstractContentProvider) {
             // content providers are the first level children
             AbstractContentProvider prov = (AbstractContentProvider)element;
-            return prov.hasChildren(prov.getFileStore("/"));
+            return prov.isRemote() || prov.hasChildren(prov.getFileStore("/"));
         }
         if (!(element instanceof ContentObject)) {
             // all children should be of that type!
@@ -320,9 +357,25 @@ public boolean hasChildren(final Object element) {
             return false;
         }
         ContentObject c = (ContentObject)element;
+        if (c.getProvider().isRemote()) {
+            // don't list the children just to show the expand arrow
+            List<AbstractExplorerFileStore> children = m_remoteLoader.getCachedChildren(c.getObject());
+            return (children != null) ? !children.isEmpty() : AbstractExplorerFileStore.isWorkflowGroup(c.getObject());
+        }
         return c.getProvider().hasChildren(c.getObject());
     }
 
+    /**
+     * Marks the cached children of the given remote file store as outdated, they are listed again the next time the
+     * tree asks for them.
+     *
+     * @param parent the parent file store
+     * @since 8.4
+     */
+    public void invalidateChildren(final AbstractExplorerFileStore parent) {
+        m_remoteLoader.invalidate(parent);
+    }
+
     /**
      * Creates the (new but) same object that is stored in the view tree for the
      * passed file.
@@ -617,6 +670,7 @@ public void propertyChange(final PropertyChangeEvent event) {
                 // mount point was removed
                 mp.getProvider().removeListener(this);
                 boolean removed = m_provider.remove(mp);
+                m_remoteLoader.clear(fs -> mp.getMountID().equals(fs.getMountID()));
                 if (removed) {
                     notifyListeners(new PropertyChangeEvent(mp,
                             CONTENT_CHANGED, mp.getMountID(), null));
@@ -656,6 +710,12 @@ public void labelProviderChanged(final LabelProviderChangedEvent event) {
             AbstractContentProvider source =
                     (AbstractContentProvider)event.getSource();
             Object refresh = event.getElement();
+            if (refresh instanceof AbstractExplorerFileStore) {
+                m_remoteLoader.invalidate((AbstractExplorerFileStore)refresh);
+            } else {
+                String mountID = source.getMountID();
+                m_remoteLoader.invalidate(fs -> fs.getMountID().equals(mountID));
+            }
             if (refresh instanceof AbstractExplorerFileStore) {
                 notifyListeners(new PropertyChangeEvent(source,
                         CONTENT_CHANGED, null, refresh));
@@ -156,6 +156,7 @@
 import org.knime.workbench.explorer.view.dnd.DragAndDropUtils;
 import org.knime.workbench.explorer.view.dnd.ExplorerDragListener;
 import org.knime.workbench.explorer.view.dnd.ExplorerDropListener;
+import org.knime.workbench.explorer.view.preview.WorkflowPreviewToolTip;
 import org.knime.workbench.repository.view.FilterViewContributionItem;
 import org.knime.workbench.repository.view.TextualViewFilter;
 import org.knime.workbench.ui.SyncExecQueueDispatcher;
@@ -456,6 +457,7 @@ private void createTreeViewer(final Composite parent,
         m_viewer.setContentProvider(provider);
         m_viewer.setLabelProvider(provider);
         m_viewer.setInput(provider); // the provider is also the root!
+        new WorkflowPreviewToolTip(m_viewer);
         final ExplorerView thisExplorerView = this;
         m_viewer.addDoubleClickListener(new IDoubleClickListener() {
             @Override
@@ -0,0 +1,373 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Loads the children of tree elements in the background and caches them, so that the tree never has to wait for a
+ * (possibly slow, remote) listing. {@link #getChildren(Object)} returns immediately: the cached children, or
+ * <code>null</code> if they are not known yet, in which case a load is started and the listener is called once the
+ * children are available.
+ *
+ * <p>
+ * After the children of an element have been loaded, the children of those that may have children themselves are
+ * prefetched up to a configurable depth, because they are likely to be expanded next. Prefetching uses the same
+ * bounded thread pool as requested loads but with lower priority, so requests from the user always go first.
+ *
+ * <p>
+ * Invalidated elements keep their cached children until the reload has finished, so the tree does not flicker. An
+ * element invalidated while its children are being loaded is loaded again afterwards. A failed listing is cached as
+ * well (see {@link #getError(Object)}) and only retried after the element has been invalidated.
+ *
+ * @param <T> the type of the tree elements, must implement {@link Object#equals(Object)} and
+ *            {@link Object#hashCode()}
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class PrefetchingChildrenLoader<T> {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PrefetchingChildrenLoader.class);
+
+    /** Maximum number of children of one element whose children are prefetched. */
+    private static final int MAX_PREFETCH_PER_ELEMENT = 32;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * Lists the children of an element. Implementations may block.
+     *
+     * @param <T> the type of the tree elements
+     */
+    @FunctionalInterface
+    public interface ChildLister<T> {
+        /**
+         * @param parent the parent element
+         * @return its children, never <code>null</code>
+         * @throws Exception if the children cannot be listed
+         */
+        List<T> listChildren(T parent) throws Exception;
+    }
+
+    private enum State {
+        /** A load task has been scheduled but not started. */
+        QUEUED,
+        /** A load task is running. */
+        RUNNING,
+        /** The children are known and current. */
+        DONE,
+        /** The children are outdated or not known. */
+        STALE,
+        /** Loading failed, the error is kept until the element is invalidated. */
+        FAILED
+    }
+
+    private static final class Entry<T> {
+        private State m_state = State.STALE;
+
+        /** The priority of the queued task, lower is more urgent. */
+        private int m_queuedPriority = Integer.MAX_VALUE;
+
+        /** Whether anybody is waiting for the children, i.e. whether the listener is to be called. */
+        private boolean m_requested;
+
+        /** Whether the element has been invalidated while its children were being loaded. */
+        private boolean m_invalidatedWhileRunning;
+
+        private volatile List<T> m_children;
+
+        private volatile Exception m_error;
+    }
+
+    private final class LoadTask implements Runnable, Comparable<LoadTask> {
+        private final T m_parent;
+
+        private final Entry<T> m_entry;
+
+        private final int m_depth;
+
+        private final long m_sequence = m_taskCounter.getAndIncrement();
+
+        LoadTask(final T parent, final Entry<T> entry, final int depth) {
+            m_parent = parent;
+            m_entry = entry;
+            m_depth = depth;
+        }
+
+        @Override
+        public int compareTo(final LoadTask o) {
+            final int c = Integer.compare(m_depth, o.m_depth);
+            return (c != 0) ? c : Long.compare(m_sequence, o.m_sequence);
+        }
+
+        @Override
+        public void run() {
+            synchronized (m_entry) {
+                if (m_entry.m_state != State.QUEUED) {
+                    // another task for the same element was faster
+                    return;
+                }
+                m_entry.m_state = State.RUNNING;
+                m_entry.m_queuedPriority = Integer.MAX_VALUE;
+            }
+            load(m_parent, m_entry, m_depth);
+        }
+    }
+
+    private final ChildLister<T> m_lister;
+
+    private final Predicate<T> m_mayHaveChildren;
+
+    private final BiConsumer<T, List<T>> m_listener;
+
+    private final int m_prefetchDepth;
+
+    private final ConcurrentMap<T, Entry<T>> m_cache = new ConcurrentHashMap<>();
+
+    private final AtomicLong m_taskCounter = new AtomicLong();
+
+    private final ThreadPoolExecutor m_executor;
+
+    /**
+     * @param lister lists the children of an element, called in background threads
+     * @param mayHaveChildren determines which elements are worth prefetching, called in background threads
+     * @param listener called in a background thread with the parent and its children whenever children that have
+     *            been asked for become available or change, or if listing them fails (the children are
+     *            <code>null</code> then unless there are outdated ones)
+     * @param parallelism the maximum number of concurrent listings
+     * @param prefetchDepth the number of levels below a loaded element that are prefetched, 0 disables prefetching
+     */
+    public PrefetchingChildrenLoader(final ChildLister<T> lister, final Predicate<T> mayHaveChildren,
+        final BiConsumer<T, List<T>> listener, final int parallelism, final int prefetchDepth) {
+        m_lister = lister;
+        m_mayHaveChildren = mayHaveChildren;
+        m_listener = listener;
+        m_prefetchDepth = prefetchDepth;
+        m_executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(), r -> {
+                final Thread t = new Thread(r, "KNIME-Explorer-Loader-" + THREAD_COUNTER.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        m_executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the cached children of the given element without blocking. If they are not known or outdated, a load
+     * is scheduled and the listener will be notified.
+     *
+     * @param parent the parent element
+     * @return the (possibly outdated) children, or <code>null</code> if they are not known yet
+     */
+    public List<T> getChildren(final T parent) {
+        final Entry<T> entry = m_cache.computeIfAbsent(parent, p -> new Entry<>());
+        synchronized (entry) {
+            if ((entry.m_state != State.DONE) && (entry.m_state != State.FAILED)) {
+                entry.m_requested = true;
+                schedule(parent, entry, 0);
+            }
+        }
+        return entry.m_children;
+    }
+
+    /**
+     * @param parent the parent element
+     * @return the cached children or <code>null</code>; does not schedule a load
+     */
+    public List<T> getCachedChildren(final T parent) {
+        final Entry<T> entry = m_cache.get(parent);
+        return (entry == null) ? null : entry.m_children;
+    }
+
+    /**
+     * @param parent the parent element
+     * @return the reason why the last listing of the element's children failed, <code>null</code> if it didn't fail
+     *         or the element has been invalidated since
+     */
+    public Exception getError(final T parent) {
+        final Entry<T> entry = m_cache.get(parent);
+        return (entry == null) ? null : entry.m_error;
+    }
+
+    /**
+     * Marks the children of the given element as outdated. They are still returned by {@link #getChildren(Object)}
+     * which reloads them. If they are being loaded right now, they are loaded again afterwards.
+     *
+     * @param parent the parent element
+     */
+    public void invalidate(final T parent) {
+        final Entry<T> entry = m_cache.get(parent);
+        if (entry != null) {
+            synchronized (entry) {
+                if ((entry.m_state == State.DONE) || (entry.m_state == State.FAILED)) {
+                    entry.m_state = State.STALE;
+                    entry.m_error = null;
+                } else if (entry.m_state == State.RUNNING) {
+                    entry.m_invalidatedWhileRunning = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the children of all matching elements as outdated.
+     *
+     * @param filter selects the elements
+     */
+    public void invalidate(final Predicate<T> filter) {
+        for (T parent : m_cache.keySet()) {
+            if (filter.test(parent)) {
+                invalidate(parent);
+            }
+        }
+    }
+
+    /**
+     * Forgets the children of all matching elements.
+     *
+     * @param filter selects the elements
+     */
+    public void clear(final Predicate<T> filter) {
+        m_cache.keySet().removeIf(filter);
+    }
+
+    /**
+     * Stops all loads and clears the cache.
+     */
+    public void dispose() {
+        m_executor.shutdownNow();
+        m_cache.clear();
+    }
+
+    /** Must be called while holding the entry's monitor. */
+    private void schedule(final T parent, final Entry<T> entry, final int depth) {
+        if (m_executor.isShutdown() || (entry.m_state == State.RUNNING)
+            || ((entry.m_state == State.QUEUED) && (entry.m_queuedPriority <= depth))) {
+            return;
+        }
+        // a queued prefetch that is now requested gets an additional, more urgent task; the first one to run wins
+        entry.m_state = State.QUEUED;
+        entry.m_queuedPriority = depth;
+        m_executor.execute(new LoadTask(parent, entry, depth));
+    }
+
+    private void load(final T parent, final Entry<T> entry, final int depth) {
+        List<T> children;
+        Exception error = null;
+        try {
+            children = Collections.unmodifiableList(new ArrayList<>(m_lister.listChildren(parent)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            LOGGER.debug("Could not list children of " + parent + ": " + e.getMessage(), e);
+            // outdated children are better than none
+            children = entry.m_children;
+            error = e;
+        }
+        final boolean notify;
+        synchronized (entry) {
+            final boolean changed = !Objects.equals(children, entry.m_children) || (error != entry.m_error);
+            entry.m_children = children;
+            entry.m_error = error;
+            if (entry.m_state == State.RUNNING) {
+                entry.m_state = (error != null) ? State.FAILED : State.DONE;
+                if (entry.m_invalidatedWhileRunning) {
+                    // the result may already be outdated
+                    entry.m_invalidatedWhileRunning = false;
+                    entry.m_state = State.STALE;
+                    entry.m_error = null;
+                    if (entry.m_requested) {
+                        schedule(parent, entry, 0);
+                    }
+                }
+            }
+            notify = entry.m_requested && changed;
+        }
+        if (m_cache.get(parent) != entry) {
+            // cleared meanwhile
+            return;
+        }
+        if (notify) {
+            m_listener.accept(parent, children);
+        }
+        if ((error == null) && (depth < m_prefetchDepth)) {
+            prefetch(children, depth + 1);
+        }
+    }
+
+    private void prefetch(final List<T> elements, final int depth) {
+        int count = 0;
+        for (T element : elements) {
+            if (count >= MAX_PREFETCH_PER_ELEMENT) {
+                break;
+            }
+            if (!m_mayHaveChildren.test(element)) {
+                continue;
+            }
+            count++;
+            final Entry<T> entry = m_cache.computeIfAbsent(element, p -> new Entry<>());
+            synchronized (entry) {
+                if ((entry.m_children == null) && (entry.m_state != State.FAILED)) {
+                    schedule(element, entry, depth);
+                }
+            }
+        }
+    }
+}
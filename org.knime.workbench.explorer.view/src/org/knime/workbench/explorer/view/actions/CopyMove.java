@@ -71,6 +71,7 @@
 import org.knime.workbench.explorer.view.DestinationChecker;
 import org.knime.workbench.explorer.view.ExplorerJob;
 import org.knime.workbench.explorer.view.ExplorerView;
+import org.knime.workbench.explorer.view.actions.export.WorkflowExporter;
 import org.knime.workbench.explorer.view.dialogs.OverwriteAndMergeInfo;
 
 /**
@@ -217,7 +218,8 @@ public CopyMoveResult run(final IProgressMonitor monitor) {
                     destFS.getContentProvider().performDownloadAsync((RemoteExplorerFileStore)srcFS,
                         (LocalExplorerFileStore)destFS, m_performMove, callback);
                 } else { // regular copy
-                    CheckUtils.checkState(!m_excludeDataInWorkflows, "Copy/Move 'without data' not implement");
+                    CheckUtils.checkState(!m_excludeDataInWorkflows || (!m_performMove && !isSrcRemote),
+                        "Move or remote copy 'without data' not implemented");
                     if (m_performMove) {
                         moveJobs.add(scheduleLocalCopyOrMove(srcFS, destFS, callback, m_performMove, options));
                     } else {
@@ -332,6 +334,10 @@ protected IStatus run(final IProgressMonitor monitor) {
                 try {
                     if (move) {
                         source.move(destination, options, monitor);
+                    } else if (m_excludeDataInWorkflows) {
+                        // data is skipped while walking the source tree, it is never copied in the first place
+                        ((LocalExplorerFileStore)source).copy(destination, options,
+                            WorkflowExporter::excludeWorkflowData, monitor);
                     } else {
                         source.copy(destination, options, monitor);
                     }
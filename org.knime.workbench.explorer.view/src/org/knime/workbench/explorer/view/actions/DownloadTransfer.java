@@ -0,0 +1,208 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.actions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.workbench.explorer.filesystem.RemoteDownloadStream;
+
+/**
+ * Reads a {@link RemoteDownloadStream}: waits (with increasing intervals) until the server is ready, counts the
+ * received bytes and resumes the download if the connection breaks and the stream supports it.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class DownloadTransfer {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DownloadTransfer.class);
+
+    /** First interval (in ms) between two checks whether the server is ready. */
+    static final long MIN_POLL_INTERVAL = 50;
+
+    /** Maximum interval (in ms) between two checks whether the server is ready. */
+    static final long MAX_POLL_INTERVAL = 2000;
+
+    /** How often a broken download is resumed (at the same position) before giving up. */
+    static final int MAX_RESUME_ATTEMPTS = 3;
+
+    private final BooleanSupplier m_canceled;
+
+    private final AtomicLong m_bytesTransferred = new AtomicLong();
+
+    private RemoteDownloadStream m_stream;
+
+    private LongConsumer m_progressListener = b -> {
+    };
+
+    /**
+     * @param stream the download stream
+     * @param canceled checked while waiting and reading, the transfer is aborted once it returns <code>true</code>
+     */
+    DownloadTransfer(final RemoteDownloadStream stream, final BooleanSupplier canceled) {
+        m_stream = stream;
+        m_canceled = canceled;
+    }
+
+    /**
+     * @param listener called with the total number of received bytes whenever data has been read
+     */
+    void setProgressListener(final LongConsumer listener) {
+        m_progressListener = listener;
+    }
+
+    /**
+     * Waits until the server is ready to provide the data. The interval between two checks starts small and grows up
+     * to {@link #MAX_POLL_INTERVAL}, so that small downloads don't wait needlessly.
+     *
+     * @return <code>true</code> if the server is ready, <code>false</code> if the transfer was canceled
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    boolean awaitReady() throws InterruptedException {
+        long interval = MIN_POLL_INTERVAL;
+        while (!m_stream.readyForDownload()) {
+            if (m_canceled.getAsBoolean()) {
+                return false;
+            }
+            Thread.sleep(interval);
+            interval = Math.min(MAX_POLL_INTERVAL, interval * 2);
+        }
+        return !m_canceled.getAsBoolean();
+    }
+
+    /**
+     * @return the number of bytes received so far
+     */
+    long getBytesTransferred() {
+        return m_bytesTransferred.get();
+    }
+
+    /**
+     * @return the current download stream (which changes if the download was resumed)
+     */
+    RemoteDownloadStream getStream() {
+        return m_stream;
+    }
+
+    /**
+     * Returns a stream providing the downloaded data. Reading from it counts the bytes, resumes broken downloads and
+     * throws an {@link InterruptedIOException} once the transfer is canceled. Closing it closes the download stream.
+     *
+     * @return the input stream
+     */
+    InputStream getInputStream() {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                int n = read(b, 0, 1);
+                return (n <= 0) ? -1 : (b[0] & 0xff);
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                int attempt = 0;
+                while (true) {
+                    if (m_canceled.getAsBoolean()) {
+                        throw new InterruptedIOException("Canceled.");
+                    }
+                    try {
+                        int n = m_stream.read(b, off, len);
+                        if (n > 0) {
+                            m_progressListener.accept(m_bytesTransferred.addAndGet(n));
+                        }
+                        return n;
+                    } catch (InterruptedIOException e) {
+                        throw e;
+                    } catch (IOException e) {
+                        if (++attempt > MAX_RESUME_ATTEMPTS || !resume(attempt, e)) {
+                            throw e;
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                m_stream.close();
+            }
+        };
+    }
+
+    private boolean resume(final int attempt, final IOException cause) throws IOException {
+        long position = m_bytesTransferred.get();
+        try {
+            // back off before reconnecting, the connection may just have been lost temporarily
+            Thread.sleep(MIN_POLL_INTERVAL << (2 * attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while resuming download");
+        }
+        RemoteDownloadStream resumed = m_stream.resume(position);
+        if (resumed == null) {
+            return false;
+        }
+        LOGGER.debug("Resuming broken download at byte " + position + " (attempt " + attempt + "): "
+            + cause.getMessage());
+        try {
+            m_stream.close();
+        } catch (IOException e) {
+            // the connection is broken anyway
+            LOGGER.debug("Could not close broken download stream: " + e.getMessage(), e);
+        }
+        m_stream = resumed;
+        try {
+            return awaitReady();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while resuming download");
+        }
+    }
+}
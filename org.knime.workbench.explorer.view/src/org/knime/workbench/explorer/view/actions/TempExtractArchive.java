@@ -49,26 +49,15 @@
 package org.knime.workbench.explorer.view.actions;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.Iterator;
-import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipException;
-import java.util.zip.ZipFile;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.ui.internal.wizards.datatransfer.ILeveledImportStructureProvider;
-import org.eclipse.ui.internal.wizards.datatransfer.ZipLeveledStructureProvider;
 import org.knime.core.node.NodeLogger;
 import org.knime.workbench.explorer.filesystem.LocalExplorerFileStore;
 import org.knime.workbench.explorer.filesystem.RemoteExplorerFileStore;
 import org.knime.workbench.explorer.view.AbstractContentProvider;
 import org.knime.workbench.explorer.view.AbstractContentProvider.AfterRunCallback;
-import org.knime.workbench.explorer.view.actions.imports.IWorkflowImportElement;
-import org.knime.workbench.explorer.view.actions.imports.WorkflowImportElementFromArchive;
-import org.knime.workbench.explorer.view.actions.imports.WorkflowImportOperation;
-import org.knime.workbench.ui.navigator.ZipLeveledStructProvider;
+import org.knime.workbench.explorer.view.actions.imports.ZipArchiveExtractor;
 
 /**
  * An action to temporary extract a workflow archive file into a directory.
@@ -206,84 +195,16 @@ protected void unpackWorkflowIntoLocalDir() throws Exception {
             return;
         }
 
-        LocalExplorerFileStore destWorkflowDir = m_targetDir.getParent();
-
-        ZipFile zFile = new ZipFile(m_source);
-        ZipLeveledStructProvider importStructureProvider = new ZipLeveledStructProvider(zFile);
-        importStructureProvider.setStrip(1);
-
-        ZipEntry rootEntry = (ZipEntry)importStructureProvider.getRoot();
-        List<ZipEntry> rootChild = importStructureProvider.getChildren(rootEntry);
-        if (rootChild.size() == 1) {
-            // the zipped workflow normally contains only one dir
-            rootEntry = rootChild.get(0);
-        }
-        WorkflowImportElementFromArchive root = collectWorkflowsFromZipFile(m_source);
-        IWorkflowImportElement element = null;
-        if (root.getChildren().size() == 1) {
-            element = root.getChildren().iterator().next();
-        } else {
-            element = root;
-        }
-        // rename the import element
-        element.setName(getTargetDir().getName());
-        LOGGER.debug("Unpacking workflow \"" + element.getName() + "\" into destination: "
-            + destWorkflowDir.getMountIDWithFullPath());
-        final WorkflowImportOperation importOp = new WorkflowImportOperation(element, destWorkflowDir);
-
-        try {
-            importOp.run(m_monitor);
-        } finally {
-            importStructureProvider.closeArchive();
-        }
-    }
-
-    private WorkflowImportElementFromArchive collectWorkflowsFromZipFile(final File zipFile)
-        throws ZipException, IOException {
-        ILeveledImportStructureProvider provider = null;
-        ZipFile sourceFile = new ZipFile(zipFile);
-        provider = new ZipLeveledStructureProvider(sourceFile);
-        // TODO: store only the workflows (dirs are created automatically)
-        Object child = provider.getRoot();
-        WorkflowImportElementFromArchive root = new WorkflowImportElementFromArchive(provider, child, 0);
-        collectWorkflowsFromProvider(root);
-        return root;
-    }
-
-    /**
-     *
-     * @param parent the archive element to collect the workflows from
-     * @param monitor progress monitor
-     */
-    private void collectWorkflowsFromProvider(final WorkflowImportElementFromArchive parent) {
-        ILeveledImportStructureProvider provider = parent.getProvider();
-        Object entry = parent.getEntry();
-        if (parent.isWorkflow() || parent.isTemplate()) {
-            // abort recursion
-            return;
-        }
-        List children = provider.getChildren(entry);
-        if (children == null) {
-            return;
-        }
-        Iterator childrenEnum = children.iterator();
-        while (childrenEnum.hasNext()) {
-            Object child = childrenEnum.next();
-            if (provider.isFolder(child)) {
-                WorkflowImportElementFromArchive childElement =
-                    new WorkflowImportElementFromArchive(provider, child, parent.getLevel() + 1);
-                collectWorkflowsFromProvider(childElement);
-                // either it's a workflow
-                if (childElement.isWorkflow()
-                    // or it is a workflow group
-                    || childElement.isWorkflowGroup()
-                    // or it is a workflow template
-                    || childElement.isTemplate()) {
-                    /* because only workflows, templates and workflow groups are
-                     * added */
-                    parent.addChild(childElement);
-                }
+        File destDir = m_targetDir.toLocalFile();
+        try (ZipArchiveExtractor extractor = new ZipArchiveExtractor(m_source)) {
+            // the zipped workflow normally contains only one dir, which is renamed to the target's name
+            String root = extractor.getCommonRoot();
+            if (root == null) {
+                root = "";
             }
+            LOGGER.debug("Unpacking workflow \"" + (root.isEmpty() ? m_source.getName() : root)
+                + "\" into destination: " + m_targetDir.getMountIDWithFullPath());
+            extractor.extract(root, destDir, m_monitor);
         }
     }
 
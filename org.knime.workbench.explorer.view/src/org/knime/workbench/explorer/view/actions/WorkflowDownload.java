@@ -47,11 +47,17 @@
 
 import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.core.filesystem.EFS;
@@ -71,6 +77,7 @@
 import org.knime.workbench.explorer.view.AbstractContentProvider;
 import org.knime.workbench.explorer.view.AbstractContentProvider.AfterRunCallback;
 import org.knime.workbench.explorer.view.ExplorerJob;
+import org.knime.workbench.explorer.view.actions.imports.ZipStreamExtractor;
 
 /**
  *
@@ -177,8 +184,10 @@ protected void runSyncInternal(final IProgressMonitor monitor) throws CoreExcept
         LOGGER.debug("Downloading '" + srcIdentifier
                 + "' into local destination '" + getTargetIdentifier() + "'");
 
-        final DownloadRunnable dwnLoader = new DownloadRunnable(
-                getSourceFile());
+        // workflows, templates and groups are extracted while they are downloaded (into a hidden staging
+        // directory next to the target, so that it can be renamed cheaply once the download is complete)
+        final File stagingDir = isStreamingExtractionSupported() ? createStagingDir() : null;
+        final DownloadRunnable dwnLoader = new DownloadRunnable(getSourceFile(), stagingDir);
         dwnLoader.run(monitor);
 
         // now wait for the download to finish
@@ -189,6 +198,9 @@ protected void runSyncInternal(final IProgressMonitor monitor) throws CoreExcept
         // error handling if download failed
         File tmpLoc = dwnLoader.getTempFile();
         if (tmpLoc == null || !success) {
+            if (stagingDir != null) {
+                FileUtils.deleteQuietly(stagingDir);
+            }
             int status;
             String msg = "Unable to download workflow: ";
             if (success) {
@@ -210,12 +222,20 @@ protected void runSyncInternal(final IProgressMonitor monitor) throws CoreExcept
         prepareTarget();
 
         try {
-            extractDownloadToTarget(tmpLoc);
+            if (stagingDir != null) {
+                String root = dwnLoader.getCommonRoot();
+                LOGGER.debug("Moving downloaded workflow \"" + ((root == null) ? getSourceFile().getName() : root)
+                    + "\" into destination: " + getTargetIdentifier());
+                ZipStreamExtractor.moveInto((root == null) ? stagingDir : new File(stagingDir, root),
+                    getTargetDir().toLocalFile());
+            } else {
+                extractDownloadToTarget(tmpLoc);
+            }
         } catch (Exception e) {
             LOGGER.error("Unable to extract the download. ", e);
             success = false;
         } finally {
-            tmpLoc.delete();
+            FileUtils.deleteQuietly(tmpLoc);
         }
         refreshTarget();
         Status status = dwnLoader.getStatus();
@@ -227,6 +247,31 @@ protected void runSyncInternal(final IProgressMonitor monitor) throws CoreExcept
         }
     }
 
+    /**
+     * @return whether the downloaded archive can be extracted while it is downloaded, which is the case for
+     *         workflows, templates and workflow groups
+     */
+    private boolean isStreamingExtractionSupported() {
+        AbstractExplorerFileStore source = getSourceFile();
+        AbstractExplorerFileInfo info = source.fetchInfo();
+        if (info.isSnapshot()) {
+            info = source.getParent().fetchInfo();
+        }
+        return info.isWorkflow() || info.isWorkflowTemplate() || info.isWorkflowGroup();
+    }
+
+    private File createStagingDir() throws CoreException {
+        try {
+            File target = getTargetDir().toLocalFile();
+            File parent = target.getParentFile();
+            Files.createDirectories(parent.toPath());
+            return Files.createTempDirectory(parent.toPath(), "." + target.getName() + "-download").toFile();
+        } catch (IOException e) {
+            throw new CoreException(new Status(IStatus.ERROR, ExplorerActivator.PLUGIN_ID,
+                "Could not create download directory: " + e.getMessage(), e));
+        }
+    }
+
     /**
      */
     public void schedule() {
@@ -252,7 +297,9 @@ protected IStatus run(final IProgressMonitor monitor2) {
     //=========================================================================
 
     /**
-     * Downloads a remote file store to a local temp dir.
+     * Downloads a remote file store to a local temp dir. Optionally the downloaded archive is extracted while it is
+     * being downloaded. Broken downloads are resumed if the download stream supports it (see
+     * {@link RemoteDownloadStream#resume(long)}).
      *
      * @author Peter Ohl, KNIME AG, Zurich, Switzerland
      */
@@ -260,13 +307,19 @@ protected static class DownloadRunnable implements Runnable {
 
         private final RemoteExplorerFileStore m_source;
 
+        private final File m_extractDir;
+
         private final AtomicBoolean m_cancel = new AtomicBoolean(false);
 
         // this is also used as object to wait for the runnable to finish
         private final AtomicBoolean m_done = new AtomicBoolean(false);
 
+        private final AtomicLong m_bytesTransferred = new AtomicLong();
+
         private File m_tmpFile;
 
+        private String m_commonRoot;
+
         private String m_errorMsg;
 
         private MultiStatus m_status = null;
@@ -288,10 +341,22 @@ public Status getStatus() {
          *
          */
         public DownloadRunnable(final RemoteExplorerFileStore source) {
+            this(source, null);
+        }
+
+        /**
+         * @param source the file store to download
+         * @param extractDir if not <code>null</code>, the (zip) archive is extracted into this directory while it is
+         *            downloaded instead of being stored in a temp file; {@link #getTempFile()} then returns this
+         *            directory
+         * @since 8.4
+         */
+        public DownloadRunnable(final RemoteExplorerFileStore source, final File extractDir) {
             if (source == null) {
                 throw new NullPointerException("Download source can't be null");
             }
             m_source = source;
+            m_extractDir = extractDir;
         }
 
         /**
@@ -306,6 +371,7 @@ public void run() {
          * @param monitor the progress monitor
          */
         public void run(final IProgressMonitor monitor) {
+            RemoteDownloadStream in = null;
             try {
                 if (monitor != null) {
                     StringBuilder progMsg = null;
@@ -313,70 +379,74 @@ public void run(final IProgressMonitor monitor) {
                     progMsg.append(m_source.getFullName());
                     progMsg.append(" on the server. ");
                     monitor.setTaskName(progMsg.toString());
-                    // we progress over kilobytes in case people download
-                    // flows larger than 4GB. Have fun.
                     monitor.beginTask(progMsg.toString(),
                             IProgressMonitor.UNKNOWN);
                 }
-                RemoteDownloadStream in =
-                        m_source.openDownloadStream();
-                // wait for the server to finish zipping
-                while (!in.readyForDownload()) {
+                in = m_source.openDownloadStream();
+                DownloadTransfer transfer = new DownloadTransfer(in, () -> {
                     if (monitor != null && monitor.isCanceled()) {
                         m_cancel.set(true);
                     }
-                    if (m_cancel.get()) {
-                        m_tmpFile = null;
-                        m_errorMsg = "Canceled.";
-                        // cancel server
-                        in.close();
-                        return;
-                    }
-                   Thread.sleep(1000);
+                    return m_cancel.get();
+                });
+                // wait for the server to finish zipping
+                if (!transfer.awaitReady()) {
+                    m_tmpFile = null;
+                    m_errorMsg = "Canceled.";
+                    // cancel server
+                    in.close();
+                    return;
                 }
 
-                String size = " / <unkown>";
-                final String taskMessage = "Downloading workflow " + m_source.getFullName()+ ": ";
-                long downloaded = 0;
-
+                final long length = in.length();
+                final String size = (length >= 0) ? " / " + (length >> 20) + " MB" : " / <unknown>";
+                final String taskMessage = "Downloading workflow " + m_source.getFullName() + ": ";
                 if (monitor != null) {
-                    int kbyte = IProgressMonitor.UNKNOWN;
-                    long l = in.length();
                     // we progress over kilobytes in case people download
                     // flows larger than 4GB. Have fun.
-                    if (l >= 0) {
-                        kbyte = (int)(l >> 10);
-                        size = " / (" + (kbyte >> 10) + " MB).";
-                    }
-                    monitor.beginTask(taskMessage + "0 MB" + size, kbyte);
+                    monitor.beginTask(taskMessage + "0 MB" + size,
+                        (length >= 0) ? (int)(length >> 10) : IProgressMonitor.UNKNOWN);
                 }
-                m_tmpFile = File.createTempFile("KNIMEServerDownload", ".tmp");
-                LOGGER.debug("Received server download stream for '" + m_source
-                        + "', storing it '"
-                        + m_tmpFile.getAbsolutePath() + "'");
-
-                try (BufferedInputStream inStream = new BufferedInputStream(in, 1024 * 1024);
-                        FileOutputStream outStream = new FileOutputStream(m_tmpFile)) {
-                    int b;
-                    byte[] buffer = new byte[1024 * 1024];
-                    while ((b = inStream.read(buffer)) >= 0) {
-                        outStream.write(buffer, 0, b);
-                        if (monitor != null) {
-                            monitor.worked(b >> 10);
-                            downloaded += b;
-                            monitor.setTaskName(taskMessage + (downloaded >> 20) + " MB" + size);
-                            if (monitor.isCanceled()) {
-                                m_cancel.set(true);
-                            }
-                        }
-                        if (m_cancel.get()) {
-                            m_tmpFile.delete();
-                            m_tmpFile = null;
-                            m_errorMsg = "Canceled.";
-                            return;
+                transfer.setProgressListener(new LongConsumer() {
+                    private long m_reportedKB;
+
+                    @Override
+                    public void accept(final long bytes) {
+                        m_bytesTransferred.set(bytes);
+                        long kb = bytes >> 10;
+                        if (monitor != null && kb > m_reportedKB) {
+                            monitor.worked((int)(kb - m_reportedKB));
+                            monitor.setTaskName(taskMessage + (bytes >> 20) + " MB" + size);
+                            m_reportedKB = kb;
                         }
                     }
+                });
+
+                try (InputStream inStream = new BufferedInputStream(transfer.getInputStream(), 1024 * 1024)) {
+                    if (m_extractDir != null) {
+                        LOGGER.debug("Received server download stream for '" + m_source
+                            + "', extracting it into '" + m_extractDir.getAbsolutePath() + "'");
+                        m_commonRoot = ZipStreamExtractor.extract(inStream, m_extractDir);
+                        m_tmpFile = m_extractDir;
+                    } else {
+                        m_tmpFile = File.createTempFile("KNIMEServerDownload", ".tmp");
+                        LOGGER.debug("Received server download stream for '" + m_source
+                            + "', storing it '" + m_tmpFile.getAbsolutePath() + "'");
+                        Files.copy(inStream, m_tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } catch (InterruptedIOException e) {
+                    if (!m_cancel.get()) {
+                        throw e;
+                    }
+                    if (m_extractDir == null) {
+                        FileUtils.deleteQuietly(m_tmpFile);
+                    }
+                    m_tmpFile = null;
+                    m_errorMsg = "Canceled.";
+                    return;
                 }
+                // the stream may have been replaced when the download was resumed
+                in = transfer.getStream();
                 m_errorMsg = null;
                 List<String> messages = null;
                 try {
@@ -399,6 +469,9 @@ public void run(final IProgressMonitor monitor) {
                             + "missing permissions. Skipped items:", null);
                 }
             } catch (Throwable e) {
+                if ((m_tmpFile != null) && (m_extractDir == null)) {
+                    FileUtils.deleteQuietly(m_tmpFile);
+                }
                 m_tmpFile = null;
                 m_errorMsg = e.getMessage();
             } finally {
@@ -406,6 +479,26 @@ public void run(final IProgressMonitor monitor) {
             }
         }
 
+        /**
+         * @return the number of bytes downloaded so far
+         * @since 8.4
+         */
+        public long getBytesTransferred() {
+            return m_bytesTransferred.get();
+        }
+
+        /**
+         * @return if the archive was extracted while downloading, the name of the single top-level directory of the
+         *         archive (ending with a slash), <code>null</code> if it has several top-level entries or hasn't been
+         *         extracted
+         * @since 8.4
+         */
+        public String getCommonRoot() {
+            synchronized (m_done) {
+                return m_done.get() ? m_commonRoot : null;
+            }
+        }
+
         /**
          * Doesn't cancel server side activities and doesn't interrupt until
          * server response is received.
@@ -307,6 +307,18 @@ private static void addWorkflowContent(final List<File> resources, final Abstrac
         addEntireDirContent(resources, loc, excludeData);
     }
 
+    /**
+     * Implements the exclude policy for local resources inside workflows when data is excluded: node data is skipped,
+     * metanode directories are always kept. Used by the export as well as by copies without data.
+     *
+     * @param resource the resource to check
+     * @return true if the given resource should be excluded, false if it should be included
+     * @since 8.4
+     */
+    public static boolean excludeWorkflowData(final File resource) {
+        return !KnimeFileUtil.isMetaNode(resource) && excludeResource(resource);
+    }
+
     private static void addEntireDirContent(final List<File> resources, final File dir, final boolean excludeData)
         throws CoreException {
         File[] content = dir.listFiles();
@@ -315,7 +327,7 @@ private static void addEntireDirContent(final List<File> resources, final File d
                 "Unable to read folder content from " + dir.getAbsolutePath() + ". Can't export it.", null));
         }
         for (File child : content) {
-            if (!KnimeFileUtil.isMetaNode(child) && excludeData && excludeResource(child)) {
+            if (excludeData && excludeWorkflowData(child)) {
                 continue;
             }
             if (!child.isDirectory()) {
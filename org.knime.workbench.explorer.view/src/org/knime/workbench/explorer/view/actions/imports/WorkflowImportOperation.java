@@ -55,7 +55,11 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.runtime.CoreException;
@@ -69,10 +73,12 @@
 import org.eclipse.ui.actions.WorkspaceModifyOperation;
 import org.eclipse.ui.internal.wizards.datatransfer.ArchiveFileManipulations;
 import org.eclipse.ui.internal.wizards.datatransfer.ILeveledImportStructureProvider;
+import org.eclipse.ui.internal.wizards.datatransfer.ZipLeveledStructureProvider;
 import org.knime.core.node.workflow.WorkflowPersistor;
 import org.knime.core.util.FileUtil;
 import org.knime.workbench.explorer.ExplorerMountTable;
 import org.knime.workbench.explorer.filesystem.AbstractExplorerFileStore;
+import org.knime.workbench.explorer.filesystem.LocalCopyEngine;
 import org.knime.workbench.explorer.filesystem.LocalExplorerFileStore;
 import org.knime.workbench.explorer.filesystem.RemoteExplorerFileStore;
 import org.knime.workbench.ui.metainfo.model.MetaInfoFile;
@@ -97,6 +103,9 @@ public class WorkflowImportOperation extends WorkspaceModifyOperation {
     private final List<AbstractExplorerFileStore> m_missingMetaInfoLocations =
         new ArrayList<AbstractExplorerFileStore>();
 
+    // extractors for zip archives, so that each archive's central directory is only indexed once
+    private final Map<ZipFile, ZipArchiveExtractor> m_zipExtractors = new HashMap<ZipFile, ZipArchiveExtractor>();
+
     /**
      * Imports the elements specified in the passed collection.
      * @param workflows the import elements (file or archive entries) to import
@@ -147,6 +156,7 @@ protected void execute(final IProgressMonitor monitor) throws InvocationTargetEx
             }
             // clean up afterwards
             m_missingMetaInfoLocations.clear();
+            m_zipExtractors.clear();
 
         } catch (Exception e) {
             throw new InvocationTargetException(e);
@@ -211,11 +221,8 @@ protected void importWorkflowFromFile(final WorkflowImportElementFromFile fileEl
             throw new IOException(e.getMessage(), e);
         }
 
-        if (fileElement.isWorkflow() || fileElement.isTemplate()) {
-            File dir = fileElement.getFile();
-            FileUtil.copyDir(dir, dest);
-        } else if (fileElement.isFile()) {
-            FileUtil.copy(fileElement.getFile(), dest);
+        if (fileElement.isWorkflow() || fileElement.isTemplate() || fileElement.isFile()) {
+            new LocalCopyEngine().copy(fileElement.getFile().toPath(), dest.toPath(), monitor);
         } else {
             // copy the meta info file from a group - if it exists
             try {
@@ -224,8 +231,7 @@ protected void importWorkflowFromFile(final WorkflowImportElementFromFile fileEl
                 throw new IOException(e.getMessage(), e);
             }
             if (m_recursive) {
-                File dir = fileElement.getFile();
-                FileUtil.copyDir(dir, dest);
+                new LocalCopyEngine().copy(fileElement.getFile().toPath(), dest.toPath(), monitor);
             } else {
                 File metaFile = new File(fileElement.getFile(), WorkflowPersistor.METAINFO_FILE);
                 if (metaFile.exists() && (metaFile.length() > 0)) {
@@ -324,6 +330,32 @@ private void importArchiveEntry(final ILeveledImportStructureProvider importProv
 
         //assert !destination.fetchInfo().exists();
 
+        if (importProvider.isFolder(entry) && (importProvider instanceof ZipLeveledStructureProvider)
+                && (entry instanceof ZipEntry)) {
+            File localDest;
+            try {
+                localDest = destination.toLocalFile();
+            } catch (CoreException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            if (localDest != null) {
+                // extract the entire sub tree in one go, files are extracted in parallel
+                ZipFile zipFile = ((ZipLeveledStructureProvider)importProvider).getZipFile();
+                ZipArchiveExtractor extractor = m_zipExtractors.get(zipFile);
+                if (extractor == null) {
+                    extractor = new ZipArchiveExtractor(zipFile);
+                    m_zipExtractors.put(zipFile, extractor);
+                }
+                String prefix = ((ZipEntry)entry).getName();
+                if ("/".equals(prefix)) {
+                    prefix = "";
+                }
+                extractor.extract(prefix, localDest, monitor);
+                destination.refresh();
+                return;
+            }
+        }
+
         if (importProvider.isFolder(entry)) {
             // first create the destination
             try {
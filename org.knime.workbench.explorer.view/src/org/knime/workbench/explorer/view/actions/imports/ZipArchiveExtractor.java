@@ -0,0 +1,318 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.actions.imports;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Extracts (parts of) a zip archive into a local directory. The archive's central directory is read only once when
+ * the extractor is created; afterwards arbitrary sub trees can be extracted. The files of a sub tree are independent of
+ * each other and are therefore extracted in parallel, each directly into a pre-allocated file channel. Progress is
+ * reported in kilobytes of uncompressed data. Mac OS resource forks (entries below <tt>__MACOSX/</tt>) are not part of
+ * any workflow and are ignored.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class ZipArchiveExtractor implements AutoCloseable {
+    /** Maximum number of files extracted concurrently. */
+    static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final String MAC_RESOURCE_FORK_DIR = "__MACOSX/";
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory THREAD_FACTORY = r -> {
+        Thread t = new Thread(r, "KNIME-Archive-Extractor-" + THREAD_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    };
+
+    private final ZipFile m_zipFile;
+
+    private final boolean m_ownsZipFile;
+
+    private final List<ZipEntry> m_entries;
+
+    /**
+     * Opens the given archive and reads its central directory.
+     *
+     * @param archive a zip archive
+     * @throws IOException if the archive cannot be opened
+     */
+    public ZipArchiveExtractor(final File archive) throws IOException {
+        this(new ZipFile(archive), true);
+    }
+
+    /**
+     * Creates an extractor for an already opened zip file. The zip file is not closed by {@link #close()}.
+     *
+     * @param zipFile an open zip file
+     */
+    public ZipArchiveExtractor(final ZipFile zipFile) {
+        this(zipFile, false);
+    }
+
+    private ZipArchiveExtractor(final ZipFile zipFile, final boolean ownsZipFile) {
+        m_zipFile = zipFile;
+        m_ownsZipFile = ownsZipFile;
+        m_entries = new ArrayList<>(zipFile.size());
+        Enumeration<? extends ZipEntry> en = zipFile.entries();
+        while (en.hasMoreElements()) {
+            ZipEntry e = en.nextElement();
+            if (!e.getName().startsWith(MAC_RESOURCE_FORK_DIR)) {
+                m_entries.add(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the single top-level directory of the archive, if all entries are contained in it. This is
+     * the usual layout of exported workflows.
+     *
+     * @return the name of the common root directory (ending with a slash) or <code>null</code> if the archive has
+     *         several top-level entries
+     */
+    public String getCommonRoot() {
+        Set<String> topLevel = new LinkedHashSet<>();
+        for (ZipEntry e : m_entries) {
+            String name = e.getName();
+            int index = name.indexOf('/');
+            if (index < 0) {
+                return null;
+            }
+            topLevel.add(name.substring(0, index + 1));
+        }
+        return (topLevel.size() == 1) ? topLevel.iterator().next() : null;
+    }
+
+    /**
+     * Returns the total uncompressed size of all files below the given prefix. Entries of unknown size are ignored.
+     *
+     * @param prefix a path prefix inside the archive, e.g. <tt>group/workflow/</tt>; an empty string denotes the
+     *            whole archive
+     * @return the size in bytes
+     */
+    public long getUncompressedSize(final String prefix) {
+        long size = 0;
+        for (ZipEntry e : m_entries) {
+            if (!e.isDirectory() && e.getName().startsWith(prefix) && (e.getSize() > 0)) {
+                size += e.getSize();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Extracts all entries below the given prefix into the target directory. The prefix itself is stripped from the
+     * entries' names, i.e. the entry <tt>prefix/a/b.txt</tt> ends up in <tt>targetDir/a/b.txt</tt>.
+     *
+     * @param prefix a path prefix inside the archive; an empty string denotes the whole archive
+     * @param targetDir the target directory, which is created if it does not exist
+     * @param monitor a progress monitor, may be <code>null</code>; it is converted into a {@link SubMonitor}, i.e. it
+     *            may already be in use by the caller and is not marked as done
+     * @throws IOException if an I/O error occurs or the operation was canceled
+     */
+    public void extract(final String prefix, final File targetDir, final IProgressMonitor monitor)
+        throws IOException {
+        final String canonicalTarget = targetDir.getCanonicalPath() + File.separator;
+
+        // create all directories first (sequentially), so that the file tasks are fully independent
+        List<ZipEntry> files = new ArrayList<>();
+        List<File> fileTargets = new ArrayList<>();
+        mkdirs(targetDir);
+        for (ZipEntry e : m_entries) {
+            String name = e.getName();
+            if (!name.startsWith(prefix) || (name.length() == prefix.length())) {
+                continue;
+            }
+            File dest = new File(targetDir, name.substring(prefix.length()));
+            if (!dest.getCanonicalPath().startsWith(canonicalTarget)) {
+                throw new IOException(
+                    "Archive entry '" + name + "' would be extracted outside of the target directory");
+            }
+            if (e.isDirectory()) {
+                mkdirs(dest);
+            } else {
+                mkdirs(dest.getParentFile());
+                files.add(e);
+                fileTargets.add(dest);
+            }
+        }
+
+        long totalBytes = getUncompressedSize(prefix);
+        final SubMonitor mon = SubMonitor.convert(monitor, "Extracting archive", (int)Math.max(1, totalBytes >> 10));
+
+        final AtomicLong extractedBytes = new AtomicLong();
+        final AtomicBoolean canceled = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_THREADS, Math.max(1, files.size())),
+            THREAD_FACTORY);
+        ExecutorCompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                final ZipEntry entry = files.get(i);
+                final File dest = fileTargets.get(i);
+                futures.add(completionService.submit(() -> {
+                    extractEntry(entry, dest, extractedBytes, canceled);
+                    return null;
+                }));
+            }
+
+            int remaining = futures.size();
+            long reportedKB = 0;
+            while (remaining > 0) {
+                Future<Void> f = completionService.poll(100, TimeUnit.MILLISECONDS);
+                if (f != null) {
+                    remaining--;
+                    f.get();
+                }
+                long kb = extractedBytes.get() >> 10;
+                if (kb > reportedKB) {
+                    mon.worked((int)(kb - reportedKB));
+                    mon.subTask((extractedBytes.get() >> 20) + " MB / " + (totalBytes >> 20) + " MB extracted");
+                    reportedKB = kb;
+                }
+                if (mon.isCanceled()) {
+                    canceled.set(true);
+                    throw new IOException("Canceled.");
+                }
+            }
+        } catch (InterruptedException ex) {
+            canceled.set(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting archive", ex);
+        } catch (ExecutionException ex) {
+            canceled.set(true);
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException)ex.getCause();
+            }
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
+        } catch (CancellationException ex) {
+            throw new IOException("Canceled.", ex);
+        } finally {
+            for (Future<Void> f : futures) {
+                f.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private void extractEntry(final ZipEntry entry, final File dest, final AtomicLong extractedBytes,
+        final AtomicBoolean canceled) throws IOException {
+        try (InputStream in = m_zipFile.getInputStream(entry);
+                ReadableByteChannel inChannel = Channels.newChannel(in);
+                RandomAccessFile raf = new RandomAccessFile(dest, "rw");
+                FileChannel out = raf.getChannel()) {
+            long size = entry.getSize();
+            if (size > 0) {
+                // pre-allocate so that the file system can lay out the file contiguously
+                raf.setLength(size);
+            }
+            long pos = 0;
+            long chunk = 1 << 20;
+            long transferred;
+            while ((transferred = out.transferFrom(inChannel, pos, chunk)) > 0) {
+                pos += transferred;
+                extractedBytes.addAndGet(transferred);
+                if (canceled.get()) {
+                    throw new IOException("Canceled.");
+                }
+            }
+            if (pos != size) {
+                // entry size was unknown or wrong in the central directory
+                raf.setLength(pos);
+            }
+        }
+        if (entry.getTime() > 0) {
+            dest.setLastModified(entry.getTime());
+        }
+    }
+
+    private static void mkdirs(final File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Could not create directory '" + dir.getAbsolutePath() + "'");
+        }
+    }
+
+    /**
+     * Closes the underlying zip file if it was opened by this extractor.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_ownsZipFile) {
+            m_zipFile.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.actions.imports;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Extracts a zip archive while it is being read from a stream, e.g. while it is downloaded. Other than
+ * {@link ZipArchiveExtractor} it doesn't need the archive on disk, but extracts the entries sequentially in the order
+ * in which they appear in the stream. Since the layout of the archive is only known once it has been read completely,
+ * the archive is extracted into a staging directory whose content is then moved to the final location with
+ * {@link #moveInto(File, File)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class ZipStreamExtractor {
+
+    private ZipStreamExtractor() {
+        // utility class
+    }
+
+    /**
+     * Extracts all entries of the zip archive read from the stream into the target directory. The stream is read
+     * until its end (also after the last entry), but not closed.
+     *
+     * @param in the stream providing the archive
+     * @param targetDir the target directory, which is created if it does not exist
+     * @return the name of the single top-level directory of the archive (ending with a slash) if all entries are
+     *         contained in it, <code>null</code> otherwise; see {@link ZipArchiveExtractor#getCommonRoot()}
+     * @throws IOException if an I/O error occurs or the archive is malformed
+     */
+    public static String extract(final InputStream in, final File targetDir) throws IOException {
+        final String canonicalTarget = targetDir.getCanonicalPath() + File.separator;
+        mkdirs(targetDir);
+        Set<String> topLevel = new LinkedHashSet<>();
+        boolean hasTopLevelFile = false;
+        ZipInputStream zipIn = new ZipInputStream(in);
+        ZipEntry e;
+        while ((e = zipIn.getNextEntry()) != null) {
+            String name = e.getName();
+            int index = name.indexOf('/');
+            if (index < 0) {
+                hasTopLevelFile = true;
+            } else {
+                topLevel.add(name.substring(0, index + 1));
+            }
+            File dest = new File(targetDir, name);
+            if (!dest.getCanonicalPath().startsWith(canonicalTarget)) {
+                throw new IOException(
+                    "Archive entry '" + name + "' would be extracted outside of the target directory");
+            }
+            if (e.isDirectory()) {
+                mkdirs(dest);
+            } else {
+                mkdirs(dest.getParentFile());
+                try (OutputStream out = Files.newOutputStream(dest.toPath())) {
+                    IOUtils.copyLarge(zipIn, out);
+                }
+                if (e.getTime() > 0) {
+                    dest.setLastModified(e.getTime());
+                }
+            }
+        }
+        // consume the central directory, the sender may wait for it to be read
+        IOUtils.skip(in, Long.MAX_VALUE);
+        return (!hasTopLevelFile && (topLevel.size() == 1)) ? topLevel.iterator().next() : null;
+    }
+
+    /**
+     * Moves the content of a directory into another directory. If the target doesn't exist the source directory is
+     * simply renamed; otherwise existing files are replaced and existing directories are merged. The source directory
+     * is removed afterwards.
+     *
+     * @param sourceDir the directory to move
+     * @param targetDir the target directory
+     * @throws IOException if a file cannot be moved
+     */
+    public static void moveInto(final File sourceDir, final File targetDir) throws IOException {
+        if (!targetDir.exists()) {
+            mkdirs(targetDir.getParentFile());
+            Files.move(sourceDir.toPath(), targetDir.toPath());
+            return;
+        }
+        File[] children = sourceDir.listFiles();
+        if (children == null) {
+            throw new IOException("Could not list files in '" + sourceDir.getAbsolutePath() + "'");
+        }
+        for (File child : children) {
+            File dest = new File(targetDir, child.getName());
+            if (child.isDirectory() && dest.isDirectory()) {
+                moveInto(child, dest);
+            } else {
+                Files.move(child.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.delete(sourceDir.toPath());
+    }
+
+    private static void mkdirs(final File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("Could not create directory '" + dir.getAbsolutePath() + "'");
+        }
+    }
+}
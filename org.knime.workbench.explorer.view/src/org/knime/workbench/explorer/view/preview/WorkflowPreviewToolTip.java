@@ -0,0 +1,164 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.preview;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.window.ToolTip;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.TreeItem;
+import org.knime.core.node.NodeLogger;
+import org.knime.workbench.explorer.filesystem.AbstractExplorerFileStore;
+import org.knime.workbench.explorer.filesystem.LocalExplorerFileStore;
+import org.knime.workbench.explorer.view.ContentObject;
+
+/**
+ * Tool tip of the explorer tree that shows the thumbnail of local workflows.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class WorkflowPreviewToolTip extends ToolTip {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowPreviewToolTip.class);
+
+    private final TreeViewer m_viewer;
+
+    /**
+     * Installs the tool tip on the given viewer.
+     *
+     * @param viewer the explorer tree viewer
+     */
+    public WorkflowPreviewToolTip(final TreeViewer viewer) {
+        super(viewer.getTree(), ToolTip.NO_RECREATE, false);
+        m_viewer = viewer;
+        setPopupDelay(800);
+        setShift(new Point(16, 16));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getToolTipArea(final Event event) {
+        return m_viewer.getTree().getItem(new Point(event.x, event.y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean shouldCreateToolTip(final Event event) {
+        return super.shouldCreateToolTip(event) && (getWorkflowDir(event) != null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Composite createToolTipContentArea(final Event event, final Composite parent) {
+        final Composite area = new Composite(parent, SWT.NONE);
+        area.setLayout(new FillLayout());
+        final Label label = new Label(area, SWT.NONE);
+        final File workflowDir = getWorkflowDir(event);
+        if (workflowDir == null) {
+            return area;
+        }
+        label.setText("Rendering preview...");
+        // the thumbnail is filled in once it is rendered, the UI thread never waits for it
+        final Display display = parent.getDisplay();
+        WorkflowThumbnailCache.getInstance().getThumbnailAsync(workflowDir).whenComplete((thumbnail, error) -> {
+            if (error != null) {
+                LOGGER.debug("Could not render preview of " + workflowDir.getAbsolutePath() + ": "
+                    + error.getMessage(), error);
+            }
+            if (!display.isDisposed()) {
+                display.asyncExec(() -> showThumbnail(label, thumbnail));
+            }
+        });
+        return area;
+    }
+
+    private static void showThumbnail(final Label label, final File thumbnail) {
+        if (label.isDisposed()) {
+            return;
+        }
+        if (thumbnail == null) {
+            label.setText("No preview available");
+        } else {
+            final Image image = new Image(label.getDisplay(), thumbnail.getAbsolutePath());
+            label.setText("");
+            label.setImage(image);
+            label.addDisposeListener(e -> image.dispose());
+        }
+        label.getShell().pack();
+    }
+
+    private File getWorkflowDir(final Event event) {
+        final TreeItem item = m_viewer.getTree().getItem(new Point(event.x, event.y));
+        if ((item == null) || !(item.getData() instanceof ContentObject)) {
+            return null;
+        }
+        final AbstractExplorerFileStore store = ((ContentObject)item.getData()).getObject();
+        if (!(store instanceof LocalExplorerFileStore) || !AbstractExplorerFileStore.isWorkflow(store)) {
+            return null;
+        }
+        try {
+            return store.toLocalFile();
+        } catch (CoreException e) {
+            return null;
+        }
+    }
+}
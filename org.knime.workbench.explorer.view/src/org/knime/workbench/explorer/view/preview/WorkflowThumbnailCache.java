@@ -0,0 +1,347 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.preview;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.WorkflowPersistor;
+import org.knime.workbench.explorer.ExplorerActivator;
+
+/**
+ * Thumbnails of workflows, rendered by {@link WorkflowThumbnailRenderer} and stored as PNG files in the state location
+ * of the explorer plug-in (nothing is written into the workflow, so thumbnails never end up in exports or uploads). A
+ * thumbnail is keyed by the workflow's path and the modification time of its workflow file, i.e. saving the workflow
+ * invalidates it; the workflow editor additionally deletes it on save (see {@link #invalidate(File)}).
+ *
+ * <p>
+ * Concurrent requests for the same workflow share one rendering. Thumbnails can be rendered asynchronously on a small
+ * shared pool ({@link #getThumbnailAsync(File)}) or for many workflows at once ({@link #renderAll(Collection,
+ * IProgressMonitor)}).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class WorkflowThumbnailCache {
+
+    /** Maximum width of a thumbnail. */
+    public static final int THUMBNAIL_WIDTH = 400;
+
+    /** Maximum height of a thumbnail. */
+    public static final int THUMBNAIL_HEIGHT = 300;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowThumbnailCache.class);
+
+    /** Maximum number of thumbnails rendered concurrently. */
+    static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadFactory THREAD_FACTORY = r -> {
+        Thread t = new Thread(r, "KNIME-Thumbnail-Renderer-" + THREAD_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    };
+
+    private static final String THUMBNAIL_SUFFIX = ".png";
+
+    private static final WorkflowThumbnailCache INSTANCE = new WorkflowThumbnailCache(getDefaultCacheDir());
+
+    private final ExecutorService m_executor = Executors.newFixedThreadPool(MAX_THREADS, THREAD_FACTORY);
+
+    /** Renderings in progress, keyed by workflow directory. */
+    private final ConcurrentMap<File, FutureTask<File>> m_pending = new ConcurrentHashMap<>();
+
+    private final File m_cacheDir;
+
+    /**
+     * @param cacheDir the directory the thumbnails are stored in, created on demand
+     */
+    WorkflowThumbnailCache(final File cacheDir) {
+        m_cacheDir = cacheDir;
+    }
+
+    private static File getDefaultCacheDir() {
+        final ExplorerActivator plugin = ExplorerActivator.getDefault();
+        if (plugin != null) {
+            try {
+                return plugin.getStateLocation().append("thumbnails").toFile();
+            } catch (IllegalStateException e) {
+                LOGGER.debug("No state location, storing workflow thumbnails in the temp directory", e);
+            }
+        }
+        return new File(System.getProperty("java.io.tmpdir"), "knime-workflow-thumbnails");
+    }
+
+    /**
+     * @return the singleton instance
+     */
+    public static WorkflowThumbnailCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the thumbnail of the workflow, rendering it in the calling thread if it doesn't exist or is outdated.
+     *
+     * @param workflowDir the workflow directory
+     * @return the thumbnail file (PNG)
+     * @throws IOException if the workflow cannot be read or the thumbnail cannot be written
+     */
+    public File getThumbnail(final File workflowDir) throws IOException {
+        final File thumbnail = getThumbnailFile(workflowDir);
+        if (thumbnail.isFile()) {
+            return thumbnail;
+        }
+        final FutureTask<File> task = getRenderTask(workflowDir);
+        task.run(); // no-op if another thread is already running it
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering thumbnail", e);
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        }
+    }
+
+    /**
+     * Returns the thumbnail of the workflow, rendering it on a background thread if it doesn't exist or is outdated.
+     *
+     * @param workflowDir the workflow directory
+     * @return a future with the thumbnail file (PNG), completed exceptionally with an {@link IOException} if the
+     *         workflow cannot be read or the thumbnail cannot be written
+     */
+    public CompletableFuture<File> getThumbnailAsync(final File workflowDir) {
+        final File thumbnail = getThumbnailFile(workflowDir);
+        if (thumbnail.isFile()) {
+            return CompletableFuture.completedFuture(thumbnail);
+        }
+        final FutureTask<File> task = getRenderTask(workflowDir);
+        final CompletableFuture<File> result = new CompletableFuture<>();
+        m_executor.execute(() -> {
+            task.run(); // no-op if another thread is already running it
+            try {
+                result.complete(task.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Deletes the thumbnail of the workflow, e.g. after it has been saved.
+     *
+     * @param workflowDir the workflow directory
+     */
+    public void invalidate(final File workflowDir) {
+        deleteThumbnails(workflowDir, null);
+    }
+
+    /**
+     * Renders the (outdated or missing) thumbnails of all given workflows in parallel. Workflows that cannot be
+     * rendered are logged and skipped.
+     *
+     * @param workflowDirs the workflow directories
+     * @param monitor a progress monitor, may be <code>null</code>
+     * @return the number of thumbnails that have been rendered
+     * @throws InterruptedException if the monitor is canceled or the thread is interrupted
+     */
+    public int renderAll(final Collection<File> workflowDirs, final IProgressMonitor monitor)
+        throws InterruptedException {
+        final IProgressMonitor mon = (monitor == null) ? new NullProgressMonitor() : monitor;
+        mon.beginTask("Rendering workflow thumbnails", workflowDirs.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(Runtime.getRuntime().availableProcessors(), Math.max(1, workflowDirs.size())), THREAD_FACTORY);
+        final ExecutorCompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<Boolean>> futures = new ArrayList<>(workflowDirs.size());
+        int rendered = 0;
+        try {
+            for (final File dir : workflowDirs) {
+                futures.add(completionService.submit(() -> {
+                    if (getThumbnailFile(dir).isFile()) {
+                        return Boolean.FALSE;
+                    }
+                    final FutureTask<File> task = getRenderTask(dir);
+                    task.run();
+                    try {
+                        task.get();
+                        return Boolean.TRUE;
+                    } catch (ExecutionException e) {
+                        LOGGER.debug("Could not render thumbnail of " + dir.getAbsolutePath() + ": "
+                            + e.getCause().getMessage(), e.getCause());
+                        return Boolean.FALSE;
+                    }
+                }));
+            }
+            int remaining = futures.size();
+            while (remaining > 0) {
+                final Future<Boolean> f = completionService.poll(100, TimeUnit.MILLISECONDS);
+                if (f != null) {
+                    remaining--;
+                    mon.worked(1);
+                    try {
+                        if (f.get()) {
+                            rendered++;
+                        }
+                    } catch (ExecutionException | CancellationException e) {
+                        LOGGER.debug("Thumbnail rendering failed: " + e.getMessage(), e);
+                    }
+                }
+                if (mon.isCanceled()) {
+                    throw new InterruptedException("Canceled.");
+                }
+            }
+        } finally {
+            for (Future<Boolean> f : futures) {
+                f.cancel(true);
+            }
+            executor.shutdownNow();
+            mon.done();
+        }
+        return rendered;
+    }
+
+    private FutureTask<File> getRenderTask(final File workflowDir) {
+        final FutureTask<File> task = new FutureTask<>(() -> {
+            try {
+                return render(workflowDir);
+            } finally {
+                m_pending.remove(workflowDir);
+            }
+        });
+        final FutureTask<File> existing = m_pending.putIfAbsent(workflowDir, task);
+        return (existing != null) ? existing : task;
+    }
+
+    private File render(final File workflowDir) throws IOException {
+        // the key is determined before reading the workflow, a save in the meantime leaves an outdated thumbnail
+        // under an outdated key
+        final File thumbnail = getThumbnailFile(workflowDir);
+        final BufferedImage image =
+            WorkflowThumbnailRenderer.renderImage(workflowDir, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+        if (!m_cacheDir.isDirectory() && !m_cacheDir.mkdirs()) {
+            throw new IOException("Could not create thumbnail directory " + m_cacheDir.getAbsolutePath());
+        }
+        // write to a temp file first so that readers never see a partially written thumbnail
+        final File tmp = File.createTempFile("thumbnail", ".tmp", m_cacheDir);
+        try {
+            ImageIO.write(image, "png", tmp);
+            Files.move(tmp.toPath(), thumbnail.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        deleteThumbnails(workflowDir, thumbnail);
+        return thumbnail;
+    }
+
+    /**
+     * @return the thumbnail file for the current state of the workflow, which doesn't necessarily exist
+     */
+    File getThumbnailFile(final File workflowDir) {
+        final long workflowModified = new File(workflowDir, WorkflowPersistor.WORKFLOW_FILE).lastModified();
+        return new File(m_cacheDir, getKeyPrefix(workflowDir) + Long.toHexString(workflowModified) + THUMBNAIL_SUFFIX);
+    }
+
+    private static String getKeyPrefix(final File workflowDir) {
+        return UUID.nameUUIDFromBytes(workflowDir.getAbsolutePath().getBytes(StandardCharsets.UTF_8)) + "_";
+    }
+
+    /**
+     * Deletes the thumbnails of the workflow except the given one.
+     */
+    private void deleteThumbnails(final File workflowDir, final File keep) {
+        final String prefix = getKeyPrefix(workflowDir);
+        final File[] thumbnails =
+            m_cacheDir.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(THUMBNAIL_SUFFIX));
+        if (thumbnails == null) {
+            return;
+        }
+        for (File f : thumbnails) {
+            if (!f.equals(keep) && !f.delete()) {
+                LOGGER.debug("Could not delete workflow thumbnail " + f.getAbsolutePath());
+            }
+        }
+    }
+
+    private static IOException asIOException(final ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+            return (IOException)e.getCause();
+        }
+        return new IOException(e.getCause().getMessage(), e.getCause());
+    }
+}
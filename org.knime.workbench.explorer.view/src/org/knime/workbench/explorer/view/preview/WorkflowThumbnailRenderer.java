@@ -0,0 +1,383 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.explorer.view.preview;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.workflow.WorkflowPersistor;
+
+/**
+ * Renders a thumbnail of a workflow from its persisted layout (the node bounds, connections and annotations stored
+ * in the workflow file), i.e. without loading the workflow or opening an editor. Nodes are drawn as boxes, annotations
+ * as their colored areas (without text) and connections as straight lines via their bend points.
+ *
+ * <p>
+ * All methods are thread-safe and can be called from any thread.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 8.4
+ */
+public final class WorkflowThumbnailRenderer {
+
+    /** Size of the node boxes, corresponds to the size of the node icon in the editor. */
+    private static final int NODE_SIZE = 32;
+
+    /** Vertical offset of the node icon relative to the node bounds (space for the node name). */
+    private static final int NODE_ICON_OFFSET_Y = 20;
+
+    private static final int MARGIN = 10;
+
+    private static final Color NATIVE_NODE_COLOR = new Color(0xF0, 0xB3, 0x6E);
+
+    private static final Color META_NODE_COLOR = new Color(0xA0, 0xA0, 0xA0);
+
+    private static final Color SUB_NODE_COLOR = new Color(0xCF, 0xCF, 0xCF);
+
+    private static final Color NODE_BORDER_COLOR = new Color(0x60, 0x60, 0x60);
+
+    private static final Color CONNECTION_COLOR = new Color(0x96, 0x96, 0x96);
+
+    private WorkflowThumbnailRenderer() {
+        // utility class
+    }
+
+    /**
+     * Renders the workflow into an image that fits into the given size (the workflow is never enlarged).
+     *
+     * @param workflowDir the workflow directory (containing the workflow file)
+     * @param maxWidth maximum width of the image
+     * @param maxHeight maximum height of the image
+     * @return the thumbnail
+     * @throws IOException if the workflow file cannot be read
+     */
+    public static BufferedImage renderImage(final File workflowDir, final int maxWidth, final int maxHeight)
+        throws IOException {
+        final Layout layout = readLayout(workflowDir);
+        final Rectangle bounds = layout.getBounds();
+        final double scale =
+            Math.min(1.0, Math.min(maxWidth / (double)bounds.width, maxHeight / (double)bounds.height));
+        final int width = Math.max(1, (int)Math.ceil(bounds.width * scale));
+        final int height = Math.max(1, (int)Math.ceil(bounds.height * scale));
+
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.scale(scale, scale);
+            g.translate(-bounds.x, -bounds.y);
+            for (AnnotationShape a : layout.m_annotations) {
+                g.setColor(a.m_bgColor);
+                g.fillRect(a.m_x, a.m_y, a.m_width, a.m_height);
+                if (a.m_borderSize > 0) {
+                    g.setColor(a.m_borderColor);
+                    g.setStroke(new BasicStroke(a.m_borderSize));
+                    g.drawRect(a.m_x, a.m_y, a.m_width, a.m_height);
+                }
+            }
+            g.setColor(CONNECTION_COLOR);
+            g.setStroke(new BasicStroke((float)Math.max(1.0, 1.0 / scale)));
+            for (int[] line : layout.m_connections) {
+                final Path2D path = new Path2D.Float();
+                path.moveTo(line[0], line[1]);
+                for (int i = 2; i < line.length; i += 2) {
+                    path.lineTo(line[i], line[i + 1]);
+                }
+                g.draw(path);
+            }
+            g.setStroke(new BasicStroke((float)Math.max(1.0, 1.0 / scale)));
+            for (NodeShape n : layout.m_nodes.values()) {
+                g.setColor(n.m_color);
+                g.fillRect(n.m_x, n.m_y, NODE_SIZE, NODE_SIZE);
+                g.setColor(NODE_BORDER_COLOR);
+                g.drawRect(n.m_x, n.m_y, NODE_SIZE, NODE_SIZE);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Renders the workflow as SVG in its original size.
+     *
+     * @param workflowDir the workflow directory (containing the workflow file)
+     * @param out the writer the SVG document is written to; it is not closed
+     * @throws IOException if the workflow file cannot be read or writing fails
+     */
+    public static void renderSVG(final File workflowDir, final Writer out) throws IOException {
+        final Layout layout = readLayout(workflowDir);
+        final Rectangle b = layout.getBounds();
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write(String.format(Locale.US, "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" "
+            + "viewBox=\"%d %d %d %d\">\n", b.width, b.height, b.x, b.y, b.width, b.height));
+        out.write(String.format(Locale.US, "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"#FFFFFF\"/>\n",
+            b.x, b.y, b.width, b.height));
+        for (AnnotationShape a : layout.m_annotations) {
+            out.write(String.format(Locale.US, "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"%s\"",
+                a.m_x, a.m_y, a.m_width, a.m_height, toHex(a.m_bgColor)));
+            if (a.m_borderSize > 0) {
+                out.write(String.format(Locale.US, " stroke=\"%s\" stroke-width=\"%d\"", toHex(a.m_borderColor),
+                    a.m_borderSize));
+            }
+            out.write("/>\n");
+        }
+        for (int[] line : layout.m_connections) {
+            final StringBuilder points = new StringBuilder();
+            for (int i = 0; i < line.length; i += 2) {
+                points.append(line[i]).append(',').append(line[i + 1]).append(' ');
+            }
+            out.write(String.format(Locale.US, "<polyline points=\"%s\" fill=\"none\" stroke=\"%s\"/>\n",
+                points.toString().trim(), toHex(CONNECTION_COLOR)));
+        }
+        for (NodeShape n : layout.m_nodes.values()) {
+            out.write(String.format(Locale.US,
+                "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"%s\" stroke=\"%s\"/>\n", n.m_x, n.m_y,
+                NODE_SIZE, NODE_SIZE, toHex(n.m_color), toHex(NODE_BORDER_COLOR)));
+        }
+        out.write("</svg>\n");
+    }
+
+    private static String toHex(final Color c) {
+        return String.format("#%02X%02X%02X", c.getRed(), c.getGreen(), c.getBlue());
+    }
+
+    /**
+     * Reads the layout of the workflow from its workflow file.
+     */
+    private static Layout readLayout(final File workflowDir) throws IOException {
+        final File workflowFile = new File(workflowDir, WorkflowPersistor.WORKFLOW_FILE);
+        final NodeSettingsRO settings;
+        try (InputStream in = new FileInputStream(workflowFile)) {
+            settings = NodeSettings.loadFromXML(in);
+        }
+        final Layout layout = new Layout();
+        for (NodeSettingsRO node : children(settings, "nodes")) {
+            final int[] bounds = uiSettings(node).getIntArray("extrainfo.node.bounds", (int[])null);
+            if ((bounds == null) || (bounds.length < 2)) {
+                continue;
+            }
+            final int x = (bounds.length >= 3) && (bounds[2] > 0) ? bounds[0] + (bounds[2] - NODE_SIZE) / 2
+                : bounds[0];
+            final Color color;
+            final String type = node.getString("node_type", null);
+            if ("SubNode".equals(type)) {
+                color = SUB_NODE_COLOR;
+            } else if ("MetaNode".equals(type) || node.getBoolean("node_is_meta", false)) {
+                color = META_NODE_COLOR;
+            } else {
+                color = NATIVE_NODE_COLOR;
+            }
+            layout.m_nodes.put(node.getInt("id", -1), new NodeShape(x, bounds[1] + NODE_ICON_OFFSET_Y, color));
+        }
+        for (NodeSettingsRO conn : children(settings, "connections")) {
+            final NodeShape source = layout.m_nodes.get(conn.getInt("sourceID", -1));
+            final NodeShape dest = layout.m_nodes.get(conn.getInt("destID", -1));
+            if ((source == null) || (dest == null)) {
+                // connections from/to the ports of a metanode are not shown
+                continue;
+            }
+            final NodeSettingsRO ui = uiSettings(conn);
+            final int bendpoints = ui.getInt("extrainfo.conn.bendpoints_size", 0);
+            final int[] line = new int[4 + 2 * bendpoints];
+            line[0] = source.m_x + NODE_SIZE;
+            line[1] = source.m_y + NODE_SIZE / 2;
+            int i = 2;
+            for (int j = 0; j < bendpoints; j++) {
+                final int[] p = ui.getIntArray("extrainfo.conn.bendpoints_" + j, (int[])null);
+                if ((p != null) && (p.length >= 2)) {
+                    line[i++] = p[0];
+                    line[i++] = p[1];
+                }
+            }
+            line[i++] = dest.m_x;
+            line[i++] = dest.m_y + NODE_SIZE / 2;
+            layout.m_connections.add(i == line.length ? line : Arrays.copyOf(line, i));
+        }
+        for (NodeSettingsRO anno : children(settings, "annotations")) {
+            final int width = anno.getInt("width", 0);
+            final int height = anno.getInt("height", 0);
+            if ((width <= 0) || (height <= 0)) {
+                continue;
+            }
+            layout.m_annotations.add(new AnnotationShape(anno.getInt("x-coordinate", 0),
+                anno.getInt("y-coordinate", 0), width, height, new Color(anno.getInt("bgcolor", 0xFFFFFF)),
+                new Color(anno.getInt("borderColor", 0xFFFFFF)), anno.getInt("borderSize", 0)));
+        }
+        return layout;
+    }
+
+    private static List<NodeSettingsRO> children(final NodeSettingsRO settings, final String key) {
+        final List<NodeSettingsRO> result = new ArrayList<>();
+        if (!settings.containsKey(key)) {
+            return result;
+        }
+        try {
+            final NodeSettingsRO parent = settings.getNodeSettings(key);
+            for (String childKey : parent.keySet()) {
+                try {
+                    result.add(parent.getNodeSettings(childKey));
+                } catch (InvalidSettingsException e) {
+                    // not a sub-config, ignore
+                }
+            }
+        } catch (InvalidSettingsException e) {
+            // not a config, treat as empty
+        }
+        return result;
+    }
+
+    private static NodeSettingsRO uiSettings(final NodeSettingsRO settings) {
+        try {
+            if (settings.containsKey("ui_settings")) {
+                return settings.getNodeSettings("ui_settings");
+            }
+        } catch (InvalidSettingsException e) {
+            // fall through
+        }
+        return new NodeSettings("ui_settings");
+    }
+
+    private static final class NodeShape {
+        private final int m_x;
+
+        private final int m_y;
+
+        private final Color m_color;
+
+        NodeShape(final int x, final int y, final Color color) {
+            m_x = x;
+            m_y = y;
+            m_color = color;
+        }
+    }
+
+    private static final class AnnotationShape {
+        private final int m_x;
+
+        private final int m_y;
+
+        private final int m_width;
+
+        private final int m_height;
+
+        private final Color m_bgColor;
+
+        private final Color m_borderColor;
+
+        private final int m_borderSize;
+
+        AnnotationShape(final int x, final int y, final int width, final int height, final Color bgColor,
+            final Color borderColor, final int borderSize) {
+            m_x = x;
+            m_y = y;
+            m_width = width;
+            m_height = height;
+            m_bgColor = bgColor;
+            m_borderColor = borderColor;
+            m_borderSize = borderSize;
+        }
+    }
+
+    private static final class Layout {
+        private final Map<Integer, NodeShape> m_nodes = new HashMap<>();
+
+        private final List<int[]> m_connections = new ArrayList<>();
+
+        private final List<AnnotationShape> m_annotations = new ArrayList<>();
+
+        Rectangle getBounds() {
+            final Rectangle bounds = new Rectangle();
+            boolean empty = true;
+            for (NodeShape n : m_nodes.values()) {
+                final Rectangle r = new Rectangle(n.m_x, n.m_y, NODE_SIZE, NODE_SIZE);
+                if (empty) {
+                    bounds.setBounds(r);
+                    empty = false;
+                } else {
+                    bounds.add(r);
+                }
+            }
+            for (AnnotationShape a : m_annotations) {
+                final Rectangle r = new Rectangle(a.m_x, a.m_y, a.m_width, a.m_height);
+                if (empty) {
+                    bounds.setBounds(r);
+                    empty = false;
+                } else {
+                    bounds.add(r);
+                }
+            }
+            for (int[] line : m_connections) {
+                for (int i = 0; i < line.length; i += 2) {
+                    bounds.add(line[i], line[i + 1]);
+                }
+            }
+            bounds.grow(MARGIN, MARGIN);
+            return bounds;
+        }
+    }
+}
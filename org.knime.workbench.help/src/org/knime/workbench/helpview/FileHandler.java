@@ -61,6 +61,7 @@
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.knime.core.node.NodeLogger;
+import org.knime.workbench.helpview.ResourceCache.Resource;
 import org.osgi.framework.Bundle;
 
 /**
@@ -76,6 +77,14 @@ final class FileHandler extends AbstractHandler {
 
     private static final NodeLogger logger = NodeLogger.getLogger(FileHandler.class);
 
+    /** Maximum number of bytes kept in the resource cache. */
+    private static final long CACHE_SIZE = 32 * 1024 * 1024;
+
+    /** Resources are revalidated by the browser after this many seconds. */
+    private static final int MAX_AGE = 3600;
+
+    private final ResourceCache m_cache = new ResourceCache(CACHE_SIZE);
+
     private FileHandler() {
     }
 
@@ -94,37 +103,91 @@ public void handle(final String target, final Request baseRequest, final HttpSer
             return;
         }
 
-        URL url = null;
-        if ("/bundle/".equals(target)) {
-            url = bundle.getEntry(file);
-        } else if ("/node/".equals(target)) {
-            String packageLoc =
-                    request.getParameter("package").replace('.', '/');
-            url = bundle.getResource(packageLoc + "/" + file);
+        String packageLoc = null;
+        if ("/node/".equals(target)) {
+            packageLoc = request.getParameter("package").replace('.', '/');
         }
-        if (url == null) {
-            logger.warn("File for '" + request.getRequestURI() + "' not found");
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            return;
+        String versionTag = bundle.getSymbolicName() + "_" + bundle.getVersion() + "_" + bundle.getLastModified();
+        String key = target + "|" + versionTag + "|" + packageLoc + "|" + file;
+
+        Resource resource = m_cache.get(key);
+        if (resource == null) {
+            URL url = null;
+            if ("/bundle/".equals(target)) {
+                url = bundle.getEntry(file);
+            } else if (packageLoc != null) {
+                url = bundle.getResource(packageLoc + "/" + file);
+            }
+            if (url == null) {
+                logger.warn("File for '" + request.getRequestURI() + "' not found");
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            try {
+                resource = ResourceCache.load(url, MIME_MAP.getMimeByExtension(file), versionTag);
+            } catch (IOException ex) {
+                logger.warn("Could not open stream for '" + url + "': " + ex.getMessage(), ex);
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            m_cache.put(key, resource);
         }
 
-        InputStream in = url.openStream();
-        if (in == null) {
-            logger.warn("Could not open stream for '" + url + "'");
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        byte[] content = resource.getContent();
+        final boolean hasGzipVariant = (content != null) && (resource.getGzipContent() != null);
+        final boolean gzip = hasGzipVariant && acceptsGzip(request);
+        if (hasGzipVariant) {
+            // also for 304 responses, caches must keep the encodings apart
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        response.setHeader("ETag", resource.getETag(gzip));
+        if (resource.getLastModified() > 0) {
+            response.setDateHeader("Last-Modified", resource.getLastModified());
+        }
+        response.setHeader("Cache-Control", "max-age=" + MAX_AGE);
+        if (resource.isNotModified(request.getHeader("If-None-Match"), request.getDateHeader("If-Modified-Since"),
+            gzip)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
             return;
         }
 
         response.setStatus(HttpServletResponse.SC_OK);
-        response.setContentType(MIME_MAP.getMimeByExtension(file));
+        response.setContentType(resource.getMimeType());
 
+        if (content != null) {
+            if (gzip) {
+                response.setHeader("Content-Encoding", "gzip");
+                content = resource.getGzipContent();
+            }
+            response.setContentLength(content.length);
+            try (OutputStream out = response.getOutputStream()) {
+                out.write(content);
+            }
+        } else {
+            writeLargeResource(resource, response);
+        }
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        return (acceptEncoding != null) && acceptEncoding.contains("gzip");
+    }
+
+    /**
+     * Writes a resource that is too large to be cached by streaming it from its URL.
+     */
+    private static void writeLargeResource(final Resource resource, final HttpServletResponse response)
+        throws IOException {
+        if (resource.getLength() >= 0) {
+            response.setHeader("Content-Length", Long.toString(resource.getLength()));
+        }
         byte[] buf = new byte[16384];
-        OutputStream out = response.getOutputStream();
-        int read = 0;
-        while ((read = in.read(buf)) > -1) {
-            out.write(buf, 0, read);
+        try (InputStream in = resource.getURL().openStream(); OutputStream out = response.getOutputStream()) {
+            int read = 0;
+            while ((read = in.read(buf)) > -1) {
+                out.write(buf, 0, read);
+            }
         }
-        in.close();
-        out.close();
     }
 }
@@ -80,6 +80,8 @@ public class KNIMEHelpFilesBuilder implements IApplication {
 
     private static final String DESTINATION_ARG = "-destination";
 
+    private static final String THREADS_ARG = "-threads";
+
     private static void printUsage() {
         System.err.println("Usage: KNIMEHelpFilesBuilder options");
         System.err.println("Allowed options are:");
@@ -90,6 +92,9 @@ private static void printUsage() {
         System.err.println("\t-destination dir : directory where "
                 + "the result should be written to; if missing, files"
                 + "are directly written into the plug-in");
+        System.err.println("\t-threads n : number of threads used for "
+                + "rendering the node descriptions; if missing, the number "
+                + "of available processors is used");
     }
 
     /**
@@ -110,6 +115,8 @@ public Object start(final IApplicationContext context) throws Exception {
                     pluginPattern = Pattern.compile(args[i + 1]);
                 } else if (args[i].equals(DESTINATION_ARG)) {
                     destinationDir = new File(args[i + 1]);
+                } else if (args[i].equals(THREADS_ARG)) {
+                    NodeDescriptionConverter.instance().setParallelism(Integer.parseInt(args[i + 1]));
                 } else if (args[i].equals("-help")) {
                     printUsage();
                     return EXIT_OK;
@@ -0,0 +1,292 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.helpview;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size-bounded LRU cache for resources served by the {@link FileHandler}. Each entry holds the validators (ETag and
+ * last modification time), the mime type and, for small resources, the raw and the gzip-compressed content. Large
+ * resources are only described by their entry and are streamed from their URL on every request.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ResourceCache {
+    /** Resources larger than this are not kept in memory. */
+    static final int MAX_CACHED_RESOURCE_SIZE = 1024 * 1024;
+
+    private final long m_maxBytes;
+
+    private long m_currentBytes;
+
+    private final LinkedHashMap<String, Resource> m_entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxBytes the maximum number of content bytes held in memory
+     */
+    ResourceCache(final long maxBytes) {
+        m_maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached resource for the given key or <code>null</code> if it is not cached.
+     *
+     * @param key the cache key
+     * @return a resource or <code>null</code>
+     */
+    synchronized Resource get(final String key) {
+        return m_entries.get(key);
+    }
+
+    /**
+     * Puts the resource into the cache and evicts the least recently used entries if the memory budget is
+     * exceeded.
+     *
+     * @param key the cache key
+     * @param resource the resource
+     */
+    synchronized void put(final String key, final Resource resource) {
+        Resource old = m_entries.put(key, resource);
+        if (old != null) {
+            m_currentBytes -= old.getMemorySize();
+        }
+        m_currentBytes += resource.getMemorySize();
+
+        Iterator<Map.Entry<String, Resource>> it = m_entries.entrySet().iterator();
+        while ((m_currentBytes > m_maxBytes) && it.hasNext()) {
+            Map.Entry<String, Resource> e = it.next();
+            if (e.getValue() != resource) {
+                m_currentBytes -= e.getValue().getMemorySize();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    synchronized void clear() {
+        m_entries.clear();
+        m_currentBytes = 0;
+    }
+
+    /**
+     * Loads the resource from the given URL.
+     *
+     * @param url the URL of the resource
+     * @param mimeType the resource's mime type, may be <code>null</code>
+     * @param versionTag a tag identifying the version of the resource's container (e.g. the bundle version), which
+     *            becomes part of the ETag
+     * @return a new resource
+     * @throws IOException if the resource cannot be read
+     */
+    static Resource load(final URL url, final String mimeType, final String versionTag) throws IOException {
+        URLConnection conn = url.openConnection();
+        long lastModified = conn.getLastModified();
+        long length = conn.getContentLengthLong();
+
+        byte[] content = null;
+        byte[] gzipContent = null;
+        if ((length >= 0) && (length <= MAX_CACHED_RESOURCE_SIZE)) {
+            try (InputStream in = conn.getInputStream()) {
+                content = readFully(in, (int)length);
+            }
+            length = content.length;
+            if (isCompressible(mimeType)) {
+                gzipContent = gzip(content);
+                if (gzipContent.length >= content.length) {
+                    gzipContent = null;
+                }
+            }
+        } else {
+            conn.getInputStream().close();
+        }
+
+        String etag = "\"" + Integer.toHexString(versionTag.hashCode()) + "-" + Long.toHexString(lastModified) + "-"
+            + Long.toHexString(length) + "\"";
+        return new Resource(url, mimeType, etag, lastModified, length, content, gzipContent);
+    }
+
+    private static byte[] readFully(final InputStream in, final int sizeHint) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(sizeHint, 32));
+        byte[] buf = new byte[16384];
+        int read;
+        while ((read = in.read(buf)) > -1) {
+            bos.write(buf, 0, read);
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(bos)) {
+            out.write(content);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Returns whether resources of the given type benefit from compression. Images and fonts (including woff2) are
+     * already compressed.
+     */
+    private static boolean isCompressible(final String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        return mimeType.startsWith("text/") || mimeType.contains("javascript") || mimeType.contains("json")
+            || mimeType.contains("xml") || mimeType.equals("image/svg+xml");
+    }
+
+    /**
+     * A resolved resource together with its validators and, if small enough, its content.
+     */
+    static final class Resource {
+        private final URL m_url;
+
+        private final String m_mimeType;
+
+        private final String m_etag;
+
+        private final long m_lastModified;
+
+        private final long m_length;
+
+        private final byte[] m_content;
+
+        private final byte[] m_gzipContent;
+
+        Resource(final URL url, final String mimeType, final String etag, final long lastModified,
+            final long length, final byte[] content, final byte[] gzipContent) {
+            m_url = url;
+            m_mimeType = mimeType;
+            m_etag = etag;
+            m_lastModified = lastModified;
+            m_length = length;
+            m_content = content;
+            m_gzipContent = gzipContent;
+        }
+
+        URL getURL() {
+            return m_url;
+        }
+
+        String getMimeType() {
+            return m_mimeType;
+        }
+
+        /**
+         * @param gzip whether the ETag of the gzip-compressed variant is requested
+         * @return the ETag of the identity or the gzip-compressed variant; both differ so that a client's cached copy
+         *         of one encoding is never validated against the other
+         */
+        String getETag(final boolean gzip) {
+            return gzip ? m_etag.substring(0, m_etag.length() - 1) + "-gz\"" : m_etag;
+        }
+
+        /** @return the last modification time in milliseconds, 0 if unknown */
+        long getLastModified() {
+            return m_lastModified;
+        }
+
+        /** @return the content's length in bytes, -1 if unknown */
+        long getLength() {
+            return m_length;
+        }
+
+        /** @return the content or <code>null</code> if the resource is too large to be held in memory */
+        byte[] getContent() {
+            return m_content;
+        }
+
+        /** @return the gzip-compressed content or <code>null</code> if the resource should not be compressed */
+        byte[] getGzipContent() {
+            return m_gzipContent;
+        }
+
+        /**
+         * Checks whether a client's cached copy, described by the conditional request headers, is still valid.
+         *
+         * @param ifNoneMatch the value of the <tt>If-None-Match</tt> header, may be <code>null</code>
+         * @param ifModifiedSince the value of the <tt>If-Modified-Since</tt> header, -1 if not present
+         * @param gzip whether the gzip-compressed variant would be sent
+         * @return <code>true</code> if the client's copy is up to date, <code>false</code> otherwise
+         */
+        boolean isNotModified(final String ifNoneMatch, final long ifModifiedSince, final boolean gzip) {
+            if (ifNoneMatch != null) {
+                final String etag = getETag(gzip);
+                for (String tag : ifNoneMatch.split(",")) {
+                    String t = tag.trim();
+                    if (t.equals("*") || t.equals(etag) || t.equals("W/" + etag)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            // HTTP dates only have second precision
+            return (ifModifiedSince >= 0) && (m_lastModified > 0) && (m_lastModified / 1000 <= ifModifiedSince / 1000);
+        }
+
+        private long getMemorySize() {
+            long size = 128;
+            if (m_content != null) {
+                size += m_content.length;
+            }
+            if (m_gzipContent != null) {
+                size += m_gzipContent.length;
+            }
+            return size;
+        }
+    }
+}
@@ -63,6 +63,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 import java.util.regex.Pattern;
@@ -154,9 +158,29 @@ public final class NodeDescriptionConverter {
 
     private boolean m_canceled = false;
 
+    private int m_parallelism = Runtime.getRuntime().availableProcessors();
+
+    private ExecutorService m_executor;
+
+    private final List<Future<?>> m_pendingWrites = new ArrayList<>();
+
     private NodeDescriptionConverter() {
     }
 
+    /**
+     * Sets the number of threads that render and write node description files. The table of contents and the
+     * plug-in descriptor are still written sequentially. A value of 1 renders all descriptions on the calling thread.
+     *
+     * @param nrThreads the number of threads, must be at least 1
+     * @since 3.8
+     */
+    public synchronized void setParallelism(final int nrThreads) {
+        if (nrThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1: " + nrThreads);
+        }
+        m_parallelism = nrThreads;
+    }
+
     /**
      *
      * @return all extensions to the knmie node and knime category extension
@@ -346,7 +370,19 @@ public void run() {
             m_dialog.setCancelable(false);
         }
         // processing
-        processAll(root.getChildren(), null);
+        if (m_parallelism > 1) {
+            m_executor = Executors.newFixedThreadPool(m_parallelism);
+        }
+        try {
+            processAll(root.getChildren(), null);
+            waitForPendingWrites();
+        } finally {
+            if (m_executor != null) {
+                m_executor.shutdownNow();
+                m_executor = null;
+            }
+            m_pendingWrites.clear();
+        }
 
         // at the end -> persist plugin.xml
         Document doc = m_pluginXML;
@@ -365,6 +401,19 @@ public void run() {
 
     }
 
+    private void waitForPendingWrites() throws Exception {
+        for (Future<?> f : m_pendingWrites) {
+            try {
+                f.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof Exception) {
+                    throw (Exception)ex.getCause();
+                }
+                throw ex;
+            }
+        }
+    }
+
     private void updateManifest() throws Exception {
         File inFile =
                 new File(getPluginDir(), "META-INF" + File.separator
@@ -604,11 +653,6 @@ private boolean processNode(final NodeTemplate node, final Document nodeToc)
             throws Exception {
         assert nodeToc != null;
         if (node.getContributingPlugin().equals(m_pluginID)) {
-            // create HTML file
-            StringBuilder builder = new StringBuilder();
-            DynamicNodeDescriptionCreator.instance().addDescription(node,
-                    false, builder);
-
             String nodeID = node.getID();
             int index = nodeID.lastIndexOf('.');
             if (index >= 0) {
@@ -618,10 +662,16 @@ private boolean processNode(final NodeTemplate node, final Document nodeToc)
             String relativePath =
                     HTML_DIR + "/" + NODES_DIR + "/" + fileName(nodeID)
                             + ".html";
+            // create HTML file
             File nodeDescription = new File(m_destinationDir, relativePath);
-            Writer writer = new OutputStreamWriter(new FileOutputStream(nodeDescription), "UTF-8");
-            writer.write(builder.toString());
-            writer.close();
+            if (m_executor != null) {
+                m_pendingWrites.add(m_executor.submit(() -> {
+                    writeNodeDescription(node, nodeDescription);
+                    return null;
+                }));
+            } else {
+                writeNodeDescription(node, nodeDescription);
+            }
             // append topic
             Element topic = nodeToc.createElement("topic");
             topic.setAttribute("label", htmlString(node.getName()));
@@ -633,6 +683,15 @@ private boolean processNode(final NodeTemplate node, final Document nodeToc)
         return false;
     }
 
+    private static void writeNodeDescription(final NodeTemplate node, final File destination) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        DynamicNodeDescriptionCreator.instance().addDescription(node,
+                false, builder);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(destination), "UTF-8")) {
+            writer.write(builder.toString());
+        }
+    }
+
     /**
      * Returns the file object of the current plugin.
      *
@@ -0,0 +1,216 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.repository;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+
+/**
+ * Testcases for {@link NodeUsageTracker}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class NodeUsageTrackerTest {
+    private static final long HALF_LIFE = TimeUnit.DAYS.toMillis(1);
+
+    private final AtomicLong m_time = new AtomicLong(1000000);
+
+    private final LongSupplier m_clock = new LongSupplier() {
+        @Override
+        public long getAsLong() {
+            return m_time.get();
+        }
+    };
+
+    /**
+     * Checks that scores are halved after the half-life.
+     */
+    @Test
+    public void testDecay() {
+        NodeUsageTracker tracker = new NodeUsageTracker(5, 5, HALF_LIFE, m_clock);
+        tracker.record("a");
+        tracker.record("a");
+        assertThat("Unexpected initial score", Math.round(tracker.getScore("a") * 1000), is(2000L));
+
+        m_time.addAndGet(HALF_LIFE);
+        assertThat("Unexpected decayed score", Math.round(tracker.getScore("a") * 1000), is(1000L));
+        assertThat("Unknown node has score", tracker.getScore("b"), is(0.0));
+    }
+
+    /**
+     * Checks that persisted scores also decay for the time between saving and loading them.
+     */
+    @Test
+    public void testPersistedScoreDecay() {
+        NodeUsageTracker tracker = new NodeUsageTracker(5, 5, HALF_LIFE, m_clock);
+        for (int i = 0; i < 3; i++) {
+            tracker.record("a");
+        }
+        final double savedScore = tracker.getScore("a");
+        final long savedAt = m_time.get();
+
+        // the next session starts two half-lives later
+        m_time.addAndGet(2 * HALF_LIFE);
+        NodeUsageTracker loaded = new NodeUsageTracker(5, 5, HALF_LIFE, m_clock);
+        loaded.addScore("a", savedScore, savedAt);
+        loaded.addScore("b", 1);
+        assertThat("Unexpected loaded score", Math.round(loaded.getScore("a") * 1000), is(750L));
+        assertThat("Unexpected top nodes after loading", loaded.getTop(), is(Arrays.asList("b", "a")));
+    }
+
+    /**
+     * Checks that recent usages outweigh older ones in the top list.
+     */
+    @Test
+    public void testTop() {
+        NodeUsageTracker tracker = new NodeUsageTracker(2, 5, HALF_LIFE, m_clock);
+        for (int i = 0; i < 3; i++) {
+            tracker.record("a");
+        }
+        tracker.record("b");
+        tracker.record("b");
+        tracker.record("c");
+        assertThat("Unexpected top nodes", tracker.getTop(), is(Arrays.asList("a", "b")));
+
+        // three half-lives later a's 3 usages count less than two new usages of c
+        m_time.addAndGet(3 * HALF_LIFE);
+        tracker.record("c");
+        tracker.record("c");
+        assertThat("Unexpected top nodes after decay", tracker.getTop(), is(Arrays.asList("c", "a")));
+
+        tracker.setMaxTop(1);
+        assertThat("Unexpected top nodes after resize", tracker.getTop(), is(Arrays.asList("c")));
+    }
+
+    /**
+     * Checks the order and size of the recently used nodes.
+     */
+    @Test
+    public void testRecent() {
+        NodeUsageTracker tracker = new NodeUsageTracker(5, 3, HALF_LIFE, m_clock);
+        for (String id : new String[]{"a", "b", "c", "a", "d"}) {
+            tracker.record(id);
+        }
+        assertThat("Unexpected recent nodes", tracker.getRecent(), is(Arrays.asList("d", "a", "c")));
+
+        tracker.setMaxRecent(2);
+        assertThat("Unexpected recent nodes after resize", tracker.getRecent(), is(Arrays.asList("d", "a")));
+    }
+
+    /**
+     * Checks that concurrent usages are neither lost nor corrupt the top list.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final NodeUsageTracker tracker = new NodeUsageTracker(3, 3, HALF_LIFE, m_clock);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final String id = "node" + t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        tracker.record(id);
+                        tracker.record("shared");
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertThat("Lost usages", Math.round(tracker.getScore("shared")), is(40000L));
+        assertThat("Unexpected top node", tracker.getTop().get(0), is("shared"));
+        assertThat("Unexpected size of top list", tracker.getTop().size(), is(3));
+    }
+
+    /**
+     * Checks that sorting by score doesn't fail while the scores change concurrently.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testQueriesDuringRecording() throws Exception {
+        final NodeUsageTracker tracker = new NodeUsageTracker(10, 3, HALF_LIFE, m_clock);
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; !done.get(); i++) {
+                        tracker.record("node" + ((i + offset) % 200));
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        try {
+            for (int i = 0; i < 200; i++) {
+                tracker.getScores(0);
+                tracker.setMaxTop(5 + (i % 10));
+            }
+        } finally {
+            done.set(true);
+            for (Thread t : threads) {
+                t.join();
+            }
+        }
+        assertThat("Unexpected size of top list", tracker.getTop().size(), is(14));
+    }
+}
@@ -54,7 +54,10 @@
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.knime.workbench.repository.util.NodeFactoryHTMLCreator;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 
 /**
  * Repository Plugin.
@@ -76,6 +79,14 @@ public class KNIMERepositoryPlugin extends AbstractUIPlugin {
     // image registry
     private ImageRegistry m_imageRegistry;
 
+    // node descriptions of updated or removed plug-ins must not be served from the cache anymore
+    private final BundleListener m_bundleListener = e -> {
+        if (((e.getType() & (BundleEvent.UPDATED | BundleEvent.UNRESOLVED | BundleEvent.UNINSTALLED)) != 0)
+            && (NodeFactoryHTMLCreator.instance != null)) {
+            NodeFactoryHTMLCreator.instance.clearDescriptionCache();
+        }
+    };
+
     /**
      * The constructor.
      */
@@ -84,6 +95,18 @@ public KNIMERepositoryPlugin() {
         plugin = this;
     }
 
+    /**
+     * This method is called when the plug-in is started.
+     *
+     * @param context The context
+     * @throws Exception some starting exception
+     */
+    @Override
+    public void start(final BundleContext context) throws Exception {
+        super.start(context);
+        context.addBundleListener(m_bundleListener);
+    }
+
     /**
      * This method is called when the plug-in is stopped.
      *
@@ -92,6 +115,7 @@ public KNIMERepositoryPlugin() {
      */
     @Override
     public void stop(final BundleContext context) throws Exception {
+        context.removeBundleListener(m_bundleListener);
         IJobManager jobMan = Job.getJobManager();
         jobMan.cancel(getBundle().getSymbolicName());
         jobMan.join(getBundle().getSymbolicName(), null);
@@ -48,46 +48,60 @@
 package org.knime.workbench.repository;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.ui.IMemento;
 import org.knime.core.node.DynamicNodeFactory;
 import org.knime.core.node.NodeFactory;
-import org.knime.core.util.KNIMEJob;
 import org.knime.workbench.repository.model.NodeTemplate;
-import org.osgi.framework.FrameworkUtil;
 
 /**
  * Let one register nodes in order to track their usage (last use, most frequent use) that is, e.g., displayed in the
  * favorites view.
  *
+ * <p>
+ * The frequency of a node is a score that decays with a half-life of {@value #HALF_LIFE_DAYS} days, so that nodes
+ * that have not been used for a long time disappear from the most frequent nodes. Registering a usage is lock-free;
+ * listeners are notified asynchronously on a single background thread and several usages in quick succession result
+ * in one notification.
+ *
  * @author Fabian Dill, University of Konstanz
  */
 public final class NodeUsageRegistry {
 
-    private static int maxMostFrequent = 10;
+    private static final int HALF_LIFE_DAYS = 30;
+
+    /** Nodes with a lower score are not persisted. */
+    private static final double MIN_PERSISTED_SCORE = 0.05;
 
-    private static int maxLastUsed = 10;
+    private static final NodeUsageTracker TRACKER = new NodeUsageTracker(10, 10,
+        TimeUnit.DAYS.toMillis(HALF_LIFE_DAYS), System::currentTimeMillis);
 
-    private static final Map<NodeTemplateFrequency, NodeTemplateFrequency> FREQUENCIES =
-            new HashMap<NodeTemplateFrequency, NodeTemplateFrequency>();
+    private static final ConcurrentMap<String, NodeTemplate> TEMPLATES = new ConcurrentHashMap<>();
 
-    private static final LinkedList<NodeTemplate> LAST_USED =
-            new LinkedList<NodeTemplate>();
+    private static final Set<NodeUsageListener> LISTENERS = new CopyOnWriteArraySet<>();
 
-    private static final Set<NodeUsageListener> LISTENERS = new LinkedHashSet<>();
+    private static final AtomicBoolean NOTIFICATION_PENDING = new AtomicBoolean();
 
-    private static List<NodeTemplate> cachedFrequent;
+    private static final ExecutorService NOTIFIER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "KNIME-Node-Usage-Notifier");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Runnable NOTIFICATION = () -> {
+        NOTIFICATION_PENDING.set(false);
+        notifyListener();
+    };
 
     private NodeUsageRegistry() {
     }
@@ -99,9 +113,7 @@ private NodeUsageRegistry() {
      *            frequent nodes
      */
     public static void addNodeUsageListener(final NodeUsageListener listener) {
-        if (!LISTENERS.contains(listener)) {
-            LISTENERS.add(listener);
-        }
+        LISTENERS.add(listener);
     }
 
     /**
@@ -135,8 +147,7 @@ private static void notifyFrequencyHistoryListener() {
      * @param newMaxSize the new max size for the most frequent nodes
      */
     public static void setMaxFrequentSize(final int newMaxSize) {
-        cachedFrequent = null;
-        maxMostFrequent = newMaxSize;
+        TRACKER.setMaxTop(newMaxSize);
         notifyFrequencyHistoryListener();
     }
 
@@ -145,12 +156,7 @@ public static void setMaxFrequentSize(final int newMaxSize) {
      * @param newMaxSize the new max size for the most frequent nodes
      */
     public static void setMaxLastUsedSize(final int newMaxSize) {
-        synchronized (LAST_USED) {
-            maxLastUsed = newMaxSize;
-            while (LAST_USED.size() > maxLastUsed) {
-                LAST_USED.removeLast();
-            }
-        }
+        TRACKER.setMaxRecent(newMaxSize);
         notifyLastHistoryListener();
     }
 
@@ -164,7 +170,8 @@ public static void addNode(final NodeFactory<?> nodeFactory) {
         if (nodeFactory instanceof DynamicNodeFactory) {
             id += "#" + nodeFactory.getNodeName();
         }
-        addNode(RepositoryManager.INSTANCE.getNodeTemplate(id));
+        NodeTemplate node = TEMPLATES.get(id);
+        addNode(node != null ? node : RepositoryManager.INSTANCE.getNodeTemplate(id));
     }
 
     /**
@@ -173,36 +180,13 @@ public static void addNode(final NodeFactory<?> nodeFactory) {
      * @param node the last used node (is added to last used nodes and the frequency is counted)
      */
     public static void addNode(final NodeTemplate node) {
-        NodeTemplateFrequency nodeFreq = new NodeTemplateFrequency(node);
-        NodeTemplateFrequency existing = FREQUENCIES.get(nodeFreq);
-        if (existing == null) {
-            FREQUENCIES.put(nodeFreq, nodeFreq);
-            existing = nodeFreq;
+        if (node == null) {
+            return;
         }
-        cachedFrequent = null;
-        existing.increment();
-        addToLastUsedNodes(node);
-        Job favNodeAdder = new KNIMEJob("Favorite Node Adder", FrameworkUtil.getBundle(NodeUsageRegistry.class)) {
-            @Override
-            protected IStatus run(final IProgressMonitor monitor) {
-                notifyListener();
-                return Status.OK_STATUS;
-            }
-        };
-        favNodeAdder.setSystem(true);
-        favNodeAdder.schedule();
-    }
-
-    private static void addToLastUsedNodes(final NodeTemplate node) {
-        synchronized(LAST_USED) {
-            LAST_USED.remove(node);
-            LAST_USED.addFirst(node);
-            // check size of list
-            // if larger 10 (TODO: adjustable via preferences)
-            if (LAST_USED.size() > maxLastUsed) {
-                // remove first node
-                LAST_USED.removeLast();
-            }
+        TEMPLATES.putIfAbsent(node.getID(), node);
+        TRACKER.record(node.getID());
+        if (NOTIFICATION_PENDING.compareAndSet(false, true)) {
+            NOTIFIER.execute(NOTIFICATION);
         }
     }
 
@@ -211,19 +195,7 @@ private static void addToLastUsedNodes(final NodeTemplate node) {
      * @return the n (defined by max size) most frequently used nodes
      */
     public static List<NodeTemplate> getMostFrequentNodes() {
-        if (cachedFrequent != null) {
-            return cachedFrequent;
-        }
-        List<NodeTemplateFrequency> mostFrequent =
-                new ArrayList<NodeTemplateFrequency>(FREQUENCIES.values());
-        Collections.sort(mostFrequent);
-        List<NodeTemplate> temp = new ArrayList<NodeTemplate>();
-
-        int max = Math.min(maxMostFrequent, mostFrequent.size());
-        for (int i = 0; i < max; i++) {
-            temp.add(mostFrequent.get(i).getNode());
-        }
-        return (cachedFrequent = temp);
+        return toTemplates(TRACKER.getTop());
     }
 
     /**
@@ -232,134 +204,55 @@ public static List<NodeTemplate> getMostFrequentNodes() {
      *         defined by the max size parameter
      */
     public static List<NodeTemplate> getLastUsedNodes() {
-        return LAST_USED;
+        return toTemplates(TRACKER.getRecent());
+    }
+
+    private static List<NodeTemplate> toTemplates(final List<String> ids) {
+        List<NodeTemplate> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            NodeTemplate node = TEMPLATES.get(id);
+            if (node != null) {
+                result.add(node);
+            }
+        }
+        return result;
     }
 
     /**
      * Clears most frequent and last used history.
      */
     public static void clearHistory() {
-        clearFrequencyHistory();
-        clearLastUsedHistory();
+        TRACKER.clearScores();
+        TRACKER.clearRecent();
         notifyListener();
     }
 
-    private static void clearFrequencyHistory() {
-        cachedFrequent = null;
-        FREQUENCIES.clear();
-    }
-
-    private static void clearLastUsedHistory() {
-        LAST_USED.clear();
-    }
-
-    private static class NodeTemplateFrequency implements
-            Comparable<NodeTemplateFrequency> {
-
-        private final NodeTemplate m_node;
-
-        private int m_frequency;
-
-        /**
-         *
-         * @param node creates a new node template frequency for the given
-         *            {@link NodeTemplate} with frequency 0
-         */
-        public NodeTemplateFrequency(final NodeTemplate node) {
-            m_node = node;
-            m_frequency = 0;
-        }
-
-        /**
-         * Incremetns the freqeuncy of the node template.
-         */
-        public void increment() {
-            m_frequency++;
-        }
-
-        /**
-         *
-         * @return the underlying node
-         */
-        public NodeTemplate getNode() {
-            return m_node;
-        }
-
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public int hashCode() {
-            final int prime = 31;
-            int result = 1;
-            result =
-                    prime * result + ((m_node == null) ? 0 : m_node.hashCode());
-            return result;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean equals(final Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            NodeTemplateFrequency other = (NodeTemplateFrequency)obj;
-            if (m_node == null) {
-                if (other.m_node != null) {
-                    return false;
-                }
-            } else if (!m_node.equals(other.m_node)) {
-                return false;
-            }
-            return true;
-        }
-
-        /**
-         *
-         * {@inheritDoc}
-         */
-        @Override
-        public int compareTo(final NodeTemplateFrequency o) {
-            return o.m_frequency - m_frequency;
-        }
-
-        /**
-         *
-         * {@inheritDoc}
-         */
-        @Override
-        public String toString() {
-            return m_node.toString();
-        }
-    }
-
     private static final String TAG_NODE_ID = "nodeid";
 
     private static final String TAG_FAVORITE = "favorite";
 
     private static final String TAG_FREQUENCY = "frequency";
 
+    private static final String TAG_SCORE = "score";
+
+    private static final String TAG_SAVED_AT = "savedAt";
+
     /**
      * Saves most frequent nodes to XML memento. Called from
-     * FavoriteNodesManager#saveFavoriteNodes.
+     * FavoriteNodesManager#saveFavoriteNodes. Nodes whose score has decayed to almost nothing are dropped. The scores
+     * are saved together with the time they are valid at, so that they keep decaying until they are loaded.
      *
      * @see #loadFrequentNodes(IMemento)
      * @param freqNodes XML memento to save most frequently used nodes to
      */
     public static void saveFrequentNodes(final IMemento freqNodes) {
-        for (NodeTemplateFrequency nodeFreq : FREQUENCIES.values()) {
+        freqNodes.putString(TAG_SAVED_AT, Long.toString(System.currentTimeMillis()));
+        for (Map.Entry<String, Double> e : TRACKER.getScores(MIN_PERSISTED_SCORE).entrySet()) {
             IMemento item = freqNodes.createChild(TAG_FAVORITE);
-            item.putString(TAG_NODE_ID, nodeFreq.getNode().getID());
-            item.putInteger(TAG_FREQUENCY, nodeFreq.m_frequency);
+            item.putString(TAG_NODE_ID, e.getKey());
+            item.putFloat(TAG_SCORE, e.getValue().floatValue());
+            // for older versions that only know integer frequencies
+            item.putInteger(TAG_FREQUENCY, (int)Math.ceil(e.getValue()));
         }
     }
 
@@ -371,9 +264,9 @@ public static void saveFrequentNodes(final IMemento freqNodes) {
      * @param lastUsedNodes XML memento to save last used nodes to
      */
     public static void saveLastUsedNodes(final IMemento lastUsedNodes) {
-        for (NodeTemplate node : LAST_USED) {
+        for (String id : TRACKER.getRecent()) {
             IMemento item = lastUsedNodes.createChild(TAG_FAVORITE);
-            item.putString(TAG_NODE_ID, node.getID());
+            item.putString(TAG_NODE_ID, id);
         }
     }
 
@@ -386,15 +279,26 @@ public static void saveLastUsedNodes(final IMemento lastUsedNodes) {
      *            nodes
      */
     public static void loadFrequentNodes(final IMemento freqNodes) {
+        final long now = System.currentTimeMillis();
+        long savedAt = now;
+        final String savedAtString = freqNodes.getString(TAG_SAVED_AT);
+        if (savedAtString != null) {
+            try {
+                // scores saved "in the future" (e.g. the clock has been changed) are not increased
+                savedAt = Math.min(now, Long.parseLong(savedAtString));
+            } catch (NumberFormatException e) {
+                // treated like files of older versions, which have no save time
+            }
+        }
         for (IMemento freqNode : freqNodes.getChildren(TAG_FAVORITE)) {
             String id = freqNode.getString(TAG_NODE_ID);
-            int frequency = freqNode.getInteger(TAG_FREQUENCY);
-            NodeTemplate node = RepositoryManager.INSTANCE.getNodeTemplate(id);
-            if (node != null) {
-                NodeTemplateFrequency nodeFreq =
-                        new NodeTemplateFrequency(node);
-                nodeFreq.m_frequency = frequency;
-                FREQUENCIES.put(nodeFreq, nodeFreq);
+            Float score = freqNode.getFloat(TAG_SCORE);
+            if (score == null) {
+                Integer frequency = freqNode.getInteger(TAG_FREQUENCY);
+                score = (frequency == null) ? null : frequency.floatValue();
+            }
+            if ((score != null) && (resolve(id) != null)) {
+                TRACKER.addScore(id, score, savedAt);
             }
         }
     }
@@ -407,13 +311,25 @@ public static void loadFrequentNodes(final IMemento freqNodes) {
      * @param lastUsedNodes the XML memento to load the last used nodes from
      */
     public static void loadLastUsedNodes(final IMemento lastUsedNodes) {
+        List<String> ids = new ArrayList<>();
         for (IMemento lastNode : lastUsedNodes.getChildren(TAG_FAVORITE)) {
             String id = lastNode.getString(TAG_NODE_ID);
-            NodeTemplate node = RepositoryManager.INSTANCE.getNodeTemplate(id);
+            if (resolve(id) != null) {
+                ids.add(id);
+            }
+        }
+        TRACKER.addRecent(ids);
+    }
+
+    private static NodeTemplate resolve(final String id) {
+        NodeTemplate node = TEMPLATES.get(id);
+        if (node == null) {
+            node = RepositoryManager.INSTANCE.getNodeTemplate(id);
             if (node != null) {
-                addToLastUsedNodes(node);
+                TEMPLATES.putIfAbsent(id, node);
             }
         }
+        return node;
     }
 
 }
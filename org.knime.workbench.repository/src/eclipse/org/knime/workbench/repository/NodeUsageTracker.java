@@ -0,0 +1,316 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.repository;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe, lock-free bookkeeping of node usages by id: exponentially decaying usage scores, the ids with the
+ * highest scores and the most recently used ids.
+ *
+ * <p>
+ * Decay is implemented as "forward decay": a usage at time <i>t</i> adds the weight <i>e<sup>&lambda;(t -
+ * t<sub>0</sub>)</sup></i> to the raw score, so older usages never have to be updated and raw scores only grow. The
+ * decayed score at time <i>t</i> is the raw score times <i>e<sup>-&lambda;(t - t<sub>0</sub>)</sup></i>. Because raw
+ * scores only grow, an id can only enter the top list by its own usage, which allows to maintain the list
+ * incrementally.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class NodeUsageTracker {
+    /** Default half-life of a node usage. */
+    static final long DEFAULT_HALF_LIFE_MS = TimeUnit.DAYS.toMillis(30);
+
+    private final ConcurrentMap<String, DoubleAdder> m_scores = new ConcurrentHashMap<>();
+
+    private final AtomicReference<List<String>> m_top = new AtomicReference<>(Collections.emptyList());
+
+    private final AtomicReference<List<String>> m_recent = new AtomicReference<>(Collections.emptyList());
+
+    private final LongSupplier m_clock;
+
+    /** Decay rate per millisecond. */
+    private final double m_lambda;
+
+    /** Reference time <i>t<sub>0</sub></i>. */
+    private final long m_epoch;
+
+    private volatile int m_maxTop;
+
+    private volatile int m_maxRecent;
+
+    /**
+     * @param maxTop the maximum number of ids in the top list
+     * @param maxRecent the maximum number of recently used ids
+     */
+    NodeUsageTracker(final int maxTop, final int maxRecent) {
+        this(maxTop, maxRecent, DEFAULT_HALF_LIFE_MS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxTop the maximum number of ids in the top list
+     * @param maxRecent the maximum number of recently used ids
+     * @param halfLifeMs the time after which a usage counts half
+     * @param clock the time source in milliseconds
+     */
+    NodeUsageTracker(final int maxTop, final int maxRecent, final long halfLifeMs, final LongSupplier clock) {
+        m_maxTop = maxTop;
+        m_maxRecent = maxRecent;
+        m_lambda = Math.log(2) / halfLifeMs;
+        m_clock = clock;
+        m_epoch = clock.getAsLong();
+    }
+
+    /**
+     * Records one usage of the given id.
+     *
+     * @param id the node id
+     */
+    void record(final String id) {
+        addRaw(id, Math.exp(m_lambda * (m_clock.getAsLong() - m_epoch)));
+        addToRecent(id);
+    }
+
+    /**
+     * Adds a decayed score for the given id, without changing the recently used ids.
+     *
+     * @param id the node id
+     * @param score the score at the current time
+     */
+    void addScore(final String id, final double score) {
+        addScore(id, score, m_clock.getAsLong());
+    }
+
+    /**
+     * Adds a decayed score that was valid at the given time, e.g. a persisted score, without changing the recently
+     * used ids. The score decays from that time on.
+     *
+     * @param id the node id
+     * @param score the score at the given time
+     * @param time the time in milliseconds at which the score was valid
+     */
+    void addScore(final String id, final double score, final long time) {
+        addRaw(id, score * Math.exp(m_lambda * (time - m_epoch)));
+    }
+
+    /**
+     * @param id the node id
+     * @return the decayed score at the current time, 0 for unknown ids
+     */
+    double getScore(final String id) {
+        return getRawScore(id) * Math.exp(-m_lambda * (m_clock.getAsLong() - m_epoch));
+    }
+
+    /**
+     * @param minScore the minimum decayed score of the returned ids
+     * @return the decayed scores of all ids whose score is at least the given one, highest first
+     */
+    Map<String, Double> getScores(final double minScore) {
+        final double decay = Math.exp(-m_lambda * (m_clock.getAsLong() - m_epoch));
+        final Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> e : sortByRawScore(m_scores.keySet())) {
+            final double score = e.getValue() * decay;
+            if (score < minScore) {
+                break;
+            }
+            result.put(e.getKey(), score);
+        }
+        return result;
+    }
+
+    /**
+     * @return the ids with the highest scores, highest first; an immutable snapshot
+     */
+    List<String> getTop() {
+        return m_top.get();
+    }
+
+    /**
+     * @return the most recently used ids, latest first; an immutable snapshot
+     */
+    List<String> getRecent() {
+        return m_recent.get();
+    }
+
+    /**
+     * @param maxTop the new maximum number of ids in the top list
+     */
+    void setMaxTop(final int maxTop) {
+        m_maxTop = maxTop;
+        m_top.set(getFirstIds(sortByRawScore(m_scores.keySet()), maxTop));
+    }
+
+    /**
+     * @param maxRecent the new maximum number of recently used ids
+     */
+    void setMaxRecent(final int maxRecent) {
+        m_maxRecent = maxRecent;
+        List<String> current;
+        do {
+            current = m_recent.get();
+        } while ((current.size() > maxRecent) && !m_recent.compareAndSet(current,
+            Collections.unmodifiableList(new ArrayList<>(current.subList(0, maxRecent)))));
+    }
+
+    /**
+     * Appends the given ids to the recently used ids, e.g. when loading them.
+     *
+     * @param ids the ids, latest first
+     */
+    void addRecent(final List<String> ids) {
+        List<String> current;
+        List<String> next;
+        do {
+            current = m_recent.get();
+            next = new ArrayList<>(current);
+            for (String id : ids) {
+                if ((next.size() < m_maxRecent) && !next.contains(id)) {
+                    next.add(id);
+                }
+            }
+        } while (!m_recent.compareAndSet(current, Collections.unmodifiableList(next)));
+    }
+
+    /**
+     * Forgets all scores.
+     */
+    void clearScores() {
+        m_scores.clear();
+        m_top.set(Collections.emptyList());
+    }
+
+    /**
+     * Forgets the recently used ids.
+     */
+    void clearRecent() {
+        m_recent.set(Collections.emptyList());
+    }
+
+    private double getRawScore(final String id) {
+        final DoubleAdder adder = m_scores.get(id);
+        return (adder == null) ? 0 : adder.sum();
+    }
+
+    /**
+     * Sorts the given ids by raw score, highest first. Concurrent usages change the scores while sorting, so they are
+     * read once up front; a comparator reading the live scores would violate its contract.
+     */
+    private List<Map.Entry<String, Double>> sortByRawScore(final Collection<String> ids) {
+        final List<Map.Entry<String, Double>> scores = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            scores.add(new SimpleImmutableEntry<>(id, getRawScore(id)));
+        }
+        scores.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        return scores;
+    }
+
+    private static List<String> getFirstIds(final List<Map.Entry<String, Double>> scores, final int max) {
+        final List<String> ids = new ArrayList<>(Math.min(max, scores.size()));
+        for (int i = 0; i < Math.min(max, scores.size()); i++) {
+            ids.add(scores.get(i).getKey());
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    private void addRaw(final String id, final double weight) {
+        m_scores.computeIfAbsent(id, k -> new DoubleAdder()).add(weight);
+        final double raw = getRawScore(id);
+        while (true) {
+            final List<String> current = m_top.get();
+            final int max = m_maxTop;
+            final boolean contained = current.contains(id);
+            if (!contained && (current.size() >= max)
+                && ((max == 0) || (getRawScore(current.get(current.size() - 1)) >= raw))) {
+                return;
+            }
+            final List<String> candidates = new ArrayList<>(current.size() + 1);
+            candidates.addAll(current);
+            if (!contained) {
+                candidates.add(id);
+            }
+            if (m_top.compareAndSet(current, getFirstIds(sortByRawScore(candidates), max))) {
+                return;
+            }
+        }
+    }
+
+    private void addToRecent(final String id) {
+        while (true) {
+            final List<String> current = m_recent.get();
+            if (!current.isEmpty() && current.get(0).equals(id)) {
+                return;
+            }
+            final int max = m_maxRecent;
+            final List<String> next = new ArrayList<>(Math.min(max, current.size() + 1));
+            if (max > 0) {
+                next.add(id);
+            }
+            for (String s : current) {
+                if (next.size() >= max) {
+                    break;
+                }
+                if (!s.equals(id)) {
+                    next.add(s);
+                }
+            }
+            if (m_recent.compareAndSet(current, Collections.unmodifiableList(next))) {
+                return;
+            }
+        }
+    }
+}
@@ -56,6 +56,7 @@
 import org.knime.core.node.NodeFactory;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
+import org.knime.core.node.workflow.NativeNodeContainer;
 import org.knime.core.ui.node.workflow.NodeContainerUI;
 import org.knime.core.ui.node.workflow.SingleNodeContainerUI;
 import org.knime.core.ui.node.workflow.SubNodeContainerUI;
@@ -187,7 +188,7 @@ public void addDescription(final NodeTemplate template,
                     .getXMLDescription())));
                 bld.append("</dd>");
             } else {
-                bld.append(NodeFactoryHTMLCreator.instance.readFullDescription(nf.getXMLDescription()));
+                bld.append(NodeFactoryHTMLCreator.instance.readFullDescription(nf));
             }
         } catch (Exception e) {
             if (useSingleLine) {
@@ -237,7 +238,13 @@ public void addDescription(final NodeContainerUI nc,
                 bld.append("</dd>");
             } else {
                 try {
-                    bld.append(NodeFactoryHTMLCreator.instance.readFullDescription(singleNC.getXMLDescription()));
+                    if (singleNC instanceof NativeNodeContainer) {
+                        // memoized per node factory
+                        bld.append(NodeFactoryHTMLCreator.instance
+                            .readFullDescription(((NativeNodeContainer)singleNC).getNode().getFactory()));
+                    } else {
+                        bld.append(NodeFactoryHTMLCreator.instance.readFullDescription(singleNC.getXMLDescription()));
+                    }
                 } catch (FileNotFoundException ex) {
                     NodeLogger.getLogger(DynamicNodeDescriptionCreator.class).error(
                         "Could not create HTML node description: " + ex.getMessage(), ex);
@@ -62,6 +62,13 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.transform.TransformerException;
 
@@ -74,6 +81,7 @@
 import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.widgets.Display;
 import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeFactory;
 import org.knime.workbench.repository.RepositoryManager;
 import org.knime.workbench.repository.model.Category;
 import org.knime.workbench.repository.model.IContainerObject;
@@ -96,6 +104,8 @@ public class NodeDocuGenerator implements IApplication {
 
     private static final String PLUGIN_ARG = "-plugin";
 
+    private static final String THREADS_ARG = "-threads";
+
     private static void printUsage() {
         System.err.println("Usage: NodeDocuGenerator options");
         System.err.println("Allowed options are:");
@@ -105,6 +115,8 @@ private static void printUsage() {
                 .println("\t-plugin plugin-id : Only nodes of the specified plugin will be considered. If not all available plugins will be processed.\n");
         System.err
                 .println("\t-category category-path (e.g. /community) : Only nodes within the specified category path will be considered. If not specified '/' is used.\n");
+        System.err
+                .println("\t-threads n : Number of threads used for rendering the node descriptions. If not specified the number of available processors is used.\n");
 
     }
 
@@ -130,6 +142,12 @@ private static void printUsage() {
 
     private String m_catPath = "/";
 
+    private int m_nrThreads = Runtime.getRuntime().availableProcessors();
+
+    private ExecutorService m_executor;
+
+    private final List<Future<Void>> m_pendingPages = new ArrayList<Future<Void>>();
+
     /**
      * {@inheritDoc}
      */
@@ -146,6 +164,8 @@ public Object start(final IApplicationContext context) throws Exception {
                     m_catPath = args[i + 1];
                 } else if (args[i].equals(PLUGIN_ARG)) {
                     m_pluginId = args[i + 1];
+                } else if (args[i].equals(THREADS_ARG)) {
+                    m_nrThreads = Math.max(1, Integer.parseInt(args[i + 1]));
                 } else if (args[i].equals("-help")) {
                     printUsage();
                     return EXIT_OK;
@@ -230,8 +250,15 @@ private void generate() throws Exception {
         m_catPath = m_catPath.replaceAll("/", ".");
 
         // recursively generate the node reference and the node description
-        // pages
-        generate(m_directory, root, null);
+        // pages; the menu is built sequentially while the description pages are rendered in parallel
+        m_executor = Executors.newFixedThreadPool(m_nrThreads);
+        try {
+            generate(m_directory, root, null);
+            waitForPendingPages();
+        } finally {
+            m_executor.shutdownNow();
+            m_executor = null;
+        }
 
         // complete and write repository template
         String nodeRepo = m_nodeRepositoryTemplate.replace("[NODE_REPOSITORY]", m_nodeRepository.toString());
@@ -298,7 +325,8 @@ private boolean generate(final File directory, final IRepositoryObject current,
             String nodeIdentifier = cleanNodeIdForFileName((NodeTemplate)current);//((NodeTemplate)current).getID();
 
             // write icon to disc
-            URL iconURL = ((NodeTemplate)current).createFactoryInstance().getIcon();
+            NodeFactory<?> factory = ((NodeTemplate)current).createFactoryInstance();
+            URL iconURL = factory.getIcon();
             String nodeIcon;
             if (iconURL != null) {
                 writeStreamToFile(iconURL.openStream(), nodeIdentifier + ".png");
@@ -319,18 +347,7 @@ private boolean generate(final File directory, final IRepositoryObject current,
             // create page with node description and return, as no more
             // children
             // are available
-            Writer nodeDoc = createDocumentWriter(cleanNodeIdForFileName((NodeTemplate)current) + ".html", directory);
-            String nodeDescription =
-                    NodeFactoryHTMLCreator.instance.readFullDescription(((NodeTemplate)current).createFactoryInstance()
-                            .getXMLDescription());
-            // extract the body of the node description html-document
-            nodeDescription =
-                    nodeDescription
-                            .substring(nodeDescription.indexOf("<body>") + 6, nodeDescription.indexOf("</body>"));
-            nodeDescription = m_nodeDescriptionTemplate.replace("[NODE_DESCRIPTION]", nodeDescription);
-            nodeDoc.write(nodeDescription);
-            nodeDoc.flush();
-            nodeDoc.close();
+            m_pendingPages.add(m_executor.submit(new NodePageWriter(factory, nodeIdentifier + ".html", directory)));
 
             return true;
         } else if (current instanceof Category || current instanceof Root) {
@@ -383,6 +400,56 @@ private boolean generate(final File directory, final IRepositoryObject current,
 
     }
 
+    /*
+     * Waits until all submitted node description pages have been written and rethrows the first error
+     */
+    private void waitForPendingPages() throws Exception {
+        try {
+            for (Future<Void> f : m_pendingPages) {
+                f.get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception)ex.getCause();
+            }
+            throw ex;
+        } finally {
+            m_pendingPages.clear();
+        }
+    }
+
+    /**
+     * Renders the description of a single node and writes it into its page. The node description template is only
+     * read, hence several writers can run concurrently.
+     */
+    private final class NodePageWriter implements Callable<Void> {
+        private final NodeFactory<?> m_factory;
+
+        private final String m_fileName;
+
+        private final File m_targetDir;
+
+        NodePageWriter(final NodeFactory<?> factory, final String fileName, final File targetDir) {
+            m_factory = factory;
+            m_fileName = fileName;
+            m_targetDir = targetDir;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            String nodeDescription = NodeFactoryHTMLCreator.instance.readFullDescription(m_factory.getXMLDescription());
+            // extract the body of the node description html-document
+            nodeDescription =
+                    nodeDescription
+                            .substring(nodeDescription.indexOf("<body>") + 6, nodeDescription.indexOf("</body>"));
+            nodeDescription = m_nodeDescriptionTemplate.replace("[NODE_DESCRIPTION]", nodeDescription);
+            try (Writer nodeDoc = createDocumentWriter(m_fileName, m_targetDir)) {
+                nodeDoc.write(nodeDescription);
+            }
+            return null;
+        }
+    }
+
     /*
      * Helper to compose the category names/identifier of the super-categories
      * and the current one
@@ -56,10 +56,13 @@
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -67,7 +70,13 @@
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
+import org.knime.core.node.DynamicNodeFactory;
+import org.knime.core.node.NodeFactory;
 import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.util.ConfigUtils;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
@@ -83,7 +92,22 @@ public final class NodeFactoryHTMLCreator {
 
     private static final String HOWTO_FILE = "node_description_howto.html";
 
-    private Map<String, Transformer> m_transformers = new HashMap<String, Transformer>();
+    /** Compiled stylesheets per namespace; {@link Templates} are thread-safe and can be shared. */
+    private final ConcurrentMap<String, Templates> m_templates = new ConcurrentHashMap<String, Templates>();
+
+    /** Transformers are neither thread-safe nor reentrant, therefore each thread gets its own set. */
+    private final ThreadLocal<Map<String, Transformer>> m_transformers = new ThreadLocal<Map<String, Transformer>>() {
+        @Override
+        protected Map<String, Transformer> initialValue() {
+            return new HashMap<String, Transformer>();
+        }
+    };
+
+    /**
+     * Rendered full descriptions, keyed by factory class name, version of the contributing bundle and additional
+     * factory settings.
+     */
+    private final ConcurrentMap<String, String> m_descriptionCache = new ConcurrentHashMap<String, String>();
 
     private static final Pattern NAMESPACE_PATTERN = Pattern.compile("http://knime.org/(.*)node(?:2012|/v(\\d+\\.\\d+))");
 
@@ -131,9 +155,92 @@ public String readFullDescription(final Element knimeNode) throws FileNotFoundEx
             return getXMLDescriptionHowTo();
         }
 
-        String namespaceUri = knimeNode.getNamespaceURI();
-        Transformer transformer = m_transformers.get(namespaceUri);
+        Transformer transformer = getTransformer(knimeNode.getNamespaceURI());
+        StreamResult result = new StreamResult(new StringWriter());
+        DOMSource source = new DOMSource(knimeNode);
+        transformer.transform(source, result);
+        return result.getWriter().toString();
+    }
+
+    /**
+     * Returns the full description of the node created by the given factory as HTML. In contrast to
+     * {@link #readFullDescription(Element)} the result is memoized per factory class, version of the contributing
+     * bundle and additional factory settings (e.g. of node set factories), so that repeated requests for the same node
+     * (e.g. in the node description view) do not run the XSLT transformation again. Descriptions of
+     * {@link DynamicNodeFactory dynamic node factories} are never cached as they may differ between instances of the
+     * same class.
+     *
+     * @param factory a node factory
+     * @return the full description as HTML
+     *
+     * @throws FileNotFoundException if the stylesheet for the node cannot found found
+     * @throws TransformerException if an error happens during the XML->HTML transformation
+     * @since 3.8
+     */
+    public String readFullDescription(final NodeFactory<?> factory) throws FileNotFoundException,
+        TransformerException {
+        if (factory instanceof DynamicNodeFactory) {
+            return readFullDescription(factory.getXMLDescription());
+        }
+        String key = getCacheKey(factory);
+        if (key == null) {
+            return readFullDescription(factory.getXMLDescription());
+        }
+        String description = m_descriptionCache.get(key);
+        if (description == null) {
+            description = readFullDescription(factory.getXMLDescription());
+            m_descriptionCache.putIfAbsent(key, description);
+        }
+        return description;
+    }
+
+    /**
+     * Removes all memoized node descriptions, e.g. after plug-ins have been updated or uninstalled.
+     *
+     * @since 3.8
+     */
+    public void clearDescriptionCache() {
+        m_descriptionCache.clear();
+    }
+
+    /** @return the cache key, <code>null</code> if the factory settings cannot be determined */
+    private static String getCacheKey(final NodeFactory<?> factory) {
+        final Class<?> factoryClass = factory.getClass();
+        final StringBuilder key = new StringBuilder(factoryClass.getName());
+        Bundle bundle = FrameworkUtil.getBundle(factoryClass);
+        if (bundle != null) {
+            key.append('@').append(bundle.getSymbolicName()).append('_').append(bundle.getVersion());
+        }
+        try {
+            // instances of the same class may describe different nodes (e.g. node set factories)
+            final NodeSettings settings = new NodeSettings("");
+            factory.saveAdditionalFactorySettings(settings);
+            key.append('#').append(ConfigUtils.contentBasedHashString(settings));
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not determine the settings of node factory " + factoryClass.getName()
+                + ", its description is not cached: " + e.getMessage(), e);
+            return null;
+        }
+        return key.toString();
+    }
+
+    private Transformer getTransformer(final String namespaceUri) throws FileNotFoundException,
+        TransformerException {
+        Map<String, Transformer> threadTransformers = m_transformers.get();
+        Transformer transformer = threadTransformers.get(namespaceUri);
         if (transformer == null) {
+            transformer = getTemplates(namespaceUri).newTransformer();
+            transformer.setParameter("css", m_css);
+            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            threadTransformers.put(namespaceUri, transformer);
+        }
+        return transformer;
+    }
+
+    private Templates getTemplates(final String namespaceUri) throws FileNotFoundException, TransformerException {
+        Templates templates = m_templates.get(namespaceUri);
+        if (templates == null) {
             Matcher matcher = NAMESPACE_PATTERN.matcher(namespaceUri);
             if (!matcher.matches()) {
                 throw new IllegalArgumentException("Unsupported namespace for knime node: " + namespaceUri);
@@ -156,18 +263,21 @@ public String readFullDescription(final Element knimeNode) throws FileNotFoundEx
             if (is == null) {
                 throw new FileNotFoundException("Could not find stylesheet '" + styleFile + "'");
             }
-            StreamSource stylesheet = new StreamSource(is);
-            transformer = TransformerFactory.newInstance().newTemplates(stylesheet).newTransformer();
-            transformer.setParameter("css", m_css);
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            m_transformers.put(namespaceUri, transformer);
+            try {
+                templates = TransformerFactory.newInstance().newTemplates(new StreamSource(is));
+            } finally {
+                try {
+                    is.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+            Templates existing = m_templates.putIfAbsent(namespaceUri, templates);
+            if (existing != null) {
+                templates = existing;
+            }
         }
-
-        StreamResult result = new StreamResult(new StringWriter());
-        DOMSource source = new DOMSource(knimeNode);
-        transformer.transform(source, result);
-        return result.getWriter().toString();
+        return templates;
     }
 
     private String getXMLDescriptionHowTo() {
@@ -71,10 +71,13 @@ public class ListRepositoryContentProvider implements ITreeContentProvider {
      */
     @Override
     public Object[] getElements(final Object inputElement) {
-        ArrayList<Object> list = new ArrayList<>();
-        getObjects(inputElement, list);
-        m_root = inputElement;
-        m_allElements = list.toArray();
+        // the flattened repository is reused until the input changes, every search query asks for it again
+        if ((m_allElements == null) || (m_root != inputElement)) {
+            ArrayList<Object> list = new ArrayList<>();
+            getObjects(inputElement, list);
+            m_root = inputElement;
+            m_allElements = list.toArray();
+        }
         return m_allElements;
     }
 
@@ -108,7 +111,8 @@ public void dispose() {
      */
     @Override
     public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {
-        // do nothing
+        m_root = null;
+        m_allElements = null;
     }
 
     /**
@@ -48,8 +48,18 @@
  */
 package org.knime.workbench.repository.view;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.jface.viewers.IContentProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Display;
@@ -60,6 +70,12 @@
  * Updating the TreeViewer also implies (re)applying all filters that are set on the given TreeViewer. Main purpose is
  * to avoid code duplication.
  *
+ * <p>
+ * If the tree is updated and fully expanded repeatedly (i.e. while the user types a search query), only the
+ * difference between the previously and the newly visible elements is applied to the tree widget instead of
+ * refreshing and expanding the whole tree. Narrowing a query (the common case while typing) therefore only removes
+ * the items that no longer match, an unchanged result does not touch the tree at all.
+ *
  * @author Martin Horn, University of Konstanz
  */
 class TreeViewerUpdater {
@@ -80,6 +96,39 @@ public interface UpdateListener {
     }
 
 
+    /** Key of the {@link VisibleState} in the tree control's data. */
+    private static final String VISIBLE_STATE_KEY = TreeViewerUpdater.class.getName() + ".visibleState";
+
+    /**
+     * The elements shown in a fully expanded tree, together with everything they depend on. If any of the viewer's
+     * input, content provider, comparator or filters change, the state cannot be used for an incremental update.
+     */
+    private static final class VisibleState {
+        private final Object m_input;
+
+        private final IContentProvider m_contentProvider;
+
+        private final ViewerComparator m_comparator;
+
+        private final List<ViewerFilter> m_filters;
+
+        /** Visible element -> parent element (the input for top-level elements), in depth-first order. */
+        private final Map<Object, Object> m_parents;
+
+        private VisibleState(final TreeViewer viewer, final Map<Object, Object> parents) {
+            m_input = viewer.getInput();
+            m_contentProvider = viewer.getContentProvider();
+            m_comparator = viewer.getComparator();
+            m_filters = Arrays.asList(viewer.getFilters());
+            m_parents = parents;
+        }
+
+        private boolean isCompatible(final TreeViewer viewer) {
+            return (m_input == viewer.getInput()) && (m_contentProvider == viewer.getContentProvider())
+                && (m_comparator == viewer.getComparator()) && m_filters.equals(Arrays.asList(viewer.getFilters()));
+        }
+    }
+
     private TreeViewerUpdater() {
         //static utility class
     }
@@ -102,6 +151,7 @@ static void collapseAll(final TreeViewer viewer) {
         viewer.getControl().setRedraw(false);
         try {
             viewer.collapseAll();
+            viewer.getControl().setData(VISIBLE_STATE_KEY, null);
         } finally {
             if (backup != null) {
                 Display.getCurrent().setCursorLocation(backup);
@@ -131,10 +181,7 @@ static void update(final TreeViewer viewer, final boolean shouldExpand, final bo
        }
        viewer.getControl().setRedraw(false);
        try {
-           viewer.refresh();
-           if (shouldExpand) {
-               viewer.expandAll();
-           }
+           refresh(viewer, shouldExpand);
            //scroll to root
            if (viewer.getTree().getItemCount() > 0 && scrollToRoot) {
                TreeItem item = viewer.getTree().getItem(0);
@@ -173,14 +220,11 @@ static void collapseAndUpdate(final TreeViewer viewer, final TreeViewerUpdater.U
         try {
             if (collapse) {
                 viewer.collapseAll();
+                viewer.getControl().setData(VISIBLE_STATE_KEY, null);
             }
 
             if (update) {
-                viewer.refresh();
-
-                if (shouldExpand) {
-                    viewer.expandAll();
-                }
+                refresh(viewer, shouldExpand);
 
                 final int itemCount = viewer.getTree().getItemCount();
                 if (itemCount > 0) {
@@ -202,4 +246,89 @@ static void collapseAndUpdate(final TreeViewer viewer, final TreeViewerUpdater.U
             viewer.getControl().setRedraw(true);
         }
     }
+
+    /**
+     * Re-applies the filters and optionally expands the whole tree. If the tree has been fully expanded by the last
+     * update and nothing but the filters' state has changed, only the difference is applied.
+     */
+    private static void refresh(final TreeViewer viewer, final boolean shouldExpand) {
+        if (!shouldExpand || !(viewer.getContentProvider() instanceof ITreeContentProvider)) {
+            viewer.getControl().setData(VISIBLE_STATE_KEY, null);
+            viewer.refresh();
+            if (shouldExpand) {
+                viewer.expandAll();
+            }
+            return;
+        }
+        final Map<Object, Object> visible = computeVisible(viewer);
+        final VisibleState old = (VisibleState)viewer.getControl().getData(VISIBLE_STATE_KEY);
+        if ((old == null) || !old.isCompatible(viewer) || !applyDifference(viewer, old.m_parents, visible)) {
+            viewer.refresh();
+            viewer.expandAll();
+        }
+        viewer.getControl().setData(VISIBLE_STATE_KEY, new VisibleState(viewer, visible));
+    }
+
+    /**
+     * Removes the items of elements that are no longer visible. New elements are not added incrementally: without a
+     * comparator {@link TreeViewer#add(Object, Object)} (and <code>insert</code> if filters are set) appends items at
+     * the end, which would break the repository order.
+     *
+     * @return <code>false</code> if elements have become visible or the change is so large that a full refresh is
+     *         cheaper
+     */
+    private static boolean applyDifference(final TreeViewer viewer, final Map<Object, Object> oldVisible,
+        final Map<Object, Object> newVisible) {
+        if ((newVisible.size() < oldVisible.size() / 4) || !oldVisible.keySet().containsAll(newVisible.keySet())) {
+            return false;
+        }
+        final Object input = viewer.getInput();
+        final List<Object> removed = new ArrayList<>();
+        for (Map.Entry<Object, Object> e : oldVisible.entrySet()) {
+            final Object parent = e.getValue();
+            // removing an item also removes its children, so only the top-most removed elements are needed
+            if (!newVisible.containsKey(e.getKey()) && ((parent == input) || newVisible.containsKey(parent))) {
+                removed.add(e.getKey());
+            }
+        }
+        if (!removed.isEmpty()) {
+            viewer.remove(removed.toArray());
+        }
+        return true;
+    }
+
+    /**
+     * Walks the content the tree would show with its current filters, without touching any widgets.
+     *
+     * @return the visible elements mapped to their parents, in depth-first order
+     */
+    private static Map<Object, Object> computeVisible(final TreeViewer viewer) {
+        final ITreeContentProvider contentProvider = (ITreeContentProvider)viewer.getContentProvider();
+        final Object input = viewer.getInput();
+        final Map<Object, Object> visible = new LinkedHashMap<>();
+        if (input != null) {
+            collectVisible(viewer, contentProvider, input, contentProvider.getElements(input), visible);
+        }
+        return visible;
+    }
+
+    private static void collectVisible(final TreeViewer viewer, final ITreeContentProvider contentProvider,
+        final Object parent, final Object[] children, final Map<Object, Object> visible) {
+        if (children == null) {
+            return;
+        }
+        final ViewerFilter[] filters = viewer.getFilters();
+        outer:
+        for (Object child : children) {
+            for (ViewerFilter filter : filters) {
+                if (!filter.select(viewer, parent, child)) {
+                    continue outer;
+                }
+            }
+            visible.put(child, parent);
+            if (contentProvider.hasChildren(child)) {
+                collectVisible(viewer, contentProvider, child, contentProvider.getChildren(child), visible);
+            }
+        }
+    }
 }
@@ -121,6 +121,8 @@ public synchronized void runOnNodes(final NodeContainerEditPart[] parts) {
         if (provider == null) {
             return;
         }
+        // the layout moves all nodes, including those whose edit parts are not created yet
+        getEditor().createDeferredEditParts();
 
         ArrayList<NodeContainerUI> nodes = null;
         if (parts != null && parts.length > 0) {
@@ -0,0 +1,161 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.ui;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link UIStallDetector}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class UIStallDetectorTest {
+    private static final long THRESHOLD = 200;
+
+    private static final long SAMPLE_INTERVAL = 20;
+
+    private UIStallDetector m_detector;
+
+    /**
+     * Stops the detector.
+     */
+    @After
+    public void stopDetector() {
+        if (m_detector != null) {
+            m_detector.stop();
+        }
+    }
+
+    /**
+     * Checks that a blocked UI thread is detected as one stall and attributed to the blocking method.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testStallIsDetected() throws Exception {
+        final Display display = Display.getDefault();
+        m_detector = new UIStallDetector(display, THRESHOLD, SAMPLE_INTERVAL, null);
+        m_detector.start();
+
+        display.syncExec(() -> stallUIThread(5 * THRESHOLD));
+        runEventLoopUntil(display, () -> m_detector.getStallCount() > 0);
+
+        assertThat("Number of stalls", m_detector.getStallCount(), is(1));
+        final String report = m_detector.getReport();
+        final int codePathStart = report.indexOf("): ") + 3;
+        final String topCodePath = report.substring(codePathStart, report.indexOf('\n', codePathStart));
+        assertThat("Stall not attributed to the blocking method", topCodePath,
+            containsString(UIStallDetectorTest.class.getName() + ".stallUIThread("));
+    }
+
+    /**
+     * Checks that no stall is reported while the UI thread processes events.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testNoStallWhileResponsive() throws Exception {
+        final Display display = Display.getDefault();
+        m_detector = new UIStallDetector(display, THRESHOLD, SAMPLE_INTERVAL, null);
+        m_detector.start();
+
+        final long end = System.currentTimeMillis() + 3 * THRESHOLD;
+        runEventLoopUntil(display, () -> System.currentTimeMillis() > end);
+
+        assertThat("Number of stalls", m_detector.getStallCount(), is(0));
+    }
+
+    /**
+     * Checks that a stall is attributed to the first frame outside of the JDK and the UI framework.
+     */
+    @Test
+    public void testCodePath() {
+        final StackTraceElement sleep = new StackTraceElement("java.lang.Thread", "sleep", "Thread.java", -2);
+        final StackTraceElement syncExec =
+            new StackTraceElement("org.eclipse.swt.widgets.Display", "syncExec", "Display.java", 4711);
+        final StackTraceElement cause = new StackTraceElement("org.knime.Foo", "bar", "Foo.java", 42);
+
+        assertThat("Wrong code path", UIStallDetector.getCodePath(new StackTraceElement[]{sleep, cause, syncExec}),
+            is(cause.toString()));
+        assertThat("Wrong code path of framework-only stack",
+            UIStallDetector.getCodePath(new StackTraceElement[]{sleep, syncExec}), is(sleep.toString()));
+        assertThat("Wrong code path of empty stack", UIStallDetector.getCodePath(new StackTraceElement[0]),
+            is("<no stack>"));
+    }
+
+    private static void stallUIThread(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the condition holds (at most 10 seconds). If this is the UI thread, it processes the events while
+     * waiting, otherwise the workbench's event loop does so.
+     */
+    private static void runEventLoopUntil(final Display display, final BooleanSupplier condition)
+        throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && (System.currentTimeMillis() < deadline)) {
+            if (display.getThread() == Thread.currentThread()) {
+                while (display.readAndDispatch()) {
+                    // process all pending events
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
+}
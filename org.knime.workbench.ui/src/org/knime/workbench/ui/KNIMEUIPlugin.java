@@ -96,6 +96,8 @@ public class KNIMEUIPlugin extends AbstractUIPlugin {
     // Resource bundle.
     private ResourceBundle m_resourceBundle;
 
+    private UIStallDetector m_stallDetector;
+
     private static final NodeLogger LOGGER =
         NodeLogger.getLogger(KNIMEUIPlugin.class);
 
@@ -131,6 +133,19 @@ public void start(final BundleContext context) throws Exception {
                             "/icons/knime_default.png"));
         }
 
+        Display display = Display.getCurrent();
+        if (display == null && PlatformUI.isWorkbenchRunning()) {
+            display = PlatformUI.getWorkbench().getDisplay();
+        }
+        if (display != null) {
+            // reports UI freezes and where they come from
+            m_stallDetector =
+                UIStallDetector.createFromSystemProperties(display, getStateLocation().append("ui-stalls.txt").toFile());
+            if (m_stallDetector != null) {
+                m_stallDetector.start();
+            }
+        }
+
         IPreferenceStore prefStore = getPreferenceStore();
         int freqHistorySize = prefStore.getInt(
                 PreferenceConstants.P_FAV_FREQUENCY_HISTORY_SIZE);
@@ -221,6 +236,10 @@ public void stop(final BundleContext context) throws Exception {
         IJobManager jobMan = Job.getJobManager();
         jobMan.cancel(getBundle().getSymbolicName());
         jobMan.join(getBundle().getSymbolicName(), null);
+        if (m_stallDetector != null) {
+            m_stallDetector.stop();
+            m_stallDetector = null;
+        }
         plugin = null;
         m_resourceBundle = null;
         super.stop(context);
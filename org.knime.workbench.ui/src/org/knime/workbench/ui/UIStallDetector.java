@@ -0,0 +1,343 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Detects when the SWT UI thread doesn't process events for longer than a threshold (i.e. the workbench freezes) and
+ * finds out where it hangs.
+ *
+ * <p>
+ * A watchdog thread regularly posts a no-op runnable to the display (see {@link Display#asyncExec(Runnable)}). If it
+ * hasn't been run within the threshold, the UI thread is regarded as stalled and its stack is sampled until the
+ * runnable is finally run. The samples are attributed to the first frame outside the JDK and SWT/JFace (the
+ * 'code path') and aggregated into a report of the code paths that blocked the UI thread longest. When no stall occurs
+ * the overhead is just the one runnable per half threshold.
+ *
+ * <p>
+ * The detector started by the {@link KNIMEUIPlugin} can be configured with the system properties
+ * {@value #PROPERTY_THRESHOLD} (the threshold in ms, default {@value #DEFAULT_THRESHOLD}; 0 disables the detector) and
+ * {@value #PROPERTY_SAMPLE_INTERVAL} (the sample interval in ms, default {@value #DEFAULT_SAMPLE_INTERVAL}). Its
+ * report is written to <code>ui-stalls.txt</code> in the plug-in's state location.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class UIStallDetector {
+
+    /** System property for the stall threshold in ms; 0 disables the detector. */
+    public static final String PROPERTY_THRESHOLD = "knime.ui.stall.threshold";
+
+    /** System property for the interval in ms in which the UI thread's stack is sampled during a stall. */
+    public static final String PROPERTY_SAMPLE_INTERVAL = "knime.ui.stall.sampleInterval";
+
+    /** The default threshold in ms. */
+    public static final long DEFAULT_THRESHOLD = 2000;
+
+    /** The default sample interval in ms. */
+    public static final long DEFAULT_SAMPLE_INTERVAL = 100;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(UIStallDetector.class);
+
+    /** Frames of these packages are not regarded as the cause of a stall. */
+    private static final String[] FRAMEWORK_PACKAGES = {"java.", "javax.", "sun.", "jdk.", "com.sun.",
+        "org.eclipse.swt.", "org.eclipse.jface.", "org.eclipse.ui.internal.", "org.eclipse.e4.ui."};
+
+    /** The number of frames of an example stack in the report. */
+    private static final int REPORT_FRAMES = 15;
+
+    /** The number of code paths in the report. */
+    private static final int REPORT_CODE_PATHS = 10;
+
+    private final Display m_display;
+
+    private final Thread m_uiThread;
+
+    private final long m_threshold;
+
+    private final long m_sampleInterval;
+
+    private final File m_reportFile;
+
+    /** The code paths by their first non-framework frame; guarded by itself. */
+    private final Map<String, CodePath> m_codePaths = new HashMap<>();
+
+    /** When the pending ping has been posted (System.nanoTime()), -1 if there is none. */
+    private volatile long m_pingPostedAt = -1;
+
+    private final Runnable m_ping = () -> m_pingPostedAt = -1;
+
+    private volatile boolean m_running;
+
+    private Thread m_watchdog;
+
+    private int m_stallCount;
+
+    private long m_longestStall;
+
+    /**
+     * @param display the display whose thread to watch
+     * @param threshold the time in ms after which the UI thread is regarded as stalled
+     * @param sampleInterval the interval in ms in which the UI thread's stack is sampled during a stall
+     * @param reportFile the file to write the report to after each stall, may be <code>null</code>
+     */
+    public UIStallDetector(final Display display, final long threshold, final long sampleInterval,
+        final File reportFile) {
+        if (threshold <= 0 || sampleInterval <= 0) {
+            throw new IllegalArgumentException("Threshold and sample interval must be positive");
+        }
+        m_display = display;
+        m_uiThread = display.getThread();
+        m_threshold = threshold;
+        m_sampleInterval = sampleInterval;
+        m_reportFile = reportFile;
+    }
+
+    /**
+     * Creates a detector configured by the system properties (see class description).
+     *
+     * @param display the display whose thread to watch
+     * @param reportFile the file to write the report to, may be <code>null</code>
+     * @return the new detector, or <code>null</code> if it is disabled
+     */
+    public static UIStallDetector createFromSystemProperties(final Display display, final File reportFile) {
+        final long threshold = Long.getLong(PROPERTY_THRESHOLD, DEFAULT_THRESHOLD);
+        if (threshold <= 0) {
+            return null;
+        }
+        final long sampleInterval = Math.max(1, Long.getLong(PROPERTY_SAMPLE_INTERVAL, DEFAULT_SAMPLE_INTERVAL));
+        return new UIStallDetector(display, threshold, sampleInterval, reportFile);
+    }
+
+    /**
+     * Starts watching the UI thread.
+     */
+    public synchronized void start() {
+        if (m_watchdog != null) {
+            return;
+        }
+        m_running = true;
+        m_watchdog = new Thread(this::watch, "KNIME UI Stall Detector");
+        m_watchdog.setDaemon(true);
+        m_watchdog.start();
+    }
+
+    /**
+     * Stops watching the UI thread. The report is kept (and has already been written after each stall).
+     */
+    public void stop() {
+        final Thread watchdog;
+        synchronized (this) {
+            watchdog = m_watchdog;
+            m_watchdog = null;
+            m_running = false;
+        }
+        if (watchdog != null) {
+            watchdog.interrupt();
+            try {
+                watchdog.join(m_threshold);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the number of stalls detected so far
+     */
+    public synchronized int getStallCount() {
+        return m_stallCount;
+    }
+
+    private void watch() {
+        final long checkInterval = Math.max(1, m_threshold / 2);
+        try {
+            while (m_running) {
+                final long postedAt = m_pingPostedAt;
+                if (postedAt < 0) {
+                    m_pingPostedAt = System.nanoTime();
+                    m_display.asyncExec(m_ping);
+                    Thread.sleep(checkInterval);
+                } else {
+                    final long waiting = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postedAt);
+                    if (waiting >= m_threshold) {
+                        sampleStall(postedAt);
+                    } else {
+                        Thread.sleep(m_threshold - waiting);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        } catch (SWTException e) {
+            // display has been disposed
+        }
+    }
+
+    private void sampleStall(final long postedAt) throws InterruptedException {
+        final List<StackTraceElement[]> samples = new ArrayList<>();
+        try {
+            while (m_running && m_pingPostedAt == postedAt) {
+                samples.add(m_uiThread.getStackTrace());
+                Thread.sleep(m_sampleInterval);
+            }
+        } finally {
+            // also record the samples if stopped during a stall
+            final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postedAt);
+            recordStall(samples, duration);
+        }
+    }
+
+    private void recordStall(final List<StackTraceElement[]> samples, final long duration) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        final Map<String, Integer> sampleCounts = new HashMap<>();
+        synchronized (this) {
+            m_stallCount++;
+            m_longestStall = Math.max(m_longestStall, duration);
+            final Set<String> seen = new HashSet<>();
+            for (StackTraceElement[] stack : samples) {
+                final String key = getCodePath(stack);
+                sampleCounts.merge(key, 1, Integer::sum);
+                final CodePath codePath = m_codePaths.computeIfAbsent(key, k -> new CodePath(stack));
+                codePath.m_samples++;
+                if (seen.add(key)) {
+                    codePath.m_stalls++;
+                    codePath.m_longestStall = Math.max(codePath.m_longestStall, duration);
+                }
+            }
+        }
+        final String topCodePath =
+            sampleCounts.entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse("?");
+        LOGGER.warn("UI thread did not respond for " + duration + " ms, mostly in " + topCodePath);
+        if (m_reportFile != null) {
+            try {
+                Files.write(m_reportFile.toPath(), getReport().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOGGER.debug("Could not write UI stall report to " + m_reportFile + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return a report of the code paths that blocked the UI thread longest, with their (sampled) durations and an
+     *         example stack each
+     */
+    public synchronized String getReport() {
+        final StringBuilder report = new StringBuilder();
+        report.append("UI thread stalls: ").append(m_stallCount).append(" (longest ").append(m_longestStall)
+            .append(" ms, threshold ").append(m_threshold).append(" ms, sample interval ").append(m_sampleInterval)
+            .append(" ms)\n");
+        final List<Map.Entry<String, CodePath>> codePaths = new ArrayList<>(m_codePaths.entrySet());
+        codePaths.sort(Comparator.comparing((Map.Entry<String, CodePath> e) -> e.getValue().m_samples).reversed());
+        for (Map.Entry<String, CodePath> e : codePaths.subList(0, Math.min(REPORT_CODE_PATHS, codePaths.size()))) {
+            final CodePath codePath = e.getValue();
+            report.append('\n').append(codePath.m_samples * m_sampleInterval).append(" ms (")
+                .append(codePath.m_samples).append(" samples in ").append(codePath.m_stalls)
+                .append(" stalls, longest ").append(codePath.m_longestStall).append(" ms): ").append(e.getKey())
+                .append('\n');
+            for (StackTraceElement frame : codePath.m_exampleStack) {
+                report.append("    at ").append(frame).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * @return the first frame that isn't part of the JDK or the UI framework, the top-most frame if there is none
+     */
+    static String getCodePath(final StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (!isFrameworkFrame(frame)) {
+                return frame.toString();
+            }
+        }
+        return stack.length > 0 ? stack[0].toString() : "<no stack>";
+    }
+
+    private static boolean isFrameworkFrame(final StackTraceElement frame) {
+        for (String framework : FRAMEWORK_PACKAGES) {
+            if (frame.getClassName().startsWith(framework)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The aggregated samples of one code path. */
+    private static final class CodePath {
+
+        private final StackTraceElement[] m_exampleStack;
+
+        private int m_samples;
+
+        private int m_stalls;
+
+        private long m_longestStall;
+
+        CodePath(final StackTraceElement[] exampleStack) {
+            m_exampleStack = Arrays.copyOf(exampleStack, Math.min(REPORT_FRAMES, exampleStack.length));
+        }
+    }
+}
@@ -49,13 +49,27 @@
 package org.knime.workbench.ui.async;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.MessageBox;
@@ -84,7 +98,15 @@
  * In case of asynchronous methods, the provided helper methods will block till the result is available (i.e. the future
  * is completed). While waiting a 'busy cursor' is shown and later a progress monitor window (see
  * {@link IProgressService#busyCursorWhile(org.eclipse.jface.operation.IRunnableWithProgress)}) displayed. If the
- * async-method call fails (e.g. due to a timeout), the error will be logged and displayed in an error-dialog.
+ * async-method call fails (e.g. due to a timeout), the error will be logged and displayed in an error-dialog. If the
+ * user cancels the progress monitor, the future is canceled and <code>null</code> returned. Note that the server
+ * might still apply a canceled change; callers that record undo information can detect cancellations via
+ * {@link #getCanceledCount()}.
+ *
+ * Code that doesn't need to wait can use the non-blocking methods instead: {@link #wfmAsync(Function, Function,
+ * WorkflowManagerUI)} to get a future in either case, {@link #withTimeout(CompletableFuture, long)} to limit the
+ * time a call may take, {@link #coalesce(Object, Supplier)} to share one request among identical concurrent ones and
+ * {@link #thenOnUIThread(CompletableFuture, Consumer, String)} to continue on the UI thread once the result is there.
  *
  * Synchronous methods (i.e. methods that don't return a {@link Future}) are treated normally, i.e. just called and
  * their result returned.
@@ -98,12 +120,34 @@
  *      hostWFM, "Deleting content ...");
  * </pre>
  *
+ * Non-blocking usage example:
+ *
+ * <pre>
+ *  thenOnUIThread(
+ *      withTimeout(wfmAsync(wfm -> wfm.copy(content), wfm -> wfm.copyAsync(content), hostWFM), 10000),
+ *      copy -> clipboard.setContent(copy), "Copying content ...");
+ * </pre>
+ *
  * @author Martin Horn, KNIME GmbH, Konstanz, Germany
  */
 public class AsyncUtil {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(AsyncUtil.class);
 
+    /** How often a blocking wait checks whether the user canceled it, in ms. */
+    private static final long CANCEL_POLL_INTERVAL = 100;
+
+    /**
+     * The keys passed to {@link #coalesce(Object, Supplier)} whose request is in progress, mapped to the request that
+     * is issued next. Guarded by itself.
+     */
+    private static final Map<Object, CoalescedRequests> IN_FLIGHT = new HashMap<>();
+
+    /** The number of blocking waits canceled by the user. */
+    private static final AtomicLong CANCELED_COUNT = new AtomicLong();
+
+    private static ScheduledExecutorService TIMEOUT_SCHEDULER = null;
+
     private AsyncUtil() {
         //utility class
     }
@@ -170,32 +214,7 @@ public static <T, E extends Exception> T wfmAsyncSwitchRethrow(
         final Function<AsyncWorkflowManagerUI, CompletableFutureEx<? extends T, E>> asyncWfm,
         final WorkflowManagerUI wfm, final String waitingMessage) throws E {
         if (wfm instanceof AsyncWorkflowManagerUI) {
-            final AtomicReference<T> ref = new AtomicReference<T>();
-            final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
-            CompletableFutureEx<? extends T, E> future = asyncWfm.apply((AsyncWorkflowManagerUI)wfm);
-            try {
-                PlatformUI.getWorkbench().getProgressService().busyCursorWhile((monitor) -> {
-                    monitor.beginTask(waitingMessage, 100);
-                    try {
-                        ref.set(future.getOrThrow());
-                    } catch (ExecutionException e) {
-                        exception.set(e.getCause());
-                    } catch (Exception ex) {
-                        exception.set(ex);
-                    }
-                });
-            } catch (InterruptedException | InvocationTargetException ex) {
-                exception.set(ex);
-            }
-            if (exception.get() != null) {
-                Throwable t = exception.get();
-                if (future.getExceptionClass().isAssignableFrom(t.getClass())) {
-                    throw (E)t;
-                } else {
-                    openDialogAndLog(t, waitingMessage);
-                }
-            }
-            return ref.get();
+            return waitForTerminationOrRethrow(asyncWfm.apply((AsyncWorkflowManagerUI)wfm), waitingMessage);
         } else {
             return syncWfm.apply(wfm);
         }
@@ -217,32 +236,7 @@ public static <T, E extends Exception> T ncAsyncSwitchRethrow(final RethrowFunct
         final Function<AsyncNodeContainerUI, CompletableFutureEx<T, E>> asyncNc, final NodeContainerUI nc,
         final String waitingMessage) throws E {
         if (nc instanceof AsyncNodeContainerUI) {
-            final AtomicReference<T> ref = new AtomicReference<T>();
-            final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
-            CompletableFutureEx<T, E> future = asyncNc.apply((AsyncNodeContainerUI)nc);
-            try {
-                PlatformUI.getWorkbench().getProgressService().busyCursorWhile((monitor) -> {
-                    monitor.beginTask(waitingMessage, 100);
-                    try {
-                        ref.set(future.getOrThrow());
-                    } catch (ExecutionException ex) {
-                        exception.set(ex.getCause());
-                    } catch (Exception ex) {
-                        exception.set(ex);
-                    }
-                });
-            } catch (InterruptedException | InvocationTargetException ex) {
-                exception.set(ex);
-            }
-            if (exception.get() != null) {
-                Throwable t = exception.get();
-                if (future.getExceptionClass().isAssignableFrom(t.getClass())) {
-                    throw (E)t;
-                } else {
-                    openDialogAndLog(t, waitingMessage);
-                }
-            }
-            return ref.get();
+            return waitForTerminationOrRethrow(asyncNc.apply((AsyncNodeContainerUI)nc), waitingMessage);
         } else {
             return syncNc.apply(nc);
         }
@@ -299,24 +293,14 @@ public static <T> T nopAsyncSwitch(final Function<NodeOutPortUI, T> syncNop,
      */
     public static <T> T waitForTerminationAndOpenDialogWhenFailed(final CompletableFuture<T> future,
         final String waitingMessage) {
-        final AtomicReference<T> ref = new AtomicReference<T>();
-        final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
         try {
-            PlatformUI.getWorkbench().getProgressService().busyCursorWhile((monitor) -> {
-                monitor.beginTask(waitingMessage, 100);
-                try {
-                    ref.set(future.get());
-                } catch (ExecutionException e) {
-                    exception.set(e.getCause());
-                }
-            });
-        } catch (InterruptedException | InvocationTargetException ex) {
-            exception.set(ex);
-        }
-        if (exception.get() != null) {
-            openDialogAndLog(exception.get(), waitingMessage);
+            return busyWait(future, future::get, waitingMessage);
+        } catch (CancellationException e) {
+            logCanceled(waitingMessage);
+        } catch (Throwable t) {
+            openDialogAndLog(t, waitingMessage);
         }
-        return ref.get();
+        return null;
     }
 
     /**
@@ -330,24 +314,359 @@ public static <T> T waitForTerminationAndOpenDialogWhenFailed(final CompletableF
      */
     public static <T, E extends Exception> T waitForTerminationOrThrowException(final CompletableFuture<T> future,
         final String waitingMessage) throws CompletionException {
-        final AtomicReference<T> ref = new AtomicReference<T>();
-        final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
         try {
-            PlatformUI.getWorkbench().getProgressService().busyCursorWhile((monitor) -> {
-                monitor.beginTask(waitingMessage, 100);
+            return busyWait(future, future::get, waitingMessage);
+        } catch (Throwable t) {
+            throw new CompletionException(t);
+        }
+    }
+
+    private static <T, E extends Exception> T waitForTerminationOrRethrow(
+        final CompletableFutureEx<? extends T, E> future, final String waitingMessage) throws E {
+        try {
+            return busyWait(future.getUnderlyingFuture(), future::getOrThrow, waitingMessage);
+        } catch (CancellationException e) {
+            logCanceled(waitingMessage);
+        } catch (Throwable t) {
+            if (future.getExceptionClass().isAssignableFrom(t.getClass())) {
+                throw (E)t;
+            } else {
+                openDialogAndLog(t, waitingMessage);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the future to complete while showing a busy cursor and later a 'waiting'-dialog, whose cancel button
+     * cancels the future. Returns right away if the future is already done.
+     *
+     * @param future the future to wait for
+     * @param result provides the result once the future is done
+     * @param waitingMessage the message to be displayed in the waiting dialog
+     * @return the result
+     * @throws CancellationException if the future has been canceled (by the user or anyone else)
+     * @throws Throwable the cause of the failure if the future failed, or the problem that occurred while waiting
+     */
+    private static <T> T busyWait(final Future<?> future, final Callable<T> result, final String waitingMessage)
+        throws Throwable {
+        if (!future.isDone()) {
+            try {
+                PlatformUI.getWorkbench().getProgressService()
+                    .busyCursorWhile(monitor -> awaitOrCancel(future, monitor, waitingMessage));
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause() != null ? ex.getCause() : ex;
+            }
+        }
+        try {
+            return result.call();
+        } catch (ExecutionException | CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private static void awaitOrCancel(final Future<?> future, final IProgressMonitor monitor,
+        final String waitingMessage) throws InterruptedException {
+        monitor.beginTask(waitingMessage, IProgressMonitor.UNKNOWN);
+        try {
+            while (!future.isDone()) {
+                if (monitor.isCanceled()) {
+                    future.cancel(true);
+                    CANCELED_COUNT.incrementAndGet();
+                    return;
+                }
                 try {
-                    ref.set(future.get());
-                } catch (Throwable e) {
-                    exception.set(e.getCause());
+                    future.get(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException | CancellationException e) {
+                    // checked again by the loop, the outcome is retrieved by the caller
+                }
+            }
+        } finally {
+            monitor.done();
+        }
+    }
+
+    /**
+     * Returns how many blocking waits (e.g. of {@link #wfmAsyncSwitch(Function, Function, WorkflowManagerUI, String)})
+     * the user canceled so far. A canceled wait returns <code>null</code> (or throws) although the server might still
+     * apply the change; code that records undo information can compare the count before and after a call to find out
+     * whether its record is reliable.
+     *
+     * @return the number of canceled waits
+     * @since 3.8
+     */
+    public static long getCanceledCount() {
+        return CANCELED_COUNT.get();
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #wfmAsyncSwitch(Function, Function, WorkflowManagerUI, String)}: calls the
+     * asynchronous method if the workflow manager is an {@link AsyncWorkflowManagerUI}, otherwise the synchronous one
+     * whose result (or exception) is wrapped into a completed future.
+     *
+     * @param syncWfm the callback called if the provided workflow manager is a synchronous implementation
+     * @param asyncWfm the callback called if the provided workflow manager is an asynchronous implementation
+     * @param wfm the actual implementation that is checked and the calls are delegated to
+     * @return the future result of the method call
+     * @since 3.8
+     */
+    public static <T> CompletableFuture<T> wfmAsync(final Function<WorkflowManagerUI, T> syncWfm,
+        final Function<AsyncWorkflowManagerUI, CompletableFuture<? extends T>> asyncWfm, final WorkflowManagerUI wfm) {
+        if (wfm instanceof AsyncWorkflowManagerUI) {
+            final CompletableFuture<? extends T> source = asyncWfm.apply((AsyncWorkflowManagerUI)wfm);
+            final CompletableFuture<T> future = source.thenApply(Function.identity());
+            future.whenComplete((r, e) -> {
+                if (future.isCancelled()) {
+                    source.cancel(true);
                 }
             });
-        } catch (InterruptedException | InvocationTargetException ex) {
-            exception.set(ex);
+            return future;
+        }
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(syncWfm.apply(wfm));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
         }
-        if (exception.get() != null) {
-            throw new CompletionException(exception.get());
+        return future;
+    }
+
+    /**
+     * Returns a future that fails with a {@link TimeoutException} if the given one hasn't completed within the given
+     * time; the given future is canceled in that case.
+     *
+     * @param future the future to limit
+     * @param timeoutMillis the maximum time to wait in ms; the future is returned as is if not positive
+     * @return the future with the time limit
+     * @since 3.8
+     */
+    public static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final long timeoutMillis) {
+        if (timeoutMillis <= 0 || future.isDone()) {
+            return future;
+        }
+        final CompletableFuture<T> limited = new CompletableFuture<>();
+        final ScheduledFuture<?> timeout = getTimeoutScheduler().schedule(() -> {
+            if (limited.completeExceptionally(new TimeoutException("No response within " + timeoutMillis + " ms"))) {
+                future.cancel(true);
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((r, e) -> {
+            timeout.cancel(false);
+            complete(limited, r, e);
+        });
+        // canceling the limited future cancels the request, too
+        limited.whenComplete((r, e) -> {
+            if (limited.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return limited;
+    }
+
+    /**
+     * Shares requests among concurrent callers that pass an equal key. A request is issued right away if none with the
+     * same key is in progress; otherwise it is issued once the one in progress completed, and all callers that arrived
+     * in the meantime share it. Hence the result always reflects the state at (or after) the time of the call, e.g. a
+     * refresh requested after an edit isn't answered by a refresh that was sent before the edit completed. A request is
+     * canceled once all its callers canceled their futures.
+     *
+     * @param key identifies the request, e.g. a list of the receiver, the method name and the arguments
+     * @param request issues the request
+     * @return a future of the (possibly shared) result, that can be canceled independently of the other callers'
+     * @since 3.8
+     */
+    public static <T> CompletableFuture<T> coalesce(final Object key,
+        final Supplier<? extends CompletableFuture<? extends T>> request) {
+        final SharedRequest<T> toIssue;
+        final CompletableFuture<T> subscription;
+        synchronized (IN_FLIGHT) {
+            final CoalescedRequests inFlight = IN_FLIGHT.get(key);
+            if (inFlight == null) {
+                IN_FLIGHT.put(key, new CoalescedRequests());
+                toIssue = new SharedRequest<>(request);
+                subscription = toIssue.subscribe();
+            } else {
+                if ((inFlight.m_next == null) || inFlight.m_next.m_result.isDone()) {
+                    // none waiting yet, or all that waited canceled
+                    inFlight.m_next = new SharedRequest<>(request);
+                }
+                @SuppressWarnings("unchecked")
+                final SharedRequest<T> next = (SharedRequest<T>)inFlight.m_next;
+                toIssue = null;
+                subscription = next.subscribe();
+            }
+        }
+        if (toIssue != null) {
+            issue(key, toIssue);
+        }
+        return subscription;
+    }
+
+    private static <T> void issue(final Object key, final SharedRequest<T> shared) {
+        shared.m_result.whenComplete((r, e) -> issueNext(key));
+        if (shared.m_result.isDone()) {
+            // all callers canceled while waiting for their turn
+            return;
+        }
+        try {
+            final CompletableFuture<? extends T> future = shared.m_request.get();
+            shared.m_future = future;
+            future.whenComplete((r, e) -> complete(shared.m_result, r, e));
+            if (shared.m_result.isCancelled()) {
+                future.cancel(true);
+            }
+        } catch (RuntimeException e) {
+            shared.m_result.completeExceptionally(e);
+        }
+    }
+
+    private static void issueNext(final Object key) {
+        final SharedRequest<?> next;
+        synchronized (IN_FLIGHT) {
+            final CoalescedRequests inFlight = IN_FLIGHT.get(key);
+            next = (inFlight == null) ? null : inFlight.m_next;
+            if (next == null) {
+                IN_FLIGHT.remove(key);
+                return;
+            }
+            inFlight.m_next = null;
+        }
+        issue(key, next);
+    }
+
+    /**
+     * Refreshes the workflow in the background, sharing the refresh with all others requested at the same time (see
+     * {@link #coalesce(Object, Supplier)}, the refresh reflects all changes completed before this call). Failures are
+     * only logged.
+     *
+     * @param wfm the workflow to refresh
+     * @return the future of the refresh
+     * @since 3.8
+     */
+    public static CompletableFuture<Void> refreshInBackground(final AsyncWorkflowManagerUI wfm) {
+        final CompletableFuture<Void> refresh =
+            coalesce(Arrays.asList(wfm, "refreshAsync"), () -> wfm.refreshAsync(false));
+        refresh.whenComplete((r, e) -> {
+            if (e != null && !refresh.isCancelled()) {
+                LOGGER.warn("Refreshing workflow failed: " + e.getMessage(), e);
+            }
+        });
+        return refresh;
+    }
+
+    /**
+     * Runs the given action on the UI thread with the result of the future once it completed successfully, without
+     * blocking the calling thread. If the future fails an error dialog is opened (see
+     * {@link #waitForTerminationAndOpenDialogWhenFailed(CompletableFuture, String)}); if it is canceled nothing
+     * happens.
+     *
+     * @param future the future to continue
+     * @param action the action to run on the UI thread
+     * @param operation a description of the operation (e.g. 'Copying content ...'), used in the error dialog
+     * @return a future that completes once the action has been run
+     * @since 3.8
+     */
+    public static <T> CompletableFuture<Void> thenOnUIThread(final CompletableFuture<T> future,
+        final Consumer<? super T> action, final String operation) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        future.whenComplete((r, e) -> {
+            if (future.isCancelled()) {
+                logCanceled(operation);
+                done.cancel(false);
+            } else if (e != null) {
+                final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                openDialogAndLog(cause, operation);
+                done.completeExceptionally(cause);
+            } else {
+                final Display display = Display.getDefault();
+                if (display.isDisposed()) {
+                    done.cancel(false);
+                    return;
+                }
+                display.asyncExec(() -> {
+                    try {
+                        action.accept(r);
+                        done.complete(null);
+                    } catch (RuntimeException ex) {
+                        LOGGER.error("A problem occurred while '" + operation + "': " + ex.getMessage(), ex);
+                        done.completeExceptionally(ex);
+                    }
+                });
+            }
+        });
+        return done;
+    }
+
+    private static <T> void complete(final CompletableFuture<T> future, final T result, final Throwable exception) {
+        if (exception != null) {
+            future.completeExceptionally(
+                exception instanceof CompletionException && exception.getCause() != null ? exception.getCause()
+                    : exception);
+        } else {
+            future.complete(result);
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getTimeoutScheduler() {
+        if (TIMEOUT_SCHEDULER == null) {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread t = new Thread(r, "KNIME-Async-Timeout");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            TIMEOUT_SCHEDULER = scheduler;
+        }
+        return TIMEOUT_SCHEDULER;
+    }
+
+    private static void logCanceled(final String waitingMessage) {
+        LOGGER.debug("'" + waitingMessage + "' has been canceled");
+    }
+
+    /** The request that is issued once the one in progress for a key completed, see {@link #IN_FLIGHT}. */
+    private static final class CoalescedRequests {
+        private SharedRequest<?> m_next;
+    }
+
+    /**
+     * A request shared by {@link AsyncUtil#coalesce(Object, Supplier)}, canceled once all subscribers canceled.
+     */
+    private static final class SharedRequest<T> {
+
+        private final Supplier<? extends CompletableFuture<? extends T>> m_request;
+
+        private final CompletableFuture<T> m_result = new CompletableFuture<>();
+
+        private final AtomicInteger m_subscribers = new AtomicInteger();
+
+        /** The issued request, <code>null</code> while waiting for the previous one. */
+        private volatile Future<?> m_future;
+
+        SharedRequest(final Supplier<? extends CompletableFuture<? extends T>> request) {
+            m_request = request;
+        }
+
+        CompletableFuture<T> subscribe() {
+            m_subscribers.incrementAndGet();
+            final CompletableFuture<T> subscription = new CompletableFuture<>();
+            m_result.whenComplete((r, e) -> complete(subscription, r, e));
+            subscription.whenComplete((r, e) -> {
+                if (subscription.isCancelled()) {
+                    // guarded like coalesce(...), which must not hand out a request that is about to be canceled
+                    synchronized (IN_FLIGHT) {
+                        if (m_subscribers.decrementAndGet() == 0) {
+                            final Future<?> future = m_future;
+                            if (future != null) {
+                                future.cancel(true);
+                            }
+                            m_result.cancel(false);
+                        }
+                    }
+                }
+            });
+            return subscription;
         }
-        return ref.get();
     }
 
     /**
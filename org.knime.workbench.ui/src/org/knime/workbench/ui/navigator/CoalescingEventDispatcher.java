@@ -0,0 +1,261 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.ui.navigator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Relays events to listeners without blocking the thread that raised them (usually a node execution thread).
+ * Each listener has its own queue which is drained in order on a small shared thread pool, a slow or failing listener
+ * therefore only delays its own events. Events with the same coalescing key that are still pending for a listener are
+ * replaced by the newer event (keeping the position of the older one), so a burst of e.g. state changes of one node
+ * results in a single notification.
+ *
+ * @param <L> the listener type
+ * @param <E> the event type
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class CoalescingEventDispatcher<L, E> {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(CoalescingEventDispatcher.class);
+
+    /** Deliveries taking longer are logged (once per listener). */
+    private static final long SLOW_LISTENER_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "KNIME-Workflow-Event-Dispatcher-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 10, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR = executor;
+    }
+
+    private final String m_name;
+
+    private final BiConsumer<L, E> m_delivery;
+
+    private final Function<E, Object> m_coalescingKey;
+
+    private final Map<L, ListenerQueue> m_queues = new ConcurrentHashMap<>();
+
+    /**
+     * @param name a name used in log messages
+     * @param delivery calls the listener with an event
+     * @param coalescingKey returns the key of events which replace each other, events for which it returns
+     *            <code>null</code> (or if the function is <code>null</code>) are never coalesced
+     */
+    CoalescingEventDispatcher(final String name, final BiConsumer<L, E> delivery,
+        final Function<E, Object> coalescingKey) {
+        m_name = name;
+        m_delivery = delivery;
+        m_coalescingKey = coalescingKey;
+    }
+
+    /**
+     * @param listener the listener to add, has no effect if it is already registered
+     */
+    void addListener(final L listener) {
+        m_queues.computeIfAbsent(listener, ListenerQueue::new);
+    }
+
+    /**
+     * @param listener the listener to remove; events still pending for it are dropped
+     */
+    void removeListener(final L listener) {
+        ListenerQueue queue = m_queues.remove(listener);
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Queues the event for all registered listeners and returns immediately.
+     *
+     * @param event the event
+     */
+    void fire(final E event) {
+        if (m_queues.isEmpty()) {
+            return;
+        }
+        Object key = (m_coalescingKey != null) ? m_coalescingKey.apply(event) : null;
+        for (ListenerQueue queue : m_queues.values()) {
+            // events that are not coalesced get a unique key
+            queue.offer((key != null) ? key : new Object(), event);
+        }
+    }
+
+    /**
+     * @return the number of events queued for (but not yet delivered to) any listener
+     */
+    int getQueueDepth() {
+        int depth = 0;
+        for (ListenerQueue queue : m_queues.values()) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * @param listener a registered listener
+     * @return the average time (in nanoseconds) the listener took to process an event, -1 if unknown
+     */
+    long getAverageLatencyNanos(final Object listener) {
+        ListenerQueue queue = m_queues.get(listener);
+        return (queue != null) ? queue.getAverageLatencyNanos() : -1;
+    }
+
+    private final class ListenerQueue implements Runnable {
+
+        private final L m_listener;
+
+        /** Pending events by coalescing key, in the order they were first queued. Guarded by itself. */
+        private final LinkedHashMap<Object, E> m_pending = new LinkedHashMap<>();
+
+        private final AtomicBoolean m_scheduled = new AtomicBoolean();
+
+        private long m_deliveredCount;
+
+        private long m_totalNanos;
+
+        private boolean m_reportedSlow;
+
+        private boolean m_reportedFailure;
+
+        ListenerQueue(final L listener) {
+            m_listener = listener;
+        }
+
+        void offer(final Object key, final E event) {
+            synchronized (m_pending) {
+                m_pending.put(key, event);
+            }
+            if (m_scheduled.compareAndSet(false, true)) {
+                EXECUTOR.execute(this);
+            }
+        }
+
+        void clear() {
+            synchronized (m_pending) {
+                m_pending.clear();
+            }
+        }
+
+        int size() {
+            synchronized (m_pending) {
+                return m_pending.size();
+            }
+        }
+
+        synchronized long getAverageLatencyNanos() {
+            return (m_deliveredCount > 0) ? (m_totalNanos / m_deliveredCount) : -1;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                E event;
+                synchronized (m_pending) {
+                    Iterator<E> it = m_pending.values().iterator();
+                    if (!it.hasNext()) {
+                        // reset under the lock, an offer afterwards reschedules this queue
+                        m_scheduled.set(false);
+                        break;
+                    }
+                    event = it.next();
+                    it.remove();
+                }
+                deliver(event);
+            }
+        }
+
+        private void deliver(final E event) {
+            long start = System.nanoTime();
+            try {
+                m_delivery.accept(m_listener, event);
+            } catch (Throwable t) {
+                if (!m_reportedFailure) {
+                    m_reportedFailure = true;
+                    LOGGER.error("Listener " + m_listener + " failed to process " + m_name + " event: "
+                        + t.getMessage(), t);
+                } else {
+                    LOGGER.debug("Listener " + m_listener + " failed to process " + m_name + " event: "
+                        + t.getMessage(), t);
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            synchronized (this) {
+                m_deliveredCount++;
+                m_totalNanos += nanos;
+            }
+            if ((nanos > SLOW_LISTENER_NANOS) && !m_reportedSlow) {
+                m_reportedSlow = true;
+                LOGGER.warn("Listener " + m_listener + " took " + TimeUnit.NANOSECONDS.toMillis(nanos)
+                    + " ms to process a " + m_name + " event (" + size() + " events pending)");
+            }
+        }
+    }
+}
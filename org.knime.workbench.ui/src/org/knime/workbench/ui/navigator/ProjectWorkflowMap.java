@@ -46,10 +46,10 @@
 
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -254,16 +254,19 @@ public static void unregisterClientFrom(final URI workflow,
     /*
      * All registered workflow listeners (KnimeResourceNavigator) which reflect
      * changes on opened workflows (display new nodes).
+     * The listeners are informed asynchronously (see CoalescingEventDispatcher) in order not to block the node
+     * execution threads; workflow events are never coalesced.
      */
-    private static final Set<WorkflowListener>WF_LISTENERS
-        = new LinkedHashSet<WorkflowListener>();
+    private static final CoalescingEventDispatcher<WorkflowListener, WorkflowEvent> WF_LISTENERS =
+        new CoalescingEventDispatcher<>("workflow", WorkflowListener::workflowChanged, null);
 
     /*
      * NodeStateChangeListeners (projects) to reflect states of projects
      * (idle, executing, executed). See KnimeResourceLabelProvider.
+     * Only the most recent pending state event of a node is delivered.
      */
-    private static final Set<NodeStateChangeListener>NSC_LISTENERS
-        = new LinkedHashSet<NodeStateChangeListener>();
+    private static final CoalescingEventDispatcher<NodeStateChangeListener, NodeStateEvent> NSC_LISTENERS =
+        new CoalescingEventDispatcher<>("node state", NodeStateChangeListener::stateChanged, e -> e.getSource());
 
     // forwards events to registered listeners
     private static final NodeStateChangeListener NSC_LISTENER
@@ -271,38 +274,33 @@ public static void unregisterClientFrom(final URI workflow,
 
         @Override
         public void stateChanged(final NodeStateEvent state) {
-            for (NodeStateChangeListener listener : NSC_LISTENERS) {
-                listener.stateChanged(state);
-            }
+            NSC_LISTENERS.fire(state);
         }
 
     };
 
-    private static final Set<NodePropertyChangedListener> NODE_PROP_LISTENERS =
-        new LinkedHashSet<NodePropertyChangedListener>();
+    private static final CoalescingEventDispatcher<NodePropertyChangedListener, NodePropertyChangedEvent>
+        NODE_PROP_LISTENERS = new CoalescingEventDispatcher<>("node property",
+            NodePropertyChangedListener::nodePropertyChanged, e -> Arrays.asList(e.getSource(), e.getProperty()));
 
     // forwards events to registered listeners
     private static final NodePropertyChangedListener NODE_PROP_LISTENER =
         new NodePropertyChangedListener() {
         @Override
         public void nodePropertyChanged(final NodePropertyChangedEvent e) {
-            for (NodePropertyChangedListener l : NODE_PROP_LISTENERS) {
-                l.nodePropertyChanged(e);
-            }
+            NODE_PROP_LISTENERS.fire(e);
         }
     };
 
-    private static final Set<NodeMessageListener> MSG_LISTENERS
-        = new LinkedHashSet<NodeMessageListener>();
+    private static final CoalescingEventDispatcher<NodeMessageListener, NodeMessageEvent> MSG_LISTENERS =
+        new CoalescingEventDispatcher<>("node message", NodeMessageListener::messageChanged, e -> e.getSource());
 
     private static final NodeMessageListener MSG_LISTENER
         = new NodeMessageListener() {
 
             @Override
             public void messageChanged(final NodeMessageEvent messageEvent) {
-                for (NodeMessageListener l : MSG_LISTENERS) {
-                    l.messageChanged(messageEvent);
-                }
+                MSG_LISTENERS.fire(messageEvent);
             }
 
     };
@@ -333,9 +331,7 @@ public void workflowChanged(final WorkflowEvent event) {
                 }
             }
             // inform registered listeners
-            for (WorkflowListener listener : WF_LISTENERS) {
-                listener.workflowChanged(event);
-            }
+            WF_LISTENERS.fire(event);
             // unregister referring node
             if (event.getType().equals(WorkflowEvent.Type.NODE_REMOVED)
                     && event.getOldValue() instanceof WorkflowManager) {
@@ -537,12 +533,14 @@ public static URI findProjectFor(final NodeID workflowID) {
 
     /**
      * Adds a workflow listener, which gets informed on every workflow changed
-     * event of meta nodes and projects.
+     * event of meta nodes and projects. Like all listeners registered here it is
+     * notified asynchronously on a dispatcher thread, never on the thread that
+     * raised the event.
      *
      * @param listener to be added
      */
     public static void addWorkflowListener(final WorkflowListener listener) {
-        WF_LISTENERS.add(listener);
+        WF_LISTENERS.addListener(listener);
     }
 
     /**
@@ -550,16 +548,18 @@ public static void addWorkflowListener(final WorkflowListener listener) {
      * @param listener to be removed
      */
     public static void removeWorkflowListener(final WorkflowListener listener) {
-        WF_LISTENERS.remove(listener);
+        WF_LISTENERS.removeListener(listener);
     }
 
     /**
      *
      * @param listener listener to be informed about state changes of projects
+     *  (if a node changes its state several times before the listener is
+     *  notified, only the last state event is delivered)
      */
     public static void addStateListener(
             final NodeStateChangeListener listener) {
-        NSC_LISTENERS.add(listener);
+        NSC_LISTENERS.addListener(listener);
     }
 
     /**
@@ -568,7 +568,7 @@ public static void addStateListener(
      */
     public static void removeStateListener(
             final NodeStateChangeListener listener) {
-        NSC_LISTENERS.remove(listener);
+        NSC_LISTENERS.removeListener(listener);
     }
 
     /**
@@ -576,7 +576,7 @@ public static void removeStateListener(
      * @param l listener to be informed about message changes
      */
     public static void addNodeMessageListener(final NodeMessageListener l) {
-        MSG_LISTENERS.add(l);
+        MSG_LISTENERS.addListener(l);
     }
 
     /**
@@ -584,7 +584,7 @@ public static void addNodeMessageListener(final NodeMessageListener l) {
      * @param l listener to be removed
      */
     public static void removeNodeMessageListener(final NodeMessageListener l) {
-        MSG_LISTENERS.remove(l);
+        MSG_LISTENERS.removeListener(l);
     }
 
     /**
@@ -592,7 +592,7 @@ public static void removeNodeMessageListener(final NodeMessageListener l) {
      */
     public static void addNodePropertyChangedListener(
             final NodePropertyChangedListener l) {
-        NODE_PROP_LISTENERS.add(l);
+        NODE_PROP_LISTENERS.addListener(l);
     }
 
     /**
@@ -600,7 +600,31 @@ public static void addNodePropertyChangedListener(
      */
     public static void removeNodePropertyChangedListener(
             final NodePropertyChangedListener l) {
-        NODE_PROP_LISTENERS.remove(l);
+        NODE_PROP_LISTENERS.removeListener(l);
+    }
+
+    /**
+     * @return the number of events that have been raised by the open workflows but not yet been delivered to (all)
+     *         listeners; events are delivered asynchronously
+     * @since 3.8
+     */
+    public static int getPendingEventCount() {
+        return WF_LISTENERS.getQueueDepth() + NSC_LISTENERS.getQueueDepth() + MSG_LISTENERS.getQueueDepth()
+            + NODE_PROP_LISTENERS.getQueueDepth();
     }
 
+    /**
+     * @param listener a registered (workflow, state, message or property) listener
+     * @return the average time in milliseconds the listener took to process an event, -1 if it is not registered or
+     *         has not received any events yet
+     * @since 3.8
+     */
+    public static double getAverageListenerLatency(final Object listener) {
+        long nanos = -1;
+        for (CoalescingEventDispatcher<?, ?> d : new CoalescingEventDispatcher<?, ?>[]{WF_LISTENERS, NSC_LISTENERS,
+            MSG_LISTENERS, NODE_PROP_LISTENERS}) {
+            nanos = Math.max(nanos, d.getAverageLatencyNanos(listener));
+        }
+        return (nanos < 0) ? -1 : (nanos / 1e6);
+    }
 }
@@ -145,6 +145,37 @@ public interface PreferenceConstants {
     /** Default value for the connection line width. */
     public static final int P_DEFAULT_CONNECTION_LINE_WIDTH = 1;
 
+    /** Pref constant for the zoom level (in percent) below which nodes are painted as plain boxes and connections
+     * as simple polylines.
+     * @since 3.8 */
+    public static final String P_LOD_SIMPLIFIED_FIGURES_ZOOM = "knime.workflow.lod.simplifiedfigures.zoom";
+    /** Pref constant for the zoom level (in percent) below which node names, node labels and connection labels are
+     * not painted.
+     * @since 3.8 */
+    public static final String P_LOD_HIDE_LABELS_ZOOM = "knime.workflow.lod.hidelabels.zoom";
+    /** Default to {@link #P_LOD_SIMPLIFIED_FIGURES_ZOOM} ({@value #P_LOD_SIMPLIFIED_FIGURES_ZOOM_DEFAULT}).
+     * @since 3.8 */
+    public static final int P_LOD_SIMPLIFIED_FIGURES_ZOOM_DEFAULT = 40;
+    /** Default to {@link #P_LOD_HIDE_LABELS_ZOOM} ({@value #P_LOD_HIDE_LABELS_ZOOM_DEFAULT}).
+     * @since 3.8 */
+    public static final int P_LOD_HIDE_LABELS_ZOOM_DEFAULT = 40;
+
+    /** Pref constant for the memory (in MB) the workflow editors may use for off-screen images of static content
+     * (e.g. workflow annotations and the grid), 0 disables these images.
+     * @since 3.8 */
+    public static final String P_CANVAS_IMAGE_CACHE_SIZE = "knime.workflow.imagecache.size";
+    /** Default to {@link #P_CANVAS_IMAGE_CACHE_SIZE} ({@value #P_CANVAS_IMAGE_CACHE_SIZE_DEFAULT}).
+     * @since 3.8 */
+    public static final int P_CANVAS_IMAGE_CACHE_SIZE_DEFAULT = 32;
+
+    /** Pref constant for the memory (in MB) the undo histories of all workflow editors may use for copies of deleted
+     * nodes; older copies are written to disk.
+     * @since 3.8 */
+    public static final String P_UNDO_MEMORY_BUDGET = "knime.workflow.undo.memorybudget";
+    /** Default to {@link #P_UNDO_MEMORY_BUDGET} ({@value #P_UNDO_MEMORY_BUDGET_DEFAULT}).
+     * @since 3.8 */
+    public static final int P_UNDO_MEMORY_BUDGET_DEFAULT = 64;
+
     /** Pref constant whether to enable auto save for workflows. */
     public static final String P_AUTO_SAVE_ENABLE = "knime.autosave.enable";
     /** Pref constant auto save interval (in secs). */
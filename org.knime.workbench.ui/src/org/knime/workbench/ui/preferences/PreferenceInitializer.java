@@ -117,6 +117,13 @@ public void run() {
 
         store.setDefault(PreferenceConstants.P_CURVED_CONNECTIONS, PreferenceConstants.P_DEFAULT_CURVED_CONNECTIONS);
         store.setDefault(PreferenceConstants.P_CONNECTIONS_LINE_WIDTH, PreferenceConstants.P_DEFAULT_CONNECTION_LINE_WIDTH);
+        store.setDefault(PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM,
+            PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM_DEFAULT);
+        store.setDefault(PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM,
+            PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM_DEFAULT);
+        store.setDefault(PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE,
+            PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE_DEFAULT);
+        store.setDefault(PreferenceConstants.P_UNDO_MEMORY_BUDGET, PreferenceConstants.P_UNDO_MEMORY_BUDGET_DEFAULT);
 
         store.setDefault(PreferenceConstants.P_AUTO_SAVE_ENABLE, PreferenceConstants.P_AUTO_SAVE_DEFAULT_ENABLE);
         store.setDefault(PreferenceConstants.P_AUTO_SAVE_INTERVAL,
@@ -127,6 +127,33 @@ protected void valueChanged(final boolean old, final boolean neu) {
         addField(new LabelField(parent,
             "To change the node connection settings of a workflow,\nuse the 'Workflow Editor Settings' "
                 + "toolbar button."));
+
+        addField(new HorizontalLineField(parent));
+        addField(new LabelField(parent, "Rendering of the workflow canvas (0 disables the respective option)."));
+        IntegerFieldEditor simplifiedFiguresEditor = new IntegerFieldEditor(
+            PreferenceConstants.P_LOD_SIMPLIFIED_FIGURES_ZOOM, "Plain node boxes below zoom (in %)", parent);
+        simplifiedFiguresEditor.setValidRange(0, 100);
+        simplifiedFiguresEditor.setTextLimit(3);
+        simplifiedFiguresEditor.load();
+        addField(simplifiedFiguresEditor);
+        IntegerFieldEditor hideLabelsEditor = new IntegerFieldEditor(PreferenceConstants.P_LOD_HIDE_LABELS_ZOOM,
+            "Hide labels below zoom (in %)", parent);
+        hideLabelsEditor.setValidRange(0, 100);
+        hideLabelsEditor.setTextLimit(3);
+        hideLabelsEditor.load();
+        addField(hideLabelsEditor);
+        IntegerFieldEditor imageCacheEditor = new IntegerFieldEditor(PreferenceConstants.P_CANVAS_IMAGE_CACHE_SIZE,
+            "Image cache for annotations and grid (in MB)", parent);
+        imageCacheEditor.setValidRange(0, 1024);
+        imageCacheEditor.setTextLimit(4);
+        imageCacheEditor.load();
+        addField(imageCacheEditor);
+        IntegerFieldEditor undoBudgetEditor = new IntegerFieldEditor(PreferenceConstants.P_UNDO_MEMORY_BUDGET,
+            "Memory for undo history, the rest is kept on disk (in MB)", parent);
+        undoBudgetEditor.setValidRange(0, 4096);
+        undoBudgetEditor.setTextLimit(4);
+        undoBudgetEditor.load();
+        addField(undoBudgetEditor);
     }
 
     /** {@inheritDoc} */
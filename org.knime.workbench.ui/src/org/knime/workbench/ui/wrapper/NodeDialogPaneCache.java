@@ -0,0 +1,197 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ */
+package org.knime.workbench.ui.wrapper;
+
+import static org.knime.core.ui.wrapper.Wrapper.unwrapNC;
+import static org.knime.core.ui.wrapper.Wrapper.wraps;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.NativeNodeContainer;
+import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.ui.node.workflow.NodeContainerUI;
+
+/**
+ * Creates the dialog pane of a local node ahead of time in a background job, see {@link #prepare(NodeContainerUI)}.
+ * The pane itself is kept by the node, so the first opening of the dialog doesn't have to create it (i.e. load the
+ * dialog classes and build the components) anymore. Only the pane is created; the node's current settings, flow
+ * variables and input specs are loaded once, when the dialog is opened. This class never hands out a pane itself.
+ *
+ * <p>
+ * All methods have to be called in the UI thread. The background job doesn't touch any SWT resources.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class NodeDialogPaneCache {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(NodeDialogPaneCache.class);
+
+    /** Maximum number of nodes that are remembered as prepared. */
+    private static final int MAX_ENTRIES = 32;
+
+    private static final NodeDialogPaneCache INSTANCE = new NodeDialogPaneCache();
+
+    /** Recently prepared nodes, their panes are not prepared again. */
+    private final Set<NodeContainerUI> m_prepared =
+        Collections.newSetFromMap(new LinkedHashMap<NodeContainerUI, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<NodeContainerUI, Boolean> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        });
+
+    private Preparation m_preparation;
+
+    private NodeDialogPaneCache() {
+    }
+
+    /**
+     * @return the singleton instance
+     */
+    public static NodeDialogPaneCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates the dialog pane of the given node in the background, typically because the user hovers over the node
+     * and is likely to open its dialog. A preparation that has not started yet is superseded by this one. Nodes that
+     * are not local native nodes, have no or a data-aware dialog or are executing are ignored.
+     *
+     * @param nc the node
+     */
+    public void prepare(final NodeContainerUI nc) {
+        if (m_prepared.contains(nc) || !isPreparable(nc)) {
+            return;
+        }
+        if ((m_preparation != null) && m_preparation.cancel()) {
+            m_prepared.remove(m_preparation.m_nc);
+        }
+        m_prepared.add(nc);
+        m_preparation = new Preparation(nc);
+        m_preparation.schedule();
+    }
+
+    /**
+     * Makes sure that no preparation of the given node's pane is in progress, because its dialog is about to open. A
+     * preparation that has not started yet is canceled, a running one is waited for (the dialog would have to create
+     * the pane otherwise).
+     *
+     * @param nc the node
+     */
+    public void awaitPreparation(final NodeContainerUI nc) {
+        final Preparation preparation = m_preparation;
+        if ((preparation == null) || (preparation.m_nc != nc)) {
+            return;
+        }
+        m_preparation = null;
+        if (preparation.cancel()) {
+            m_prepared.remove(nc);
+            return;
+        }
+        try {
+            preparation.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Forgets the given node, e.g. because it has been removed or its workflow has been closed.
+     *
+     * @param nc the node
+     */
+    public void invalidate(final NodeContainerUI nc) {
+        m_prepared.remove(nc);
+        if ((m_preparation != null) && (m_preparation.m_nc == nc)) {
+            m_preparation.cancel();
+            m_preparation = null;
+        }
+    }
+
+    private static boolean isPreparable(final NodeContainerUI nc) {
+        return wraps(nc, NativeNodeContainer.class) && nc.hasDialog() && !nc.hasDataAwareDialogPane()
+            && !nc.getNodeContainerState().isExecutionInProgress() && !nc.getNodeLocks().hasConfigureLock();
+    }
+
+    private static final class Preparation extends Job {
+        private final NodeContainerUI m_nc;
+
+        Preparation(final NodeContainerUI nc) {
+            super("Preparing dialog of " + nc.getNameWithID());
+            m_nc = nc;
+            setSystem(true);
+            setPriority(DECORATE);
+        }
+
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            // the node may have changed in the meantime
+            if (monitor.isCanceled() || !isPreparable(m_nc)) {
+                return Status.CANCEL_STATUS;
+            }
+            NodeContext.pushContext(m_nc);
+            try {
+                // only creates the pane, the settings are loaded when the dialog opens
+                ((NativeNodeContainer)unwrapNC(m_nc)).getNode().getDialogPane();
+            } catch (RuntimeException e) {
+                // the regular code path will report the problem when the dialog is opened
+                LOGGER.debug("Preparing dialog of " + m_nc.getNameWithID() + " failed: " + e.getMessage(), e);
+            } finally {
+                NodeContext.removeLastContext();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -138,6 +138,8 @@ public class WrappedNodeDialog extends AbstractWrappedDialog {
     public WrappedNodeDialog(final Shell parentShell, final NodeContainerUI nodeContainer) throws NotConfigurableException {
         super(parentShell);
         m_nodeContainer = nodeContainer;
+        // the pane must not be created by a preparation and by the dialog at the same time
+        NodeDialogPaneCache.getInstance().awaitPreparation(nodeContainer);
         m_dialogPane =
             ncAsyncSwitchRethrow(nc -> nc.getDialogPaneWithSettings(), nc -> nc.getDialogPaneWithSettingsAsync(),
                 nodeContainer, "Waiting for the dialog to open");